@@ -397,7 +397,7 @@ public class STS4LanguageClientImpl extends LanguageClientImpl implements STS4La
 
 	@Override
 	public CompletableFuture<Object> addClasspathListener(ClasspathListenerParams params) {
-		return CompletableFuture.completedFuture(classpathService.addClasspathListener(params.getCallbackCommandId(), params.isBatched()));
+		return CompletableFuture.completedFuture(classpathService.addClasspathListener(params.getCallbackCommandId(), params.isBatched(), params.isDelta()));
 	}
 
 	@Override
@@ -454,6 +454,13 @@ public class STS4LanguageClientImpl extends LanguageClientImpl implements STS4La
 		return CompletableFuture.supplyAsync(() -> javaData.typeData(params.getProjectUri(), params.getBindingKey(), JavaDataParams.isLookInOtherProjects(params)));
 	}
 
+	@Override
+	public CompletableFuture<List<TypeData>> javaTypes(List<JavaDataParams> params) {
+		return CompletableFuture.supplyAsync(() -> params.stream()
+				.map(p -> javaData.typeData(p.getProjectUri(), p.getBindingKey(), JavaDataParams.isLookInOtherProjects(p)))
+				.collect(Collectors.toList()));
+	}
+
 	@Override
 	public CompletableFuture<String> javadocHoverLink(JavaDataParams params) {
 		return CompletableFuture.supplyAsync(() -> {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016 Pivotal, Inc.
+ * Copyright (c) 2016, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -101,9 +101,9 @@ public class BoshDeploymentManifestSchema extends SchemaSupport implements YamlS
 		super(f);
 		this.asts = models.asts;
 		this.astTypes = models.astTypes;
-		this.cloudConfigProvider = new CachingModelProvider<>(models.cloudConfigProvider, CloudConfigModel.class);
-		this.stemcellsProvider = new CachingModelProvider<>(models.stemcellsProvider, StemcellsModel.class);
-		this.releasesProvider = new CachingModelProvider<>(models.releasesProvider, ReleasesModel.class);
+		this.cloudConfigProvider = new CachingModelProvider<>(models.cloudConfigProvider, CloudConfigModel.class, models.snapshots);
+		this.stemcellsProvider = new CachingModelProvider<>(models.stemcellsProvider, StemcellsModel.class, models.snapshots);
+		this.releasesProvider = new CachingModelProvider<>(models.releasesProvider, ReleasesModel.class, models.snapshots);
 		TYPE_UTIL = f.TYPE_UTIL;
 
 		t_string = f.yatomic("String");
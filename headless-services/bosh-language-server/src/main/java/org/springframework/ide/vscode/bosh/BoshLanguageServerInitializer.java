@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2017 Pivotal, Inc.
+ * Copyright (c) 2016, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,6 +16,7 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.ide.vscode.bosh.models.BoshModels;
 import org.springframework.ide.vscode.bosh.models.CloudConfigModel;
 import org.springframework.ide.vscode.bosh.models.DynamicModelProvider;
+import org.springframework.ide.vscode.bosh.models.ModelSnapshotStore;
 import org.springframework.ide.vscode.bosh.models.ReleasesModel;
 import org.springframework.ide.vscode.bosh.models.StemcellsModel;
 import org.springframework.ide.vscode.commons.languageserver.completion.VscodeCompletionEngineAdapter;
@@ -52,6 +53,7 @@ public class BoshLanguageServerInitializer implements InitializingBean {
 	@Autowired private SimpleLanguageServer server;
 	@Autowired private ApplicationContext appContext;
 	@Autowired private ASTTypeCache astTypeCache;
+	@Autowired(required = false) private ModelSnapshotStore modelSnapshots;
 
 	private BoshSchemas schema;
 	private VscodeCompletionEngineAdapter completionEngine;
@@ -69,7 +71,7 @@ public class BoshLanguageServerInitializer implements InitializingBean {
 
 	@Override
 	public void afterPropertiesSet() throws Exception {
-		BoshModels models = new BoshModels(cloudConfigProvider, stemcellsProvider, releasesProvider, astTypeCache);
+		BoshModels models = new BoshModels(cloudConfigProvider, stemcellsProvider, releasesProvider, astTypeCache, modelSnapshots);
 		SimpleTextDocumentService documents = server.getTextDocumentService();
 		schema = new BoshSchemas(models);
 		YamlAstCache asts = models.asts;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2018 Pivotal, Inc.
+ * Copyright (c) 2017, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -21,15 +21,16 @@ import org.springframework.ide.vscode.bosh.BoshCliConfig;
 import org.springframework.ide.vscode.commons.util.Assert;
 import org.springframework.ide.vscode.commons.util.CollectorUtil;
 import org.springframework.ide.vscode.commons.util.ExternalCommand;
-import org.springframework.ide.vscode.commons.util.ExternalProcess;
 import org.springframework.ide.vscode.commons.util.GsonUtil;
 import org.springframework.ide.vscode.commons.util.Log;
+import org.springframework.ide.vscode.commons.util.StreamingProcess;
 import org.springframework.ide.vscode.commons.util.StringUtil;
 import org.springframework.ide.vscode.commons.util.text.LanguageId;
 import org.springframework.ide.vscode.commons.util.text.TextDocument;
 import org.springframework.ide.vscode.commons.yaml.ast.YamlFileAST;
 import org.springframework.ide.vscode.commons.yaml.ast.YamlParser;
 import org.springframework.ide.vscode.commons.yaml.path.YamlTraversal;
+import org.springframework.ide.vscode.commons.yaml.schema.DynamicSchemaContext;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.representer.Representer;
 
@@ -106,6 +107,21 @@ public abstract class BoshCommandBasedModelProvider<T> implements DynamicModelPr
 		return new ExternalCommand(commandAndArgs.toArray(new String[commandAndArgs.size()]));
 	}
 
+	/**
+	 * Models are identified by the command and the director it targets
+	 */
+	@Override
+	public String getModelKey(DynamicSchemaContext dc) {
+		ExternalCommand command = getCommand();
+		if (command==null) {
+			return null;
+		}
+		if (config.getTarget()==null) {
+			return command + " [BOSH_ENVIRONMENT=" + System.getenv("BOSH_ENVIRONMENT") + "]";
+		}
+		return command.toString();
+	}
+
 	protected JsonElement getJsonTree() throws Exception {
 		String out = executeCommand(getCommand());
 		JsonElement element = gson.fromJson(out, JsonElement.class);
@@ -120,8 +136,8 @@ public abstract class BoshCommandBasedModelProvider<T> implements DynamicModelPr
 					+ "instructions on how to target a director and enable them.");
 		}
 		try {
-			ExternalProcess process = new ExternalProcess(getWorkingDir(), command, true, config.getTimeout());
-			return process.getOut();
+			StreamingProcess process = StreamingProcess.start(getWorkingDir(), command, config.getTimeout());
+			return StreamingProcess.await(process.readOut());
 		} catch (Exception e) {
 			Log.log("executing cmd FAILED", e);
 			throw e;
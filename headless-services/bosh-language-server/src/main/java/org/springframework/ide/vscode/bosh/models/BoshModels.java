@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Pivotal, Inc.
+ * Copyright (c) 2017, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -23,15 +23,30 @@ public class BoshModels {
 	public final DynamicModelProvider<StemcellsModel> stemcellsProvider;
 	public final DynamicModelProvider<ReleasesModel> releasesProvider;
 
+	/**
+	 * Store of the last good models, may be <code>null</code>
+	 */
+	public final ModelSnapshotStore snapshots;
+
 	public BoshModels(DynamicModelProvider<CloudConfigModel> cloudConfigProvider,
 			DynamicModelProvider<StemcellsModel> stemcellsProvider,
 			DynamicModelProvider<ReleasesModel> releasesProvider,
 			ASTTypeCache astTypes
+	) {
+			this(cloudConfigProvider, stemcellsProvider, releasesProvider, astTypes, null);
+	}
+
+	public BoshModels(DynamicModelProvider<CloudConfigModel> cloudConfigProvider,
+			DynamicModelProvider<StemcellsModel> stemcellsProvider,
+			DynamicModelProvider<ReleasesModel> releasesProvider,
+			ASTTypeCache astTypes,
+			ModelSnapshotStore snapshots
 	) {
 			this.cloudConfigProvider = cloudConfigProvider;
 			this.stemcellsProvider = stemcellsProvider;
 			this.releasesProvider = releasesProvider;
 			this.astTypes = astTypes;
+			this.snapshots = snapshots;
 	}
 
 	public String getTypeTag(DynamicSchemaContext dc) {
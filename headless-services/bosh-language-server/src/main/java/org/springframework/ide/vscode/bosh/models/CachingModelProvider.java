@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Pivotal, Inc.
+ * Copyright (c) 2017, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,54 +11,123 @@
 package org.springframework.ide.vscode.bosh.models;
 
 import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.ide.vscode.commons.util.Assert;
 import org.springframework.ide.vscode.commons.yaml.schema.DynamicSchemaContext;
 
+import com.google.common.base.Ticker;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 
 /**
  * Wraps around a {@link DynamicModelProvider} to add a cache.
+ * <p>
+ * Models are refreshed ahead: once a good model is older than the timeout it is still returned while
+ * a new model is obtained in the background, so requests only wait for the delegate if there is no
+ * good model at all. Concurrent requests share a single call to the delegate. Errors are cached for
+ * the timeout as well and then obtained again while requests wait.
+ * <p>
+ * With a {@link ModelSnapshotStore} good models are stored on disk and the first request for a key
+ * gets the stored model right away while the current model is obtained in the background.
  */
 public class CachingModelProvider<T> implements DynamicModelProvider<T> {
 
+	private static final Logger log = LoggerFactory.getLogger(CachingModelProvider.class);
+
 	/**
-	 * Special key to use when the actual key is null (because guava cache doesn't
-	 * like null keys).
+	 * Special key to use when the actual key is null (because hash map keys of 'no key' should be
+	 * easy to tell apart from real keys).
 	 */
 	private static final Object NULL_KEY = new Object();
 
+	private static final ExecutorService DEFAULT_EXECUTOR = Executors.newCachedThreadPool(r -> {
+		Thread t = new Thread(r, "Bosh model loader");
+		t.setDaemon(true);
+		return t;
+	});
+
 	private long timeout = 30;
 	private TimeUnit timeoutUnit = TimeUnit.SECONDS;
-	private Cache<Object, CompletableFuture<T>> cache = createCache();
+	private Ticker ticker = Ticker.systemTicker();
+
+	private final Map<Object, Entry> entries = new HashMap<>();
 
 	private final DynamicModelProvider<T> delegate;
 	private Class<T> modelInterface;
+	private final ModelSnapshotStore snapshots;
+	private final Executor executor;
+
+	/**
+	 * Model of a key: the current model (or error) and the refresh of the model, if one is running.
+	 * The write time is recorded before the model future completes, so a completed model is never
+	 * seen with a stale write time.
+	 */
+	private class Entry {
+		final CompletableFuture<T> model = new CompletableFuture<>();
+		volatile long writeTime;
+		Entry refresh;
+
+		void complete(T m) {
+			writeTime = ticker.read();
+			model.complete(m);
+		}
+
+		void fail(Throwable e) {
+			writeTime = ticker.read();
+			model.completeExceptionally(e);
+		}
+
+		boolean isExpired() {
+			return model.isDone() && ticker.read() - writeTime > timeoutUnit.toNanos(timeout);
+		}
+
+		boolean isGood() {
+			return model.isDone() && !model.isCompletedExceptionally();
+		}
+	}
 
 	public CachingModelProvider(DynamicModelProvider<T> delegate, Class<T> modelInterface) {
+		this(delegate, modelInterface, null);
+	}
+
+	/**
+	 * @param snapshots store of the last good models or <code>null</code>
+	 */
+	public CachingModelProvider(DynamicModelProvider<T> delegate, Class<T> modelInterface, ModelSnapshotStore snapshots) {
+		this(delegate, modelInterface, snapshots, DEFAULT_EXECUTOR);
+	}
+
+	/**
+	 * @param snapshots store of the last good models or <code>null</code>
+	 * @param executor executor obtaining models from the delegate
+	 */
+	public CachingModelProvider(DynamicModelProvider<T> delegate, Class<T> modelInterface, ModelSnapshotStore snapshots, Executor executor) {
 		Assert.isNotNull(delegate);
 		this.delegate = delegate;
 		this.modelInterface = modelInterface;
+		this.snapshots = snapshots;
+		this.executor = executor;
+		this.keyGetter = delegate::getModelKey;
 	}
 
 	/**
 	 * Function used to determine the caching key, given the current {@link DynamicSchemaContext}.
 	 * <p>
-	 * The default keyGetter ignores the context and just returns the same object all the time. This
-	 * results in a cache that only keeps a single value (since there's only a single key ever used
-	 * to store / find cache entries.
+	 * The default keyGetter asks the delegate for the key of the model. For providers that always
+	 * provide the same model this is a single key, resulting in a cache that only keeps a single value.
 	 */
-	private Function<DynamicSchemaContext, Object> keyGetter = (dc) -> "WHATEVER";
-
-	protected Cache<Object, CompletableFuture<T>> createCache() {
-		return CacheBuilder.newBuilder()
-				.expireAfterWrite(timeout, timeoutUnit)
-				.build();
-	}
+	private final Function<DynamicSchemaContext, String> keyGetter;
 
 	public CachingModelProvider<T> setTimeout(long timeout, TimeUnit unit) {
 		this.timeout = timeout;
@@ -66,26 +135,91 @@ public class CachingModelProvider<T> implements DynamicModelProvider<T> {
 		return this;
 	}
 
+	CachingModelProvider<T> setTicker(Ticker ticker) {
+		this.ticker = ticker;
+		return this;
+	}
+
+	@Override
+	public String getModelKey(DynamicSchemaContext dc) {
+		return keyGetter.apply(dc);
+	}
+
 	@Override
 	public T getModel(DynamicSchemaContext dc) throws Exception {
-		Object key = keyGetter.apply(dc);
-		if (key==null) {
-			//guava cache doesn't like null key
-			key = NULL_KEY;
-		}
+		String modelKey = keyGetter.apply(dc);
+		Object key = modelKey == null ? NULL_KEY : modelKey;
 		CompletableFuture<T> cached;
 		synchronized (this) {
-			cached = cache.get(key, () -> {
-				try {
-					return CompletableFuture.completedFuture(wrapWithCachingProxy(delegate.getModel(dc)));
-				} catch (Throwable e) {
-					return failed(e);
+			Entry entry = entries.get(key);
+			if (entry == null) {
+				T lastKnown = snapshots == null || modelKey == null ? null : snapshots.load(modelInterface, modelKey);
+				if (lastKnown != null) {
+					entry = new Entry();
+					entry.complete(wrapWithCachingProxy(lastKnown));
+					// Last known model is served until the current model is there
+					entry.writeTime = ticker.read() - timeoutUnit.toNanos(timeout) - 1;
+				} else {
+					entry = load(dc, modelKey);
 				}
-			});
+				entries.put(key, entry);
+			}
+			if (entry.isExpired()) {
+				if (entry.isGood()) {
+					if (entry.refresh == null) {
+						refresh(key, modelKey, entry, dc);
+					}
+				} else {
+					entry = load(dc, modelKey);
+					entries.put(key, entry);
+				}
+			}
+			cached = entry.model;
 		}
 		return cached.get();
 	}
 
+	private void refresh(Object key, String modelKey, Entry entry, DynamicSchemaContext dc) {
+		Entry refresh = load(dc, modelKey);
+		entry.refresh = refresh;
+		refresh.model.whenComplete((model, error) -> {
+			synchronized (this) {
+				if (error == null) {
+					if (entries.get(key) == entry) {
+						entries.put(key, refresh);
+					}
+				} else {
+					// Keep the good model for another timeout before trying again
+					log.debug("Failed to refresh " + modelInterface.getSimpleName(), error);
+					entry.writeTime = ticker.read();
+					entry.refresh = null;
+				}
+			}
+		});
+	}
+
+	private Entry load(DynamicSchemaContext dc, String modelKey) {
+		Entry loading = new Entry();
+		Runnable loader = () -> {
+			try {
+				T model = delegate.getModel(dc);
+				T cachingModel = wrapWithCachingProxy(model);
+				if (snapshots != null && modelKey != null && model != null) {
+					snapshots.save(modelInterface, modelKey, cachingModel);
+				}
+				loading.complete(cachingModel);
+			} catch (Throwable e) {
+				loading.fail(e);
+			}
+		};
+		try {
+			executor.execute(loader);
+		} catch (RejectedExecutionException e) {
+			loader.run();
+		}
+		return loading;
+	}
+
 	private static <T> CompletableFuture<T> failed(Throwable e) {
 		CompletableFuture<T> failed = new CompletableFuture<>();
 		failed.completeExceptionally(e);
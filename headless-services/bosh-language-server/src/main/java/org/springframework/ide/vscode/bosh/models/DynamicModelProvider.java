@@ -8,4 +8,15 @@ import org.springframework.ide.vscode.commons.yaml.schema.DynamicSchemaContext;
  */
 public interface DynamicModelProvider<T> {
 	T getModel(DynamicSchemaContext dc) throws Exception;
+
+	/**
+	 * Identifies the model the provider currently provides, for example by the command and target
+	 * it is obtained from. Cached models are kept per key, also across sessions, so a key is
+	 * expected to stay the same as long as the source of the model does.
+	 *
+	 * @return the key or <code>null</code> if the provider always provides the same model
+	 */
+	default String getModelKey(DynamicSchemaContext dc) {
+		return null;
+	}
 }
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.bosh.models;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.ide.vscode.commons.util.SnapshotStore;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+
+/**
+ * Disk based store of the last good models obtained from the bosh CLI, such that they can be used
+ * right away after a restart while the CLI is asked for the current models in the background.
+ * <p>
+ * Models are stored per model interface and model key (see {@link DynamicModelProvider#getModelKey})
+ * as the values of their attributes, i.e. of the methods without parameters. Restored models answer
+ * the stored attributes and fail for any other method.
+ *
+ * @author Alex Boyko
+ *
+ */
+public class ModelSnapshotStore {
+
+	private static final Gson gson = new Gson();
+
+	/**
+	 * Stored form of a model
+	 */
+	private static class Snapshot {
+		long timestamp;
+		Map<String, JsonElement> attributes;
+	}
+
+	private final SnapshotStore store;
+
+	public ModelSnapshotStore() {
+		this(SnapshotStore.userDirectory(".boshModelCache"));
+	}
+
+	public ModelSnapshotStore(File storeDirectory) {
+		this.store = new SnapshotStore(storeDirectory, "bosh model snapshot");
+	}
+
+	/**
+	 * @return the last good model stored for the key or <code>null</code> if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T load(Class<T> modelInterface, String key) {
+		Snapshot snapshot = store.read(storeFileName(modelInterface, key), Snapshot.class);
+		if (snapshot == null || snapshot.attributes == null) {
+			return null;
+		}
+		Map<String, JsonElement> attributes = snapshot.attributes;
+		Map<String, Object> values = new ConcurrentHashMap<>();
+		return (T) Proxy.newProxyInstance(modelInterface.getClassLoader(), new Class[] {modelInterface}, (o, m, a) -> {
+			if (m.getDeclaringClass() == Object.class) {
+				switch (m.getName()) {
+				case "equals":
+					return o == a[0];
+				case "hashCode":
+					return System.identityHashCode(o);
+				default:
+					return "Last known " + modelInterface.getSimpleName() + " of " + key;
+				}
+			}
+			JsonElement json = m.getParameterTypes().length == 0 ? attributes.get(m.getName()) : null;
+			if (json == null) {
+				throw new IllegalStateException("'" + m.getName() + "' is not known from the last " + modelInterface.getSimpleName());
+			}
+			return values.computeIfAbsent(m.getName(), name -> gson.fromJson(json, m.getGenericReturnType()));
+		});
+	}
+
+	/**
+	 * Stores the model in the background. Attributes of the model are read in the background too.
+	 */
+	public <T> void save(Class<T> modelInterface, String key, T model) {
+		store.execute(() -> {
+			Snapshot snapshot = new Snapshot();
+			snapshot.timestamp = System.currentTimeMillis();
+			snapshot.attributes = new LinkedHashMap<>();
+			for (Method m : modelInterface.getMethods()) {
+				if (m.getParameterTypes().length == 0) {
+					try {
+						snapshot.attributes.put(m.getName(), gson.toJsonTree(m.invoke(model), m.getGenericReturnType()));
+					} catch (Exception e) {
+						// Attribute not available, restored model fails for it as well
+					}
+				}
+			}
+			store.write(storeFileName(modelInterface, key), snapshot, Snapshot.class);
+		});
+	}
+
+	/**
+	 * Waits for pending writes to disk
+	 */
+	public void flush() {
+		store.flush();
+	}
+
+	private static String storeFileName(Class<?> modelInterface, String key) {
+		return modelInterface.getSimpleName() + "-" + SnapshotStore.fileName(key);
+	}
+
+}
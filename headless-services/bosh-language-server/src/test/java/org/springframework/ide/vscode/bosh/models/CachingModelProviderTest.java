@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Pivotal, Inc.
+ * Copyright (c) 2017, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,6 +11,7 @@
 package org.springframework.ide.vscode.bosh.models;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
@@ -18,11 +19,23 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Test;
 import org.springframework.ide.vscode.commons.util.ExceptionUtil;
 
+import com.google.common.base.Ticker;
+
 @SuppressWarnings("unchecked")
 public class CachingModelProviderTest {
 
@@ -63,4 +76,91 @@ public class CachingModelProviderTest {
 		verify(modelProvider, times(1)).getModel(any());
 	}
 
+	@Test public void expiredModelServedWhileRefreshing() throws Exception {
+		Semaphore cli = new Semaphore(1);
+		AtomicInteger calls = new AtomicInteger();
+		DynamicModelProvider<BoxModel> modelProvider = dc -> {
+			int call = calls.incrementAndGet();
+			assertTrue(cli.tryAcquire(10, TimeUnit.SECONDS));
+			return () -> "RESULT-" + call;
+		};
+		FakeTicker ticker = new FakeTicker();
+		CachingModelProvider<BoxModel> cached = new CachingModelProvider<>(modelProvider, BoxModel.class).setTicker(ticker);
+
+		assertEquals("RESULT-1", cached.getModel(null).getContents());
+		ticker.advance(TimeUnit.SECONDS.toNanos(31));
+
+		// The refresh waits for the cli, requests don't wait for the refresh
+		ExecutorService requestors = Executors.newCachedThreadPool();
+		try {
+			List<CompletableFuture<String>> requests = new ArrayList<>();
+			for (int i = 0; i < 10; i++) {
+				requests.add(CompletableFuture.supplyAsync(() -> {
+					try {
+						return cached.getModel(null).getContents();
+					} catch (Exception e) {
+						throw new RuntimeException(e);
+					}
+				}, requestors));
+			}
+			for (CompletableFuture<String> request : requests) {
+				assertEquals("RESULT-1", request.get(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			requestors.shutdownNow();
+		}
+		waitFor(() -> calls.get() == 2);
+
+		cli.release();
+		waitFor(() -> "RESULT-2".equals(cached.getModel(null).getContents()));
+		assertEquals(2, calls.get());
+	}
+
+	@Test public void goodModelKeptIfRefreshFails() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		DynamicModelProvider<BoxModel> modelProvider = dc -> {
+			if (calls.incrementAndGet() == 2) {
+				throw new TimeoutException("timed out");
+			}
+			return () -> "RESULT-" + calls.get();
+		};
+		FakeTicker ticker = new FakeTicker();
+		CachingModelProvider<BoxModel> cached = new CachingModelProvider<>(modelProvider, BoxModel.class).setTicker(ticker);
+
+		assertEquals("RESULT-1", cached.getModel(null).getContents());
+		ticker.advance(TimeUnit.SECONDS.toNanos(31));
+		assertEquals("RESULT-1", cached.getModel(null).getContents());
+		waitFor(() -> calls.get() == 2);
+
+		// Failed refresh is retried once the good model expires again
+		assertEquals("RESULT-1", cached.getModel(null).getContents());
+		waitFor(() -> {
+			ticker.advance(TimeUnit.SECONDS.toNanos(31));
+			return cached.getModel(null).getContents().matches("RESULT-[3-9]");
+		});
+	}
+
+	private static void waitFor(Callable<Boolean> condition) throws Exception {
+		long end = System.currentTimeMillis() + 5000;
+		while (!condition.call()) {
+			assertTrue("Timed out waiting for condition", System.currentTimeMillis() < end);
+			Thread.sleep(10);
+		}
+	}
+
+	private static class FakeTicker extends Ticker {
+
+		private final AtomicLong nanos = new AtomicLong();
+
+		@Override
+		public long read() {
+			return nanos.get();
+		}
+
+		void advance(long duration) {
+			nanos.addAndGet(duration);
+		}
+
+	}
+
 }
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.bosh.models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.concurrent.Callable;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.ide.vscode.bosh.BoshCliConfig;
+import org.springframework.ide.vscode.commons.languageserver.util.Settings;
+import org.springframework.ide.vscode.commons.util.IOUtil;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.Gson;
+
+/**
+ * Tests for serving the last good bosh models from a {@link ModelSnapshotStore} using a stub
+ * `bosh` script
+ *
+ * @author Alex Boyko
+ */
+public class ModelSnapshotStoreTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File stemcellsJson;
+	private File go;
+	private File calls;
+	private BoshCliConfig cliConfig = new BoshCliConfig();
+
+	@Before
+	public void setup() throws Exception {
+		assumeFalse(System.getProperty("os.name").toLowerCase().contains("win"));
+		File dir = folder.newFolder("bosh");
+		stemcellsJson = new File(dir, "stemcells.json");
+		go = new File(dir, "go");
+		calls = new File(dir, "calls");
+		writeStemcells("3421.11");
+
+		// Stub bosh cli: waits for the 'go' file and prints the stemcells
+		File bosh = new File(dir, "bosh");
+		Files.write(bosh.toPath(), (
+				"#!/bin/sh\n" +
+				"echo \"$@\" >> '" + calls + "'\n" +
+				"while [ ! -f '" + go + "' ]; do sleep 0.05; done\n" +
+				"cat '" + stemcellsJson + "'\n"
+		).getBytes(StandardCharsets.UTF_8));
+		bosh.setExecutable(true);
+
+		cliConfig.handleConfigurationChange(new Settings(new Gson().toJsonTree(ImmutableMap.of(
+				"bosh", ImmutableMap.of("cli", ImmutableMap.of("command", bosh.getAbsolutePath(), "target", "stub-director")),
+				"cli", ImmutableMap.of("timeout", 10)
+		))));
+	}
+
+	@Test public void lastGoodModelServedAfterRestart() throws Exception {
+		File storeDir = folder.newFolder("store");
+
+		// First session: model obtained from the cli and stored
+		ModelSnapshotStore store = new ModelSnapshotStore(storeDir);
+		go.createNewFile();
+		DynamicModelProvider<StemcellsModel> provider = new CachingModelProvider<>(new BoshCommandStemcellsProvider(cliConfig), StemcellsModel.class, store);
+		assertEquals(ImmutableSet.of("3421.11"), new HashSet<>(provider.getModel(null).getVersions()));
+		assertEquals(1, cliCalls());
+		store.flush();
+
+		// Second session: stored model served while the cli hangs
+		go.delete();
+		writeStemcells("3468.1");
+		DynamicModelProvider<StemcellsModel> restarted = new CachingModelProvider<>(new BoshCommandStemcellsProvider(cliConfig), StemcellsModel.class, new ModelSnapshotStore(storeDir));
+		StemcellsModel lastKnown = restarted.getModel(null);
+		assertEquals(ImmutableSet.of("3421.11"), new HashSet<>(lastKnown.getVersions()));
+		assertEquals(ImmutableSet.of("centos-7", "ubuntu-trusty"), new HashSet<>(lastKnown.getStemcellOss()));
+		assertEquals(new StemcellData("bosh-vsphere-esxi-centos-7-go_agent", "3421.11", "centos-7"), lastKnown.getStemcells().iterator().next());
+		waitFor(() -> cliCalls() == 2);
+
+		// Current model replaces the stored one once the cli answers
+		go.createNewFile();
+		waitFor(() -> restarted.getModel(null).getVersions().contains("3468.1"));
+		assertEquals(2, cliCalls());
+	}
+
+	@Test public void modelsStoredPerTarget() throws Exception {
+		File storeDir = folder.newFolder("store");
+		ModelSnapshotStore store = new ModelSnapshotStore(storeDir);
+		go.createNewFile();
+		BoshCommandStemcellsProvider stemcells = new BoshCommandStemcellsProvider(cliConfig);
+		new CachingModelProvider<>(stemcells, StemcellsModel.class, store).getModel(null).getVersions();
+		store.flush();
+
+		ModelSnapshotStore restarted = new ModelSnapshotStore(storeDir);
+		String key = stemcells.getModelKey(null);
+		assertTrue(key.contains("stub-director"));
+		Collection<String> names = restarted.load(StemcellsModel.class, key).getStemcellNames();
+		assertEquals(2, names.size());
+		assertEquals(null, restarted.load(StemcellsModel.class, key.replace("stub-director", "other-director")));
+		assertEquals(null, restarted.load(ReleasesModel.class, key));
+	}
+
+	private void writeStemcells(String version) throws Exception {
+		String json = IOUtil.toString(ModelSnapshotStoreTest.class.getResourceAsStream("/cmd-out/stemcells.json"));
+		Files.write(stemcellsJson.toPath(), json.replace("3421.11", version).getBytes(StandardCharsets.UTF_8));
+	}
+
+	private int cliCalls() throws Exception {
+		return calls.exists() ? Files.readAllLines(calls.toPath()).size() : 0;
+	}
+
+	private static void waitFor(Callable<Boolean> condition) throws Exception {
+		long end = System.currentTimeMillis() + 10000;
+		while (!condition.call()) {
+			assertTrue("Timed out waiting for condition", System.currentTimeMillis() < end);
+			Thread.sleep(10);
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016 Pivotal, Inc.
+ * Copyright (c) 2016, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,6 @@
  *******************************************************************************/
 package org.springframework.ide.vscode.commons.cloudfoundry.client;
 
-public interface CFBuildpack {
+public interface CFBuildpack extends CFEntity {
 	String getName();
 }
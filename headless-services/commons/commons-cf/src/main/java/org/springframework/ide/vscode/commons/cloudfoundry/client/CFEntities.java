@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Pivotal, Inc.
+ * Copyright (c) 2017, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -32,4 +32,8 @@ public class CFEntities {
 	public static CFDomain createDomain(String name) {
 		return new CFDomainImpl(name);
 	}
+
+	public static CFStack createStack(String name) {
+		return new CFStackImpl(name);
+	}
 }
@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.cloudfoundry.client;
+
+/**
+ * Package-private.
+ * <p/>
+ * Use {@link CFEntities} public API to create instance
+ *
+ * @author Alex Boyko
+ */
+class CFStackImpl implements CFStack {
+
+	private final String name;
+
+	public CFStackImpl(String name) {
+		this.name = name;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public int hashCode() {
+		return name == null ? 0 : name.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		CFStackImpl other = (CFStackImpl) obj;
+		if (name == null) {
+			return other.name == null;
+		}
+		return name.equals(other.name);
+	}
+
+	@Override
+	public String toString() {
+		return "CFStack(" + name + ")";
+	}
+
+}
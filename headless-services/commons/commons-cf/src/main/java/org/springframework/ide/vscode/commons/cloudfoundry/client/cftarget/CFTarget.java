@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2018 Pivotal, Inc.
+ * Copyright (c) 2017, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,28 +10,58 @@
  *******************************************************************************/
 package org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import org.springframework.ide.vscode.commons.cloudfoundry.client.CFBuildpack;
 import org.springframework.ide.vscode.commons.cloudfoundry.client.CFDomain;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.CFEntity;
 import org.springframework.ide.vscode.commons.cloudfoundry.client.CFServiceInstance;
 import org.springframework.ide.vscode.commons.cloudfoundry.client.CFStack;
 import org.springframework.ide.vscode.commons.cloudfoundry.client.ClientRequests;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget.CFTargetSnapshotStore.Kind;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget.CFTargetSnapshotStore.TargetSnapshot;
 
+import com.google.common.base.Ticker;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
 
 /**
  *
  * Wrapper around a {@link ClientRequests} that may contain cached information
  * like buildpacks
+ * <p>
+ * With a refresh executor the cached information is refreshed ahead: once cached information is
+ * older than its expiration it is still returned while it is reloaded in the background. Only one
+ * reload per kind of information is running at a time, concurrent requests don't wait for it.
+ * If a reload fails the stale information is kept and the reload is retried by requests coming
+ * after {@link CFTargetCache#REFRESH_RETRY_DELAY}.
+ * <p>
+ * With a refresh executor and a {@link CFTargetSnapshotStore} the target starts out with the last
+ * known information from the store and refreshes it right away. Until the live information arrives
+ * {@link #getSnapshotTimestamp(Kind)} tells how old the returned information is.
  *
  */
 public class CFTarget {
 
+	private static final Logger logger = LoggerFactory.getLogger(CFTarget.class);
+
 	private final CFClientParams params;
 	private final ClientRequests requests;
 	private final String targetName;
@@ -44,16 +74,107 @@ public class CFTarget {
 	private LoadingCache<String, List<CFDomain>> domainCache;
 	private LoadingCache<String, List<CFStack>> stacksCache;
 	private CFCallableContext callableContext;
-	
+	private final Executor refreshExecutor;
+	private final TargetSnapshot snapshot;
+	private final Ticker ticker;
+
+	/**
+	 * Ticker reading of the last successful fetch of each kind of information from CF
+	 */
+	private final Map<Kind, Long> fetchTimes = new ConcurrentHashMap<>();
+
+	/**
+	 * Information taken over from the snapshot. Identity with the cached value tells whether the
+	 * cached value is still the one from the snapshot.
+	 */
+	private final Map<Kind, List<?>> seeded = new EnumMap<>(Kind.class);
+
 	public CFTarget(String targetName, CFClientParams params, ClientRequests requests,
 			CFCallableContext callableContext) {
+		this(targetName, params, requests, callableContext, null);
+	}
+
+	/**
+	 * @param refreshExecutor executor reloading expired cached information in the background or
+	 *                        <code>null</code> to reload it on the requesting thread
+	 */
+	public CFTarget(String targetName, CFClientParams params, ClientRequests requests,
+			CFCallableContext callableContext, Executor refreshExecutor) {
+		this(targetName, params, requests, callableContext, refreshExecutor, (CFTargetSnapshotStore) null);
+	}
+
+	/**
+	 * @param refreshExecutor executor reloading expired cached information in the background or
+	 *                        <code>null</code> to reload it on the requesting thread
+	 * @param snapshotStore store of the last known information of targets or <code>null</code>.
+	 *                        Last known information is only used with a refresh executor.
+	 */
+	public CFTarget(String targetName, CFClientParams params, ClientRequests requests,
+			CFCallableContext callableContext, Executor refreshExecutor, CFTargetSnapshotStore snapshotStore) {
+		this(targetName, params, requests, callableContext, refreshExecutor, snapshotStore, Ticker.systemTicker());
+	}
+
+	CFTarget(String targetName, CFClientParams params, ClientRequests requests,
+			CFCallableContext callableContext, Executor refreshExecutor, Ticker ticker) {
+		this(targetName, params, requests, callableContext, refreshExecutor, null, ticker);
+	}
+
+	CFTarget(String targetName, CFClientParams params, ClientRequests requests,
+			CFCallableContext callableContext, Executor refreshExecutor, CFTargetSnapshotStore snapshotStore, Ticker ticker) {
 		this.params = params;
 		this.requests = requests;
 		this.targetName = targetName;
 		this.callableContext = callableContext;
+		this.refreshExecutor = refreshExecutor;
+		this.snapshot = snapshotStore == null ? null : snapshotStore.getSnapshot(params);
+		this.ticker = ticker;
 		initCache(requests);
 	}
 
+	private <T> LoadingCache<String, T> buildCache(Kind kind, CacheLoader<String, T> loader, Duration expiration) {
+		CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().ticker(ticker);
+		if (refreshExecutor == null) {
+			return builder.expireAfterAccess(expiration.toMillis(), TimeUnit.MILLISECONDS).build(loader);
+		}
+		// Unused information is dropped together with the target, up to then it is refreshed ahead.
+		// Reloads are considered as often as a failed one is retried, they only fetch expired information.
+		Duration refreshCheck = expiration.compareTo(CFTargetCache.REFRESH_RETRY_DELAY) < 0 ? expiration : CFTargetCache.REFRESH_RETRY_DELAY;
+		return builder
+				.refreshAfterWrite(refreshCheck.toMillis(), TimeUnit.MILLISECONDS)
+				.expireAfterAccess(CFTargetCache.TARGET_EXPIRATION.toMillis(), TimeUnit.MILLISECONDS)
+				.build(new CacheLoader<String, T>() {
+
+					@Override
+					public T load(String key) throws Exception {
+						return loader.load(key);
+					}
+
+					@Override
+					public ListenableFuture<T> reload(String key, T oldValue) throws Exception {
+						Long fetchTime = fetchTimes.get(kind);
+						if (fetchTime != null && ticker.read() - fetchTime < expiration.toNanos()) {
+							return Futures.immediateFuture(oldValue);
+						}
+						ListenableFutureTask<T> task = ListenableFutureTask.create(() -> {
+							try {
+								return loader.load(key);
+							} catch (Exception e) {
+								// Keeping the stale information re-arms the refresh, i.e. retries after the delay
+								logger.debug("Failed to refresh information of CF target " + key, e);
+								return oldValue;
+							}
+						});
+						try {
+							refreshExecutor.execute(task);
+						} catch (RejectedExecutionException e) {
+							// Too busy, retried after the delay
+							return Futures.immediateFuture(oldValue);
+						}
+						return task;
+					}
+				});
+	}
+
 	private void initCache(ClientRequests requests) {
 		CacheLoader<String, List<CFStack>> stacksLoader = new CacheLoader<String, List<CFStack>>() {
 
@@ -62,11 +183,11 @@ public class CFTarget {
 				/* Cache of services does not use keys, as the whole cache
 				 * gets wiped clean on any new call to CF.
 				 */
-				return runAndCheckForFailure(() -> requests.getStacks());
+				return remember(Kind.STACKS, runAndCheckForFailure(() -> requests.getStacks()));
 			}
 		};
-		this.stacksCache = CacheBuilder.newBuilder()
-				.expireAfterAccess(CFTargetCache.TARGET_EXPIRATION.toMillis(), TimeUnit.MILLISECONDS).build(stacksLoader);
+		this.stacksCache = buildCache(Kind.STACKS, stacksLoader, CFTargetCache.TARGET_EXPIRATION);
+		seed(stacksCache, Kind.STACKS, TargetSnapshot::getStacks);
 
 
 		CacheLoader<String, List<CFServiceInstance>> servicesLoader = new CacheLoader<String, List<CFServiceInstance>>() {
@@ -76,11 +197,11 @@ public class CFTarget {
 				/* Cache of services does not use keys, as the whole cache
 				 * gets wiped clean on any new call to CF.
 				 */
-				return runAndCheckForFailure(() -> requests.getServices());
+				return remember(Kind.SERVICES, runAndCheckForFailure(() -> requests.getServices()));
 			}
 		};
-		this.servicesCache = CacheBuilder.newBuilder()
-				.expireAfterAccess(CFTargetCache.SERVICES_EXPIRATION.toMillis(), TimeUnit.MILLISECONDS).build(servicesLoader);
+		this.servicesCache = buildCache(Kind.SERVICES, servicesLoader, CFTargetCache.SERVICES_EXPIRATION);
+		seed(servicesCache, Kind.SERVICES, TargetSnapshot::getServices);
 
 		CacheLoader<String, List<CFBuildpack>> buildpacksLoader = new CacheLoader<String, List<CFBuildpack>>() {
 
@@ -89,22 +210,82 @@ public class CFTarget {
 				/* Cache does not use keys, as the whole cache
 				 * gets wiped clean on any new call to CF.
 				 */
-				return runAndCheckForFailure(() -> requests.getBuildpacks());
+				return remember(Kind.BUILDPACKS, runAndCheckForFailure(() -> requests.getBuildpacks()));
 			}
 		};
-		this.buildpacksCache = CacheBuilder.newBuilder()
-				.expireAfterAccess(CFTargetCache.TARGET_EXPIRATION.toMillis(), TimeUnit.MILLISECONDS).build(buildpacksLoader);
+		this.buildpacksCache = buildCache(Kind.BUILDPACKS, buildpacksLoader, CFTargetCache.TARGET_EXPIRATION);
+		seed(buildpacksCache, Kind.BUILDPACKS, TargetSnapshot::getBuildpacks);
 
 		CacheLoader<String, List<CFDomain>> domainLoader = new CacheLoader<String, List<CFDomain>>() {
 
 			@Override
 			public List<CFDomain> load(String key) throws Exception {
-				return runAndCheckForFailure(() -> requests.getDomains());
+				return remember(Kind.DOMAINS, runAndCheckForFailure(() -> requests.getDomains()));
 			}
 
 		};
-		this.domainCache = CacheBuilder.newBuilder()
-				.expireAfterAccess(CFTargetCache.TARGET_EXPIRATION.toMillis(), TimeUnit.MILLISECONDS).build(domainLoader);
+		this.domainCache = buildCache(Kind.DOMAINS, domainLoader, CFTargetCache.TARGET_EXPIRATION);
+		seed(domainCache, Kind.DOMAINS, TargetSnapshot::getDomains);
+	}
+
+	/**
+	 * Puts the last known information from the snapshot into the cache
+	 */
+	private <T> void seed(LoadingCache<String, List<T>> cache, Kind kind, Function<TargetSnapshot, List<T>> fromSnapshot) {
+		if (refreshExecutor != null && snapshot != null) {
+			List<T> values = fromSnapshot.apply(snapshot);
+			if (values != null) {
+				seeded.put(kind, values);
+				cache.put(getName(), values);
+			}
+		}
+	}
+
+	/**
+	 * Keeps information just fetched from CF in the snapshot and notes when it was fetched
+	 */
+	private <T extends CFEntity> List<T> remember(Kind kind, List<T> values) {
+		fetchTimes.put(kind, ticker.read());
+		if (snapshot != null) {
+			snapshot.put(kind, values);
+		}
+		return values;
+	}
+
+	/**
+	 * Starts loading all cached information in the background, such that it is there by the time
+	 * it is needed. Requests made while loading wait for the loading to finish rather than loading
+	 * the information once more. Information taken over from the snapshot is served right away
+	 * while it is refreshed. Does nothing without a refresh executor.
+	 */
+	public void prefetch() {
+		if (refreshExecutor != null) {
+			prefetch(stacksCache, Kind.STACKS);
+			prefetch(servicesCache, Kind.SERVICES);
+			prefetch(buildpacksCache, Kind.BUILDPACKS);
+			prefetch(domainCache, Kind.DOMAINS);
+		}
+	}
+
+	private void prefetch(LoadingCache<String, ?> cache, Kind kind) {
+		String key = getName();
+		if (seeded.containsKey(kind)) {
+			// Reloads on the refresh executor, the snapshot is served until done
+			cache.refresh(key);
+			return;
+		}
+		try {
+			refreshExecutor.execute(() -> {
+				try {
+					cache.get(key);
+				} catch (Exception e) {
+					// Requests for the information get the error loading it once more
+					logger.debug("Failed to prefetch information of CF target " + key, e);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			// Too busy, the information is loaded once requested
+		}
 	}
 
 	protected <T> T runAndCheckForFailure(Callable<T> callable) throws Exception {
@@ -151,6 +332,31 @@ public class CFTarget {
 		return this.domainCache.get(key);
 	}
 
+	/**
+	 * @return time the information of the given kind has been fetched from CF if it is still the last
+	 *         known information from the snapshot, <code>null</code> if it is live information
+	 */
+	public Instant getSnapshotTimestamp(Kind kind) {
+		List<?> values = seeded.get(kind);
+		if (values != null && values == getCache(kind).getIfPresent(getName())) {
+			return snapshot.getTimestamp(kind);
+		}
+		return null;
+	}
+
+	private LoadingCache<String, ?> getCache(Kind kind) {
+		switch (kind) {
+		case BUILDPACKS:
+			return buildpacksCache;
+		case SERVICES:
+			return servicesCache;
+		case DOMAINS:
+			return domainCache;
+		default:
+			return stacksCache;
+		}
+	}
+
 	public ClientRequests getClientRequests() {
 		return requests;
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2018 Pivotal, Inc.
+ * Copyright (c) 2017, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,6 +16,10 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -37,19 +41,64 @@ public class CFTargetCache {
 	private final ClientTimeouts timeouts;
 	private LoadingCache<ClientParamsCacheKey, CFTarget> cache;
 	private List<ClientParamsProvider> _providers;
+	private final Executor refreshExecutor;
+	private final CFTargetSnapshotStore snapshotStore;
 
 	public static final Duration SERVICES_EXPIRATION = Duration.ofSeconds(10);
 	public static final Duration TARGET_EXPIRATION = Duration.ofHours(1);
 	public static final Duration ERROR_EXPIRATION = Duration.ofSeconds(10);
+	public static final Duration REFRESH_RETRY_DELAY = Duration.ofSeconds(10);
+
+	private static final int REFRESH_THREADS = 2;
+	private static final int REFRESH_QUEUE_CAPACITY = 64;
 
 	public CFTargetCache(List<ClientParamsProvider> providers, CloudFoundryClientFactory clientFactory,
 			ClientTimeouts timeouts) {
+		this(providers, clientFactory, timeouts, null);
+	}
+
+	/**
+	 * @param refreshExecutor executor prefetching and refreshing the information cached by the targets
+	 *                        ahead, see {@link #createRefreshExecutor()}. If <code>null</code> targets
+	 *                        load information when it is requested.
+	 */
+	public CFTargetCache(List<ClientParamsProvider> providers, CloudFoundryClientFactory clientFactory,
+			ClientTimeouts timeouts, Executor refreshExecutor) {
+		this(providers, clientFactory, timeouts, refreshExecutor, null);
+	}
+
+	/**
+	 * @param refreshExecutor executor prefetching and refreshing the information cached by the targets
+	 *                        ahead, see {@link #createRefreshExecutor()}. If <code>null</code> targets
+	 *                        load information when it is requested.
+	 * @param snapshotStore store of the last known target information. New targets serve it while
+	 *                        fetching the live information. May be <code>null</code>.
+	 */
+	public CFTargetCache(List<ClientParamsProvider> providers, CloudFoundryClientFactory clientFactory,
+			ClientTimeouts timeouts, Executor refreshExecutor, CFTargetSnapshotStore snapshotStore) {
 		this.clientFactory = clientFactory;
 		this.timeouts = timeouts;
 		this._providers = providers;
+		this.refreshExecutor = refreshExecutor;
+		this.snapshotStore = snapshotStore;
 		initCache();
 	}
 
+	/**
+	 * Creates a bounded executor for refreshing target information in the background. Refreshes
+	 * exceeding the capacity are rejected and retried with the next request for the information.
+	 */
+	public static ExecutorService createRefreshExecutor() {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(REFRESH_THREADS, REFRESH_THREADS, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(REFRESH_QUEUE_CAPACITY), r -> {
+					Thread thread = new Thread(r, "CF Target Refresh");
+					thread.setDaemon(true);
+					return thread;
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
 	
 	private void initCache() {
 		CacheLoader<ClientParamsCacheKey, CFTarget> loader = new CacheLoader<ClientParamsCacheKey, CFTarget>() {
@@ -129,7 +178,8 @@ public class CFTargetCache {
 		CFCallableContext context = createCallingContext(provider);
 
 		CFTarget target = new CFTarget(getTargetName(params), params, clientFactory.getClient(params, timeouts),
-				context);
+				context, refreshExecutor, snapshotStore);
+		target.prefetch();
 		if (messages != null && StringUtil.hasText(messages.getTargetSource())) {
 			logger.info("Created CF target for [{}/{}], from {}", params.getOrgName(), params.getSpaceName(),
 					messages.getTargetSource());
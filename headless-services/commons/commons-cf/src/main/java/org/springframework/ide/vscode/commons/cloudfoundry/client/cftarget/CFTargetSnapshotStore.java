@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget;
+
+import java.io.File;
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import org.springframework.ide.vscode.commons.cloudfoundry.client.CFBuildpack;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.CFDomain;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.CFEntities;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.CFEntity;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.CFServiceInstance;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.CFStack;
+import org.springframework.ide.vscode.commons.util.SnapshotStore;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Disk based store of the last known information of CF targets, i.e. buildpacks, services, domains
+ * and stacks together with the time they have been fetched from CF. Information is stored per target
+ * and identified by the same values as {@link ClientParamsCacheKey} except for credentials, which are
+ * never written to disk. Stored information lets a new {@link CFTarget} answer requests right after
+ * a restart while the live information is fetched in the background.
+ * <p>
+ * Note that the information is written in plain text, e.g. service instance names and dashboard URLs
+ * end up in JSON files under <code>~/.sts4/.cfTargetCache</code>.
+ *
+ * @author Alex Boyko
+ *
+ */
+public class CFTargetSnapshotStore {
+
+	private static final Type STORE_TYPE = new TypeToken<Map<Kind, Section>>() {}.getType();
+
+	/**
+	 * Kinds of target information kept in the store
+	 */
+	public enum Kind {
+		BUILDPACKS,
+		SERVICES,
+		DOMAINS,
+		STACKS
+	}
+
+	/**
+	 * Stored form of a CF entity. Only services have more than a name.
+	 */
+	private static class EntityData {
+		String name;
+		String service;
+		String plan;
+		String documentationUrl;
+		String description;
+		String dashboardUrl;
+	}
+
+	/**
+	 * Last known values of one kind of information
+	 */
+	private static class Section {
+		long timestamp;
+		List<EntityData> values;
+	}
+
+	/**
+	 * Last known information of a specific target
+	 */
+	public class TargetSnapshot {
+
+		private final String fileName;
+		private final Map<Kind, Section> sections;
+		private final AtomicBoolean dirty = new AtomicBoolean();
+
+		private TargetSnapshot(String fileName, Map<Kind, Section> sections) {
+			this.fileName = fileName;
+			this.sections = sections;
+		}
+
+		/**
+		 * @return time the information has been fetched from CF or <code>null</code> if there is none
+		 */
+		public Instant getTimestamp(Kind kind) {
+			Section section = sections.get(kind);
+			return section == null ? null : Instant.ofEpochMilli(section.timestamp);
+		}
+
+		public List<CFBuildpack> getBuildpacks() {
+			return get(Kind.BUILDPACKS, data -> CFEntities.createBuildpack(data.name));
+		}
+
+		public List<CFServiceInstance> getServices() {
+			return get(Kind.SERVICES, data -> CFEntities.createServiceInstance(data.name, data.service, data.plan,
+					data.documentationUrl, data.description, data.dashboardUrl));
+		}
+
+		public List<CFDomain> getDomains() {
+			return get(Kind.DOMAINS, data -> CFEntities.createDomain(data.name));
+		}
+
+		public List<CFStack> getStacks() {
+			return get(Kind.STACKS, data -> CFEntities.createStack(data.name));
+		}
+
+		/**
+		 * Replaces the stored information of the given kind with information just fetched from CF
+		 */
+		public void put(Kind kind, List<? extends CFEntity> values) {
+			if (values == null) {
+				return;
+			}
+			Section section = new Section();
+			section.timestamp = System.currentTimeMillis();
+			section.values = new ArrayList<>(values.size());
+			for (CFEntity entity : values) {
+				section.values.add(toData(entity));
+			}
+			sections.put(kind, section);
+			if (dirty.compareAndSet(false, true)) {
+				store.execute(() -> save(this));
+			}
+		}
+
+		private <T> List<T> get(Kind kind, Function<EntityData, T> factory) {
+			Section section = sections.get(kind);
+			if (section == null || section.values == null) {
+				return null;
+			}
+			ImmutableList.Builder<T> entities = ImmutableList.builder();
+			for (EntityData data : section.values) {
+				if (data != null && data.name != null) {
+					entities.add(factory.apply(data));
+				}
+			}
+			return entities.build();
+		}
+
+	}
+
+	private final SnapshotStore store;
+	private final Map<String, TargetSnapshot> snapshots = new ConcurrentHashMap<>();
+
+	public CFTargetSnapshotStore() {
+		this(SnapshotStore.userDirectory(".cfTargetCache"));
+	}
+
+	public CFTargetSnapshotStore(File storeDirectory) {
+		this.store = new SnapshotStore(storeDirectory, "CF target snapshot");
+	}
+
+	/**
+	 * @return snapshot of the target with the given params. Empty if nothing has been stored for the target yet.
+	 */
+	public TargetSnapshot getSnapshot(CFClientParams params) {
+		return snapshots.computeIfAbsent(storeFileName(params), this::load);
+	}
+
+	/**
+	 * Waits for pending writes to disk
+	 */
+	public void flush() {
+		store.flush();
+	}
+
+	private TargetSnapshot load(String storeFileName) {
+		Map<Kind, Section> sections = new ConcurrentHashMap<>();
+		Map<Kind, Section> stored = store.read(storeFileName, STORE_TYPE);
+		if (stored != null) {
+			stored.forEach((kind, section) -> {
+				// Kinds unknown to this version are read as null
+				if (kind != null && section != null) {
+					sections.put(kind, section);
+				}
+			});
+		}
+		return new TargetSnapshot(storeFileName, sections);
+	}
+
+	private void save(TargetSnapshot snapshot) {
+		snapshot.dirty.set(false);
+		store.write(snapshot.fileName, snapshot.sections, STORE_TYPE);
+	}
+
+	private static EntityData toData(CFEntity entity) {
+		EntityData data = new EntityData();
+		data.name = entity.getName();
+		if (entity instanceof CFServiceInstance) {
+			CFServiceInstance service = (CFServiceInstance) entity;
+			data.service = service.getService();
+			data.plan = service.getPlan();
+			data.documentationUrl = service.getDocumentationUrl();
+			data.description = service.getDescription();
+			data.dashboardUrl = service.getDashboardUrl();
+		}
+		return data;
+	}
+
+	private static String storeFileName(CFClientParams params) {
+		String target = params.getApiUrl() + "\n" + params.getUsername() + "\n" + params.getOrgName() + "\n"
+				+ params.getSpaceName() + "\n" + params.skipSslValidation();
+		return SnapshotStore.fileName(target);
+	}
+
+}
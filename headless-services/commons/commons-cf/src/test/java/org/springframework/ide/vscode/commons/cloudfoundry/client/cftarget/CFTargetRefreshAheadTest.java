@@ -0,0 +1,249 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.CFBuildpack;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.CFDomain;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.CFServiceInstance;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.CFStack;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.ClientRequests;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
+
+/**
+ * Tests for prefetching and refreshing information cached by {@link CFTarget} in the background
+ *
+ * @author Alex Boyko
+ */
+public class CFTargetRefreshAheadTest {
+
+	private static final CFClientParams PARAMS = new CFClientParams("test.io", "testuser",
+			CFCredentials.fromRefreshToken("refreshtoken"), false);
+
+	/**
+	 * Requests of the fake client wait for a permit, i.e. for the network
+	 */
+	private final Semaphore network = new Semaphore(0);
+	private final AtomicInteger serviceRequests = new AtomicInteger();
+	private final AtomicInteger otherRequests = new AtomicInteger();
+	private final AtomicBoolean failing = new AtomicBoolean();
+	private final FakeTicker ticker = new FakeTicker();
+
+	private ExecutorService refreshExecutor;
+	private ExecutorService requestors;
+	private CFTarget target;
+
+	@Before
+	public void setup() throws Exception {
+		refreshExecutor = CFTargetCache.createRefreshExecutor();
+		requestors = Executors.newCachedThreadPool();
+		target = new CFTarget("test.io", PARAMS, new FakeClientRequests(), new CFCallableContext(null), refreshExecutor, ticker);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		network.release(1000);
+		refreshExecutor.shutdownNow();
+		requestors.shutdownNow();
+	}
+
+	@Test
+	public void prefetchedInformationDoesNotWaitForNetwork() throws Exception {
+		network.release(4);
+		target.prefetch();
+		waitFor(() -> serviceRequests.get() == 1 && otherRequests.get() == 3);
+
+		// No more permits: requests would block if they needed the network
+		assertEquals("service-1", request(() -> target.getServices()).get(0).getName());
+		assertEquals(1, request(() -> target.getBuildpacks()).size());
+		assertEquals(1, request(() -> target.getDomains()).size());
+		assertEquals(1, request(() -> target.getStacks()).size());
+		assertEquals(1, serviceRequests.get());
+		assertEquals(3, otherRequests.get());
+	}
+
+	@Test
+	public void staleServicesServedWhileRefreshing() throws Exception {
+		network.release();
+		assertEquals("service-1", target.getServices().get(0).getName());
+		assertEquals(1, serviceRequests.get());
+
+		ticker.advance(CFTargetCache.SERVICES_EXPIRATION.plusSeconds(1));
+
+		// Refresh is started by the first request and waits for the network, all requests get the stale services
+		List<CompletableFuture<List<CFServiceInstance>>> requests = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			requests.add(CompletableFuture.supplyAsync(() -> {
+				try {
+					return target.getServices();
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			}, requestors));
+		}
+		for (CompletableFuture<List<CFServiceInstance>> request : requests) {
+			assertEquals("service-1", request.get(5, TimeUnit.SECONDS).get(0).getName());
+		}
+		waitFor(() -> serviceRequests.get() == 2);
+
+		network.release();
+		waitFor(() -> "service-2".equals(target.getServices().get(0).getName()));
+		// Concurrent requests have been coalesced into a single refresh
+		assertEquals(2, serviceRequests.get());
+	}
+
+	@Test
+	public void staleServicesKeptIfRefreshFails() throws Exception {
+		network.release();
+		assertEquals("service-1", target.getServices().get(0).getName());
+
+		failing.set(true);
+		ticker.advance(CFTargetCache.SERVICES_EXPIRATION.plusSeconds(1));
+		network.release();
+		assertEquals("service-1", request(() -> target.getServices()).get(0).getName());
+		waitFor(() -> serviceRequests.get() == 2 && network.availablePermits() == 0);
+		assertEquals("service-1", request(() -> target.getServices()).get(0).getName());
+	}
+
+	@Test
+	public void failedRefreshRetriedAfterDelay() throws Exception {
+		// Refreshes run on the requesting thread, requests return once their refresh is done
+		CFTarget target = new CFTarget("test.io", PARAMS, new FakeClientRequests(), new CFCallableContext(null), MoreExecutors.directExecutor(), ticker);
+		network.release(10);
+		assertEquals("service-1", target.getServices().get(0).getName());
+
+		failing.set(true);
+		ticker.advance(CFTargetCache.SERVICES_EXPIRATION.plusSeconds(1));
+		assertEquals("service-1", target.getServices().get(0).getName());
+		assertEquals(2, serviceRequests.get());
+
+		// Stale services are served without asking CF again until the retry delay is over
+		failing.set(false);
+		ticker.advance(CFTargetCache.REFRESH_RETRY_DELAY.minusSeconds(1));
+		assertEquals("service-1", target.getServices().get(0).getName());
+		assertEquals(2, serviceRequests.get());
+
+		ticker.advance(Duration.ofSeconds(2));
+		assertEquals("service-3", target.getServices().get(0).getName());
+		assertEquals(3, serviceRequests.get());
+	}
+
+	@Test
+	public void unexpiredInformationNotFetchedAgain() throws Exception {
+		CFTarget target = new CFTarget("test.io", PARAMS, new FakeClientRequests(), new CFCallableContext(null), MoreExecutors.directExecutor(), ticker);
+		network.release(10);
+		assertEquals(1, target.getBuildpacks().size());
+		assertEquals(1, otherRequests.get());
+
+		ticker.advance(CFTargetCache.REFRESH_RETRY_DELAY.plusSeconds(1));
+		assertEquals(1, target.getBuildpacks().size());
+		assertEquals(1, otherRequests.get());
+
+		ticker.advance(CFTargetCache.TARGET_EXPIRATION.minusSeconds(5));
+		assertEquals(1, target.getBuildpacks().size());
+		assertEquals(2, otherRequests.get());
+	}
+
+	private <T> T request(Callable<T> callable) throws Exception {
+		return requestors.submit(callable).get(5, TimeUnit.SECONDS);
+	}
+
+	private static void waitFor(Callable<Boolean> condition) throws Exception {
+		long end = System.currentTimeMillis() + 5000;
+		while (!condition.call()) {
+			assertTrue("Timed out waiting for condition", System.currentTimeMillis() < end);
+			Thread.sleep(10);
+		}
+	}
+
+	private class FakeClientRequests implements ClientRequests {
+
+		private void network() throws Exception {
+			if (!network.tryAcquire(10, TimeUnit.SECONDS)) {
+				throw new IllegalStateException("No network");
+			}
+			if (failing.get()) {
+				throw new UnknownHostException("test.io");
+			}
+		}
+
+		@Override
+		public List<CFBuildpack> getBuildpacks() throws Exception {
+			otherRequests.incrementAndGet();
+			network();
+			return ImmutableList.of(mock(CFBuildpack.class));
+		}
+
+		@Override
+		public List<CFServiceInstance> getServices() throws Exception {
+			int request = serviceRequests.incrementAndGet();
+			network();
+			CFServiceInstance service = mock(CFServiceInstance.class);
+			when(service.getName()).thenReturn("service-" + request);
+			return ImmutableList.of(service);
+		}
+
+		@Override
+		public List<CFDomain> getDomains() throws Exception {
+			otherRequests.incrementAndGet();
+			network();
+			return ImmutableList.of(mock(CFDomain.class));
+		}
+
+		@Override
+		public List<CFStack> getStacks() throws Exception {
+			otherRequests.incrementAndGet();
+			network();
+			return ImmutableList.of(mock(CFStack.class));
+		}
+
+	}
+
+	private static class FakeTicker extends Ticker {
+
+		private final AtomicLong nanos = new AtomicLong();
+
+		@Override
+		public long read() {
+			return nanos.get();
+		}
+
+		void advance(Duration duration) {
+			nanos.addAndGet(duration.toNanos());
+		}
+
+	}
+
+}
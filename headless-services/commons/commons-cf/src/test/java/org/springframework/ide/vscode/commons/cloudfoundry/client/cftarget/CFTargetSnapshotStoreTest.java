@@ -0,0 +1,249 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.CFBuildpack;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.CFDomain;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.CFEntities;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.CFEntity;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.CFServiceInstance;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.CFStack;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.ClientRequests;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget.CFTargetSnapshotStore.Kind;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget.CFTargetSnapshotStore.TargetSnapshot;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
+
+/**
+ * Tests for serving the last known information of CF targets from {@link CFTargetSnapshotStore}
+ *
+ * @author Alex Boyko
+ */
+public class CFTargetSnapshotStoreTest {
+
+	private static final CFClientParams PARAMS = new CFClientParams("test.io", "testuser",
+			CFCredentials.fromRefreshToken("secret-refresh-token"), false);
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Requests of the fake client wait for a permit, i.e. for the network
+	 */
+	private final Semaphore network = new Semaphore(0);
+	private final AtomicInteger requests = new AtomicInteger();
+	private volatile boolean failing;
+
+	private ExecutorService refreshExecutor;
+
+	@Before
+	public void setup() throws Exception {
+		refreshExecutor = CFTargetCache.createRefreshExecutor();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		network.release(1000);
+		refreshExecutor.shutdownNow();
+	}
+
+	@Test
+	public void lastKnownInformationServedAfterRestart() throws Exception {
+		File dir = folder.newFolder();
+
+		// First session: information is fetched live and stored
+		CFTargetSnapshotStore store = new CFTargetSnapshotStore(dir);
+		CFTarget target = createTarget(store);
+		network.release(4);
+		assertEquals(ImmutableList.of("service-1"), names(target.getServices()));
+		assertEquals(ImmutableList.of("buildpack-2"), names(target.getBuildpacks()));
+		assertEquals(ImmutableList.of("domain-3"), names(target.getDomains()));
+		assertEquals(ImmutableList.of("stack-4"), names(target.getStacks()));
+		assertNull(target.getSnapshotTimestamp(Kind.SERVICES));
+		store.flush();
+
+		// Second session: stored information is there before the network answers
+		Instant before = Instant.now();
+		target = createTarget(new CFTargetSnapshotStore(dir));
+		target.prefetch();
+		assertEquals(ImmutableList.of("service-1"), names(target.getServices()));
+		assertEquals(ImmutableList.of("buildpack-2"), names(target.getBuildpacks()));
+		assertEquals(ImmutableList.of("domain-3"), names(target.getDomains()));
+		assertEquals(ImmutableList.of("stack-4"), names(target.getStacks()));
+		for (Kind kind : Kind.values()) {
+			Instant timestamp = target.getSnapshotTimestamp(kind);
+			assertNotNull(timestamp);
+			assertFalse(timestamp.isAfter(before));
+		}
+
+		// Live information replaces the stored one
+		network.release(4);
+		CFTarget liveTarget = target;
+		waitFor(() -> liveTarget.getSnapshotTimestamp(Kind.SERVICES) == null && liveTarget.getSnapshotTimestamp(Kind.STACKS) == null
+				&& liveTarget.getSnapshotTimestamp(Kind.BUILDPACKS) == null && liveTarget.getSnapshotTimestamp(Kind.DOMAINS) == null);
+		assertTrue(names(target.getServices()).get(0).matches("service-[5-8]"));
+	}
+
+	@Test
+	public void snapshotKeptIfRefreshFails() throws Exception {
+		File dir = folder.newFolder();
+		CFTargetSnapshotStore store = new CFTargetSnapshotStore(dir);
+		store.getSnapshot(PARAMS).put(Kind.DOMAINS, ImmutableList.of(CFEntities.createDomain("cfapps.io")));
+		store.flush();
+
+		CFTarget target = createTarget(new CFTargetSnapshotStore(dir));
+		failing = true;
+		target.prefetch();
+		network.release(4);
+		waitFor(() -> requests.get() == 4 && network.availablePermits() == 0);
+
+		assertEquals(ImmutableList.of("cfapps.io"), names(target.getDomains()));
+		assertNotNull(target.getSnapshotTimestamp(Kind.DOMAINS));
+	}
+
+	@Test
+	public void failedStartupRefreshRetriedAfterDelay() throws Exception {
+		File dir = folder.newFolder();
+		CFTargetSnapshotStore store = new CFTargetSnapshotStore(dir);
+		store.getSnapshot(PARAMS).put(Kind.DOMAINS, ImmutableList.of(CFEntities.createDomain("cfapps.io")));
+		store.flush();
+
+		// Refreshes run on the requesting thread, requests return once their refresh is done
+		AtomicLong nanos = new AtomicLong();
+		Ticker ticker = new Ticker() {
+			@Override
+			public long read() {
+				return nanos.get();
+			}
+		};
+		CFTarget target = new CFTarget("test.io", PARAMS, new FakeClientRequests(), new CFCallableContext(null),
+				MoreExecutors.directExecutor(), new CFTargetSnapshotStore(dir), ticker);
+		failing = true;
+		network.release(10);
+		target.prefetch();
+		assertEquals(4, requests.get());
+
+		failing = false;
+		assertEquals(ImmutableList.of("cfapps.io"), names(target.getDomains()));
+		assertNotNull(target.getSnapshotTimestamp(Kind.DOMAINS));
+		assertEquals(4, requests.get());
+
+		nanos.addAndGet(CFTargetCache.REFRESH_RETRY_DELAY.plusSeconds(1).toNanos());
+		assertEquals(ImmutableList.of("domain-5"), names(target.getDomains()));
+		assertNull(target.getSnapshotTimestamp(Kind.DOMAINS));
+	}
+
+	@Test
+	public void servicesStoredWithoutCredentials() throws Exception {
+		File dir = folder.newFolder();
+		CFTargetSnapshotStore store = new CFTargetSnapshotStore(dir);
+		store.getSnapshot(PARAMS).put(Kind.SERVICES, ImmutableList.of(
+				CFEntities.createServiceInstance("my-db", "mysql", "small", "https://docs", "A database", "https://dashboard")));
+		store.flush();
+
+		File[] files = dir.listFiles();
+		assertEquals(1, files.length);
+		String content = new String(Files.readAllBytes(files[0].toPath()), StandardCharsets.UTF_8);
+		assertFalse(content.contains("secret-refresh-token"));
+
+		TargetSnapshot snapshot = new CFTargetSnapshotStore(dir).getSnapshot(PARAMS);
+		CFServiceInstance service = snapshot.getServices().get(0);
+		assertEquals("my-db", service.getName());
+		assertEquals("mysql", service.getService());
+		assertEquals("small", service.getPlan());
+		assertEquals("https://docs", service.getDocumentationUrl());
+		assertEquals("A database", service.getDescription());
+		assertEquals("https://dashboard", service.getDashboardUrl());
+		assertNull(snapshot.getBuildpacks());
+
+		// Other spaces of the same CF have their own snapshots
+		CFClientParams otherSpace = new CFClientParams("test.io", "testuser", CFCredentials.fromRefreshToken("secret-refresh-token"), "org", "space", false);
+		assertNull(new CFTargetSnapshotStore(dir).getSnapshot(otherSpace).getServices());
+	}
+
+	private CFTarget createTarget(CFTargetSnapshotStore store) {
+		return new CFTarget("test.io", PARAMS, new FakeClientRequests(), new CFCallableContext(null), refreshExecutor, store);
+	}
+
+	private static List<String> names(List<? extends CFEntity> entities) {
+		return entities.stream().map(CFEntity::getName).collect(Collectors.toList());
+	}
+
+	private static void waitFor(Callable<Boolean> condition) throws Exception {
+		long end = System.currentTimeMillis() + 5000;
+		while (!condition.call()) {
+			assertTrue("Timed out waiting for condition", System.currentTimeMillis() < end);
+			Thread.sleep(10);
+		}
+	}
+
+	private class FakeClientRequests implements ClientRequests {
+
+		private int network() throws Exception {
+			int request = requests.incrementAndGet();
+			if (!network.tryAcquire(10, TimeUnit.SECONDS)) {
+				throw new IllegalStateException("No network");
+			}
+			if (failing) {
+				throw new IllegalStateException("Failed request");
+			}
+			return request;
+		}
+
+		@Override
+		public List<CFBuildpack> getBuildpacks() throws Exception {
+			return ImmutableList.of(CFEntities.createBuildpack("buildpack-" + network()));
+		}
+
+		@Override
+		public List<CFServiceInstance> getServices() throws Exception {
+			return ImmutableList.of(CFEntities.createServiceInstance("service-" + network(), "mysql", "small"));
+		}
+
+		@Override
+		public List<CFDomain> getDomains() throws Exception {
+			return ImmutableList.of(CFEntities.createDomain("domain-" + network()));
+		}
+
+		@Override
+		public List<CFStack> getStacks() throws Exception {
+			return ImmutableList.of(CFEntities.createStack("stack-" + network()));
+		}
+
+	}
+
+}
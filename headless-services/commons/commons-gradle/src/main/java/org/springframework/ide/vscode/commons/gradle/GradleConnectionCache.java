@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.gradle;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.gradle.tooling.ProjectConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps Gradle tooling API connections open per project directory, so that subsequent
+ * model requests for the same build don't pay the connection setup again. Connections
+ * that haven't been used for a while are closed.
+ *
+ * @author Alex Boyko
+ *
+ */
+public class GradleConnectionCache {
+
+	private static final Logger log = LoggerFactory.getLogger(GradleConnectionCache.class);
+
+	@FunctionalInterface
+	public interface ConnectionCallback<T> {
+		T run(ProjectConnection connection) throws Exception;
+	}
+
+	private static class CachedConnection {
+		final ProjectConnection connection;
+		long lastUsed;
+		int users;
+
+		CachedConnection(ProjectConnection connection) {
+			this.connection = connection;
+		}
+	}
+
+	private final Function<File, ProjectConnection> connector;
+	private final long idleTimeMillis;
+
+	private final Map<File, CachedConnection> connections = new HashMap<>();
+
+	private ScheduledExecutorService evictionTimer;
+	private ScheduledFuture<?> evictionTask;
+
+	public GradleConnectionCache(Function<File, ProjectConnection> connector, long idleTime, TimeUnit unit) {
+		this.connector = connector;
+		this.idleTimeMillis = unit.toMillis(idleTime);
+	}
+
+	/**
+	 * Runs the callback with the cached connection for the given project directory, a new
+	 * connection is opened if there is none yet. Connections that fail are closed and not
+	 * used again.
+	 */
+	public <T> T withConnection(File projectDir, ConnectionCallback<T> callback) throws Exception {
+		CachedConnection cached = acquire(projectDir);
+		boolean failed = true;
+		try {
+			T result = callback.run(cached.connection);
+			failed = false;
+			return result;
+		} finally {
+			release(projectDir, cached, failed);
+		}
+	}
+
+	private synchronized CachedConnection acquire(File projectDir) {
+		CachedConnection cached = connections.get(projectDir);
+		if (cached == null) {
+			cached = new CachedConnection(connector.apply(projectDir));
+			connections.put(projectDir, cached);
+			scheduleEviction();
+		}
+		cached.users++;
+		cached.lastUsed = System.currentTimeMillis();
+		return cached;
+	}
+
+	private void release(File projectDir, CachedConnection cached, boolean failed) {
+		boolean close = false;
+		synchronized (this) {
+			cached.users--;
+			cached.lastUsed = System.currentTimeMillis();
+			if (failed && connections.get(projectDir) == cached) {
+				connections.remove(projectDir);
+			}
+			close = failed && cached.users == 0;
+		}
+		if (close) {
+			closeQuietly(projectDir, cached.connection);
+		}
+	}
+
+	public synchronized int size() {
+		return connections.size();
+	}
+
+	/**
+	 * Closes connections that have not been used within the idle time
+	 */
+	public void evictIdleConnections() {
+		long now = System.currentTimeMillis();
+		Map<File, ProjectConnection> evicted = new HashMap<>();
+		synchronized (this) {
+			Iterator<Map.Entry<File, CachedConnection>> iterator = connections.entrySet().iterator();
+			while (iterator.hasNext()) {
+				Map.Entry<File, CachedConnection> entry = iterator.next();
+				CachedConnection cached = entry.getValue();
+				if (cached.users == 0 && now - cached.lastUsed >= idleTimeMillis) {
+					iterator.remove();
+					evicted.put(entry.getKey(), cached.connection);
+				}
+			}
+			if (connections.isEmpty()) {
+				cancelEviction();
+			}
+		}
+		evicted.forEach(this::closeQuietly);
+	}
+
+	/**
+	 * Closes all connections
+	 */
+	public void dispose() {
+		List<Map.Entry<File, CachedConnection>> all;
+		synchronized (this) {
+			all = new ArrayList<>(connections.entrySet());
+			connections.clear();
+			cancelEviction();
+			if (evictionTimer != null) {
+				evictionTimer.shutdown();
+				evictionTimer = null;
+			}
+		}
+		all.forEach(e -> closeQuietly(e.getKey(), e.getValue().connection));
+	}
+
+	private void scheduleEviction() {
+		if (evictionTask == null) {
+			if (evictionTimer == null) {
+				evictionTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+					Thread t = new Thread(r, "Gradle connection eviction");
+					t.setDaemon(true);
+					return t;
+				});
+			}
+			long period = Math.max(1, idleTimeMillis / 2);
+			evictionTask = evictionTimer.scheduleWithFixedDelay(this::evictIdleConnections, period, period, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void cancelEviction() {
+		if (evictionTask != null) {
+			evictionTask.cancel(false);
+			evictionTask = null;
+		}
+	}
+
+	private void closeQuietly(File projectDir, ProjectConnection connection) {
+		try {
+			log.debug("Closing Gradle connection for {}", projectDir);
+			connection.close();
+		} catch (Exception e) {
+			log.error("Failed to close Gradle connection for " + projectDir, e);
+		}
+	}
+
+}
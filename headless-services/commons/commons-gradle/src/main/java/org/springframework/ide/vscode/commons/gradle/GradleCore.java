@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Pivotal, Inc.
+ * Copyright (c) 2017, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,7 +11,12 @@
 package org.springframework.ide.vscode.commons.gradle;
 
 import java.io.File;
-import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import org.gradle.tooling.GradleConnectionException;
@@ -45,6 +50,14 @@ public class GradleCore {
 
 	static final String GLOB_GRADLE_FILE = "**/*.gradle";
 	
+	private static final String[] SETTINGS_FILES = { "settings.gradle", "settings.gradle.kts" };
+	private static final String GRADLE_PROPERTIES_FILE = "gradle.properties";
+	
+	/**
+	 * Connections and Gradle daemons are kept alive for this time after the last model request
+	 */
+	private static final long CONNECTION_IDLE_TIME_SECONDS = 180;
+	
 	private static GradleCore defaultInstance = null;
 	
 	public static GradleCore getDefault() {
@@ -54,39 +67,170 @@ public class GradleCore {
 		return defaultInstance;
 	}
 	
+	/**
+	 * Eclipse model of a whole multi-project build together with the state of the build scripts
+	 * it was computed from
+	 */
+	private static class BuildModel {
+		final EclipseProject rootProject;
+		final String buildFilesState;
+		
+		BuildModel(EclipseProject rootProject, String buildFilesState) {
+			this.rootProject = rootProject;
+			this.buildFilesState = buildFilesState;
+		}
+	}
+	
 	private GradleConfiguration configuration;
 	
+	private final GradleConnectionCache connections;
+	
+	private final Map<File, BuildModel> buildModels = new ConcurrentHashMap<>();
+	
 	public GradleCore() {
-		this.configuration = (connector) -> {};
+		this((connector) -> {});
 	}
 	
 	public GradleCore(GradleConfiguration configuration) {
 		Assert.isNotNull(configuration);
 		this.configuration = configuration;
+		this.connections = new GradleConnectionCache(this::connect, CONNECTION_IDLE_TIME_SECONDS, TimeUnit.SECONDS);
+	}
+	
+	private ProjectConnection connect(File projectDir) {
+		GradleConnector gradleConnector = GradleConnector.newConnector().forProjectDirectory(projectDir);
+		/*
+		 * Let Gradle daemons shut down shortly after cached connections to them are closed for being idle.
+		 * Project data is cached, hence no need to keep the daemon running beyond that
+		 */
+		((DefaultGradleConnector) gradleConnector).daemonMaxIdleTime((int) CONNECTION_IDLE_TIME_SECONDS, TimeUnit.SECONDS);
+		configuration.configure(gradleConnector);
+		// Use patched Gradle 4.4 distribution or higher as a workaround for https://github.com/gradle/gradle/issues/2483
+		gradleConnector.useGradleVersion("4.6");
+		return gradleConnector.connect();
 	}
 	
 	public <T> T getModel(File projectDir, Class<T> modelType) throws GradleException {
-		ProjectConnection connection = null;
 		try {
-			GradleConnector gradleConnector = GradleConnector.newConnector().forProjectDirectory(projectDir);
-			/*
-			 * Shut down Gradle daemons right away. Necessary project data is
-			 * queried once and then cached, hence no need need to have the
-			 * daemon running
-			 */
-			((DefaultGradleConnector) gradleConnector).daemonMaxIdleTime(1, TimeUnit.SECONDS);
-			configuration.configure(gradleConnector);
-			// Use patched Gradle 4.4 distribution or higher as a workaround for https://github.com/gradle/gradle/issues/2483
-			gradleConnector.useGradleVersion("4.6");
-			connection = gradleConnector.connect();
-			return connection.getModel(modelType);
+			return connections.withConnection(projectDir, connection -> connection.getModel(modelType));
 		} catch (GradleConnectionException e) {
 			Log.log(e);
 			throw new GradleException(e);
-		} finally {
-			if (connection != null) {
-				connection.close();
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new GradleException(e);
+		}
+	}
+	
+	/**
+	 * Eclipse model for the given project. Projects of a multi-project build are served from the model
+	 * of the whole build, which is fetched once and reused until one of the build scripts changes.
+	 */
+	public EclipseProject getEclipseProject(File projectDir) throws GradleException {
+		File rootDir = findBuildRoot(projectDir);
+		if (rootDir.equals(projectDir)) {
+			return getModel(projectDir, EclipseProject.class);
+		}
+		
+		BuildModel buildModel = buildModels.get(rootDir);
+		if (buildModel == null || !buildModel.buildFilesState.equals(getBuildFilesState(rootDir, buildModel.rootProject))) {
+			EclipseProject rootProject = getModel(rootDir, EclipseProject.class);
+			buildModel = new BuildModel(rootProject, getBuildFilesState(rootDir, rootProject));
+			buildModels.put(rootDir, buildModel);
+		}
+		
+		EclipseProject project = findProject(buildModel.rootProject, projectDir);
+		if (project == null) {
+			// project is not part of the surrounding build
+			return getModel(projectDir, EclipseProject.class);
+		}
+		return project;
+	}
+	
+	/**
+	 * Closes all Gradle connections kept open and drops cached build models
+	 */
+	public void dispose() {
+		buildModels.clear();
+		connections.dispose();
+	}
+	
+	/**
+	 * Finds the root folder of a multi-project build, i.e. the closest folder with a settings file
+	 * among the folders containing Gradle build files. The project folder itself is returned if
+	 * there is no such folder.
+	 */
+	static File findBuildRoot(File projectDir) {
+		File dir = projectDir;
+		while (dir != null && containsGradleFiles(dir)) {
+			for (String settingsFile : SETTINGS_FILES) {
+				if (new File(dir, settingsFile).isFile()) {
+					return dir;
+				}
 			}
+			dir = dir.getParentFile();
+		}
+		return projectDir;
+	}
+	
+	private static boolean containsGradleFiles(File dir) {
+		String[] names = dir.list((d, name) -> isGradleFile(name));
+		return names != null && names.length > 0;
+	}
+	
+	private static boolean isGradleFile(String name) {
+		return name.endsWith(".gradle") || name.endsWith(".gradle.kts") || name.equals(GRADLE_PROPERTIES_FILE);
+	}
+	
+	private static EclipseProject findProject(EclipseProject project, File projectDir) {
+		if (projectDir.equals(project.getProjectDirectory())) {
+			return project;
+		}
+		for (EclipseProject child : project.getChildren()) {
+			EclipseProject found = findProject(child, projectDir);
+			if (found != null) {
+				return found;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Size and modification stamps of the Gradle files in the folders of all projects of a build
+	 */
+	private static String getBuildFilesState(File rootDir, EclipseProject rootProject) {
+		List<File> dirs = new ArrayList<>();
+		dirs.add(rootDir);
+		collectProjectDirs(rootProject, dirs);
+		
+		StringBuilder state = new StringBuilder();
+		for (File dir : dirs) {
+			for (File file : getBuildFiles(dir)) {
+				state.append(file.getPath()).append(':').append(file.length()).append(':').append(file.lastModified()).append('\n');
+			}
+		}
+		return state.toString();
+	}
+	
+	/**
+	 * Gradle scripts and properties in the given folder
+	 */
+	static List<File> getBuildFiles(File dir) {
+		File[] files = dir.listFiles((d, name) -> isGradleFile(name));
+		if (files == null) {
+			return Collections.emptyList();
+		}
+		Arrays.sort(files);
+		return Arrays.asList(files);
+	}
+	
+	private static void collectProjectDirs(EclipseProject project, List<File> dirs) {
+		if (project.getProjectDirectory() != null) {
+			dirs.add(project.getProjectDirectory());
+		}
+		for (EclipseProject child : project.getChildren()) {
+			collectProjectDirs(child, dirs);
 		}
 	}
 	
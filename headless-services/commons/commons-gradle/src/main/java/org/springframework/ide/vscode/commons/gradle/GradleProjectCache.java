@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2018 Pivotal, Inc.
+ * Copyright (c) 2017, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -35,6 +35,8 @@ public class GradleProjectCache extends AbstractFileToProjectCache<GradleJavaPro
 		super(server, asyncUpdate, projectCacheFolder);
 		this.gradle = gradle;
 		this.javadocService = javadocService;
+		// close kept open Gradle connections and let daemons stop together with the server
+		server.onShutdown(gradle::dispose);
 	}
 
 	@Override
@@ -55,7 +57,7 @@ public class GradleProjectCache extends AbstractFileToProjectCache<GradleJavaPro
 				projectCacheFolder == null ? null : gradleFile.toPath().resolve(projectCacheFolder),
 				javadocService
 			);
-		performUpdate(gradleJavaProject, asyncUpdate, asyncUpdate);
+		performInitialUpdate(gradleJavaProject, gradleJavaProject.getClasspath().isUpToDate());
 		return gradleJavaProject;
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2019 Pivotal, Inc.
+ * Copyright (c) 2017, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,6 +14,8 @@ import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Stream;
 
 import org.gradle.tooling.model.build.BuildEnvironment;
@@ -46,7 +48,7 @@ public class GradleProjectClasspath implements IClasspath {
 
 	public GradleProjectClasspath(GradleCore gradle, File projectDir) throws GradleException {
 		super();
-		this.project = gradle.getModel(projectDir, EclipseProject.class);
+		this.project = gradle.getEclipseProject(projectDir);
 		this.buildEnvironment = gradle.getModel(projectDir, BuildEnvironment.class);
 	}
 
@@ -113,6 +115,22 @@ public class GradleProjectClasspath implements IClasspath {
 		}
 	}
 
+	/**
+	 * Gradle files of the project and of the root project of the build
+	 */
+	@Override
+	public List<File> getBuildFiles() {
+		List<File> files = new ArrayList<>();
+		EclipseProject root = getRootProject();
+		if (root != null && root != project) {
+			files.addAll(GradleCore.getBuildFiles(root.getProjectDirectory()));
+		}
+		if (project != null) {
+			files.addAll(GradleCore.getBuildFiles(project.getProjectDirectory()));
+		}
+		return files;
+	}
+
 	private static CPE createSourceCPE(EclipseProject project, EclipseSourceDirectory sf) {
 		File sourceFolder = sf.getDirectory();
 		String of = sf.getOutput();
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.gradle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.gradle.tooling.ProjectConnection;
+import org.junit.Test;
+
+/**
+ * Tests for {@link GradleConnectionCache} and build root detection in {@link GradleCore}
+ *
+ * @author Alex Boyko
+ *
+ */
+public class GradleConnectionCacheTest {
+
+	private final List<ProjectConnection> opened = new ArrayList<>();
+
+	private ProjectConnection connect(File projectDir) {
+		ProjectConnection connection = mock(ProjectConnection.class);
+		opened.add(connection);
+		return connection;
+	}
+
+	@Test
+	public void connectionIsReused() throws Exception {
+		GradleConnectionCache cache = new GradleConnectionCache(this::connect, 1, TimeUnit.MINUTES);
+		File projectA = new File("project-a");
+		File projectB = new File("project-b");
+
+		ProjectConnection first = cache.withConnection(projectA, c -> c);
+		ProjectConnection second = cache.withConnection(projectA, c -> c);
+		cache.withConnection(projectB, c -> c);
+
+		assertSame(first, second);
+		assertEquals(2, opened.size());
+		assertEquals(2, cache.size());
+		verify(first, never()).close();
+
+		cache.dispose();
+		assertEquals(0, cache.size());
+		verify(first).close();
+		verify(opened.get(1)).close();
+	}
+
+	@Test
+	public void failedConnectionIsClosed() throws Exception {
+		GradleConnectionCache cache = new GradleConnectionCache(this::connect, 1, TimeUnit.MINUTES);
+		File project = new File("project");
+
+		try {
+			cache.withConnection(project, c -> {
+				throw new IllegalStateException("build failed");
+			});
+			fail("callback exception expected");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+
+		assertEquals(0, cache.size());
+		verify(opened.get(0)).close();
+
+		ProjectConnection next = cache.withConnection(project, c -> c);
+		assertEquals(2, opened.size());
+		assertSame(opened.get(1), next);
+		cache.dispose();
+	}
+
+	@Test
+	public void idleConnectionsAreEvicted() throws Exception {
+		GradleConnectionCache cache = new GradleConnectionCache(this::connect, 50, TimeUnit.MILLISECONDS);
+		File project = new File("project");
+
+		cache.withConnection(project, c -> c);
+		cache.evictIdleConnections();
+		assertEquals(1, cache.size());
+
+		Thread.sleep(200);
+		cache.evictIdleConnections();
+		assertEquals(0, cache.size());
+		verify(opened.get(0), times(1)).close();
+		cache.dispose();
+	}
+
+	@Test
+	public void buildRootOfMultiProjectBuild() throws Exception {
+		File root = Files.createTempDirectory("gradle-build").toFile();
+		File subproject = new File(root, "sub");
+		File standalone = new File(root, "standalone");
+		subproject.mkdirs();
+		standalone.mkdirs();
+		new File(root, "settings.gradle").createNewFile();
+		new File(root, "build.gradle").createNewFile();
+		new File(subproject, "build.gradle").createNewFile();
+
+		assertEquals(root, GradleCore.findBuildRoot(root));
+		assertEquals(root, GradleCore.findBuildRoot(subproject));
+		// no gradle files, hence not part of the build
+		assertEquals(standalone, GradleCore.findBuildRoot(standalone));
+	}
+
+}
@@ -12,7 +12,9 @@ package org.springframework.ide.vscode.commons.jandex;
 
 import java.io.File;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.jboss.jandex.ClassInfo;
 import org.jboss.jandex.DotName;
@@ -22,6 +24,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.ide.vscode.commons.java.IClasspath;
 import org.springframework.ide.vscode.commons.java.IClasspathUtil;
 import org.springframework.ide.vscode.commons.java.IJavaModuleData;
+import org.springframework.ide.vscode.commons.protocol.java.Classpath;
+import org.springframework.ide.vscode.commons.protocol.java.Classpath.CPE;
 import org.springframework.ide.vscode.commons.util.FuzzyMatcher;
 
 import com.google.common.collect.ImmutableList;
@@ -62,12 +66,54 @@ public class BasicJandexIndex {
 
 	private ImmutableList<ModuleJandexIndex> modules;
 
+	private Map<CPE, IndexedEntry> indexedEntries = new HashMap<>();
+
+	/**
+	 * Modules of a classpath entry along with the state of its binary location when they were created
+	 */
+	private static class IndexedEntry {
+
+		final long lastModified;
+		final long length;
+		final ImmutableList<ModuleJandexIndex> modules;
+
+		IndexedEntry(File binaryLocation, ImmutableList<ModuleJandexIndex> modules) {
+			this.lastModified = binaryLocation.lastModified();
+			this.length = binaryLocation.length();
+			this.modules = modules;
+		}
+
+		/**
+		 * Output folders of source entries are watched and re-indexed separately. Jars may be rebuilt
+		 * in place (snapshots), hence only reused while their size and time stamp are the same.
+		 */
+		boolean isUpToDate(CPE cpe, File binaryLocation) {
+			if (Classpath.isSource(cpe)) {
+				return true;
+			}
+			return binaryLocation.isFile() && binaryLocation.lastModified() == lastModified && binaryLocation.length() == length;
+		}
+	}
+
 	BasicJandexIndex(IClasspath classpath, IndexFileFinder indexFileFinder) {
+		this(classpath, indexFileFinder, null);
+	}
+
+	/**
+	 * @param previous index of a previous classpath of the project, its modules are reused for the
+	 *                 entries that are the same and unchanged on disk or <code>null</code> to index all entries
+	 */
+	BasicJandexIndex(IClasspath classpath, IndexFileFinder indexFileFinder, BasicJandexIndex previous) {
 		ImmutableList.Builder<ModuleJandexIndex> builder = ImmutableList.builder();
 		try {
 			classpath.getClasspathEntries().forEach(cpe -> {
 				File binaryLocation = IClasspathUtil.binaryLocation(cpe);
-				builder.addAll(IndexRoutines.fromCPE(cpe, indexFileFinder.findIndexFile(binaryLocation)));
+				IndexedEntry indexed = previous == null ? null : previous.indexedEntries.get(cpe);
+				if (indexed == null || !indexed.isUpToDate(cpe, binaryLocation)) {
+					indexed = new IndexedEntry(binaryLocation, IndexRoutines.fromCPE(cpe, indexFileFinder.findIndexFile(binaryLocation)));
+				}
+				indexedEntries.put(cpe, indexed);
+				builder.addAll(indexed.modules);
 			});
 		} catch (Exception e) {
 			log.error("", e);
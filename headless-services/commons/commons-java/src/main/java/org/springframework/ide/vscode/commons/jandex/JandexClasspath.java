@@ -28,6 +28,7 @@ import org.springframework.ide.vscode.commons.java.IClasspathUtil;
 import org.springframework.ide.vscode.commons.java.IJavaModuleData;
 import org.springframework.ide.vscode.commons.java.IType;
 import org.springframework.ide.vscode.commons.protocol.java.Classpath;
+import org.springframework.ide.vscode.commons.protocol.java.ClasspathDelta;
 import org.springframework.ide.vscode.commons.util.FileObserver;
 
 import com.google.common.base.Supplier;
@@ -55,7 +56,8 @@ public final class JandexClasspath implements ClasspathIndex {
 	}
 
 	private Supplier<JandexIndex> javaIndex;
-	private final IClasspath classpath;
+	private volatile JandexIndex lastIndex;
+	private volatile IClasspath classpath;
 	private final FileObserver fileObserver;
 	private final JavadocProviderFactory javadocProviderFactory;
 
@@ -63,13 +65,29 @@ public final class JandexClasspath implements ClasspathIndex {
 		this.fileObserver = fileObserver;
 		this.classpath = classpath;
 		this.javadocProviderFactory = javadocProviderFactory;
-		this.javaIndex = Suppliers.synchronizedSupplier(Suppliers.memoize(() -> createIndex()));
+		this.javaIndex = indexSupplier(null);
 	}
 
-	protected JandexIndex createIndex() {
-		log.info("Creating JandexIndex for "+classpath.getName());
+	private Supplier<JandexIndex> indexSupplier(JandexIndex previous) {
+		return Suppliers.synchronizedSupplier(Suppliers.memoize(() -> {
+			JandexIndex index = createIndex(previous);
+			lastIndex = index;
+			return index;
+		}));
+	}
+
+	protected JandexIndex createIndex(JandexIndex previous) {
+		log.info((previous == null ? "Creating JandexIndex for " : "Updating JandexIndex for ") + classpath.getName());
 		attachFolderListeners();
-		return new JandexIndex(classpath, jarFile -> findIndexFile(jarFile), javadocProviderFactory);
+		return new JandexIndex(classpath, jarFile -> findIndexFile(jarFile), javadocProviderFactory, previous);
+	}
+
+	@Override
+	public boolean classpathChanged(IClasspath classpath, ClasspathDelta delta) {
+		// Entries that are the same and unchanged on disk keep their modules from the last index
+		this.classpath = classpath;
+		this.javaIndex = indexSupplier(lastIndex);
+		return true;
 	}
 
 	private Disposable.Composite subscriptions = Disposables.composite();
@@ -146,7 +164,8 @@ public final class JandexClasspath implements ClasspathIndex {
 
 	private void reindex() {
 		log.info("Clearing JandexIndex for "+classpath.getName());
-		this.javaIndex = Suppliers.synchronizedSupplier(Suppliers.memoize(() -> createIndex()));
+		this.lastIndex = null;
+		this.javaIndex = indexSupplier(null);
 	}
 
 	private static void updateQueue(Queue<String> queue, Set<String> exclusion, IType type) {
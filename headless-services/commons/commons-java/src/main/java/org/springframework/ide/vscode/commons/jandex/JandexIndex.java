@@ -53,7 +53,12 @@ public class JandexIndex extends BasicJandexIndex {
 
 	public JandexIndex(IClasspath classpath, IndexFileFinder indexFileFinder,
 			JavadocProviderFactory javadocProviderFactory) {
-		super(classpath, indexFileFinder);
+		this(classpath, indexFileFinder, javadocProviderFactory, null);
+	}
+
+	public JandexIndex(IClasspath classpath, IndexFileFinder indexFileFinder,
+			JavadocProviderFactory javadocProviderFactory, JandexIndex previous) {
+		super(classpath, indexFileFinder, previous);
 		this.javadocProviderFactory = javadocProviderFactory;
 	}
 
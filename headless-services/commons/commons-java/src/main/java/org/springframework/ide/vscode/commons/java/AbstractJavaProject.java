@@ -13,11 +13,13 @@ package org.springframework.ide.vscode.commons.java;
 import java.io.File;
 import java.net.URI;
 
+import org.springframework.ide.vscode.commons.protocol.java.ClasspathDelta;
+
 import reactor.core.Disposable;
 
 public abstract class AbstractJavaProject implements IJavaProject, Disposable {
 
-	private final IClasspath classpath;
+	private volatile IClasspath classpath;
 	private final URI uri;
 
 	private ClasspathIndex index;
@@ -41,6 +43,24 @@ public abstract class AbstractJavaProject implements IJavaProject, Disposable {
 
 	abstract protected ClasspathIndex createIndex();
 
+	/**
+	 * Sets the new classpath of the project. The index is updated for the delta if it supports it,
+	 * otherwise it is dropped and created for the new classpath when needed next.
+	 */
+	public void updateClasspath(IClasspath classpath, ClasspathDelta delta) {
+		Disposable toDispose = null;
+		synchronized (this) {
+			this.classpath = classpath;
+			if (index != null && !index.classpathChanged(classpath, delta)) {
+				toDispose = index;
+				index = null;
+			}
+		}
+		if (toDispose!=null) {
+			toDispose.dispose();
+		}
+	}
+
 	@Override
 	public URI getLocationUri() {
 		return uri;
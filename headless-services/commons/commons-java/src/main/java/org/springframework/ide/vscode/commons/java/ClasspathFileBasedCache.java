@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2018 Pivotal, Inc.
+ * Copyright (c) 2017, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,12 +15,25 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.ide.vscode.commons.protocol.java.Classpath;
+import org.springframework.ide.vscode.commons.protocol.java.Classpath.CPE;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonObject;
 
+/**
+ * File based cache for classpath data. Along with the data the size and modification time of the
+ * build files the classpath has been computed from and of the binary classpath entries are stored.
+ * These allow to check quickly on startup whether the cached data can be used as is.
+ */
 public class ClasspathFileBasedCache {
 
 	private static final Gson gson = new Gson();
@@ -30,20 +43,68 @@ public class ClasspathFileBasedCache {
 
 	public static final String CLASSPATH_DATA_CACHE_FILE = "classpath-data.json";
 
+	private static final String DATA_PROPERTY = "data";
+
+	/**
+	 * Size and modification time of a file
+	 */
+	static class Fingerprint {
+		long size;
+		long lastModified;
+
+		Fingerprint() {}
+
+		Fingerprint(File file) {
+			this.size = file.length();
+			this.lastModified = file.lastModified();
+		}
+
+		boolean matches(File file) {
+			return file.isFile() && file.length() == size && file.lastModified() == lastModified;
+		}
+	}
+
+	/**
+	 * Content of the cache file
+	 */
+	private static class Snapshot {
+		ClasspathData data;
+		Map<String, Fingerprint> buildFiles;
+		Map<String, Fingerprint> entries;
+	}
+
 	final private File file;
 
+	/**
+	 * Last persisted or loaded snapshot
+	 */
+	private Snapshot snapshot;
+
 	public ClasspathFileBasedCache(File file) {
 		super();
 		this.file = file;
 	}
 
 	public synchronized void persist(ClasspathData data) {
+		persist(data, Collections.emptyList());
+	}
+
+	public synchronized void persist(ClasspathData data, Collection<File> buildFiles) {
 		if (file != null && data != null) {
+			Snapshot newSnapshot = new Snapshot();
+			newSnapshot.data = data;
+			newSnapshot.buildFiles = fingerprints(buildFiles.stream());
+			newSnapshot.entries = fingerprints(data.getClasspathEntries().stream()
+					.filter(cpe -> Classpath.ENTRY_KIND_BINARY.equals(cpe.getKind()))
+					.map(CPE::getPath)
+					.map(File::new));
+
 			FileWriter writer = null;
 			try {
 				Files.createDirectories(file.getParentFile().toPath());
 				writer = new FileWriter(file);
-				gson.toJson(data, writer);
+				gson.toJson(newSnapshot, writer);
+				snapshot = newSnapshot;
 			} catch (IOException e) {
 				log.error("Failed to write JSON data to " + file, e);
 			} finally {
@@ -67,7 +128,17 @@ public class ClasspathFileBasedCache {
 			FileReader fileReader = null;
 			try {
 				fileReader = new FileReader(file);
-				return gson.fromJson(fileReader, ClasspathData.class);
+				JsonObject json = gson.fromJson(fileReader, JsonObject.class);
+				if (json != null && json.has(DATA_PROPERTY)) {
+					snapshot = gson.fromJson(json, Snapshot.class);
+				} else {
+					// Data persisted by previous versions comes without fingerprints
+					snapshot = new Snapshot();
+					snapshot.data = gson.fromJson(json, ClasspathData.class);
+				}
+				if (snapshot.data != null) {
+					return snapshot.data;
+				}
 			} catch (Throwable e) {
 				log.error("Failed to read JSON data from " + file, e);
 			} finally {
@@ -83,11 +154,37 @@ public class ClasspathFileBasedCache {
 		return ClasspathData.EMPTY_CLASSPATH_DATA;
 	}
 
+	/**
+	 * Checks whether none of the build files and binary classpath entries recorded with the last
+	 * persisted or loaded data has changed since. Files are checked in parallel.
+	 *
+	 * @return <code>true</code> if the cached data is up to date, <code>false</code> if the data
+	 *         may be stale or it is unknown which files it depends on
+	 */
+	public boolean isUpToDate() {
+		Snapshot s;
+		synchronized (this) {
+			s = snapshot;
+		}
+		if (s == null || s.buildFiles == null || s.buildFiles.isEmpty() || s.entries == null || !isCached()) {
+			return false;
+		}
+		return Stream.concat(s.buildFiles.entrySet().stream(), s.entries.entrySet().stream())
+				.parallel()
+				.allMatch(e -> e.getValue().matches(new File(e.getKey())));
+	}
 
-	public void delete() {
+	public synchronized void delete() {
+		snapshot = null;
 		if (file != null && file.exists()) {
 			file.delete();
 		}
 	}
 
+	private static Map<String, Fingerprint> fingerprints(Stream<File> files) {
+		Map<String, Fingerprint> fingerprints = new HashMap<>();
+		files.filter(File::isFile).forEach(f -> fingerprints.put(f.getAbsolutePath(), new Fingerprint(f)));
+		return fingerprints;
+	}
+
 }
@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.springframework.ide.vscode.commons.java;
 
+import org.springframework.ide.vscode.commons.protocol.java.ClasspathDelta;
+
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.util.function.Tuple2;
@@ -24,4 +26,12 @@ public interface ClasspathIndex extends Disposable {
 	Flux<IType> allSuperTypesOf(String fqName, boolean includeFocusType, boolean detailed);
 	IJavaModuleData findClasspathResourceContainer(String fqName);
 
+	/**
+	 * Updates the index for the changed classpath of the project. Returns <code>false</code> if the index
+	 * cannot be updated for the delta and needs to be created again for the new classpath.
+	 */
+	default boolean classpathChanged(IClasspath classpath, ClasspathDelta delta) {
+		return false;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2019 Pivotal, Inc.
+ * Copyright (c) 2017, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,9 @@
  *******************************************************************************/
 package org.springframework.ide.vscode.commons.java;
 
+import java.io.File;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -24,7 +27,8 @@ import com.google.common.collect.ImmutableList;
  * This wrapper around a classpath manages classpath data from and to a file-based cache (e.g. ".sts4-cache/classpath-data.json") with classpath data obtained
  * from a project (e.g., maven or gradle project) through an "update" operation.
  *
- * The cached classpath data is written to the file and loaded from it when instance of this classpath is created
+ * The cached classpath data is written to the file and loaded from it when instance of this classpath is created. Loaded data that
+ * is still up to date (see {@link #isUpToDate()}) can be served right away while the update runs in the background.
  *
  * NOTE: Classpath data may not be available until an actual update is requested on this wrapper.
  *
@@ -84,14 +88,28 @@ public class DelegatingCachedClasspath implements IClasspath {
 		return fileBasedCache.isCached();
 	}
 
+	/**
+	 * @return <code>true</code> if the cached classpath data has been computed from the current state
+	 *         of the build files and binary classpath entries, hence can be used right away
+	 */
+	public boolean isUpToDate() {
+		return fileBasedCache.isUpToDate();
+	}
+
 	public boolean update() throws Exception {
 		try {
 			final ClasspathData newData = createClasspathData();
+			IClasspath delegate = cachedClasspath.get();
+			Collection<File> buildFiles = delegate == null ? Collections.emptyList() : delegate.getBuildFiles();
 			if (!Objects.equal(cachedData.get(), newData)) {
 				cachedData.set(newData);
-				fileBasedCache.persist(newData);
+				fileBasedCache.persist(newData, buildFiles);
 				return true;
 			}
+			if (!fileBasedCache.isUpToDate()) {
+				// same data but build files were touched, refresh fingerprints for the next start
+				fileBasedCache.persist(newData, buildFiles);
+			}
 			return false;
 		} catch (Exception e) {
 			cachedData.set(ClasspathData.EMPTY_CLASSPATH_DATA);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2019 Pivotal, Inc.
+ * Copyright (c) 2016, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,7 +10,9 @@
  *******************************************************************************/
 package org.springframework.ide.vscode.commons.java;
 
+import java.io.File;
 import java.util.Collection;
+import java.util.Collections;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,4 +38,14 @@ public interface IClasspath {
 	 * @throws Exception
 	 */
 	Collection<CPE> getClasspathEntries() throws Exception;
+
+	/**
+	 * Build files (e.g. pom files or gradle scripts) the classpath is computed from
+	 *
+	 * @return collection of build files, empty if unknown
+	 */
+	default Collection<File> getBuildFiles() {
+		return Collections.emptyList();
 	}
+
+}
@@ -27,7 +27,7 @@ public class JavaProject extends AbstractJavaProject {
 		super(uri, classpath);
 		this.fileObserver = fileObserver;
 		this.javadocProviderFactory = (classpathResource) -> {
-			CPE cpe = IClasspathUtil.findEntryForBinaryRoot(classpath, classpathResource);
+			CPE cpe = IClasspathUtil.findEntryForBinaryRoot(getClasspath(), classpathResource);
 			return javadocService.javadocProvider(uri.toString(), cpe);
 		};
 	}
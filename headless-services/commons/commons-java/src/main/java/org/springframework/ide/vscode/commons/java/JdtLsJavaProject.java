@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019 Pivotal, Inc.
+ * Copyright (c) 2019, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,6 +12,7 @@ package org.springframework.ide.vscode.commons.java;
 
 import java.net.URI;
 
+import org.springframework.ide.vscode.commons.jdtls.BinaryTypeDataCache;
 import org.springframework.ide.vscode.commons.jdtls.JdtLsIndex;
 import org.springframework.ide.vscode.commons.languageserver.java.ProjectObserver;
 import org.springframework.ide.vscode.commons.protocol.STS4LanguageClient;
@@ -20,16 +21,22 @@ public class JdtLsJavaProject extends AbstractJavaProject {
 
 	final private STS4LanguageClient client;
 	final private ProjectObserver projectObserver;
+	final private BinaryTypeDataCache typeDataCache;
 
 	public JdtLsJavaProject(STS4LanguageClient client, URI uri, IClasspath classpath, ProjectObserver projectObserver) {
+		this(client, uri, classpath, projectObserver, null);
+	}
+
+	public JdtLsJavaProject(STS4LanguageClient client, URI uri, IClasspath classpath, ProjectObserver projectObserver, BinaryTypeDataCache typeDataCache) {
 		super(uri, classpath);
 		this.client = client;
 		this.projectObserver = projectObserver;
+		this.typeDataCache = typeDataCache;
 	}
 
 	@Override
 	protected ClasspathIndex createIndex() {
-		return new JdtLsIndex(client, getLocationUri(), projectObserver);
+		return new JdtLsIndex(client, getLocationUri(), projectObserver, typeDataCache, getClasspath());
 	}
 
 }
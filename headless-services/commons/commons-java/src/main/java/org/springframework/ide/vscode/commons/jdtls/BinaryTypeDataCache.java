@@ -0,0 +1,307 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.jdtls;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ide.vscode.commons.protocol.java.Classpath;
+import org.springframework.ide.vscode.commons.protocol.java.TypeData;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Disk based cache of type data for types from binary classpath entries, i.e. jars. Type data is
+ * stored per jar and identified by the jar path, size and modification time. Cached data therefore
+ * stays valid across restarts and classpath changes until the jar itself changes. Data stored for
+ * previous versions of a jar is deleted once data for the current version is written. The cache
+ * is meant to be shared by all projects.
+ *
+ * @author Alex Boyko
+ *
+ */
+public class BinaryTypeDataCache {
+
+	private static final Logger log = LoggerFactory.getLogger(BinaryTypeDataCache.class);
+
+	private static final Gson gson = new Gson();
+	private static final Type STORE_TYPE = new TypeToken<Map<String, TypeData>>() {}.getType();
+
+	private static final String STORE_FILE_EXTENSION = ".json";
+
+	/**
+	 * Maximum number of jar stores kept in memory
+	 */
+	private static final long MAX_STORES = 1000;
+
+	/**
+	 * Cached type data of a specific jar
+	 */
+	public static class JarStore {
+
+		private final File file;
+		private final Map<String, TypeData> types;
+		private final AtomicBoolean dirty = new AtomicBoolean();
+		private final Supplier<Set<String>> classFiles;
+
+		private JarStore(File file, File jar, Map<String, TypeData> types) {
+			this.file = file;
+			this.types = types;
+			this.classFiles = Suppliers.memoize(() -> readClassFiles(jar));
+		}
+
+		public TypeData get(String bindingKey) {
+			return types.get(bindingKey);
+		}
+
+		/**
+		 * @return <code>true</code> unless the jar is known not to contain the class file of the type
+		 */
+		boolean mayContain(String bindingKey) {
+			Set<String> names = classFiles.get();
+			return names == null || names.contains(bindingKey.substring(1, bindingKey.length() - 1) + ".class");
+		}
+
+		public int size() {
+			return types.size();
+		}
+	}
+
+	private final File cacheDirectory;
+	private final Cache<String, JarStore> stores = CacheBuilder.newBuilder()
+			.maximumSize(MAX_STORES)
+			.build();
+
+	/**
+	 * Stores with changes not written to disk yet by store file name. A store evicted from memory
+	 * before its changes are written is served from here rather than reloaded from the outdated file.
+	 */
+	private final Map<String, JarStore> unsavedStores = new ConcurrentHashMap<>();
+	private final ExecutorService writer;
+
+	public BinaryTypeDataCache() {
+		this(new File(System.getProperty("user.home") + File.separatorChar + ".sts4" + File.separatorChar + ".typeCache"));
+	}
+
+	public BinaryTypeDataCache(File cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+		this.writer = Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "Binary type data cache writer");
+			t.setDaemon(true);
+			return t;
+		});
+
+		if (!this.cacheDirectory.exists()) {
+			this.cacheDirectory.mkdirs();
+		}
+
+		if (!this.cacheDirectory.exists()) {
+			log.warn("type data cache directory does not exist and cannot be created: " + this.cacheDirectory.toString());
+		}
+	}
+
+	/**
+	 * Stores of the given jars in the same order. Stores of jars that have no cached data yet are empty.
+	 */
+	public List<JarStore> getStores(Collection<File> jars) {
+		List<JarStore> result = new ArrayList<>(jars.size());
+		for (File jar : jars) {
+			if (jar.isFile()) {
+				result.add(getStore(jar));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Looks up type data in the given stores
+	 *
+	 * @return type data of the first jar in classpath order that has the type or <code>null</code> if
+	 *         the type is not known from cached data, i.e. a jar that may have the type has no data for it yet
+	 */
+	public static TypeData find(List<JarStore> stores, String bindingKey) {
+		for (JarStore store : stores) {
+			TypeData data = store.get(bindingKey);
+			if (data != null) {
+				return data;
+			}
+			if (store.mayContain(bindingKey)) {
+				// Type from this jar might shadow data cached for jars further down the classpath
+				return null;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Adds type data of a binary type to the store of the jar it comes from. Data of source types is ignored.
+	 */
+	public void put(TypeData data) {
+		if (data == null || data.getBindingKey() == null || data.getClasspathEntry() == null || !Classpath.isBinary(data.getClasspathEntry().getCpe())) {
+			return;
+		}
+		File jar = new File(data.getClasspathEntry().getCpe().getPath());
+		if (!jar.isFile()) {
+			return;
+		}
+		JarStore store = getStore(jar);
+		store.types.put(data.getBindingKey(), data);
+		synchronized (store) {
+			if (store.dirty.compareAndSet(false, true)) {
+				unsavedStores.put(store.file.getName(), store);
+				writer.execute(() -> save(store));
+			}
+		}
+	}
+
+	/**
+	 * Waits for pending writes to disk
+	 */
+	public void flush() {
+		try {
+			writer.submit(() -> {}).get(10, TimeUnit.SECONDS);
+		} catch (Exception e) {
+			log.error("", e);
+		}
+	}
+
+	private JarStore getStore(File jar) {
+		String storeFileName = storeFileName(jar);
+		try {
+			return stores.get(storeFileName, () -> load(storeFileName, jar));
+		} catch (ExecutionException e) {
+			throw new UncheckedExecutionException(e.getCause());
+		}
+	}
+
+	private JarStore load(String storeFileName, File jar) {
+		JarStore unsaved = unsavedStores.get(storeFileName);
+		if (unsaved != null) {
+			return unsaved;
+		}
+		File file = new File(cacheDirectory, storeFileName);
+		Map<String, TypeData> types = new ConcurrentHashMap<>();
+		if (file.exists()) {
+			try (Reader reader = new FileReader(file)) {
+				Map<String, TypeData> stored = gson.fromJson(reader, STORE_TYPE);
+				if (stored != null) {
+					types.putAll(stored);
+				}
+			} catch (Exception e) {
+				log.error("Failed to read cached type data from " + file, e);
+			}
+		}
+		return new JarStore(file, jar, types);
+	}
+
+	private void save(JarStore store) {
+		synchronized (store) {
+			store.dirty.set(false);
+		}
+		try {
+			File tmp = new File(store.file.getPath() + ".tmp");
+			try (Writer w = new FileWriter(tmp)) {
+				gson.toJson(store.types, STORE_TYPE, w);
+			} catch (IOException e) {
+				log.error("Failed to write cached type data to " + tmp, e);
+				return;
+			}
+			if (!tmp.renameTo(store.file)) {
+				store.file.delete();
+				if (!tmp.renameTo(store.file)) {
+					log.error("Failed to write cached type data to " + store.file);
+					return;
+				}
+			}
+			deleteOutdatedFiles(store.file);
+		} finally {
+			synchronized (store) {
+				// Changes made while writing are written with the next save
+				if (!store.dirty.get()) {
+					unsavedStores.remove(store.file.getName(), store);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Deletes files with type data of previous versions of the jar the given store file belongs to
+	 */
+	private void deleteOutdatedFiles(File storeFile) {
+		String name = storeFile.getName();
+		String pathHashPrefix = name.substring(0, name.indexOf('-') + 1);
+		File[] outdated = cacheDirectory.listFiles((dir, fileName) -> fileName.startsWith(pathHashPrefix)
+				&& fileName.endsWith(STORE_FILE_EXTENSION) && !fileName.equals(name));
+		if (outdated != null) {
+			for (File file : outdated) {
+				if (!file.delete()) {
+					log.warn("Failed to delete outdated type data " + file);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return names of the class files in the jar or <code>null</code> if the jar cannot be read
+	 */
+	private static Set<String> readClassFiles(File jar) {
+		try (ZipFile zip = new ZipFile(jar)) {
+			Set<String> names = new HashSet<>();
+			Enumeration<? extends ZipEntry> entries = zip.entries();
+			while (entries.hasMoreElements()) {
+				String name = entries.nextElement().getName();
+				if (name.endsWith(".class")) {
+					names.add(name);
+				}
+			}
+			return names;
+		} catch (IOException e) {
+			log.warn("Failed to read class files of " + jar, e);
+			return null;
+		}
+	}
+
+	private static String storeFileName(File jar) {
+		String pathHash = Hashing.sha256().hashString(jar.getAbsolutePath(), StandardCharsets.UTF_8).toString();
+		return pathHash + "-" + jar.length() + "-" + jar.lastModified() + STORE_FILE_EXTENSION;
+	}
+
+}
@@ -10,10 +10,16 @@
  *******************************************************************************/
 package org.springframework.ide.vscode.commons.jdtls;
 
+import java.io.File;
 import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -22,15 +28,21 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ide.vscode.commons.java.ClasspathIndex;
+import org.springframework.ide.vscode.commons.java.IClasspath;
+import org.springframework.ide.vscode.commons.java.IClasspathUtil;
 import org.springframework.ide.vscode.commons.java.IJavaModuleData;
+import org.springframework.ide.vscode.commons.java.IJavaProject;
 import org.springframework.ide.vscode.commons.java.IType;
 import org.springframework.ide.vscode.commons.java.JavaUtils;
 import org.springframework.ide.vscode.commons.javadoc.JdtLsJavadocProvider;
+import org.springframework.ide.vscode.commons.jdtls.BinaryTypeDataCache.JarStore;
 import org.springframework.ide.vscode.commons.languageserver.java.ProjectObserver;
 import org.springframework.ide.vscode.commons.languageserver.java.ProjectObserver.Listener;
 import org.springframework.ide.vscode.commons.protocol.STS4LanguageClient;
 import org.springframework.ide.vscode.commons.protocol.java.Classpath;
-import org.springframework.ide.vscode.commons.protocol.java.JavaDataParams;
+import org.springframework.ide.vscode.commons.protocol.java.Classpath.CPE;
+import org.springframework.ide.vscode.commons.protocol.java.ClasspathDelta;
+import org.springframework.ide.vscode.commons.protocol.java.ClasspathDelta.AddedEntry;
 import org.springframework.ide.vscode.commons.protocol.java.JavaSearchParams;
 import org.springframework.ide.vscode.commons.protocol.java.JavaSearchParams.SearchType;
 import org.springframework.ide.vscode.commons.protocol.java.JavaTypeHierarchyParams;
@@ -38,6 +50,7 @@ import org.springframework.ide.vscode.commons.protocol.java.TypeData;
 import org.springframework.ide.vscode.commons.protocol.java.TypeDescriptorData;
 import org.springframework.ide.vscode.commons.util.FuzzyMatcher;
 
+import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
@@ -66,21 +79,55 @@ public class JdtLsIndex implements ClasspathIndex {
 	final private Cache<JavaTypeHierarchyParams, CompletableFuture<List<IType>>> subtypesCache = CacheBuilder.newBuilder().expireAfterAccess(10, TimeUnit.SECONDS).build();
 	
 	final private Listener projectListener;
+	
+	final private TypeDataBatcher typeDataBatcher;
+
+	final private BinaryTypeDataCache typeDataCache;
+	private volatile IClasspath classpath;
+	private volatile Map<File, String> jarFingerprints;
+	private volatile Supplier<List<JarStore>> jarStores;
+	private volatile Supplier<List<File>> sourceFolders;
 
 	public JdtLsIndex(STS4LanguageClient client, URI projectUri, ProjectObserver projectObserver) {
+		this(client, projectUri, projectObserver, null, null);
+	}
+
+	/**
+	 * @param typeDataCache disk cache for type data of binary types shared across projects or <code>null</code>
+	 * @param classpath classpath of the project to look up binary types from the disk cache
+	 */
+	public JdtLsIndex(STS4LanguageClient client, URI projectUri, ProjectObserver projectObserver, BinaryTypeDataCache typeDataCache, IClasspath classpath) {
 		this.client = client;
 		this.projectUri = projectUri;
 		this.projectObserver = projectObserver;
 		this.javadocProvider = new JdtLsJavadocProvider(client, projectUri.toString());
+		this.typeDataBatcher = new TypeDataBatcher(client, projectUri.toString());
+		this.typeDataCache = typeDataCache;
+		this.classpath = classpath;
+		this.jarFingerprints = jarFingerprints(classpath);
+		this.jarStores = createJarStoresSupplier();
+		this.sourceFolders = createSourceFoldersSupplier();
 		
-		this.projectListener = ProjectObserver.onAny(project -> {
-			if (Objects.equals(project.getLocationUri(), projectUri)) {
-				binaryTypeCache.invalidateAll();
-				sourceTypeCache.invalidateAll();
-				supertypesCache.invalidateAll();
-				subtypesCache.invalidateAll();
+		this.projectListener = new Listener() {
+
+			@Override
+			public void created(IJavaProject project) {
+				invalidateAll(project);
 			}
-		});
+
+			@Override
+			public void changed(IJavaProject project) {
+				// Classpath deltas have been applied already via classpathChanged(...)
+				if (project.getClasspath() != classpath) {
+					invalidateAll(project);
+				}
+			}
+
+			@Override
+			public void deleted(IJavaProject project) {
+				invalidateAll(project);
+			}
+		};
 
 		this.projectObserver.addListener(projectListener);
 	}
@@ -90,6 +137,58 @@ public class JdtLsIndex implements ClasspathIndex {
 		projectObserver.removeListener(projectListener);
 	}
 
+	private void invalidateAll(IJavaProject project) {
+		if (Objects.equals(project.getLocationUri(), projectUri)) {
+			jarStores = createJarStoresSupplier();
+			sourceFolders = createSourceFoldersSupplier();
+			binaryTypeCache.invalidateAll();
+			sourceTypeCache.invalidateAll();
+			supertypesCache.invalidateAll();
+			subtypesCache.invalidateAll();
+		}
+	}
+
+	@Override
+	public boolean classpathChanged(IClasspath classpath, ClasspathDelta delta) {
+		Set<File> outdated = new HashSet<>();
+		// Jars rebuilt in place are the same entries but have different contents
+		Map<File, String> fingerprints = jarFingerprints(classpath);
+		fingerprints.forEach((jar, fingerprint) -> {
+			if (!fingerprint.equals(jarFingerprints.get(jar))) {
+				outdated.add(jar);
+			}
+		});
+		try {
+			for (CPE cpe : delta.getRemoved()) {
+				outdated.add(IClasspathUtil.binaryLocation(cpe));
+			}
+			for (CPE cpe : delta.getChanged()) {
+				outdated.add(IClasspathUtil.binaryLocation(cpe));
+			}
+			// Added entries may shadow types of the entries following them
+			int firstAdded = delta.getAdded().stream().mapToInt(AddedEntry::getIndex).min().orElse(Integer.MAX_VALUE);
+			int i = 0;
+			for (CPE cpe : classpath.getClasspathEntries()) {
+				if (i++ >= firstAdded) {
+					outdated.add(IClasspathUtil.binaryLocation(cpe));
+				}
+			}
+		} catch (Exception e) {
+			log.error("", e);
+			return false;
+		}
+
+		this.classpath = classpath;
+		this.jarFingerprints = fingerprints;
+		jarStores = createJarStoresSupplier();
+		sourceFolders = createSourceFoldersSupplier();
+		binaryTypeCache.asMap().values().removeIf(type -> !type.isPresent() || outdated.contains(type.get().classpathContainer().getContainer()));
+		sourceTypeCache.invalidateAll();
+		supertypesCache.invalidateAll();
+		subtypesCache.invalidateAll();
+		return true;
+	}
+
 	private IType toType(TypeData data) {
 		String declaringTypeBindingKey = data.getDeclaringType();
 		String declaringTypeFqName = JavaUtils.typeBindingKeyToFqName(declaringTypeBindingKey);
@@ -102,9 +201,75 @@ public class JdtLsIndex implements ClasspathIndex {
 		return Wrappers.wrap(data, Suppliers.memoize(() -> findType(data.getFqName())), Suppliers.memoize(() -> declaringTypeFqName == null ? null : findType(declaringTypeFqName)), javadocProvider);
 	}
 
+	private static Map<File, String> jarFingerprints(IClasspath classpath) {
+		Map<File, String> fingerprints = new HashMap<>();
+		if (classpath != null) {
+			for (File jar : IClasspathUtil.getBinaryRoots(classpath, Classpath::isBinary)) {
+				if (jar.isFile()) {
+					fingerprints.put(jar, jar.length() + "-" + jar.lastModified());
+				}
+			}
+		}
+		return fingerprints;
+	}
+
+	private Supplier<List<JarStore>> createJarStoresSupplier() {
+		if (typeDataCache == null || classpath == null) {
+			return Collections::emptyList;
+		}
+		return Suppliers.memoize(() -> {
+			List<File> jars = IClasspathUtil.getBinaryRoots(classpath, Classpath::isBinary);
+			return typeDataCache.getStores(jars);
+		});
+	}
+
+	private Supplier<List<File>> createSourceFoldersSupplier() {
+		if (typeDataCache == null || classpath == null) {
+			return Collections::emptyList;
+		}
+		return Suppliers.memoize(() -> IClasspathUtil.getSourceFolders(classpath).collect(Collectors.toList()));
+	}
+
+	/**
+	 * @return <code>true</code> if a source folder of the project has a compilation unit that may declare the type
+	 */
+	private boolean isSourceType(String fqName) {
+		List<File> folders = sourceFolders.get();
+		if (folders.isEmpty()) {
+			return false;
+		}
+		// Nested types are declared in the compilation unit of an enclosing type
+		int nested = fqName.indexOf('$');
+		String path = (nested < 0 ? fqName : fqName.substring(0, nested)).replace('.', File.separatorChar);
+		while (true) {
+			for (File folder : folders) {
+				if (new File(folder, path + ".java").isFile()) {
+					return true;
+				}
+			}
+			int lastSegment = path.lastIndexOf(File.separatorChar);
+			if (lastSegment < 0) {
+				return false;
+			}
+			path = path.substring(0, lastSegment);
+		}
+	}
+
 	private TypeData findTypeData(String fqName) throws InterruptedException, ExecutionException {
-		JavaDataParams params = new JavaDataParams(projectUri.toString(), "L" + fqName.replace('.', '/') + ";", false);
-		return client.javaType(params).get();
+		String bindingKey = "L" + fqName.replace('.', '/') + ";";
+		// Types from jars might be known from previous sessions, unless a source type of the project has the same name
+		TypeData data = BinaryTypeDataCache.find(jarStores.get(), bindingKey);
+		if (data != null && isSourceType(fqName)) {
+			data = null;
+		}
+		if (data == null) {
+			// Concurrent lookups are sent to JDT LS in batches
+			data = typeDataBatcher.request(bindingKey).get();
+			if (data != null && typeDataCache != null) {
+				typeDataCache.put(data);
+			}
+		}
+		return data;
 	}
 
 	@Override
@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.jdtls;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.lsp4j.jsonrpc.ResponseErrorException;
+import org.eclipse.lsp4j.jsonrpc.messages.ResponseErrorCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ide.vscode.commons.protocol.STS4LanguageClient;
+import org.springframework.ide.vscode.commons.protocol.java.JavaDataParams;
+import org.springframework.ide.vscode.commons.protocol.java.TypeData;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Coalesces concurrent type data requests for a project into batches. While a request is
+ * in flight, further requests are collected and sent together as a single request once
+ * the previous one has completed. A lone request goes out right away, so sequential
+ * lookups are not delayed.
+ * <p>
+ * Falls back to requests per type if the client doesn't support batched requests.
+ *
+ * @author Alex Boyko
+ *
+ */
+class TypeDataBatcher {
+
+	private static final Logger log = LoggerFactory.getLogger(TypeDataBatcher.class);
+
+	private static final Duration BATCH_TIMEOUT = Duration.ofSeconds(30);
+
+	private final STS4LanguageClient client;
+	private final String projectUri;
+
+	private final Map<String, CompletableFuture<TypeData>> pending = new LinkedHashMap<>();
+	private final Map<String, CompletableFuture<TypeData>> inFlight = new LinkedHashMap<>();
+	private boolean sending;
+
+	private volatile boolean batchingSupported = true;
+
+	TypeDataBatcher(STS4LanguageClient client, String projectUri) {
+		this.client = client;
+		this.projectUri = projectUri;
+	}
+
+	CompletableFuture<TypeData> request(String bindingKey) {
+		CompletableFuture<TypeData> future;
+		boolean send = false;
+		synchronized (this) {
+			future = inFlight.get(bindingKey);
+			if (future == null) {
+				future = pending.get(bindingKey);
+			}
+			if (future == null) {
+				future = new CompletableFuture<>();
+				pending.put(bindingKey, future);
+			}
+			if (!sending) {
+				sending = true;
+				send = true;
+			}
+		}
+		if (send) {
+			sendNextBatch();
+		}
+		return future;
+	}
+
+	private void sendNextBatch() {
+		Map<String, CompletableFuture<TypeData>> batch;
+		synchronized (this) {
+			inFlight.clear();
+			if (pending.isEmpty()) {
+				sending = false;
+				return;
+			}
+			batch = new LinkedHashMap<>(pending);
+			pending.clear();
+			inFlight.putAll(batch);
+		}
+		Mono.defer(() -> Mono.fromFuture(send(batch)))
+			.timeout(BATCH_TIMEOUT)
+			.doOnError(e -> batch.values().forEach(f -> f.completeExceptionally(e)))
+			.doFinally(signal -> sendNextBatch())
+			.subscribe(v -> {}, e -> log.error("Type data request failed", e));
+	}
+
+	private CompletableFuture<Void> send(Map<String, CompletableFuture<TypeData>> batch) {
+		if (batch.size() == 1 || !batchingSupported) {
+			return sendIndividually(batch);
+		}
+		List<String> bindingKeys = new ArrayList<>(batch.keySet());
+		List<JavaDataParams> params = new ArrayList<>(bindingKeys.size());
+		for (String bindingKey : bindingKeys) {
+			params.add(createParams(bindingKey));
+		}
+		return client.javaTypes(params).handle((results, error) -> {
+			if (error == null) {
+				for (int i = 0; i < bindingKeys.size(); i++) {
+					CompletableFuture<TypeData> future = batch.get(bindingKeys.get(i));
+					if (results != null && i < results.size()) {
+						future.complete(results.get(i));
+					} else {
+						// Batch cut short, e.g. canceled. The type is unknown rather than not found.
+						future.completeExceptionally(new CancellationException("No type data received for " + bindingKeys.get(i)));
+					}
+				}
+				return CompletableFuture.<Void>completedFuture(null);
+			} else if (isMethodNotFound(error)) {
+				log.info("Batched type data requests not supported by the client");
+				batchingSupported = false;
+				return sendIndividually(batch);
+			} else {
+				batch.values().forEach(f -> f.completeExceptionally(error));
+				return CompletableFuture.<Void>completedFuture(null);
+			}
+		}).thenCompose(f -> f);
+	}
+
+	private CompletableFuture<Void> sendIndividually(Map<String, CompletableFuture<TypeData>> batch) {
+		CompletableFuture<?>[] requests = batch.entrySet().stream().map(e -> client.javaType(createParams(e.getKey()))
+				.whenComplete((data, error) -> {
+					if (error == null) {
+						e.getValue().complete(data);
+					} else {
+						e.getValue().completeExceptionally(error);
+					}
+				})
+		).toArray(CompletableFuture[]::new);
+		// Failures are passed on to the individual futures
+		return CompletableFuture.allOf(requests).handle((v, error) -> null);
+	}
+
+	private JavaDataParams createParams(String bindingKey) {
+		return new JavaDataParams(projectUri, bindingKey, false);
+	}
+
+	private static boolean isMethodNotFound(Throwable error) {
+		for (Throwable t = error; t != null; t = t.getCause()) {
+			if (t instanceof ResponseErrorException) {
+				return ((ResponseErrorException) t).getResponseError().getCode() == ResponseErrorCode.MethodNotFound.getValue();
+			}
+		}
+		return false;
+	}
+
+}
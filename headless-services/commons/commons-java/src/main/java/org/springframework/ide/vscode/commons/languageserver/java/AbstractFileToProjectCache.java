@@ -81,6 +81,18 @@ public abstract class AbstractFileToProjectCache<P extends IJavaProject> extends
 		}
 	}
 	
+	/**
+	 * Initial update of a newly created project. A project with up to date cached data is served
+	 * right away and updated in the background, listeners are notified if the data turns out to differ.
+	 */
+	final protected void performInitialUpdate(P project, boolean upToDate) {
+		if (upToDate) {
+			performUpdate(project, true, true);
+		} else {
+			performUpdate(project, asyncUpdate, asyncUpdate);
+		}
+	}
+	
 	private void afterUpdate(P project, boolean changed, boolean notify, String taskId) {
 		final ProgressService progressService = server.getProgressService();
 		if (progressService != null) {
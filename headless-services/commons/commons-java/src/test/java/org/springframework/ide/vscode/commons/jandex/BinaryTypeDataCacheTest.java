@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.jandex;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.ide.vscode.commons.java.ClasspathData;
+import org.springframework.ide.vscode.commons.java.IType;
+import org.springframework.ide.vscode.commons.jdtls.BinaryTypeDataCache;
+import org.springframework.ide.vscode.commons.jdtls.BinaryTypeDataCache.JarStore;
+import org.springframework.ide.vscode.commons.jdtls.JdtLsIndex;
+import org.springframework.ide.vscode.commons.languageserver.java.ProjectObserver;
+import org.springframework.ide.vscode.commons.protocol.STS4LanguageClient;
+import org.springframework.ide.vscode.commons.protocol.java.Classpath.CPE;
+import org.springframework.ide.vscode.commons.protocol.java.TypeData;
+
+import com.google.gson.Gson;
+
+/**
+ * Tests for {@link BinaryTypeDataCache}
+ *
+ * @author Alex Boyko
+ *
+ */
+public class BinaryTypeDataCacheTest {
+
+	private static final String MAP_BINDING_KEY = "Ljava/util/Map;";
+
+	private Gson gson = new Gson();
+
+	private File cacheDir;
+	private File jar;
+
+	@Before
+	public void setup() throws Exception {
+		Path folder = Files.createTempDirectory("type-data-cache");
+		cacheDir = folder.resolve("cache").toFile();
+		jar = Files.write(folder.resolve("rt.jar"), new byte[] { 1, 2, 3 }).toFile();
+	}
+
+	private TypeData loadMapTypeData() throws Exception {
+		File jsonFile = new File(BinaryTypeDataCacheTest.class.getResource("/java-data-json/Map.json").toURI());
+		try (FileReader reader = new FileReader(jsonFile)) {
+			TypeData data = gson.fromJson(reader, TypeData.class);
+			data.getClasspathEntry().getCpe().setPath(jar.getAbsolutePath());
+			return data;
+		}
+	}
+
+	@Test
+	public void typeDataSurvivesRestart() throws Exception {
+		BinaryTypeDataCache cache = new BinaryTypeDataCache(cacheDir);
+		cache.put(loadMapTypeData());
+		cache.flush();
+
+		List<JarStore> stores = new BinaryTypeDataCache(cacheDir).getStores(Collections.singletonList(jar));
+		TypeData data = BinaryTypeDataCache.find(stores, MAP_BINDING_KEY);
+		assertNotNull(data);
+		assertEquals("java.util.Map", data.getFqName());
+		assertEquals(jar.getAbsolutePath(), data.getClasspathEntry().getCpe().getPath());
+	}
+
+	@Test
+	public void modifiedJarInvalidatesTypeData() throws Exception {
+		BinaryTypeDataCache cache = new BinaryTypeDataCache(cacheDir);
+		cache.put(loadMapTypeData());
+		cache.flush();
+
+		Files.write(jar.toPath(), new byte[] { 1, 2, 3, 4 });
+
+		BinaryTypeDataCache newCache = new BinaryTypeDataCache(cacheDir);
+		List<JarStore> stores = newCache.getStores(Collections.singletonList(jar));
+		assertNull(BinaryTypeDataCache.find(stores, MAP_BINDING_KEY));
+
+		// Data of the previous jar version is dropped from disk with the first write for the new one
+		assertEquals(1, cacheDir.list().length);
+		newCache.put(loadMapTypeData());
+		newCache.flush();
+		assertEquals(1, cacheDir.list().length);
+		assertNotNull(BinaryTypeDataCache.find(new BinaryTypeDataCache(cacheDir).getStores(Collections.singletonList(jar)), MAP_BINDING_KEY));
+	}
+
+	@Test
+	public void earlierJarWithoutCachedDataShadowsLaterJar() throws Exception {
+		BinaryTypeDataCache cache = new BinaryTypeDataCache(cacheDir);
+		cache.put(loadMapTypeData());
+		cache.flush();
+
+		File otherJar = jar.toPath().resolveSibling("other.jar").toFile();
+		createJar(otherJar, "java/util/List.class");
+		assertNotNull(BinaryTypeDataCache.find(cache.getStores(Arrays.asList(otherJar, jar)), MAP_BINDING_KEY));
+
+		// Earlier jar has the type too, but no data for it is cached yet
+		File shadowingJar = jar.toPath().resolveSibling("shadowing.jar").toFile();
+		createJar(shadowingJar, "java/util/Map.class");
+		assertNull(BinaryTypeDataCache.find(cache.getStores(Arrays.asList(shadowingJar, jar)), MAP_BINDING_KEY));
+	}
+
+	private static void createJar(File file, String... entries) throws Exception {
+		try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+			for (String entry : entries) {
+				out.putNextEntry(new ZipEntry(entry));
+				out.write(new byte[] { 1, 2, 3 });
+				out.closeEntry();
+			}
+		}
+	}
+
+	@Test
+	public void sourceTypeDataNotCached() throws Exception {
+		BinaryTypeDataCache cache = new BinaryTypeDataCache(cacheDir);
+		TypeData data = loadMapTypeData();
+		data.getClasspathEntry().setCpe(CPE.source(jar.getParentFile(), jar.getParentFile()));
+		cache.put(data);
+
+		assertNull(BinaryTypeDataCache.find(cache.getStores(Collections.singletonList(jar)), MAP_BINDING_KEY));
+	}
+
+	@Test
+	public void indexUsesCachedTypeData() throws Exception {
+		ClasspathData classpath = new ClasspathData("test-project", Collections.singletonList(CPE.binary(jar.getAbsolutePath())));
+		TypeData mapData = loadMapTypeData();
+
+		STS4LanguageClient client = Mockito.mock(STS4LanguageClient.class);
+		when(client.javaType(any())).thenReturn(CompletableFuture.completedFuture(mapData));
+		BinaryTypeDataCache cache = new BinaryTypeDataCache(cacheDir);
+		JdtLsIndex index = new JdtLsIndex(client, URI.create(System.getProperty("java.io.tmpdir")), ProjectObserver.NULL, cache, classpath);
+		assertNotNull(index.findType("java.util.Map"));
+		verify(client).javaType(any());
+		cache.flush();
+
+		// New session served from disk without a round trip to JDT LS
+		STS4LanguageClient newClient = Mockito.mock(STS4LanguageClient.class);
+		JdtLsIndex newIndex = new JdtLsIndex(newClient, URI.create(System.getProperty("java.io.tmpdir")), ProjectObserver.NULL, new BinaryTypeDataCache(cacheDir), classpath);
+		IType type = newIndex.findType("java.util.Map");
+		assertNotNull(type);
+		assertEquals(MAP_BINDING_KEY, type.getBindingKey());
+		verify(newClient, never()).javaType(any());
+	}
+
+	@Test
+	public void sourceTypeShadowsCachedJarType() throws Exception {
+		BinaryTypeDataCache cache = new BinaryTypeDataCache(cacheDir);
+		cache.put(loadMapTypeData());
+		cache.flush();
+
+		File sourceFolder = new File(jar.getParentFile(), "src");
+		File mapSource = new File(sourceFolder, "java/util/Map.java");
+		mapSource.getParentFile().mkdirs();
+		Files.write(mapSource.toPath(), "package java.util; public interface Map {}".getBytes());
+		ClasspathData classpath = new ClasspathData("test-project", Arrays.asList(
+				CPE.source(sourceFolder, new File(jar.getParentFile(), "bin")),
+				CPE.binary(jar.getAbsolutePath())));
+
+		STS4LanguageClient client = Mockito.mock(STS4LanguageClient.class);
+		when(client.javaType(any())).thenReturn(CompletableFuture.completedFuture(loadMapTypeData()));
+		JdtLsIndex index = new JdtLsIndex(client, URI.create(System.getProperty("java.io.tmpdir")), ProjectObserver.NULL, new BinaryTypeDataCache(cacheDir), classpath);
+		assertNotNull(index.findType("java.util.Map"));
+		// Type data of the source type comes from JDT LS rather than from the jar store
+		verify(client).javaType(any());
+	}
+
+}
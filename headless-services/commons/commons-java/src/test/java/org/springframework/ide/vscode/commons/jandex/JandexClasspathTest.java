@@ -13,9 +13,13 @@ package org.springframework.ide.vscode.commons.jandex;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.util.function.BiConsumer;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 import java.util.stream.Stream;
 
 import org.junit.Rule;
@@ -26,6 +30,8 @@ import org.springframework.ide.vscode.commons.java.IField;
 import org.springframework.ide.vscode.commons.java.IMethod;
 import org.springframework.ide.vscode.commons.java.IType;
 import org.springframework.ide.vscode.commons.protocol.java.Classpath.CPE;
+import org.springframework.ide.vscode.commons.protocol.java.ClasspathDelta;
+import org.springframework.ide.vscode.commons.protocol.java.ClasspathDelta.AddedEntry;
 import org.springframework.ide.vscode.commons.util.BasicFileObserver;
 
 import com.google.common.collect.ImmutableList;
@@ -68,6 +74,17 @@ public class JandexClasspathTest {
 			return new JandexClasspath(getClasspath(), fileObserver, null);
 		}
 
+		void createJar(File jar, String... fqNames) throws Exception {
+			try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+				for (String fqName : fqNames) {
+					String relativePath = fqName.replace('.', '/')+".class";
+					out.putNextEntry(new JarEntry(relativePath));
+					Files.copy(new File(testClassesFolder, relativePath), out);
+					out.closeEntry();
+				}
+			}
+		}
+
 		public void deleteClass(String fqName, BiConsumer<BasicFileObserver, String> eventNoficator) {
 			String relativePath = fqName.replace('.', '/')+".class";
 			File classFile = new File(outputFolder, relativePath);
@@ -106,6 +123,52 @@ public class JandexClasspathTest {
 	}
 
 
+	@Test public void classpathDeltaKeepsIndexOfUnchangedEntries() throws Exception {
+		TestProject project = new TestProject("simple-java-project");
+		project.createClass("demo.Hello");
+
+		JandexClasspath subject = project.getJandexClasspath();
+		assertNotNull(subject.findType("demo.Hello"));
+
+		// Class file removed without notification, only re-indexing the entry would miss the type
+		new File(project.outputFolder, "demo/Hello.class").delete();
+
+		File otherOutputFolder = folder.newFolder().getCanonicalFile();
+		File goodbye = new File(otherOutputFolder, "demo/Goodbye.class");
+		goodbye.getParentFile().mkdirs();
+		Files.copy(new File(project.testClassesFolder, "demo/Goodbye.class"), goodbye);
+		CPE added = CPE.source(new File(project.root, "other-src"), otherOutputFolder);
+
+		ClasspathData classpath = new ClasspathData(project.name, ImmutableList.<CPE>builder()
+				.addAll(project.getClasspath().getClasspathEntries())
+				.add(added)
+				.build());
+		ClasspathDelta delta = new ClasspathDelta(ImmutableList.of(new AddedEntry(1, added)), ImmutableList.of(), ImmutableList.of());
+		assertTrue(subject.classpathChanged(classpath, delta));
+
+		assertNotNull(subject.findType("demo.Hello"));
+		assertNotNull(subject.findType("demo.Goodbye"));
+	}
+
+	@Test public void jarRebuiltInPlaceIsIndexedAgain() throws Exception {
+		TestProject project = new TestProject("simple-java-project");
+		File jar = new File(folder.newFolder(), "rebuilt-" + System.currentTimeMillis() + ".jar");
+		project.createJar(jar, "demo.Hello");
+		ClasspathData classpath = new ClasspathData(project.name, ImmutableList.of(CPE.binary(jar.getAbsolutePath())));
+
+		JandexClasspath subject = new JandexClasspath(classpath, project.fileObserver, null);
+		assertNotNull(subject.findType("demo.Hello"));
+		assertNull(subject.findType("demo.Goodbye"));
+
+		// Same path, hence same classpath entry and an empty delta
+		project.createJar(jar, "demo.Goodbye");
+		jar.setLastModified(jar.lastModified() + 2000);
+		assertTrue(subject.classpathChanged(new ClasspathData(project.name, ImmutableList.of(CPE.binary(jar.getAbsolutePath()))), new ClasspathDelta()));
+
+		assertNull(subject.findType("demo.Hello"));
+		assertNotNull(subject.findType("demo.Goodbye"));
+	}
+
 	@Test public void fieldSignature() throws Exception {
 		TestProject project = new TestProject("simple-java-project");
 		project.createClass("demo.Hello");
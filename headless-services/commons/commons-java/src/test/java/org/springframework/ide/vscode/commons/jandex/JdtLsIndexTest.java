@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2019 Pivotal, Inc.
+ * Copyright (c) 2018, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,21 +13,30 @@ package org.springframework.ide.vscode.commons.jandex;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.FileReader;
 import java.lang.reflect.Type;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.eclipse.lsp4j.jsonrpc.ResponseErrorException;
+import org.eclipse.lsp4j.jsonrpc.messages.ResponseError;
+import org.eclipse.lsp4j.jsonrpc.messages.ResponseErrorCode;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.ide.vscode.commons.java.IAnnotation;
 import org.springframework.ide.vscode.commons.java.IMethod;
@@ -36,6 +45,7 @@ import org.springframework.ide.vscode.commons.java.IType;
 import org.springframework.ide.vscode.commons.jdtls.JdtLsIndex;
 import org.springframework.ide.vscode.commons.languageserver.java.ProjectObserver;
 import org.springframework.ide.vscode.commons.protocol.STS4LanguageClient;
+import org.springframework.ide.vscode.commons.protocol.java.JavaDataParams;
 import org.springframework.ide.vscode.commons.protocol.java.TypeData;
 import org.springframework.ide.vscode.commons.protocol.java.TypeDescriptorData;
 
@@ -161,4 +171,69 @@ public class JdtLsIndexTest {
 		List<String> packages = results.stream().map(t -> t.getT1()).collect(Collectors.toList());
 		assertEquals(Arrays.asList("com.example", "com.another.example"), packages);
 	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void concurrentFindTypeRequestsAreBatched() throws Exception {
+		STS4LanguageClient client = Mockito.mock(STS4LanguageClient.class);
+		CompletableFuture<TypeData> firstRequest = new CompletableFuture<>();
+		when(client.javaType(any())).thenReturn(firstRequest);
+		when(client.javaTypes(any())).thenAnswer(invocation -> {
+			List<JavaDataParams> params = (List<JavaDataParams>) invocation.getArguments()[0];
+			List<TypeData> results = new ArrayList<>();
+			for (JavaDataParams p : params) {
+				results.add(p.getBindingKey().equals("Ljava/util/Map;") ? loadJsonData("Map.json") : null);
+			}
+			return CompletableFuture.completedFuture(results);
+		});
+		// Some valid URI necessary for URI#toString() to succeed
+		JdtLsIndex index = new JdtLsIndex(client, URI.create(System.getProperty("java.io.tmpdir")), ProjectObserver.NULL);
+
+		// First lookup goes out right away, others wait for it to complete
+		CompletableFuture<IType> first = CompletableFuture.supplyAsync(() -> index.findType("java.lang.Object"));
+		Thread.sleep(100);
+		List<CompletableFuture<IType>> others = new ArrayList<>();
+		for (String fqName : Arrays.asList("java.util.Map", "java.util.List", "java.util.Set", "java.util.Map")) {
+			others.add(CompletableFuture.supplyAsync(() -> index.findType(fqName)));
+		}
+		Thread.sleep(100);
+		firstRequest.complete(null);
+
+		assertNull(first.get(5, TimeUnit.SECONDS));
+		assertEquals("java.util.Map", others.get(0).get(5, TimeUnit.SECONDS).getFullyQualifiedName());
+		assertNull(others.get(1).get(5, TimeUnit.SECONDS));
+		assertNull(others.get(2).get(5, TimeUnit.SECONDS));
+		assertEquals("java.util.Map", others.get(3).get(5, TimeUnit.SECONDS).getFullyQualifiedName());
+
+		ArgumentCaptor<List> batch = ArgumentCaptor.forClass(List.class);
+		verify(client, times(1)).javaType(any());
+		verify(client, times(1)).javaTypes(batch.capture());
+		assertEquals(3, batch.getValue().size());
+	}
+
+	@Test
+	public void findTypeWithoutBatchingSupport() throws Exception {
+		STS4LanguageClient client = Mockito.mock(STS4LanguageClient.class);
+		CompletableFuture<TypeData> firstRequest = new CompletableFuture<>();
+		CompletableFuture<List<TypeData>> unsupported = new CompletableFuture<>();
+		unsupported.completeExceptionally(new ResponseErrorException(new ResponseError(ResponseErrorCode.MethodNotFound, "Unsupported request method: sts/javaTypes", null)));
+		when(client.javaType(any())).thenReturn(firstRequest, CompletableFuture.completedFuture(loadJsonData("Map.json")));
+		when(client.javaTypes(any())).thenReturn(unsupported);
+		// Some valid URI necessary for URI#toString() to succeed
+		JdtLsIndex index = new JdtLsIndex(client, URI.create(System.getProperty("java.io.tmpdir")), ProjectObserver.NULL);
+
+		CompletableFuture<IType> first = CompletableFuture.supplyAsync(() -> index.findType("java.lang.Object"));
+		Thread.sleep(100);
+		CompletableFuture<IType> map = CompletableFuture.supplyAsync(() -> index.findType("java.util.Map"));
+		CompletableFuture<IType> otherMap = CompletableFuture.supplyAsync(() -> index.findType("java.util.HashMap"));
+		Thread.sleep(100);
+		firstRequest.complete(null);
+
+		assertNull(first.get(5, TimeUnit.SECONDS));
+		assertNotNull(map.get(5, TimeUnit.SECONDS));
+		assertNotNull(otherMap.get(5, TimeUnit.SECONDS));
+		verify(client, times(1)).javaTypes(any());
+		verify(client, times(3)).javaType(any());
+	}
+
 }
@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.ide.vscode.commons.languageserver.java.ls.ClasspathEventReceiver;
+import org.springframework.ide.vscode.commons.languageserver.java.ls.ClasspathListener;
+import org.springframework.ide.vscode.commons.protocol.java.Classpath;
+import org.springframework.ide.vscode.commons.protocol.java.Classpath.CPE;
+import org.springframework.ide.vscode.commons.protocol.java.ClasspathDelta;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+
+/**
+ * Tests for {@link ClasspathDelta} and delta events handling in {@link ClasspathEventReceiver}
+ *
+ * @author Alex Boyko
+ *
+ */
+public class ClasspathDeltaTest {
+
+	private static final String PROJECT_URI = "file:///projects/demo";
+	private static final String PROJECT_NAME = "demo";
+
+	private Gson gson = new Gson();
+
+	private static CPE jar(String name) {
+		return CPE.binary("/repo/" + name + ".jar");
+	}
+
+	private static Classpath classpath(CPE... entries) {
+		return new Classpath(Arrays.asList(entries));
+	}
+
+	private static final CPE SRC = CPE.source(new File("/projects/demo/src"), new File("/projects/demo/bin"));
+
+	@Test
+	public void deltaRestoresClasspath() throws Exception {
+		Classpath oldClasspath = classpath(SRC, jar("a"), jar("b"), jar("c"), jar("d"));
+		CPE changedB = jar("b");
+		changedB.setSourceContainerUrl(new File("/repo/b-sources.jar").toURI().toURL());
+		Classpath newClasspath = classpath(jar("x"), SRC, changedB, jar("y"), jar("d"), jar("z"));
+
+		ClasspathDelta delta = ClasspathDelta.compute(oldClasspath, newClasspath);
+		assertNotNull(delta);
+		assertEquals(3, delta.getAdded().size());
+		assertEquals(Arrays.asList(jar("a"), jar("c")), delta.getRemoved());
+		assertEquals(Arrays.asList(changedB), delta.getChanged());
+
+		// survives serialization
+		delta = gson.fromJson(gson.toJson(delta), ClasspathDelta.class);
+		assertEquals(newClasspath.getEntries(), delta.apply(oldClasspath).getEntries());
+	}
+
+	@Test
+	public void noDeltaForReorderedEntries() throws Exception {
+		assertNull(ClasspathDelta.compute(classpath(jar("a"), jar("b")), classpath(jar("b"), jar("a"))));
+		assertTrue(ClasspathDelta.compute(classpath(jar("a"), jar("b")), classpath(jar("a"), jar("b"))).isEmpty());
+	}
+
+	@Test
+	public void receiveDeltaEvents() throws Exception {
+		ClasspathEventReceiver receiver = new ClasspathEventReceiver();
+		List<ClasspathListener.Event> events = new ArrayList<>();
+		ClasspathListener listener = events::add;
+
+		Classpath classpath1 = classpath(SRC, jar("a"));
+		Classpath classpath2 = classpath(SRC, jar("a"), jar("b"));
+		Classpath classpath3 = classpath(SRC, jar("b"));
+
+		assertEquals("done", receiver.receive(batch(fullEvent(classpath1, 1)), listener));
+		assertEquals("done", receiver.receive(batch(deltaEvent(ClasspathDelta.compute(classpath1, classpath2), 2)), listener));
+		assertEquals("done", receiver.receive(batch(deltaEvent(ClasspathDelta.compute(classpath2, classpath2), 3)), listener));
+
+		assertEquals(3, events.size());
+		assertNull(events.get(0).delta);
+		assertEquals(classpath1.getEntries(), events.get(0).classpath.getEntries());
+		assertNotNull(events.get(1).delta);
+		assertEquals(classpath2.getEntries(), events.get(1).classpath.getEntries());
+		assertTrue(events.get(2).delta.isEmpty());
+		assertEquals(classpath2.getEntries(), events.get(2).classpath.getEntries());
+
+		// Notification with sequence number 4 got lost
+		Object result = receiver.receive(batch(deltaEvent(ClasspathDelta.compute(classpath2, classpath3), 5)), listener);
+		assertEquals(ImmutableList.of(PROJECT_NAME), ((Map<?, ?>) result).get(ClasspathEventReceiver.RESYNC));
+		assertEquals(3, events.size());
+
+		// Sender falls back to complete classpath
+		assertEquals("done", receiver.receive(batch(fullEvent(classpath3, 6)), listener));
+		assertEquals(4, events.size());
+		assertEquals(classpath3.getEntries(), events.get(3).classpath.getEntries());
+	}
+
+	@Test
+	public void receiveEventsWithoutSequence() throws Exception {
+		ClasspathEventReceiver receiver = new ClasspathEventReceiver();
+		List<ClasspathListener.Event> events = new ArrayList<>();
+
+		Classpath classpath = classpath(SRC, jar("a"));
+		List<Object> args = new ArrayList<>();
+		for (Object arg : Arrays.asList(PROJECT_URI, PROJECT_NAME, false, classpath)) {
+			args.add(gson.toJsonTree(arg));
+		}
+		assertEquals("done", receiver.receive(args, events::add));
+		assertEquals(1, events.size());
+		assertNull(events.get(0).delta);
+		assertEquals(classpath.getEntries(), events.get(0).classpath.getEntries());
+	}
+
+	private List<Object> fullEvent(Classpath classpath, long sequence) {
+		return Arrays.asList(PROJECT_URI, PROJECT_NAME, false, classpath, sequence);
+	}
+
+	private List<Object> deltaEvent(ClasspathDelta delta, long sequence) {
+		return Arrays.asList(PROJECT_URI, PROJECT_NAME, false, null, sequence, delta);
+	}
+
+	/**
+	 * Batched callback command arguments as deserialized by the language server
+	 */
+	@SafeVarargs
+	private final List<Object> batch(List<Object>... events) {
+		List<Object> args = new ArrayList<>();
+		for (List<Object> event : events) {
+			JsonElement json = gson.toJsonTree(event);
+			args.add(json);
+		}
+		return args;
+	}
+
+}
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.vscode.commons.protocol.java.Classpath.CPE;
+
+/**
+ * Tests for {@link ClasspathFileBasedCache}
+ *
+ * @author Alex Boyko
+ *
+ */
+public class ClasspathFileBasedCacheTest {
+
+	private File cacheFile;
+	private File buildFile;
+	private File jar;
+	private ClasspathData data;
+
+	@Before
+	public void setup() throws Exception {
+		Path folder = Files.createTempDirectory("classpath-cache");
+		cacheFile = folder.resolve(".sts4-cache").resolve(ClasspathFileBasedCache.CLASSPATH_DATA_CACHE_FILE).toFile();
+		buildFile = Files.write(folder.resolve("pom.xml"), "<project/>".getBytes(StandardCharsets.UTF_8)).toFile();
+		jar = Files.write(folder.resolve("lib.jar"), new byte[] { 1, 2, 3 }).toFile();
+		data = new ClasspathData("test-project", Arrays.asList(
+				CPE.binary(jar.getAbsolutePath()),
+				CPE.source(folder.resolve("src").toFile(), folder.resolve("bin").toFile())
+		));
+	}
+
+	@Test
+	public void loadedDataIsUpToDate() throws Exception {
+		new ClasspathFileBasedCache(cacheFile).persist(data, Collections.singletonList(buildFile));
+
+		ClasspathFileBasedCache cache = new ClasspathFileBasedCache(cacheFile);
+		assertEquals(data, cache.load());
+		assertTrue(cache.isUpToDate());
+	}
+
+	@Test
+	public void changedBuildFileInvalidatesData() throws Exception {
+		new ClasspathFileBasedCache(cacheFile).persist(data, Collections.singletonList(buildFile));
+
+		Files.write(buildFile.toPath(), "<project><modules/></project>".getBytes(StandardCharsets.UTF_8));
+
+		ClasspathFileBasedCache cache = new ClasspathFileBasedCache(cacheFile);
+		assertEquals(data, cache.load());
+		assertFalse(cache.isUpToDate());
+	}
+
+	@Test
+	public void removedEntryInvalidatesData() throws Exception {
+		new ClasspathFileBasedCache(cacheFile).persist(data, Collections.singletonList(buildFile));
+
+		assertTrue(jar.delete());
+
+		ClasspathFileBasedCache cache = new ClasspathFileBasedCache(cacheFile);
+		cache.load();
+		assertFalse(cache.isUpToDate());
+	}
+
+	@Test
+	public void dataWithoutFingerprints() throws Exception {
+		ClasspathFileBasedCache cache = new ClasspathFileBasedCache(cacheFile);
+		cache.persist(data);
+		assertFalse(cache.isUpToDate());
+
+		// format written by previous versions
+		Files.write(cacheFile.toPath(), "{\"name\":\"test-project\",\"classpathEntries\":[]}".getBytes(StandardCharsets.UTF_8));
+		cache = new ClasspathFileBasedCache(cacheFile);
+		assertEquals("test-project", cache.load().getName());
+		assertFalse(cache.isUpToDate());
+	}
+
+}
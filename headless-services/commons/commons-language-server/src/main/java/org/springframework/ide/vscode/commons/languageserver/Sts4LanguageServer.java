@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Pivotal, Inc.
+ * Copyright (c) 2017, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -40,4 +40,9 @@ public interface Sts4LanguageServer extends LanguageServer {
 	 */
 	DiagnosticService getDiagnosticService();
 
+	/**
+	 * Registers a handler to run when the server shuts down
+	 */
+	void onShutdown(Runnable handler);
+
 }
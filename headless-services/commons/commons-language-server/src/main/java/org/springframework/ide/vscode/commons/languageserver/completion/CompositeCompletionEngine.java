@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019 Pivotal, Inc.
+ * Copyright (c) 2019, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,9 +12,11 @@ package org.springframework.ide.vscode.commons.languageserver.completion;
 
 import java.util.Collection;
 
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ide.vscode.commons.languageserver.util.LanguageSpecific;
+import org.springframework.ide.vscode.commons.languageserver.util.RequestCancelChecker;
 import org.springframework.ide.vscode.commons.util.Assert;
 import org.springframework.ide.vscode.commons.util.text.LanguageId;
 import org.springframework.ide.vscode.commons.util.text.TextDocument;
@@ -51,17 +53,23 @@ public class CompositeCompletionEngine implements ICompletionEngine {
 	
 	@Override
 	public Collection<ICompletionProposal> getCompletions(TextDocument document, int offset) throws Exception {
+		return getCompletions(RequestCancelChecker.NONE, document, offset);
+	}
+
+	@Override
+	public Collection<ICompletionProposal> getCompletions(CancelChecker cancelToken, TextDocument document, int offset) throws Exception {
 		LanguageId language = document.getLanguageId();
 		log.info("languageId = {}", language);
 		Collection<ICompletionEngine> engines = subEngines.get(language);
 		if (engines.size()==1) {
 			//Special case to avoid some collection copying
 			ICompletionEngine engine = engines.iterator().next();
-			return engine.getCompletions(document, offset);
+			return engine.getCompletions(cancelToken, document, offset);
 		} else {
 			ImmutableList.Builder<ICompletionProposal> completions = ImmutableList.builder();
 			for (ICompletionEngine engine : engines) {
-				Collection<ICompletionProposal> c = engine.getCompletions(document, offset);
+				cancelToken.checkCanceled();
+				Collection<ICompletionProposal> c = engine.getCompletions(cancelToken, document, offset);
 				if (c!=null) {
 					completions.addAll(c);
 				}
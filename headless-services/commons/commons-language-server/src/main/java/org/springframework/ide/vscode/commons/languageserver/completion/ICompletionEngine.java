@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2018 Pivotal, Inc.
+ * Copyright (c) 2015, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,6 +12,7 @@ package org.springframework.ide.vscode.commons.languageserver.completion;
 
 import java.util.Collection;
 
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 import org.springframework.ide.vscode.commons.util.text.TextDocument;
 
 /**
@@ -21,4 +22,13 @@ public interface ICompletionEngine {
 
 	Collection<ICompletionProposal> getCompletions(TextDocument document, int offset) throws Exception;
 
+	/**
+	 * Computes completions for a request that may be canceled. Engines doing a lot of work override
+	 * this to check the token between units of work.
+	 */
+	default Collection<ICompletionProposal> getCompletions(CancelChecker cancelToken, TextDocument document, int offset) throws Exception {
+		cancelToken.checkCanceled();
+		return getCompletions(document, offset);
+	}
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016-2018 Pivotal, Inc.
+ * Copyright (c) 2016-2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,6 +14,7 @@ package org.springframework.ide.vscode.commons.languageserver.completion;
 import org.eclipse.lsp4j.CompletionItem;
 import org.eclipse.lsp4j.CompletionList;
 import org.eclipse.lsp4j.TextDocumentPositionParams;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 
 import reactor.core.publisher.Mono;
 
@@ -22,6 +23,6 @@ import reactor.core.publisher.Mono;
  * wired-up to provide completions for a Vscode language server.
  */
 public interface VscodeCompletionEngine {
-	Mono<CompletionList> getCompletions(TextDocumentPositionParams params);
+	Mono<CompletionList> getCompletions(CancelChecker cancelToken, TextDocumentPositionParams params);
 	CompletionItem resolveCompletion(CompletionItem unresolved);
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2019 Pivotal, Inc.
+ * Copyright (c) 2016, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -28,6 +28,7 @@ import org.eclipse.lsp4j.MarkupKind;
 import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.TextDocumentPositionParams;
 import org.eclipse.lsp4j.TextEdit;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ide.vscode.commons.languageserver.completion.DocumentEdits.TextReplace;
@@ -122,27 +123,27 @@ public class VscodeCompletionEngineAdapter implements VscodeCompletionEngine {
 	}
 
 	@Override
-	public Mono<CompletionList> getCompletions(TextDocumentPositionParams params) {
-		return getCompletionsMono(params);
+	public Mono<CompletionList> getCompletions(CancelChecker cancelToken, TextDocumentPositionParams params) {
+		return getCompletionsMono(cancelToken, params);
 	}
 
-	private Mono<CompletionList> getCompletionsMono(TextDocumentPositionParams params) {
+	private Mono<CompletionList> getCompletionsMono(CancelChecker cancelToken, TextDocumentPositionParams params) {
 		SimpleTextDocumentService documents = server.getTextDocumentService();
 		if (documents.get(params) != null) {
 			TextDocument doc = documents.getDocumentSnapshot(params.getTextDocument());
 			return Mono.fromCallable(() -> {
 				log.info("Starting completion handling");
+				cancelToken.checkCanceled();
 				if (resolver!=null) {
 					//Assumes we don't have more than one completion request in flight from the client.
 					// So when a new request arrives we can forget about the old unresolved items:
 					resolver.clear();
 				}
-				//TODO: This callable is a 'big lump of work' so can't be canceled in pieces.
-				// Should we push using of reactive streams down further and compose this all
-				// using reactive style? If not then this is overkill could just as well use
-				// only standard Java API such as Executor and CompletableFuture directly.
+				// The callable is a 'big lump of work', the engine and the loop below check the
+				// token to stop early once the client isn't interested anymore.
 				int offset = doc.toOffset(params.getPosition());
-				List<ICompletionProposal> completions = filter(engine.getCompletions(doc, offset));
+				List<ICompletionProposal> completions = filter(engine.getCompletions(cancelToken, doc, offset));
+				cancelToken.checkCanceled();
 
 				Collections.sort(completions, ScoreableProposal.COMPARATOR);
 
@@ -152,6 +153,7 @@ public class VscodeCompletionEngineAdapter implements VscodeCompletionEngine {
 				SortKeys sortkeys = new SortKeys();
 				int count = 0;
 				for (ICompletionProposal c : completions) {
+					cancelToken.checkCanceled();
 					count++;
 					if (maxCompletions > 0 && count>maxCompletions) {
 						list.setIsIncomplete(true);
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.languageserver.java.ls;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ide.vscode.commons.protocol.java.Classpath;
+import org.springframework.ide.vscode.commons.protocol.java.ClasspathDelta;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+
+/**
+ * Turns arguments of classpath callback commands into {@link ClasspathListener.Event}s.
+ * <p>
+ * An event is an array of project uri, project name, deleted flag and classpath, optionally
+ * followed by a sequence number and a {@link ClasspathDelta}. Delta events carry no classpath,
+ * the classpath is computed from the previously received classpath of the project. If the
+ * sequence number of a delta doesn't follow the previous one for the project some notification
+ * got lost, the delta is dropped and the project is reported back to the sender in the
+ * command result, so that the sender follows up with the complete classpath.
+ *
+ * @author Alex Boyko
+ *
+ */
+public class ClasspathEventReceiver {
+
+	private static final Logger log = LoggerFactory.getLogger(ClasspathEventReceiver.class);
+
+	/**
+	 * Key in the command result for names of projects the sender should send complete classpath for
+	 */
+	public static final String RESYNC = "resync";
+
+	private static final Gson gson = new Gson();
+
+	private static class ReceivedClasspath {
+		final long sequence;
+		final Classpath classpath;
+		ReceivedClasspath(long sequence, Classpath classpath) {
+			this.sequence = sequence;
+			this.classpath = classpath;
+		}
+	}
+
+	private final Map<String, ReceivedClasspath> received = new HashMap<>();
+
+	public synchronized Object receive(List<Object> args, ClasspathListener listener) {
+		Set<String> resync = new LinkedHashSet<>();
+		//Args are deserialized as com.google.gson.JsonElements.
+		if (((JsonElement) args.get(0)).isJsonArray()) {
+			// If events are batched... then they will arrive as a array of arrays.
+			for (Object arg : args) {
+				List<JsonElement> event = new ArrayList<>();
+				((JsonArray) arg).forEach(event::add);
+				receive(event, listener, resync);
+			}
+		} else {
+			//Still support non-batched events for backwards compatibility with clients
+			// that don't provide batched event support (e.g. IDEA client may only adopt this
+			// later, or not adopt it at all).
+			List<JsonElement> event = new ArrayList<>();
+			args.forEach(arg -> event.add((JsonElement) arg));
+			receive(event, listener, resync);
+		}
+		if (resync.isEmpty()) {
+			return "done";
+		}
+		log.info("Requesting complete classpath for projects {}", resync);
+		return ImmutableMap.of(RESYNC, ImmutableList.copyOf(resync));
+	}
+
+	private void receive(List<JsonElement> event, ClasspathListener listener, Set<String> resync) {
+		String projectUri = event.get(0).getAsString();
+		log.debug("projectUri = {}", projectUri);
+		String name = event.get(1).getAsString();
+		log.debug("name = {}", name);
+		boolean deleted = event.get(2).getAsBoolean();
+		log.debug("deleted = {}", deleted);
+		long sequence = event.size() > 4 ? event.get(4).getAsLong() : -1;
+		ClasspathDelta delta = event.size() > 5 ? gson.fromJson(event.get(5), ClasspathDelta.class) : null;
+
+		Classpath classpath;
+		if (delta == null) {
+			classpath = gson.fromJson(event.get(3), Classpath.class);
+			log.debug("classpath = {}", classpath);
+		} else {
+			log.debug("sequence = {}, delta = {}", sequence, delta);
+			ReceivedClasspath previous = received.get(projectUri);
+			if (previous == null || previous.sequence < 0 || previous.sequence + 1 != sequence) {
+				log.info("Classpath delta {} for project {} doesn't follow previous classpath", sequence, name);
+				received.remove(projectUri);
+				resync.add(name);
+				return;
+			}
+			try {
+				classpath = delta.apply(previous.classpath);
+			} catch (IllegalArgumentException e) {
+				log.warn("Cannot apply classpath delta for project " + name, e);
+				received.remove(projectUri);
+				resync.add(name);
+				return;
+			}
+		}
+
+		if (deleted) {
+			received.remove(projectUri);
+		} else {
+			received.put(projectUri, new ReceivedClasspath(sequence, classpath));
+		}
+		listener.changed(new ClasspathListener.Event(projectUri, name, deleted, classpath, delta));
+	}
+
+}
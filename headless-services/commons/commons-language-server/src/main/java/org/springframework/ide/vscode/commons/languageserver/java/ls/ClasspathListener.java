@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2019 Pivotal, Inc.
+ * Copyright (c) 2018, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,6 +11,7 @@
 package org.springframework.ide.vscode.commons.languageserver.java.ls;
 
 import org.springframework.ide.vscode.commons.protocol.java.Classpath;
+import org.springframework.ide.vscode.commons.protocol.java.ClasspathDelta;
 
 public interface ClasspathListener {
 
@@ -23,18 +24,29 @@ public interface ClasspathListener {
 		public final boolean deleted;
 		public final Classpath classpath;
 
+		/**
+		 * Changes to the previous classpath of the project if the event comes from a delta notification,
+		 * <code>null</code> otherwise. The {@link #classpath} is always the complete new classpath.
+		 */
+		public final ClasspathDelta delta;
+
 		public Event(String projectUri, String name, boolean deleted, Classpath classpath) {
+			this(projectUri, name, deleted, classpath, null);
+		}
+
+		public Event(String projectUri, String name, boolean deleted, Classpath classpath, ClasspathDelta delta) {
 			super();
 			this.projectUri = projectUri;
 			this.name = name;
 			this.deleted = deleted;
 			this.classpath = classpath;
+			this.delta = delta;
 		}
 
 		@Override
 		public String toString() {
 			return "Event [projectUri=" + projectUri + ", name=" + name + ", deleted=" + deleted + ", classpath="
-					+ classpath + "]";
+					+ classpath + ", delta=" + delta + "]";
 		}
 	}
 
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.languageserver.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Counts requests canceled by the client before they completed, requests the server stopped waiting
+ * for because their handlers timed out, and the canceled or timed out requests whose handlers
+ * stopped their work early, by LSP method (e.g. <code>textDocument/hover</code>).
+ *
+ * @author Alex Boyko
+ */
+public class CanceledRequests {
+
+	private final ConcurrentMap<String, AtomicLong> canceled = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, AtomicLong> timedOut = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, AtomicLong> aborted = new ConcurrentHashMap<>();
+
+	/**
+	 * @return number of requests of the method canceled by the client before they completed
+	 */
+	public long getCanceled(String method) {
+		return get(canceled, method);
+	}
+
+	/**
+	 * @return number of requests of the method the server stopped waiting for because the handler
+	 *         took too long
+	 */
+	public long getTimedOut(String method) {
+		return get(timedOut, method);
+	}
+
+	/**
+	 * @return number of canceled or timed out requests of the method whose handlers noticed the cancellation and
+	 *         stopped early
+	 */
+	public long getAborted(String method) {
+		return get(aborted, method);
+	}
+
+	public Map<String, Long> getCanceled() {
+		return snapshot(canceled);
+	}
+
+	public Map<String, Long> getTimedOut() {
+		return snapshot(timedOut);
+	}
+
+	public Map<String, Long> getAborted() {
+		return snapshot(aborted);
+	}
+
+	void canceled(String method) {
+		canceled.computeIfAbsent(method, m -> new AtomicLong()).incrementAndGet();
+	}
+
+	void timedOut(String method) {
+		timedOut.computeIfAbsent(method, m -> new AtomicLong()).incrementAndGet();
+	}
+
+	void aborted(String method) {
+		aborted.computeIfAbsent(method, m -> new AtomicLong()).incrementAndGet();
+	}
+
+	private static long get(Map<String, AtomicLong> counters, String method) {
+		AtomicLong counter = counters.get(method);
+		return counter == null ? 0 : counter.get();
+	}
+
+	private static Map<String, Long> snapshot(Map<String, AtomicLong> counters) {
+		ImmutableMap.Builder<String, Long> builder = ImmutableMap.builder();
+		counters.forEach((method, counter) -> builder.put(method, counter.get()));
+		return builder.build();
+	}
+
+	@Override
+	public String toString() {
+		return "CanceledRequests(canceled=" + getCanceled() + ", timedOut=" + getTimedOut() + ", aborted=" + getAborted() + ")";
+	}
+
+}
@@ -12,8 +12,9 @@ package org.springframework.ide.vscode.commons.languageserver.util;
 
 import org.eclipse.lsp4j.Hover;
 import org.eclipse.lsp4j.HoverParams;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 
 @FunctionalInterface
 public interface HoverHandler {
-	Hover handle(HoverParams params);
+	Hover handle(CancelChecker cancelToken, HoverParams params);
 }
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.languageserver.util;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+
+/**
+ * Cancellation token of a request from the client. The request is canceled once the future returned
+ * for it is canceled, which is what lsp4j does when the client sends <code>$/cancelRequest</code>,
+ * or once the server stops waiting for the handler.
+ * <p>
+ * Handlers check the token between units of work: {@link #checkCanceled()} throws a
+ * {@link CancellationException} once the request is canceled. Code that must not throw, e.g. while
+ * holding on to an AST, uses {@link #isCanceled()}.
+ *
+ * @author Alex Boyko
+ */
+public class RequestCancelChecker implements CancelChecker {
+
+	/**
+	 * Token of work that is never canceled
+	 */
+	public static final CancelChecker NONE = new CancelChecker() {
+		@Override
+		public void checkCanceled() {
+		}
+
+		@Override
+		public boolean isCanceled() {
+			return false;
+		}
+	};
+
+	private final String method;
+	private final CanceledRequests stats;
+	private final AtomicBoolean canceled = new AtomicBoolean();
+	private final AtomicBoolean aborted = new AtomicBoolean();
+
+	public RequestCancelChecker(String method, CanceledRequests stats) {
+		this.method = method;
+		this.stats = stats;
+	}
+
+	/**
+	 * Cancels this token once the given request future is canceled
+	 */
+	public <T> CompletableFuture<T> bind(CompletableFuture<T> request) {
+		request.whenComplete((r, e) -> {
+			if (request.isCancelled()) {
+				cancel();
+			}
+		});
+		return request;
+	}
+
+	public void cancel() {
+		if (canceled.compareAndSet(false, true)) {
+			stats.canceled(method);
+		}
+	}
+
+	/**
+	 * Cancels this token because the server stopped waiting for the handler. Counted as timed out
+	 * rather than as canceled by the client.
+	 */
+	public void timeout() {
+		if (canceled.compareAndSet(false, true)) {
+			stats.timedOut(method);
+		}
+	}
+
+	@Override
+	public boolean isCanceled() {
+		return canceled.get();
+	}
+
+	@Override
+	public void checkCanceled() {
+		if (canceled.get()) {
+			if (aborted.compareAndSet(false, true)) {
+				stats.aborted(method);
+			}
+			throw new CancellationException(method + " request canceled");
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2019 Pivotal, Inc.
+ * Copyright (c) 2016, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -480,6 +480,7 @@ public final class SimpleLanguageServer implements Sts4LanguageServer, LanguageC
 			h.run();
 		}
 		getWorkspaceService().dispose();
+		log.info("Request cancellation: {}", getTextDocumentService().getCanceledRequests());
 		return "OK";
 	  });
 	}
@@ -685,6 +686,7 @@ public final class SimpleLanguageServer implements Sts4LanguageServer, LanguageC
 		onInitialized(Mono.fromRunnable(action)).toFuture();
 	}
 
+	@Override
 	public synchronized void onShutdown(Runnable handler) {
 		if (shutdownHandler==null) {
 			this.shutdownHandler = handler;
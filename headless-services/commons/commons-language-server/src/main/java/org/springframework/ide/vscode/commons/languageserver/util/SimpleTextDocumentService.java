@@ -13,10 +13,12 @@ package org.springframework.ide.vscode.commons.languageserver.util;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -59,6 +61,7 @@ import org.eclipse.lsp4j.TextDocumentPositionParams;
 import org.eclipse.lsp4j.TextEdit;
 import org.eclipse.lsp4j.VersionedTextDocumentIdentifier;
 import org.eclipse.lsp4j.WorkspaceEdit;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.eclipse.lsp4j.services.LanguageClient;
 import org.eclipse.lsp4j.services.TextDocumentService;
@@ -84,7 +87,11 @@ public class SimpleTextDocumentService implements TextDocumentService, DocumentE
 	
 	final private SimpleLanguageServer server;
 	final private LanguageServerProperties props;
-	private Map<String, TrackedDocument> documents = new HashMap<>();
+	/**
+	 * Tracked documents by uri. Lookups don't lock, documents are added and removed atomically per uri.
+	 * The monitor of the service only guards the registration of handlers.
+	 */
+	private final ConcurrentMap<String, TrackedDocument> documents = new ConcurrentHashMap<>();
 	private ListenerList<TextDocumentContentChange> documentChangeListeners = new ListenerList<>();
 	private ListenerList<TextDocument> documentCloseListeners = new ListenerList<>();
 	private ListenerList<TextDocument> documentOpenListeners = new ListenerList<>();
@@ -105,6 +112,8 @@ public class SimpleTextDocumentService implements TextDocumentService, DocumentE
 	private List<Consumer<TextDocumentSaveChange>> documentSaveListeners = ImmutableList.of();
 	private AsyncRunner async;
 
+	private final CanceledRequests canceledRequests = new CanceledRequests();
+
 
 	public SimpleTextDocumentService(SimpleLanguageServer server, LanguageServerProperties props) {
 		this.server = server;
@@ -161,10 +170,10 @@ public class SimpleTextDocumentService implements TextDocumentService, DocumentE
 	 * Gets all documents this service is tracking, generally these are the documents that have been opened / changed,
 	 * and not yet closed.
 	 */
-	public synchronized Collection<TextDocument> getAll() {
+	public Collection<TextDocument> getAll() {
 		return documents.values().stream()
 				.map((td) -> td.getDocument())
-				.collect(Collectors.toList());
+				.collect(CollectorUtil.toImmutableList());
 	}
 
 	@Override
@@ -240,7 +249,7 @@ public class SimpleTextDocumentService implements TextDocumentService, DocumentE
 					// document go 'out of scope'.
 					publishDiagnostics(params.getTextDocument(), ImmutableList.of());
 					documentCloseListeners.fire(doc.getDocument());
-					documents.remove(url);
+					documents.remove(url, doc);
 				} else {
 					log.warn("Close event ignored! Assuming document still open because openCount = "+doc.getOpenCount());
 				}
@@ -275,7 +284,7 @@ public class SimpleTextDocumentService implements TextDocumentService, DocumentE
 		documentSaveListeners = builder.build();
 	}
 
-	public synchronized TextDocument getDocument(String url) {
+	public TextDocument getDocument(String url) {
 		TrackedDocument doc = documents.get(url);
 		if (doc==null) {
 			log.warn("Trying to get document ["+url+"] but it did not exists. Creating it with language-id 'plaintext'");
@@ -284,14 +293,13 @@ public class SimpleTextDocumentService implements TextDocumentService, DocumentE
 		return doc.getDocument();
 	}
 
-	private synchronized TrackedDocument createDocument(String url, LanguageId languageId, int version, String text) {
-		TrackedDocument existingDoc = documents.get(url);
+	private TrackedDocument createDocument(String url, LanguageId languageId, int version, String text) {
+		TrackedDocument doc = new TrackedDocument(new TextDocument(url, languageId, version, text));
+		TrackedDocument existingDoc = documents.putIfAbsent(url, doc);
 		if (existingDoc!=null) {
 			log.warn("Creating document ["+url+"] but it already exists. Reusing existing!");
 			return existingDoc;
 		}
-		TrackedDocument doc = new TrackedDocument(new TextDocument(url, languageId, version, text));
-		documents.put(url, doc);
 		return doc;
 	}
 
@@ -306,9 +314,11 @@ public class SimpleTextDocumentService implements TextDocumentService, DocumentE
 	public CompletableFuture<Either<List<CompletionItem>, CompletionList>> completion(CompletionParams position) {
 		CompletionHandler h = completionHandler;
 		if (h!=null) {
-			return completionHandler.handle(position)
+			RequestCancelChecker cancelToken = new RequestCancelChecker("textDocument/completion", canceledRequests);
+			return cancelToken.bind(h.handle(cancelToken, position)
+					.onErrorResume(e -> e instanceof CancellationException && cancelToken.isCanceled(), e -> Mono.just(NO_COMPLETIONS))
 					.map(Either::<List<CompletionItem>, CompletionList>forRight)
-					.toFuture();
+					.toFuture());
 		}
 		return CompletableFuture.completedFuture(Either.forRight(NO_COMPLETIONS));
 	}
@@ -334,17 +344,20 @@ public class SimpleTextDocumentService implements TextDocumentService, DocumentE
 	public CompletableFuture<Hover> hover(HoverParams hoverParams) {
 		log.debug("hover requested for {}", hoverParams.getPosition());
 		long timeout = props.getHoverTimeout();
-		return timeout <= 0 ? async.invoke(() -> computeHover(hoverParams)) : async.invoke(Duration.ofMillis(timeout), () -> computeHover(hoverParams), Mono.fromRunnable(() -> {
+		RequestCancelChecker cancelToken = new RequestCancelChecker("textDocument/hover", canceledRequests);
+		return cancelToken.bind(timeout <= 0 ? async.invoke(() -> computeHover(cancelToken, hoverParams)) : async.invoke(Duration.ofMillis(timeout), () -> computeHover(cancelToken, hoverParams), Mono.fromRunnable(() -> {
 			log.error("Hover Request handler timed out after {} ms.", timeout);
-		}));
+			// Nobody waits for the handler anymore
+			cancelToken.timeout();
+		})));
 	}
 	
-	private Hover computeHover(HoverParams hoverParams) {
+	private Hover computeHover(CancelChecker cancelToken, HoverParams hoverParams) throws Exception {
 		try {
 			log.debug("hover handler starting");
 			HoverHandler h = hoverHandler;
 			if (h != null) {
-				return hoverHandler.handle(hoverParams);
+				return runCancelable(cancelToken, NO_HOVER, () -> h.handle(cancelToken, hoverParams));
 			}
 			log.debug("no hover because there is no handler");
 			return null;
@@ -444,11 +457,37 @@ public class SimpleTextDocumentService implements TextDocumentService, DocumentE
 	public CompletableFuture<List<? extends CodeLens>> codeLens(CodeLensParams params) {
 		CodeLensHandler handler = this.codeLensHandler;
 		if (handler != null) {
-			return async.invoke(() -> handler.handle(params));
+			RequestCancelChecker cancelToken = new RequestCancelChecker("textDocument/codeLens", canceledRequests);
+			return cancelToken.bind(async.invoke(() -> runCancelable(cancelToken, NO_CODELENS, () -> handler.handle(cancelToken, params))));
 		}
 		return CompletableFuture.completedFuture(Collections.emptyList());
 	}
 
+	/**
+	 * Runs a request handler unless the request has been canceled while it was waiting to be handled.
+	 * A handler that stopped early because of the cancellation yields the given result, nobody waits
+	 * for it anymore.
+	 */
+	private static <T> T runCancelable(CancelChecker cancelToken, T canceledResult, Callable<T> handler) throws Exception {
+		try {
+			cancelToken.checkCanceled();
+			return handler.call();
+		} catch (CancellationException e) {
+			if (cancelToken.isCanceled()) {
+				return canceledResult;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * @return counters of requests canceled by the client, of requests timed out on the server and of
+	 *         those whose handlers stopped early
+	 */
+	public CanceledRequests getCanceledRequests() {
+		return canceledRequests;
+	}
+
 	@Override
 	public CompletableFuture<CodeLens> resolveCodeLens(CodeLens unresolved) {
 		CodeLensResolveHandler handler = this.codeLensResolveHandler;
@@ -518,11 +557,11 @@ public class SimpleTextDocumentService implements TextDocumentService, DocumentE
 		}
 	}
 
-	public synchronized TextDocument get(TextDocumentPositionParams params) {
+	public TextDocument get(TextDocumentPositionParams params) {
 		return get(params.getTextDocument().getUri());
 	}
 
-	public synchronized TextDocument get(String uri) {
+	public TextDocument get(String uri) {
 		TrackedDocument td = documents.get(uri);
 		return td == null ? null : td.getDocument();
 	}
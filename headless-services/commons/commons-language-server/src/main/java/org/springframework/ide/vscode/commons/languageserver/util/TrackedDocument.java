@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Pivotal, Inc.
+ * Copyright (c) 2017, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -20,7 +20,7 @@ import com.google.common.collect.ImmutableList;
 public class TrackedDocument {
 
 	private final TextDocument doc;
-	private List<Quickfix<?>> quickfixes = ImmutableList.of();
+	private volatile List<Quickfix<?>> quickfixes = ImmutableList.of();
 	private int openCount = 0;
 
 	public TrackedDocument(TextDocument doc) {
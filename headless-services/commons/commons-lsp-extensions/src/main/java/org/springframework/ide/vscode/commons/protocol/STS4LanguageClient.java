@@ -57,6 +57,13 @@ public interface STS4LanguageClient extends LanguageClient {
 	@JsonRequest("sts/javaType")
 	CompletableFuture<TypeData> javaType(JavaDataParams params);
 
+	/**
+	 * Type data for several types at once. The result has an element, possibly <code>null</code>, for each of
+	 * the requested types in the same order.
+	 */
+	@JsonRequest("sts/javaTypes")
+	CompletableFuture<List<TypeData>> javaTypes(List<JavaDataParams> params);
+
 	@JsonRequest("sts/javadocHoverLink")
 	CompletableFuture<String> javadocHoverLink(JavaDataParams params);
 
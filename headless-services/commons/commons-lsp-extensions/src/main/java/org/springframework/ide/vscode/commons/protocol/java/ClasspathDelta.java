@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.protocol.java;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.ide.vscode.commons.protocol.java.Classpath.CPE;
+
+/**
+ * Difference between two classpaths of a project. Entries are identified by kind and path. Entries
+ * present in both classpaths with different attributes are 'changed'. Added entries carry their
+ * index in the new classpath such that the order of entries is preserved when the delta is applied.
+ *
+ * @author Alex Boyko
+ *
+ */
+public class ClasspathDelta {
+
+	public static class AddedEntry {
+
+		private int index;
+		private CPE cpe;
+
+		public AddedEntry() {}
+
+		public AddedEntry(int index, CPE cpe) {
+			this.index = index;
+			this.cpe = cpe;
+		}
+
+		public int getIndex() {
+			return index;
+		}
+
+		public void setIndex(int index) {
+			this.index = index;
+		}
+
+		public CPE getCpe() {
+			return cpe;
+		}
+
+		public void setCpe(CPE cpe) {
+			this.cpe = cpe;
+		}
+
+		@Override
+		public String toString() {
+			return "AddedEntry [index=" + index + ", cpe=" + cpe + "]";
+		}
+	}
+
+	private List<AddedEntry> added = Collections.emptyList();
+	private List<CPE> removed = Collections.emptyList();
+	private List<CPE> changed = Collections.emptyList();
+
+	public ClasspathDelta() {}
+
+	public ClasspathDelta(List<AddedEntry> added, List<CPE> removed, List<CPE> changed) {
+		this.added = added;
+		this.removed = removed;
+		this.changed = changed;
+	}
+
+	public List<AddedEntry> getAdded() {
+		return added;
+	}
+
+	public void setAdded(List<AddedEntry> added) {
+		this.added = added;
+	}
+
+	public List<CPE> getRemoved() {
+		return removed;
+	}
+
+	public void setRemoved(List<CPE> removed) {
+		this.removed = removed;
+	}
+
+	public List<CPE> getChanged() {
+		return changed;
+	}
+
+	public void setChanged(List<CPE> changed) {
+		this.changed = changed;
+	}
+
+	public boolean isEmpty() {
+		return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+	}
+
+	public int size() {
+		return added.size() + removed.size() + changed.size();
+	}
+
+	/**
+	 * Computes the delta between classpaths. Returns <code>null</code> if the classpaths are not suitable
+	 * for a delta, i.e. retained entries were reordered or there are duplicate entries.
+	 */
+	public static ClasspathDelta compute(Classpath oldClasspath, Classpath newClasspath) {
+		Map<String, CPE> oldEntries = index(oldClasspath.getEntries());
+		Map<String, CPE> newEntries = index(newClasspath.getEntries());
+		if (oldEntries == null || newEntries == null) {
+			return null;
+		}
+
+		List<AddedEntry> added = new ArrayList<>();
+		List<CPE> changed = new ArrayList<>();
+		List<String> retainedInNewOrder = new ArrayList<>();
+		List<CPE> entries = newClasspath.getEntries();
+		for (int i = 0; i < entries.size(); i++) {
+			CPE cpe = entries.get(i);
+			CPE oldCpe = oldEntries.get(key(cpe));
+			if (oldCpe == null) {
+				added.add(new AddedEntry(i, cpe));
+			} else {
+				retainedInNewOrder.add(key(cpe));
+				if (!oldCpe.equals(cpe)) {
+					changed.add(cpe);
+				}
+			}
+		}
+
+		List<CPE> removed = new ArrayList<>();
+		List<String> retainedInOldOrder = new ArrayList<>();
+		for (CPE cpe : oldClasspath.getEntries()) {
+			if (newEntries.containsKey(key(cpe))) {
+				retainedInOldOrder.add(key(cpe));
+			} else {
+				removed.add(cpe);
+			}
+		}
+
+		if (!retainedInOldOrder.equals(retainedInNewOrder)) {
+			return null;
+		}
+		return new ClasspathDelta(added, removed, changed);
+	}
+
+	/**
+	 * Applies the delta to the classpath it has been computed against.
+	 *
+	 * @throws IllegalArgumentException if the delta doesn't fit the classpath
+	 */
+	public Classpath apply(Classpath classpath) {
+		Set<String> removedKeys = new HashSet<>();
+		for (CPE cpe : removed) {
+			removedKeys.add(key(cpe));
+		}
+		Map<String, CPE> changedEntries = new HashMap<>();
+		for (CPE cpe : changed) {
+			changedEntries.put(key(cpe), cpe);
+		}
+
+		List<CPE> entries = new ArrayList<>(classpath.getEntries().size() + added.size());
+		for (CPE cpe : classpath.getEntries()) {
+			String key = key(cpe);
+			if (!removedKeys.remove(key)) {
+				CPE changedCpe = changedEntries.remove(key);
+				entries.add(changedCpe == null ? cpe : changedCpe);
+			}
+		}
+		if (!removedKeys.isEmpty() || !changedEntries.isEmpty()) {
+			throw new IllegalArgumentException("Delta refers to entries missing from the classpath");
+		}
+
+		List<AddedEntry> sortedAdded = new ArrayList<>(added);
+		sortedAdded.sort((a1, a2) -> Integer.compare(a1.getIndex(), a2.getIndex()));
+		for (AddedEntry e : sortedAdded) {
+			if (e.getIndex() < 0 || e.getIndex() > entries.size()) {
+				throw new IllegalArgumentException("Invalid index for added entry " + e);
+			}
+			entries.add(e.getIndex(), e.getCpe());
+		}
+		return new Classpath(entries);
+	}
+
+	private static Map<String, CPE> index(List<CPE> entries) {
+		Map<String, CPE> index = new HashMap<>();
+		for (CPE cpe : entries) {
+			if (index.put(key(cpe), cpe) != null) {
+				return null;
+			}
+		}
+		return index;
+	}
+
+	private static String key(CPE cpe) {
+		return cpe.getKind() + ":" + cpe.getPath();
+	}
+
+	@Override
+	public String toString() {
+		return "ClasspathDelta [added=" + added + ", removed=" + removed + ", changed=" + changed + "]";
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2019 Pivotal, Inc.
+ * Copyright (c) 2018, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -21,8 +21,20 @@ public class ClasspathListenerParams {
 	 */
 	private boolean batched = false;
 
+	/**
+	 * The requestor can set this to true to request {@link ClasspathDelta} based
+	 * events for classpath changes of already known projects (if the client supports this).
+	 */
+	private boolean delta = false;
+
 	public ClasspathListenerParams() {}
 
+	public ClasspathListenerParams(String callbackCommandId, boolean isBatched, boolean isDelta) {
+		this.callbackCommandId = callbackCommandId;
+		this.batched = isBatched;
+		this.delta = isDelta;
+	}
+
 	public ClasspathListenerParams(String callbackCommandId, boolean isBatched) {
 		this.callbackCommandId = callbackCommandId;
 		this.batched = isBatched;
@@ -42,7 +54,7 @@ public class ClasspathListenerParams {
 	
 	@Override
 	public String toString() {
-		return "ClasspathListenerParams [callbackCommandId=" + callbackCommandId + ", batched=" + batched + "]";
+		return "ClasspathListenerParams [callbackCommandId=" + callbackCommandId + ", batched=" + batched + ", delta=" + delta + "]";
 	}
 
 	public boolean isBatched() {
@@ -53,4 +65,12 @@ public class ClasspathListenerParams {
 		this.batched = batched;
 	}
 
+	public boolean isDelta() {
+		return delta;
+	}
+
+	public void setDelta(boolean delta) {
+		this.delta = delta;
+	}
+
 }
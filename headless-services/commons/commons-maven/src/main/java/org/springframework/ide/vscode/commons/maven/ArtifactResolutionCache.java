@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.maven;
+
+import java.io.File;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Cache for artifact resolution results, shared by all projects that are read via the same
+ * {@link MavenCore} instance. Sibling modules of a reactor build usually depend on the same
+ * artifacts, which therefore get resolved only once.
+ * <p>
+ * Results are keyed by the artifact coordinates and the set of repositories the artifact gets
+ * resolved from. Sources and javadoc jars that cannot be resolved are remembered as well, so that
+ * missing ones don't hit the remote repositories again for every project. Failures to resolve any
+ * other artifact are not cached, these are retried with the next request.
+ *
+ * @author Alex Boyko
+ *
+ */
+public class ArtifactResolutionCache {
+
+	private static final long EXPIRATION_MINUTES = 10;
+
+	/**
+	 * Classifiers of artifacts that are commonly missing from repositories
+	 */
+	private static final Set<String> OPTIONAL_CLASSIFIERS = ImmutableSet.of("sources", "javadoc");
+
+	@FunctionalInterface
+	public interface Resolver {
+		Artifact resolve(Artifact artifact) throws MavenException;
+	}
+
+	private static class Resolution {
+
+		final String version;
+		final File file;
+		final MavenException failure;
+
+		Resolution(String version, File file) {
+			this.version = version;
+			this.file = file;
+			this.failure = null;
+		}
+
+		Resolution(MavenException failure) {
+			this.version = null;
+			this.file = null;
+			this.failure = failure;
+		}
+
+		boolean isResolved() {
+			return file != null;
+		}
+	}
+
+	private final Cache<String, Resolution> cache = CacheBuilder.newBuilder()
+			.expireAfterWrite(EXPIRATION_MINUTES, TimeUnit.MINUTES)
+			.build();
+
+	/**
+	 * Resolves the artifact via the given resolver unless a resolution result for the same artifact
+	 * and repositories is cached already. Concurrent requests for the same artifact wait for a single
+	 * resolution.
+	 *
+	 * @return the resolved artifact
+	 * @throws MavenException if the artifact cannot be resolved, caused by the failure of the resolver
+	 */
+	public Artifact resolve(Artifact artifact, List<ArtifactRepository> repositories, Resolver resolver) throws MavenException {
+		String key = key(artifact, repositories);
+
+		Resolution resolution = cache.getIfPresent(key);
+		if (resolution != null && resolution.isResolved() && !resolution.file.exists()) {
+			// artifact got removed from the local repository in the meantime
+			cache.invalidate(key);
+		}
+
+		try {
+			resolution = cache.get(key, () -> {
+				try {
+					Artifact resolved = resolver.resolve(artifact);
+					if (resolved == null || resolved.getFile() == null) {
+						throw new MavenException(new IllegalStateException("Cannot resolve artifact " + artifact.getId()));
+					}
+					return new Resolution(resolved.getVersion(), resolved.getFile());
+				} catch (MavenException e) {
+					if (OPTIONAL_CLASSIFIERS.contains(artifact.getClassifier())) {
+						return new Resolution(e);
+					}
+					// failure is not cached
+					throw e;
+				}
+			});
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof MavenException) {
+				throw (MavenException) e.getCause();
+			}
+			throw new MavenException(e.getCause());
+		}
+
+		if (!resolution.isResolved()) {
+			throw new MavenException(resolution.failure);
+		}
+
+		if (artifact.getFile() == null || !artifact.isResolved()) {
+			artifact.selectVersion(resolution.version);
+			artifact.setFile(resolution.file);
+			artifact.setResolved(true);
+		}
+		return artifact;
+	}
+
+	public void clear() {
+		cache.invalidateAll();
+	}
+
+	public long size() {
+		return cache.size();
+	}
+
+	private static String key(Artifact artifact, List<ArtifactRepository> repositories) {
+		StringBuilder key = new StringBuilder();
+		key.append(artifact.getGroupId()).append(':');
+		key.append(artifact.getArtifactId()).append(':');
+		key.append(artifact.getVersion()).append(':');
+		key.append(artifact.getType()).append(':');
+		key.append(artifact.getClassifier() == null ? "" : artifact.getClassifier());
+		if (repositories != null) {
+			key.append(repositories.stream()
+					.map(r -> r.getId() + "=" + r.getUrl())
+					.sorted()
+					.collect(Collectors.joining(",", "[", "]")));
+		}
+		return key.toString();
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2019 Pivotal, Inc.
+ * Copyright (c) 2016, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -21,10 +21,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -56,6 +60,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ide.vscode.commons.java.JavaUtils;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 /**
  * Maven Core functionality
  *
@@ -81,6 +88,43 @@ public class MavenCore {
 
 	private MavenBridge maven;
 
+	private final ArtifactResolutionCache resolutionCache = new ArtifactResolutionCache();
+
+	/**
+	 * Projects read without dependencies for looking up peer projects, keyed by pom file. Sibling
+	 * modules of a reactor build look up the same parent and peer poms over and over again. A project
+	 * is read again once its pom or any pom of its parent chain changes.
+	 */
+	private final Cache<File, CachedProject> peerProjectsCache = CacheBuilder.newBuilder()
+			.maximumSize(500)
+			.expireAfterAccess(10, TimeUnit.MINUTES)
+			.build();
+
+	private static class CachedProject {
+		final Map<File, String> pomStamps = new HashMap<>();
+		final MavenProject project;
+
+		CachedProject(File pom, MavenProject project) {
+			this.project = project;
+			// The model inherits from the parent poms, a change to any of them changes the project
+			pomStamps.put(pom, stamp(pom));
+			for (MavenProject parent = project.getParent(); parent != null; parent = parent.getParent()) {
+				File parentPom = parent.getFile();
+				if (parentPom != null) {
+					pomStamps.put(parentPom, stamp(parentPom));
+				}
+			}
+		}
+
+		boolean isUpToDate() {
+			return pomStamps.entrySet().stream().allMatch(e -> e.getValue().equals(stamp(e.getKey())));
+		}
+
+		private static String stamp(File pom) {
+			return pom.length() + "-" + pom.lastModified();
+		}
+	}
+
 	public static MavenCore getDefault() {
 		if (defaultInstance == null) {
 			defaultInstance = new MavenCore(IMavenConfiguration.DEFAULT);
@@ -228,7 +272,7 @@ public class MavenCore {
 			return artifacts.parallelStream().map(artifact -> {
 				if (!artifact.isResolved()) {
 					try {
-						artifact = maven.resolve(artifact, project.getRemoteArtifactRepositories(), request);
+						artifact = resolve(artifact, project.getRemoteArtifactRepositories(), request);
 					} catch (MavenException e) {
 						log.error("", e);
 						// Maven 2.x quirk: an artifact always points at the local repo,
@@ -253,19 +297,38 @@ public class MavenCore {
 	}
 
 	public Artifact getSources(Artifact artifact, List<ArtifactRepository> repositories) throws MavenException {
-		return maven.resolve(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion(), artifact.getType(), CLASSIFIER_SOURCES, repositories, maven.createExecutionRequest());
+		return resolve(artifact, CLASSIFIER_SOURCES, repositories);
 	}
 
 	public Artifact getJavadoc(Artifact artifact, List<ArtifactRepository> repositories) throws MavenException {
-		return maven.resolve(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion(), artifact.getType(), CLASSIFIER_JAVADOC, repositories, maven.createExecutionRequest());
+		return resolve(artifact, CLASSIFIER_JAVADOC, repositories);
 	}
 
 	public Artifact getTests(Artifact artifact, List<ArtifactRepository> repositories) throws MavenException {
-		return maven.resolve(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion(), artifact.getType(), CLASSIFIER_TESTS, repositories, maven.createExecutionRequest());
+		return resolve(artifact, CLASSIFIER_TESTS, repositories);
 	}
 
 	public Artifact getTestSources(Artifact artifact, List<ArtifactRepository> repositories) throws MavenException {
-		return maven.resolve(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion(), artifact.getType(), CLASSIFIER_TESTSOURCES, repositories, maven.createExecutionRequest());
+		return resolve(artifact, CLASSIFIER_TESTSOURCES, repositories);
+	}
+
+	private Artifact resolve(Artifact artifact, String classifier, List<ArtifactRepository> repositories) throws MavenException {
+		Artifact classified = maven.lookupComponent(org.apache.maven.repository.RepositorySystem.class)
+				.createArtifactWithClassifier(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion(), artifact.getType(), classifier);
+		// execution request is only created if the artifact is not cached already
+		return resolutionCache.resolve(classified, repositories, a -> maven.resolve(a, repositories, maven.createExecutionRequest()));
+	}
+
+	private Artifact resolve(Artifact artifact, List<ArtifactRepository> repositories, MavenExecutionRequest request) throws MavenException {
+		return resolutionCache.resolve(artifact, repositories, a -> maven.resolve(a, repositories, request));
+	}
+
+	/**
+	 * Drops all cached artifact resolution results and project models
+	 */
+	public void clearCaches() {
+		resolutionCache.clear();
+		peerProjectsCache.invalidateAll();
 	}
 
 	public Stream<Path> getJreLibs() throws MavenException {
@@ -306,13 +369,13 @@ public class MavenCore {
 			try {
 				Path parentFolder = currentProject.getBasedir().toPath().getParent();
 				if (Files.isRegularFile(parentFolder.resolve(MavenCore.POM_XML))) {
-					MavenProject parent = readProject(parentFolder.resolve(MavenCore.POM_XML).toFile(), false);
+					MavenProject parent = readProjectCached(parentFolder.resolve(MavenCore.POM_XML).toFile());
 					for (String module : parent.getModules()) {
 						Path path = parentFolder.resolve(module);
 						if (Files.isDirectory(path)
 								&& !currentProject.getBasedir().equals(path.toFile())
 								&& Files.isRegularFile(path.resolve(MavenCore.POM_XML))) {
-							MavenProject peerProject = readProject(path.resolve(MavenCore.POM_XML).toFile(), false);
+							MavenProject peerProject = readProjectCached(path.resolve(MavenCore.POM_XML).toFile());
 							if (dependency.equals(peerProject.getArtifact())) {
 								return peerProject;
 							}
@@ -326,4 +389,20 @@ public class MavenCore {
 		return null;
 	}
 
+	private MavenProject readProjectCached(File pom) throws MavenException {
+		CachedProject cached = peerProjectsCache.getIfPresent(pom);
+		if (cached != null && cached.isUpToDate()) {
+			return cached.project;
+		}
+		try {
+			peerProjectsCache.invalidate(pom);
+			return peerProjectsCache.get(pom, () -> new CachedProject(pom, readProject(pom, false))).project;
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof MavenException) {
+				throw (MavenException) e.getCause();
+			}
+			throw new MavenException(e.getCause());
+		}
+	}
+
 }
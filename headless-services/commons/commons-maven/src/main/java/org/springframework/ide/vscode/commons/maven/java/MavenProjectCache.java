@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2018 Pivotal, Inc.
+ * Copyright (c) 2016, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -56,7 +56,7 @@ public class MavenProjectCache extends AbstractFileToProjectCache<MavenJavaProje
 				projectCacheFolder == null ? null : pomFile.getParentFile().toPath().resolve(projectCacheFolder),
 				javadocService
 			);
-		performUpdate(mavenJavaProject, asyncUpdate, asyncUpdate);
+		performInitialUpdate(mavenJavaProject, mavenJavaProject.getClasspath().isUpToDate());
 		return mavenJavaProject;
 	}
 }
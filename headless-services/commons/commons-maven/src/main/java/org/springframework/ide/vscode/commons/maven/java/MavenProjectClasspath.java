@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2019 Pivotal, Inc.
+ * Copyright (c) 2016, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,11 +13,15 @@ package org.springframework.ide.vscode.commons.maven.java;
 import java.io.File;
 import java.net.URL;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.model.Resource;
@@ -48,6 +52,7 @@ public class MavenProjectClasspath implements IClasspath {
 	private MavenCore maven;
 	private File pom;
 	private ClasspathData cachedData;
+	private List<File> buildFiles = Collections.emptyList();
 
 	MavenProjectClasspath(MavenCore maven, File pom) throws Exception {
 		super();
@@ -101,44 +106,54 @@ public class MavenProjectClasspath implements IClasspath {
 			}
 		})));
 		//Add jar dependencies...
+		List<Artifact> dependencies = new ArrayList<>();
+		Map<Artifact, MavenProject> peerProjects = new HashMap<>();
 		for (Artifact a : projectDependencies(project)) {
 			File f = a.getFile();
 			if (f!=null) {
+				dependencies.add(a);
 				MavenProject peerProject = maven.findPeerProject(project, a);
 				if (peerProject != null) {
-					// Peer project dependency case
-					File sourceFolder = new File(peerProject.getBuild().getSourceDirectory());
-					File outputFolder = new File(peerProject.getBuild().getOutputDirectory());
-					CPE cpe = CPE.source(sourceFolder, outputFolder);
-					cpe.setOwn(false);
-					cpe.setTest(false);
-					cpe.setJavaContent(true);
-					safe(() -> {
-						String reportingDir = peerProject.getModel().getReporting().getOutputDirectory();
-						if (reportingDir!=null) {
-							File apidocs = new File(new File(reportingDir), "apidocs");
-							cpe.setJavadocContainerUrl(apidocs.toURI().toURL());
-						}
-					});
-					entries.add(cpe);
-				} else {
-					CPE cpe = CPE.binary(a.getFile().toPath().toString());
-					safe(() -> { //add javadoc
-						Artifact jdoc = maven.getJavadoc(a, project.getRemoteArtifactRepositories());
-						if (jdoc!=null) {
-							cpe.setJavadocContainerUrl(jdoc.getFile().toURI().toURL());
-						}
-					});
-					safe(() -> { //add source
-						Artifact source = maven.getSources(a, project.getRemoteArtifactRepositories());
-						if (source!=null) {
-							cpe.setSourceContainerUrl(source.getFile().toURI().toURL());
-						}
-					});
-					entries.add(cpe);
+					peerProjects.put(a, peerProject);
 				}
 			}
 		}
+		// Javadoc and sources of binary dependencies are resolved in parallel, the order of the entries is preserved
+		dependencies.parallelStream().map(a -> {
+			MavenProject peerProject = peerProjects.get(a);
+			if (peerProject != null) {
+				// Peer project dependency case
+				File sourceFolder = new File(peerProject.getBuild().getSourceDirectory());
+				File outputFolder = new File(peerProject.getBuild().getOutputDirectory());
+				CPE cpe = CPE.source(sourceFolder, outputFolder);
+				cpe.setOwn(false);
+				cpe.setTest(false);
+				cpe.setJavaContent(true);
+				safe(() -> {
+					String reportingDir = peerProject.getModel().getReporting().getOutputDirectory();
+					if (reportingDir!=null) {
+						File apidocs = new File(new File(reportingDir), "apidocs");
+						cpe.setJavadocContainerUrl(apidocs.toURI().toURL());
+					}
+				});
+				return cpe;
+			} else {
+				CPE cpe = CPE.binary(a.getFile().toPath().toString());
+				safe(() -> { //add javadoc
+					Artifact jdoc = maven.getJavadoc(a, project.getRemoteArtifactRepositories());
+					if (jdoc!=null) {
+						cpe.setJavadocContainerUrl(jdoc.getFile().toURI().toURL());
+					}
+				});
+				safe(() -> { //add source
+					Artifact source = maven.getSources(a, project.getRemoteArtifactRepositories());
+					if (source!=null) {
+						cpe.setSourceContainerUrl(source.getFile().toURI().toURL());
+					}
+				});
+				return cpe;
+			}
+		}).collect(Collectors.toList()).forEach(entries::add);
 		//Add source folders...
 		{	//main/java
 			File sourceFolder = new File(project.getBuild().getSourceDirectory());
@@ -224,6 +239,14 @@ public class MavenProjectClasspath implements IClasspath {
 		return cachedData != null ? ImmutableList.copyOf(cachedData.getClasspathEntries()) : ImmutableList.of();
 	}
 
+	/**
+	 * Pom file of the project and pom files of its parents
+	 */
+	@Override
+	public List<File> getBuildFiles() {
+		return buildFiles;
+	}
+
 	private Set<Artifact> projectDependencies(MavenProject project) {
 		return project == null ? Collections.emptySet() : project.getArtifacts();
 	}
@@ -250,6 +273,14 @@ public class MavenProjectClasspath implements IClasspath {
 		ImmutableList<CPE> entries = resolveClasspathEntries(project);
 		String name = project.getArtifact().getArtifactId();
 
+		List<File> poms = new ArrayList<>();
+		for (MavenProject p = project; p != null; p = p.getParent()) {
+			if (p.getFile() != null) {
+				poms.add(p.getFile());
+			}
+		}
+		buildFiles = poms;
+
 		return new ClasspathData(name, new LinkedHashSet<>(entries));
 	}
 
@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.maven;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
+import org.apache.maven.artifact.repository.MavenArtifactRepository;
+import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ArtifactResolutionCache}
+ *
+ * @author Alex Boyko
+ *
+ */
+public class ArtifactResolutionCacheTest {
+
+	private static Artifact artifact(String classifier) {
+		return new DefaultArtifact("org.example", "example-lib", "1.0.0", Artifact.SCOPE_COMPILE, "jar", classifier, new DefaultArtifactHandler("jar"));
+	}
+
+	private static List<ArtifactRepository> repositories(String... urls) {
+		List<ArtifactRepository> repositories = new ArrayList<>();
+		for (int i = 0; i < urls.length; i++) {
+			repositories.add(new MavenArtifactRepository("repo-" + i, urls[i], new DefaultRepositoryLayout(),
+					new ArtifactRepositoryPolicy(), new ArtifactRepositoryPolicy()));
+		}
+		return repositories;
+	}
+
+	@Test
+	public void resolvedArtifactIsSharedAcrossRequests() throws Exception {
+		ArtifactResolutionCache cache = new ArtifactResolutionCache();
+		File jar = Files.createTempFile("example-lib", ".jar").toFile();
+		jar.deleteOnExit();
+		AtomicInteger resolutions = new AtomicInteger();
+
+		ArtifactResolutionCache.Resolver resolver = a -> {
+			resolutions.incrementAndGet();
+			a.setFile(jar);
+			a.setResolved(true);
+			return a;
+		};
+
+		Artifact first = cache.resolve(artifact(null), repositories("https://repo.example.org"), resolver);
+		Artifact second = cache.resolve(artifact(null), repositories("https://repo.example.org"), resolver);
+
+		assertEquals(1, resolutions.get());
+		assertEquals(jar, first.getFile());
+		assertEquals(jar, second.getFile());
+		assertTrue(second.isResolved());
+
+		// different set of repositories means different result
+		cache.resolve(artifact(null), repositories("https://other.example.org"), resolver);
+		assertEquals(2, resolutions.get());
+
+		// different classifier is a different artifact
+		cache.resolve(artifact("sources"), repositories("https://repo.example.org"), resolver);
+		assertEquals(3, resolutions.get());
+	}
+
+	@Test
+	public void unresolvableJavadocIsRemembered() throws Exception {
+		ArtifactResolutionCache cache = new ArtifactResolutionCache();
+		AtomicInteger resolutions = new AtomicInteger();
+
+		ArtifactResolutionCache.Resolver resolver = a -> {
+			resolutions.incrementAndGet();
+			throw new MavenException(new IllegalStateException("not found in repo-0"));
+		};
+
+		for (int i = 0; i < 3; i++) {
+			try {
+				cache.resolve(artifact("javadoc"), Collections.emptyList(), resolver);
+				fail("artifact should not resolve");
+			} catch (MavenException e) {
+				assertEquals("not found in repo-0", e.getMessage());
+			}
+		}
+		assertEquals(1, resolutions.get());
+	}
+
+	@Test
+	public void unresolvableMainArtifactIsResolvedAgain() throws Exception {
+		ArtifactResolutionCache cache = new ArtifactResolutionCache();
+		File jar = Files.createTempFile("example-lib", ".jar").toFile();
+		jar.deleteOnExit();
+		AtomicInteger resolutions = new AtomicInteger();
+
+		// repository is not reachable the first time
+		ArtifactResolutionCache.Resolver resolver = a -> {
+			if (resolutions.incrementAndGet() == 1) {
+				throw new MavenException(new IllegalStateException("connection refused"));
+			}
+			a.setFile(jar);
+			a.setResolved(true);
+			return a;
+		};
+
+		try {
+			cache.resolve(artifact(null), Collections.emptyList(), resolver);
+			fail("artifact should not resolve");
+		} catch (MavenException e) {
+			assertEquals("connection refused", e.getMessage());
+		}
+		assertEquals(jar, cache.resolve(artifact(null), Collections.emptyList(), resolver).getFile());
+		assertEquals(2, resolutions.get());
+	}
+
+	@Test
+	public void deletedFileIsResolvedAgain() throws Exception {
+		ArtifactResolutionCache cache = new ArtifactResolutionCache();
+		File jar = Files.createTempFile("example-lib", ".jar").toFile();
+		AtomicInteger resolutions = new AtomicInteger();
+
+		ArtifactResolutionCache.Resolver resolver = a -> {
+			resolutions.incrementAndGet();
+			a.setFile(jar);
+			a.setResolved(true);
+			return a;
+		};
+
+		cache.resolve(artifact(null), Collections.emptyList(), resolver);
+		assertTrue(jar.delete());
+		cache.resolve(artifact(null), Collections.emptyList(), resolver);
+
+		assertEquals(2, resolutions.get());
+	}
+
+	@Test
+	public void concurrentRequestsResolveOnce() throws Exception {
+		ArtifactResolutionCache cache = new ArtifactResolutionCache();
+		File jar = Files.createTempFile("example-lib", ".jar").toFile();
+		jar.deleteOnExit();
+		AtomicInteger resolutions = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+
+		ArtifactResolutionCache.Resolver resolver = a -> {
+			resolutions.incrementAndGet();
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				throw new MavenException(e);
+			}
+			a.setFile(jar);
+			a.setResolved(true);
+			return a;
+		};
+
+		List<CompletableFuture<Artifact>> requests = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			requests.add(CompletableFuture.supplyAsync(() -> {
+				try {
+					return cache.resolve(artifact(null), Collections.emptyList(), resolver);
+				} catch (MavenException e) {
+					throw new RuntimeException(e);
+				}
+			}));
+		}
+		Thread.sleep(100);
+		release.countDown();
+
+		for (CompletableFuture<Artifact> request : requests) {
+			assertEquals(jar, request.get(10, TimeUnit.SECONDS).getFile());
+		}
+		assertEquals(1, resolutions.get());
+	}
+
+}
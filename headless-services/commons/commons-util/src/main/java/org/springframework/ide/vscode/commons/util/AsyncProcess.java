@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2016 Pivotal Software, Inc.
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,9 +13,7 @@ package org.springframework.ide.vscode.commons.util;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.PrintStream;
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -29,6 +27,9 @@ import java.util.concurrent.TimeoutException;
  * This provides similar apis than {@link ExternalProcess}. But has been adapted so that creation
  * of the instance starts the process asynchronously. Additional apis are also provided to
  * wait for the process and/or terminate it forcibly when no longer needed.
+ * <p>
+ * The streams are read by {@link ExternalProcess.StreamGobler} tasks on the shared I/O pool of
+ * {@link StreamingProcess}.
  * 
  * @author Kris De Volder
  */
@@ -38,85 +39,9 @@ public class AsyncProcess {
 	// to make 'ExternalProcess inherit from this one and just add some additional 'waitFor' call
 	// in its 'init' method.
 	
-	/**
-	 * A thread that keeps reading input from a Stream until the end is reached
-	 * or there's some error reading the Stream.
-	 */
-	public static class StreamGobler extends Thread {
-		
-		private final OutputStream echo;
-		private InputStream toRead; //Stream to read. This is nulled after all input has been consumed.
-		
-		/**
-		 * Creates a StreamGobler that reads input from an input stream
-		 * and buffers up all input it has read for later retrieval via
-		 * the getOut() method.
-		 */
-		public StreamGobler(InputStream toRead) {
-			this(toRead, new ByteArrayOutputStream());
-		}
-
-		/**
-		 * Creates a StreamGobler that reads input from an input stream
-		 * and writes it out to an outputstream.
-		 */
-		public StreamGobler(InputStream toRead, OutputStream forwardTo) {
-			this.toRead = toRead;
-			this.echo = forwardTo;
-			start();
-		}
-
-		@Override
-		public void run() {
-			byte[] buf = new byte[256];
-			while (toRead!=null) {
-				try {
-					int i = toRead.read(buf);
-					if (i==-1) {
-						//EOF
-						toRead = null; //Done!
-					} else {
-						append(buf, i);
-					}
-				} catch (IOException e) {
-					toRead = null;
-					ByteArrayOutputStream errMsg = new ByteArrayOutputStream();
-					e.printStackTrace(new PrintStream(errMsg));
-					append(errMsg.toByteArray());
-				}
-			}
-		}
-		
-		private void append(byte[] buf) {
-			append(buf, buf.length);
-		}
-
-		private void append(byte[] buf, int len) {
-			if (echo!=null) {
-				try {
-					echo.write(buf, 0, len);
-				} catch (IOException e) {
-				}
-			}
-		}
-
-		public String getContents() throws InterruptedException {
-			try {
-				this.join();
-				if (echo instanceof ByteArrayOutputStream) {
-					return ((ByteArrayOutputStream)echo).toString();
-				} else {
-					return null;
-				}
-			} finally {
-				toRead = null;
-			}
-		}
-	}
-
 	private Process process;
-	private StreamGobler err; // Standard error is to be read from here
-	private StreamGobler out; // Standard out is to be read from here
+	private ExternalProcess.StreamGobler err; // Standard error is to be read from here
+	private ExternalProcess.StreamGobler out; // Standard out is to be read from here
 	private int exitValue = -9999;
 	private ExternalCommand cmd;
 	
@@ -136,8 +61,8 @@ public class AsyncProcess {
 		processBuilder.directory(workingDir);
 		cmd.configure(processBuilder);
 		process = processBuilder.start();
-		err = new StreamGobler(process.getErrorStream(), errStream);
-		out = new StreamGobler(process.getInputStream(), outStream);
+		err = new ExternalProcess.StreamGobler(process.getErrorStream(), errStream);
+		out = new ExternalProcess.StreamGobler(process.getInputStream(), outStream);
 	}
 
 	public AsyncProcess(File workingDir, ExternalCommand cmd, boolean captureStreams) throws IOException {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2016 Pivotal Software, Inc.
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,6 +17,8 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -31,13 +33,14 @@ import java.util.concurrent.TimeoutException;
 public class ExternalProcess {
 	
 	/**
-	 * A thread that keeps reading input from a Stream until the end is reached
-	 * or there's some error reading the Stream.
+	 * A task on the shared {@link StreamingProcess} I/O pool that keeps reading input from a Stream
+	 * until the end is reached or there's some error reading the Stream.
 	 */
-	public static class StreamGobler extends Thread {
+	public static class StreamGobler implements Runnable {
 		
 		private final OutputStream echo;
 		private InputStream toRead; //Stream to read. This is nulled after all input has been consumed.
+		private final Future<?> done;
 		
 		/**
 		 * Creates a StreamGobler that reads input from an input stream
@@ -55,7 +58,7 @@ public class ExternalProcess {
 		public StreamGobler(InputStream toRead, OutputStream forwardTo) {
 			this.toRead = toRead;
 			this.echo = forwardTo;
-			start();
+			this.done = StreamingProcess.IO_POOL.submit(this);
 		}
 
 		@Override
@@ -94,12 +97,14 @@ public class ExternalProcess {
 
 		public String getContents() throws InterruptedException {
 			try {
-				this.join();
+				done.get();
 				if (echo instanceof ByteArrayOutputStream) {
 					return ((ByteArrayOutputStream)echo).toString();
 				} else {
 					return null;
 				}
+			} catch (ExecutionException e) {
+				return null;
 			} finally {
 				toRead = null;
 			}
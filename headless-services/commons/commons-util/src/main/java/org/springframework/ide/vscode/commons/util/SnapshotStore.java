@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.util;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+
+/**
+ * Directory of JSON files keeping the last known state of something expensive to obtain, such that it
+ * can be served right away after a restart. Files are replaced atomically, a reader never sees a partially
+ * written file. Writes can be done in the background on a single daemon thread of the store.
+ *
+ * @author Alex Boyko
+ *
+ */
+public class SnapshotStore {
+
+	private static final Logger log = LoggerFactory.getLogger(SnapshotStore.class);
+
+	private static final Gson gson = new Gson();
+
+	public static final String FILE_EXTENSION = ".json";
+
+	private final File directory;
+	private final String description;
+	private final Supplier<ExecutorService> writer;
+
+	/**
+	 * @param directory directory of the snapshot files, created if it doesn't exist
+	 * @param description what is stored, used for thread names and log messages, e.g. "CF target snapshot"
+	 */
+	public SnapshotStore(File directory, String description) {
+		this.directory = directory;
+		this.description = description;
+		this.writer = Suppliers.memoize(() -> Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, description + " writer");
+			t.setDaemon(true);
+			return t;
+		}));
+
+		if (!this.directory.exists()) {
+			this.directory.mkdirs();
+		}
+
+		if (!this.directory.exists()) {
+			log.warn(description + " directory does not exist and cannot be created: " + this.directory.toString());
+		}
+	}
+
+	/**
+	 * @return directory with the given name in the STS4 folder of the user's home
+	 */
+	public static File userDirectory(String name) {
+		return new File(System.getProperty("user.home") + File.separatorChar + ".sts4" + File.separatorChar + name);
+	}
+
+	/**
+	 * @return name of a snapshot file for the given key that doesn't reveal the key
+	 */
+	public static String fileName(String key) {
+		return Hashing.sha256().hashString(key, StandardCharsets.UTF_8).toString() + FILE_EXTENSION;
+	}
+
+	public File getFile(String fileName) {
+		return new File(directory, fileName);
+	}
+
+	/**
+	 * @return content of the snapshot file or <code>null</code> if there is none or it cannot be read
+	 */
+	public <T> T read(String fileName, Type type) {
+		File file = getFile(fileName);
+		if (!file.isFile()) {
+			return null;
+		}
+		try (Reader reader = new FileReader(file)) {
+			return gson.fromJson(reader, type);
+		} catch (Exception e) {
+			log.error("Failed to read " + description + " from " + file, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Replaces the content of the snapshot file
+	 */
+	public void write(String fileName, Object value, Type type) {
+		File file = getFile(fileName);
+		File tmp = new File(file.getPath() + ".tmp");
+		try (Writer w = new FileWriter(tmp)) {
+			gson.toJson(value, type, w);
+		} catch (IOException e) {
+			log.error("Failed to write " + description + " to " + tmp, e);
+			return;
+		}
+		if (!tmp.renameTo(file)) {
+			file.delete();
+			if (!tmp.renameTo(file)) {
+				log.error("Failed to write " + description + " to " + file);
+			}
+		}
+	}
+
+	/**
+	 * Runs the task on the writer thread of the store
+	 */
+	public void execute(Runnable task) {
+		writer.get().execute(task);
+	}
+
+	/**
+	 * Waits for pending writes to disk
+	 */
+	public void flush() {
+		try {
+			writer.get().submit(() -> {}).get(10, TimeUnit.SECONDS);
+		} catch (Exception e) {
+			log.error("", e);
+		}
+	}
+
+}
@@ -0,0 +1,249 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.util;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Non-blocking execution of an external command. Unlike {@link ExternalProcess} the output of the
+ * command isn't accumulated in memory before it can be used: standard out is handed to a parser as a
+ * stream while the command is running. The only buffer is the pipe of the OS, i.e. the command is
+ * paused while the parser doesn't keep up. Only the tail of standard error is kept for error messages.
+ * <p>
+ * Reading the streams and waiting for the command runs on one pool of daemon threads shared by all
+ * processes. Outcomes are {@link CompletableFuture}s, cancelling them or exceeding the timeout
+ * destroys the process.
+ *
+ * @author Alex Boyko
+ */
+public class StreamingProcess {
+
+	/**
+	 * Parses standard out of a command
+	 */
+	@FunctionalInterface
+	public interface OutputParser<T> {
+		T parse(InputStream out) throws Exception;
+	}
+
+	/**
+	 * Threads reading streams of and waiting for external processes
+	 */
+	static final ExecutorService IO_POOL = Executors.newCachedThreadPool(r -> {
+		Thread t = new Thread(r, "External process I/O");
+		t.setDaemon(true);
+		return t;
+	});
+
+	private static final int ERR_TAIL_LIMIT = 16 * 1024;
+
+	private final ExternalCommand cmd;
+	private final Process process;
+	private final CompletableFuture<String> err = new CompletableFuture<>();
+	private final CompletableFuture<Integer> exit = new CompletableFuture<>();
+
+	private StreamingProcess(File workingDir, ExternalCommand cmd, Duration timeout) throws IOException {
+		this.cmd = cmd;
+		ProcessBuilder processBuilder = new ProcessBuilder(cmd.getProgramAndArgs());
+		processBuilder.directory(workingDir);
+		cmd.configure(processBuilder);
+		this.process = processBuilder.start();
+		IO_POOL.execute(this::readErrTail);
+		IO_POOL.execute(() -> waitForExit(timeout));
+	}
+
+	/**
+	 * Starts the command. Standard out of the command has to be consumed, either with
+	 * {@link #readOut(OutputParser)} or from {@link #getOut()}.
+	 *
+	 * @param timeout time the command may take or <code>null</code> to wait for as long as necessary
+	 */
+	public static StreamingProcess start(File workingDir, ExternalCommand cmd, Duration timeout) throws IOException {
+		return new StreamingProcess(workingDir, cmd, timeout);
+	}
+
+	/**
+	 * Convenience to wait for a result of a command, rethrowing the failure of the command as is.
+	 * The command is cancelled if the waiting thread is interrupted.
+	 */
+	public static <T> T await(CompletableFuture<T> result) throws Exception {
+		try {
+			return result.get();
+		} catch (InterruptedException e) {
+			result.cancel(true);
+			throw e;
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * @return standard out of the running command. Reading blocks until the command writes more output.
+	 */
+	public InputStream getOut() {
+		return process.getInputStream();
+	}
+
+	/**
+	 * Parses standard out on the shared pool while the command is running. Output the parser leaves
+	 * unread is skipped.
+	 *
+	 * @return result of the parser once the command succeeded. Fails with the failure of the command,
+	 *         otherwise with the failure of the parser. Cancelling the result cancels the command.
+	 */
+	public <T> CompletableFuture<T> readOut(OutputParser<T> parser) {
+		CompletableFuture<T> parsed = CompletableFuture.supplyAsync(() -> {
+			try (InputStream out = getOut()) {
+				try {
+					return parser.parse(new FilterInputStream(out) {
+						@Override
+						public void close() {
+							// Closed once the rest has been skipped
+						}
+					});
+				} finally {
+					// The command can't exit while its output isn't consumed
+					skip(out);
+				}
+			} catch (Exception e) {
+				throw new CompletionException(e);
+			}
+		}, IO_POOL);
+
+		CompletableFuture<T> result = new CompletableFuture<T>() {
+			@Override
+			public boolean cancel(boolean mayInterruptIfRunning) {
+				boolean cancelled = super.cancel(mayInterruptIfRunning);
+				StreamingProcess.this.cancel();
+				return cancelled;
+			}
+		};
+		exit.whenComplete((exitValue, error) -> {
+			if (error != null) {
+				result.completeExceptionally(error);
+			} else {
+				parsed.whenComplete((value, parseError) -> {
+					if (parseError != null) {
+						result.completeExceptionally(parseError instanceof CompletionException ? parseError.getCause() : parseError);
+					} else {
+						result.complete(value);
+					}
+				});
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * @return standard out as text once the command succeeded
+	 */
+	public CompletableFuture<String> readOut() {
+		return readOut(IOUtil::toString);
+	}
+
+	/**
+	 * @return completes with 0 once the command exited successfully. Fails with a {@link TimeoutException}
+	 *         if the command takes too long, a {@link CancellationException} if it has been cancelled or
+	 *         an {@link IOException} carrying the tail of standard error if the command failed.
+	 */
+	public CompletableFuture<Integer> getExit() {
+		return exit;
+	}
+
+	/**
+	 * Destroys the process unless it exited already
+	 */
+	public void cancel() {
+		if (exit.completeExceptionally(new CancellationException("Command cancelled: " + cmd))) {
+			process.destroy();
+		}
+	}
+
+	private void waitForExit(Duration timeout) {
+		try {
+			int exitValue;
+			if (timeout == null) {
+				exitValue = process.waitFor();
+			} else if (process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+				exitValue = process.exitValue();
+			} else {
+				if (exit.completeExceptionally(new TimeoutException("Command timed out: " + cmd))) {
+					process.destroy();
+				}
+				return;
+			}
+			if (exitValue == 0) {
+				exit.complete(exitValue);
+			} else {
+				String errTail = err.get(1, TimeUnit.SECONDS);
+				exit.completeExceptionally(new IOException("Command execution failed: " + cmd
+						+ "\nexitValue = " + exitValue + "\n------- System.err -------\n" + errTail));
+			}
+		} catch (Exception e) {
+			if (exit.completeExceptionally(e)) {
+				process.destroy();
+			}
+		}
+	}
+
+	private void readErrTail() {
+		byte[] tail = new byte[ERR_TAIL_LIMIT];
+		int length = 0;
+		try (InputStream in = process.getErrorStream()) {
+			byte[] buf = new byte[1024];
+			int read;
+			while ((read = in.read(buf)) != -1) {
+				if (length + read > ERR_TAIL_LIMIT) {
+					int drop = Math.min(length, length + read - ERR_TAIL_LIMIT);
+					System.arraycopy(tail, drop, tail, 0, length - drop);
+					length -= drop;
+				}
+				int keep = Math.min(read, ERR_TAIL_LIMIT);
+				System.arraycopy(buf, read - keep, tail, length, keep);
+				length += keep;
+			}
+		} catch (IOException e) {
+			// Process destroyed
+		} finally {
+			err.complete(new String(tail, 0, length, StandardCharsets.UTF_8));
+		}
+	}
+
+	private static void skip(InputStream in) throws IOException {
+		byte[] buf = new byte[4096];
+		while (in.read(buf) != -1) {
+			// skip
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "StreamingProcess(" + cmd + ")";
+	}
+
+}
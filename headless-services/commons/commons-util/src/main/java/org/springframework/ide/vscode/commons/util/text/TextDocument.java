@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2017 Pivotal, Inc.
+ * Copyright (c) 2016, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.springframework.ide.vscode.commons.util.text;
 
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -27,9 +28,20 @@ import javolution.text.Text;
 
 public class TextDocument implements IDocument {
 
-	ILineTracker lineTracker = new DefaultLineTracker();
+	/**
+	 * Line structure of the text. Copies of the document share it until either of them is changed,
+	 * i.e. a copy neither copies the text nor scans it for lines again.
+	 */
+	DefaultLineTracker lineTracker = new DefaultLineTracker();
+	private boolean sharedLineTracker;
 	private static final Pattern NEWLINE = Pattern.compile("\\r|\\n|\\r\\n|\\n\\r");
 
+	/**
+	 * Batches of changes with at least one change per this many lines are applied in a single pass.
+	 * Smaller batches are cheaper to apply change by change, each one takes O(log n).
+	 */
+	private static final int BATCH_LINES_PER_CHANGE = 4;
+
 	private final LanguageId languageId;
 	private final String uri;
 	private Text text = new Text("");
@@ -43,7 +55,8 @@ public class TextDocument implements IDocument {
 		this.uri = other.uri;
 		this.languageId = other.getLanguageId();
 		this.text = other.text;
-		this.lineTracker.set(text.toString());
+		this.lineTracker = other.lineTracker;
+		this.sharedLineTracker = other.sharedLineTracker = true;
 		this.version = other.version;
 	}
 
@@ -70,6 +83,8 @@ public class TextDocument implements IDocument {
 
 	public synchronized void setText(String text) {
 		this.text = new Text(text);
+		this.lineTracker = new DefaultLineTracker();
+		this.sharedLineTracker = false;
 		this.lineTracker.set(text);
 	}
 
@@ -88,8 +103,11 @@ public class TextDocument implements IDocument {
 	public synchronized void apply(DidChangeTextDocumentParams params) throws BadLocationException {
 		int newVersion = params.getTextDocument().getVersion();
 		if (version<newVersion) {
-			for (TextDocumentContentChangeEvent change : params.getContentChanges()) {
-				apply(change);
+			List<TextDocumentContentChangeEvent> changes = params.getContentChanges();
+			if (!applyBatch(changes)) {
+				for (TextDocumentContentChangeEvent change : changes) {
+					apply(change);
+				}
 			}
 			this.version = newVersion;
 		} else {
@@ -97,6 +115,51 @@ public class TextDocument implements IDocument {
 		}
 	}
 
+	/**
+	 * Applies a large batch of changes, e.g. multi-cursor edits or formatter output, in a single pass.
+	 * Editors send such changes ordered from the end of the document to its start, so that the ranges
+	 * of all changes are valid in the current document. The new text is assembled at once and its
+	 * lines are determined once rather than updated per change.
+	 *
+	 * @return <code>false</code> if the changes have to be applied one after the other
+	 */
+	private boolean applyBatch(List<TextDocumentContentChangeEvent> changes) throws BadLocationException {
+		int n = changes.size();
+		if (n<2 || n*BATCH_LINES_PER_CHANGE<lineTracker.getNumberOfLines()) {
+			return false;
+		}
+		int[] starts = new int[n];
+		int[] ends = new int[n];
+		for (int i = 0; i < n; i++) {
+			Range rng = changes.get(i).getRange();
+			if (rng==null) {
+				return false;
+			}
+			try {
+				starts[i] = toOffset(rng.getStart());
+				ends[i] = toOffset(rng.getEnd());
+			} catch (BadLocationException e) {
+				// Possibly valid only after earlier changes
+				return false;
+			}
+			if (starts[i]<0 || ends[i]<starts[i] || ends[i]>getLength() || (i>0 && ends[i]>starts[i-1])) {
+				return false;
+			}
+		}
+
+		// Assemble the new text from the start of the document, i.e. from the last change
+		String original = text.toString();
+		StringBuilder newText = new StringBuilder(original.length());
+		int copied = 0;
+		for (int i = n-1; i >= 0; i--) {
+			newText.append(original, copied, starts[i]).append(changes.get(i).getText());
+			copied = ends[i];
+		}
+		newText.append(original, copied, original.length());
+		setText(newText.toString());
+		return true;
+	}
+
 	/**
 	 * Convert a simple offset+length pair into a vscode range. This is a method on
 	 * TextDocument because it requires splitting document into lines to determine
@@ -214,6 +277,10 @@ public class TextDocument implements IDocument {
 		text = text
 			.delete(start, end)
 			.insert(start, new Text(ins));
+		if (sharedLineTracker) {
+			lineTracker = new DefaultLineTracker(lineTracker);
+			sharedLineTracker = false;
+		}
 		lineTracker.replace(start, len, ins);
 	}
 
@@ -120,6 +120,43 @@ public abstract class AbstractLineTracker implements ILineTracker, ILineTrackerE
 	protected AbstractLineTracker() {
 	}
 
+	/**
+	 * Creates a copy of the given line tracker. The line structure is copied, the text isn't
+	 * scanned for line delimiters again.
+	 *
+	 * @param tracker the line tracker to copy, must not be in a rewrite session
+	 */
+	protected AbstractLineTracker(AbstractLineTracker tracker) {
+		if (tracker.hasActiveRewriteSession())
+			throw new IllegalStateException();
+		fNeedsConversion= tracker.fNeedsConversion;
+		if (fNeedsConversion) {
+			fDelegate= new ListLineTracker((ListLineTracker) tracker.fDelegate) {
+				@Override
+				public String[] getLegalLineDelimiters() {
+					return AbstractLineTracker.this.getLegalLineDelimiters();
+				}
+
+				@Override
+				protected DelimiterInfo nextDelimiterInfo(String text, int offset) {
+					return AbstractLineTracker.this.nextDelimiterInfo(text, offset);
+				}
+			};
+		} else {
+			fDelegate= new TreeLineTracker((TreeLineTracker) tracker.fDelegate) {
+				@Override
+				protected DelimiterInfo nextDelimiterInfo(String text, int offset) {
+					return AbstractLineTracker.this.nextDelimiterInfo(text, offset);
+				}
+
+				@Override
+				public String[] getLegalLineDelimiters() {
+					return AbstractLineTracker.this.getLegalLineDelimiters();
+				}
+			};
+		}
+	}
+
 	@Override
 	public int computeNumberOfLines(String text) {
 		return fDelegate.computeNumberOfLines(text);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016-2017 Pivotal, Inc.
+ * Copyright (c) 2016, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -37,6 +37,13 @@ public class DefaultLineTracker extends AbstractLineTracker {
 	public DefaultLineTracker() {
 	}
 
+	/**
+	 * Creates a copy of the given line tracker without scanning the text again.
+	 */
+	public DefaultLineTracker(DefaultLineTracker tracker) {
+		super(tracker);
+	}
+
 	@Override
 	public String[] getLegalLineDelimiters() {
 		return Arrays.copyOf(DELIMITERS, DELIMITERS.length);
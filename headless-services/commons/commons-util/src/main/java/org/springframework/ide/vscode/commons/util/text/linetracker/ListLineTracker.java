@@ -47,6 +47,18 @@ abstract class ListLineTracker implements ILineTracker {
 	protected ListLineTracker() {
 	}
 
+	/**
+	 * Package visible constructor for creating a copy of another list tracker.
+	 *
+	 * @param tracker the list line tracker to copy
+	 */
+	ListLineTracker(ListLineTracker tracker) {
+		for (Line line : tracker.fLines) {
+			fLines.add(new Line(line.offset, line.offset + line.length - 1, line.delimiter));
+		}
+		fTextLength= tracker.fTextLength;
+	}
+
 	/**
 	 * Binary search for the line at a given offset.
 	 *
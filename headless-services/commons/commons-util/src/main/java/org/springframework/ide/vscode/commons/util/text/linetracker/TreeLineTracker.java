@@ -200,6 +200,30 @@ abstract class TreeLineTracker implements ILineTracker {
 		if (ASSERT) checkTree();
     }
 
+	/**
+	 * Package visible constructor for creating a copy of another tree tracker. Only the tree is
+	 * copied, no text needs to be scanned for line delimiters.
+	 *
+	 * @param tracker the tree line tracker to copy
+	 */
+	TreeLineTracker(TreeLineTracker tracker) {
+		fRoot= copy(tracker.fRoot, null);
+		if (ASSERT) checkTree();
+	}
+
+	private static Node copy(Node node, Node parent) {
+		if (node == null)
+			return null;
+		Node copy= new Node(node.length, node.delimiter);
+		copy.line= node.line;
+		copy.offset= node.offset;
+		copy.balance= node.balance;
+		copy.parent= parent;
+		copy.left= copy(node.left, copy);
+		copy.right= copy(node.right, copy);
+		return copy;
+	}
+
 	/**
 	 * Returns the node (line) including a certain offset. If the offset is between two
 	 * lines, the line starting at <code>offset</code> is returned.
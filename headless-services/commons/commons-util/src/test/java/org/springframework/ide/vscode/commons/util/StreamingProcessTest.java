@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeFalse;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link StreamingProcess}
+ *
+ * @author Alex Boyko
+ */
+public class StreamingProcessTest {
+
+	@Before
+	public void setup() {
+		assumeFalse(System.getProperty("os.name").toLowerCase().contains("win"));
+	}
+
+	@Test
+	public void outputParsedWhileRunning() throws Exception {
+		StreamingProcess process = StreamingProcess.start(null, sh("echo first; sleep 30; echo second"), Duration.ofSeconds(60));
+		CompletableFuture<String> firstLine = new CompletableFuture<>();
+		CompletableFuture<String> result = process.readOut(out -> {
+			BufferedReader reader = new BufferedReader(new InputStreamReader(out, StandardCharsets.UTF_8));
+			firstLine.complete(reader.readLine());
+			return reader.readLine();
+		});
+
+		assertEquals("first", firstLine.get(10, TimeUnit.SECONDS));
+		assertFalse(process.getExit().isDone());
+		result.cancel(true);
+		try {
+			StreamingProcess.await(process.getExit());
+			fail("Expected cancellation");
+		} catch (CancellationException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void largeOutputWithUnreadRest() throws Exception {
+		StreamingProcess process = StreamingProcess.start(null, sh("seq 1 200000"), Duration.ofSeconds(30));
+		String firstLine = StreamingProcess.await(process.readOut(out -> new BufferedReader(new InputStreamReader(out)).readLine()));
+		assertEquals("1", firstLine);
+		assertEquals(0, (int) process.getExit().get());
+	}
+
+	@Test
+	public void failureCarriesErrorTail() throws Exception {
+		StreamingProcess process = StreamingProcess.start(null, sh("echo out; echo 'something went wrong' >&2; exit 3"), null);
+		try {
+			StreamingProcess.await(process.readOut());
+			fail("Expected failure");
+		} catch (IOException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("exitValue = 3"));
+			assertTrue(e.getMessage(), e.getMessage().contains("something went wrong"));
+		}
+	}
+
+	@Test
+	public void timeout() throws Exception {
+		StreamingProcess process = StreamingProcess.start(null, sh("sleep 30"), Duration.ofMillis(200));
+		try {
+			StreamingProcess.await(process.readOut());
+			fail("Expected timeout");
+		} catch (TimeoutException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void readAll() throws Exception {
+		StreamingProcess process = StreamingProcess.start(null, sh("echo hello; echo world"), Duration.ofSeconds(10));
+		assertEquals("hello\nworld\n", StreamingProcess.await(process.readOut()));
+	}
+
+	private static ExternalCommand sh(String script) {
+		return new ExternalCommand("sh", "-c", script);
+	}
+
+}
@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.util.text;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.lsp4j.DidChangeTextDocumentParams;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.eclipse.lsp4j.VersionedTextDocumentIdentifier;
+import org.junit.Test;
+
+/**
+ * Tests for copies of {@link TextDocument} sharing their line structure and for applying batches of changes
+ *
+ * @author Alex Boyko
+ */
+public class TextDocumentTest {
+
+	private static final LanguageId LANGUAGE = LanguageId.of("yaml");
+
+	@Test
+	public void copiesUnaffectedByEdits() throws Exception {
+		TextDocument doc = new TextDocument("file:///test.yml", LANGUAGE, 1, "a: 1\nb: 2\r\nc: 3");
+		TextDocument copy = doc.copy();
+
+		doc.replace(5, 0, "x: 0\n");
+		TextDocument copyOfEdited = doc.copy();
+		doc.replace(0, 5, "");
+
+		assertSameLines(new TextDocument(null, LANGUAGE, 1, "a: 1\nb: 2\r\nc: 3"), copy);
+		assertSameLines(new TextDocument(null, LANGUAGE, 1, "a: 1\nx: 0\nb: 2\r\nc: 3"), copyOfEdited);
+		assertSameLines(new TextDocument(null, LANGUAGE, 1, "x: 0\nb: 2\r\nc: 3"), doc);
+
+		// Copies can be edited too
+		copy.replace(copy.getLength(), 0, "\nd: 4");
+		assertSameLines(new TextDocument(null, LANGUAGE, 1, "a: 1\nb: 2\r\nc: 3\nd: 4"), copy);
+		assertSameLines(new TextDocument(null, LANGUAGE, 1, "x: 0\nb: 2\r\nc: 3"), doc);
+	}
+
+	@Test
+	public void largeDocumentEditedBetweenCopies() throws Exception {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 50000; i++) {
+			text.append("key-").append(i).append(": value\n");
+		}
+		TextDocument doc = new TextDocument("file:///large.yml", LANGUAGE, 1, text.toString());
+		Random random = new Random(42);
+		for (int i = 0; i < 100; i++) {
+			TextDocument copy = doc.copy();
+			String before = copy.get();
+			int start = random.nextInt(doc.getLength());
+			int len = Math.min(random.nextInt(20), doc.getLength() - start);
+			doc.replace(start, len, i % 3 == 0 ? "new-key: " + i + "\n" : "v" + i);
+			assertEquals(before, copy.get());
+			if (i % 25 == 0) {
+				assertSameLines(new TextDocument(null, LANGUAGE, 1, before), copy);
+				assertSameLines(new TextDocument(null, LANGUAGE, 1, doc.get()), doc);
+			}
+		}
+		assertEquals(doc.getNumberOfLines(), new TextDocument(null, LANGUAGE, 1, doc.get()).getNumberOfLines());
+	}
+
+	@Test
+	public void multiCursorBatch() throws Exception {
+		TextDocument doc = new TextDocument("file:///test.yml", LANGUAGE, 1, "a: 1\nb: 2\nc: 3\n");
+		// Typing 'x' and a new line in front of every value, the way editors send multi-cursor edits
+		doc.apply(params(2,
+				change(2, 3, 2, 3, "x\n"),
+				change(1, 3, 1, 3, "x\n"),
+				change(0, 3, 0, 3, "x\n")
+		));
+		assertSameLines(new TextDocument(null, LANGUAGE, 1, "a: x\n1\nb: x\n2\nc: x\n3\n"), doc);
+
+		// Inserts at the same position, deletion next to an insert
+		doc.apply(params(3,
+				change(5, 0, 5, 1, ""),
+				change(5, 0, 5, 0, "y"),
+				change(0, 0, 0, 0, "1"),
+				change(0, 0, 0, 0, "2")
+		));
+		assertSameLines(new TextDocument(null, LANGUAGE, 1, "21a: x\n1\nb: x\n2\nc: x\ny\n"), doc);
+		assertEquals(3, doc.getVersion());
+	}
+
+	@Test
+	public void batchesAppliedLikeSingleChanges() throws Exception {
+		Random random = new Random(7);
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 500; i++) {
+			text.append("  key-").append(i).append(": value").append(i % 10 == 0 ? "\r\n" : "\n");
+		}
+		TextDocument doc = new TextDocument("file:///test.yml", LANGUAGE, 1, text.toString());
+		TextDocument expected = new TextDocument("file:///test.yml", LANGUAGE, 1, text.toString());
+		int expectedVersion = 1;
+		for (int round = 0; round < 200; round++) {
+			TextDocument copy = doc.copy();
+			List<TextDocumentContentChangeEvent> changes = new ArrayList<>();
+			int count = 1 + random.nextInt(round % 2 == 0 ? 5 : 300);
+			String[] inserts = { "", "x", "\n", "- ", "\r\n  ", "q: 1\n" };
+			if (round % 5 == 0) {
+				// Changes from the start of the document, each one valid after the ones before
+				TextDocument scratch = doc.copy();
+				int start = 0;
+				for (int i = 0; i < count && start < scratch.getLength(); i++) {
+					int s = notInDelimiter(scratch, start + random.nextInt(Math.min(scratch.getLength() - start, 40)), 1);
+					int e = notInDelimiter(scratch, s + random.nextInt(Math.min(scratch.getLength() - s, 3) + 1), 1);
+					TextDocumentContentChangeEvent change = change(scratch.toPosition(s), scratch.toPosition(e), inserts[random.nextInt(inserts.length)]);
+					scratch.apply(params(scratch.getVersion() + 1, change));
+					changes.add(change);
+					start = s + change.getText().length();
+				}
+			} else {
+				// Changes from the end of the document, the way editors send multi-cursor edits
+				int end = doc.getLength();
+				for (int i = 0; i < count && end > 0; i++) {
+					int e = notInDelimiter(doc, end - random.nextInt(Math.min(end, 40)), 1);
+					int s = notInDelimiter(doc, e - random.nextInt(Math.min(e, 3) + 1), -1);
+					changes.add(change(doc.toPosition(s), doc.toPosition(e), inserts[random.nextInt(inserts.length)]));
+					end = s;
+				}
+			}
+			String before = doc.get();
+			doc.apply(new DidChangeTextDocumentParams(new VersionedTextDocumentIdentifier(doc.getUri(), round + 2), changes));
+			for (TextDocumentContentChangeEvent change : changes) {
+				expected.apply(params(++expectedVersion, change));
+			}
+			assertEquals(expected.get(), doc.get());
+			assertEquals(before, copy.get());
+			if (round % 20 == 0) {
+				assertSameLines(expected, doc);
+			}
+		}
+		assertSameLines(expected, doc);
+	}
+
+	/**
+	 * Moves an offset between '\r' and '\n' by the given delta. Editors don't put positions there.
+	 */
+	private static int notInDelimiter(TextDocument doc, int offset, int delta) {
+		if (doc.getSafeChar(offset - 1) == '\r' && doc.getSafeChar(offset) == '\n') {
+			return offset + delta;
+		}
+		return offset;
+	}
+
+	private static DidChangeTextDocumentParams params(int version, TextDocumentContentChangeEvent... changes) {
+		List<TextDocumentContentChangeEvent> list = new ArrayList<>();
+		for (TextDocumentContentChangeEvent change : changes) {
+			list.add(change);
+		}
+		return new DidChangeTextDocumentParams(new VersionedTextDocumentIdentifier("file:///test.yml", version), list);
+	}
+
+	private static TextDocumentContentChangeEvent change(int startLine, int startChar, int endLine, int endChar, String text) {
+		return change(new Position(startLine, startChar), new Position(endLine, endChar), text);
+	}
+
+	private static TextDocumentContentChangeEvent change(Position start, Position end, String text) {
+		TextDocumentContentChangeEvent change = new TextDocumentContentChangeEvent(text);
+		change.setRange(new Range(start, end));
+		return change;
+	}
+
+	private static void assertSameLines(TextDocument expected, TextDocument actual) throws Exception {
+		assertEquals(expected.get(), actual.get());
+		assertEquals(expected.getNumberOfLines(), actual.getNumberOfLines());
+		for (int line = 0; line < expected.getNumberOfLines(); line++) {
+			IRegion expectedLine = expected.getLineInformation(line);
+			IRegion actualLine = actual.getLineInformation(line);
+			assertEquals(expectedLine.getOffset(), actualLine.getOffset());
+			assertEquals(expectedLine.getLength(), actualLine.getLength());
+		}
+		for (int offset = 0; offset <= expected.getLength(); offset += 7) {
+			Position expectedPos = expected.toPosition(offset);
+			assertEquals(expectedPos, actual.toPosition(offset));
+			assertEquals(offset, actual.toOffset(expectedPos));
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2018 Pivotal, Inc.
+ * Copyright (c) 2016, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.regex.Pattern;
 
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ide.vscode.commons.languageserver.completion.DocumentEdits;
@@ -27,6 +28,7 @@ import org.springframework.ide.vscode.commons.languageserver.completion.IComplet
 import org.springframework.ide.vscode.commons.languageserver.completion.ICompletionProposal;
 import org.springframework.ide.vscode.commons.languageserver.completion.ScoreableProposal;
 import org.springframework.ide.vscode.commons.languageserver.completion.TransformedCompletion;
+import org.springframework.ide.vscode.commons.languageserver.util.RequestCancelChecker;
 import org.springframework.ide.vscode.commons.util.Assert;
 import org.springframework.ide.vscode.commons.util.Log;
 import org.springframework.ide.vscode.commons.util.Unicodes;
@@ -82,10 +84,16 @@ public class YamlCompletionEngine implements ICompletionEngine {
 	}
 
 	@Override
-	public Collection<ICompletionProposal> getCompletions(TextDocument _doc, int offset) throws Exception {
+	public Collection<ICompletionProposal> getCompletions(TextDocument doc, int offset) throws Exception {
+		return getCompletions(RequestCancelChecker.NONE, doc, offset);
+	}
+
+	@Override
+	public Collection<ICompletionProposal> getCompletions(CancelChecker cancelToken, TextDocument _doc, int offset) throws Exception {
 		YamlDocument doc = new YamlDocument(_doc, structureProvider);
 		if (!doc.isCommented(offset)) {
 			SRootNode root = doc.getStructure();
+			cancelToken.checkCanceled();
 			SNode current = root.find(offset);
 			int cursorIndent = doc.getColumn(offset);
 			int nodeIndent = current.getIndent();
@@ -96,6 +104,7 @@ public class YamlCompletionEngine implements ICompletionEngine {
 				List<ICompletionProposal> completions = new ArrayList<>();
 				double deempasizeBy = 0.0;
 				for (SNode contextNode : contextNodes) {
+					cancelToken.checkCanceled();
 					completions.addAll(getRelaxedCompletions(offset, doc, current, contextNode, baseIndent, deempasizeBy));
 					deempasizeBy += ScoreableProposal.DEEMP_NEXT_CONTEXT;
 				}
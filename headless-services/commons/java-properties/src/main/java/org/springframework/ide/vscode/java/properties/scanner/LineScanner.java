@@ -0,0 +1,362 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.java.properties.scanner;
+
+import java.util.List;
+
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAst;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesFileEscapes;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Scans logical lines of Java Properties text one after another according to
+ * the JavaProperties.g4 grammar. AST nodes only keep offsets and the text, the
+ * decoded key and value are computed on demand. Scanning may start at the
+ * beginning of any logical line, node offsets are always offsets in the whole
+ * text.
+ *
+ * @author Alex Boyko
+ */
+public class LineScanner {
+
+	private final String text;
+	private final int length;
+	private int pos;
+
+	/**
+	 * @param text the text to scan
+	 * @param offset start of the first logical line to scan
+	 */
+	public LineScanner(String text, int offset) {
+		this.text = text;
+		this.length = text.length();
+		this.pos = offset;
+	}
+
+	/**
+	 * @return offset of the next logical line, i.e. offset after the line break of the last scanned line
+	 */
+	public int getOffset() {
+		return pos;
+	}
+
+	public boolean hasNext() {
+		return pos < length;
+	}
+
+	/**
+	 * Scans the next logical line. Escaped line breaks of property values are
+	 * part of the logical line.
+	 *
+	 * @return AST node of the line or <code>null</code> if the line has syntax errors, scanning
+	 *         cannot continue in this case
+	 */
+	public PropertiesAst.Node next() {
+		final int lineStart = pos;
+		PropertiesAst.Node node;
+		while (pos < length && isSpace(text.charAt(pos))) {
+			pos++;
+		}
+		if (pos == length) {
+			// Spaces not followed by a line break
+			return null;
+		}
+		char c = text.charAt(pos);
+		if (isLineBreak(c)) {
+			node = new EmptyLine(lineStart, pos - lineStart + 1);
+			pos = skipLineBreak(text, pos);
+		} else if (c == '#' || c == '!') {
+			final int commentStart = pos;
+			while (pos < length && !isLineBreak(text.charAt(pos))) {
+				pos++;
+			}
+			// Start of the last token of the line: line break or the last comment char at the end of the text
+			int stop = pos < length ? pos : pos - 1;
+			node = new Comment(commentStart, stop - commentStart + 1);
+			if (pos < length) {
+				pos = skipLineBreak(text, pos);
+			}
+		} else {
+			// Key
+			final int keyStart = pos;
+			while (pos < length) {
+				c = text.charAt(pos);
+				if (c == '\\') {
+					if (pos + 1 < length && (text.charAt(pos + 1) == ':' || text.charAt(pos + 1) == '=')) {
+						pos += 2;
+					} else {
+						break;
+					}
+				} else if (isKeyChar(c)) {
+					pos++;
+				} else {
+					break;
+				}
+			}
+			final int keyEnd = pos;
+			if (keyEnd == keyStart || pos == length) {
+				return null;
+			}
+
+			// Separator and value
+			c = text.charAt(pos);
+			if (!isSpace(c) && c != ':' && c != '=') {
+				return null;
+			}
+			final int valueStart = pos++;
+			// Start of the last token of the value
+			int valueStop = valueStart;
+			while (pos < length && !isLineBreak(text.charAt(pos))) {
+				if (text.charAt(pos) == '\\') {
+					if (++pos == length) {
+						// Nothing to escape
+						return null;
+					}
+					valueStop = pos;
+					pos = isLineBreak(text.charAt(pos)) ? skipLineBreak(text, pos) : pos + 1;
+				} else {
+					valueStop = pos++;
+				}
+			}
+			final int valueEnd = pos;
+
+			// Start of the last token of the line: line break or the last value token at the end of the text
+			int stop = valueStop;
+			if (pos < length) {
+				stop = pos;
+				pos = skipLineBreak(text, pos);
+			}
+			int pairLength = stop - lineStart + 1;
+			if (text.charAt(stop) == '\n') {
+				// Exclude the line break at the end
+				pairLength--;
+			}
+
+			Key key = new Key(text.substring(keyStart, keyEnd), keyStart);
+			Value value = new Value(text.substring(valueStart, valueEnd), valueStart, valueStop);
+			node = new KeyValuePair(lineStart, pairLength, key, value);
+		}
+		return node;
+	}
+
+	private static boolean isSpace(char c) {
+		return c == ' ' || c == '\t' || c == '\f';
+	}
+
+	private static boolean isLineBreak(char c) {
+		return c == '\n' || c == '\r';
+	}
+
+	private static boolean isKeyChar(char c) {
+		switch (c) {
+		case ' ':
+		case '\t':
+		case '\f':
+		case ':':
+		case '=':
+		case '\r':
+		case '\n':
+		case '\\':
+		case '!':
+		case '#':
+			return false;
+		default:
+			return true;
+		}
+	}
+
+	/**
+	 * @return position after the line break starting at the passed position
+	 */
+	private static int skipLineBreak(String text, int pos) {
+		if (text.charAt(pos) == '\r' && pos + 1 < text.length() && text.charAt(pos + 1) == '\n') {
+			return pos + 2;
+		}
+		return pos + 1;
+	}
+
+	private static abstract class Node implements PropertiesAst.Node {
+
+		final int offset;
+		final int length;
+		Node parent;
+
+		Node(int offset, int length) {
+			this.offset = offset;
+			this.length = length;
+		}
+
+		@Override
+		public int getOffset() {
+			return offset;
+		}
+
+		@Override
+		public int getLength() {
+			return length;
+		}
+
+		@Override
+		public Node getParent() {
+			return parent;
+		}
+
+		@Override
+		public List<? extends Node> getChildren() {
+			return null;
+		}
+
+	}
+
+	private static class EmptyLine extends Node implements PropertiesAst.EmptyLine {
+
+		EmptyLine(int offset, int length) {
+			super(offset, length);
+		}
+
+	}
+
+	private static class Comment extends Node implements PropertiesAst.Comment {
+
+		Comment(int offset, int length) {
+			super(offset, length);
+		}
+
+	}
+
+	private static class KeyValuePair extends Node implements PropertiesAst.KeyValuePair {
+
+		private final Key key;
+		private final Value value;
+		private final List<Node> children;
+
+		KeyValuePair(int offset, int length, Key key, Value value) {
+			super(offset, length);
+			this.key = key;
+			this.value = value;
+			this.children = ImmutableList.of(key, value);
+			key.parent = value.parent = this;
+		}
+
+		@Override
+		public Key getKey() {
+			return key;
+		}
+
+		@Override
+		public Value getValue() {
+			return value;
+		}
+
+		@Override
+		public List<Node> getChildren() {
+			return children;
+		}
+
+	}
+
+	private static class Key extends Node implements PropertiesAst.Key {
+
+		private final String text;
+
+		Key(String text, int offset) {
+			super(offset, text.length());
+			this.text = text;
+		}
+
+		@Override
+		public String decode() {
+			try {
+				return PropertiesFileEscapes.unescape(text);
+			} catch (Exception e) {
+				return text.replace("\\:", ":").replace("\\=", "=");
+			}
+		}
+
+		@Override
+		public KeyValuePair getParent() {
+			return (KeyValuePair) super.getParent();
+		}
+
+	}
+
+	private static class Value extends Node implements PropertiesAst.Value {
+
+		/**
+		 * Separator and value text
+		 */
+		private final String text;
+
+		/**
+		 * Start of the value in the text, i.e. after leading whitespace and the separator
+		 */
+		private final int start;
+
+		private String decoded;
+
+		/**
+		 * @param text separator and value text
+		 * @param offset offset of the separator
+		 * @param stop start of the last token of the value
+		 */
+		Value(String text, int offset, int stop) {
+			super(offset, stop - offset + 1);
+			this.text = text;
+			int i = 0;
+			while (i < text.length() && isWhitespace(text.charAt(i))) {
+				i++;
+			}
+			if (i < text.length() && (text.charAt(i) == ':' || text.charAt(i) == '=')) {
+				i++;
+			}
+			this.start = i;
+		}
+
+		@Override
+		public int getOffset() {
+			return offset + start;
+		}
+
+		@Override
+		public int getLength() {
+			return length - start;
+		}
+
+		@Override
+		public synchronized String decode() {
+			if (decoded == null) {
+				// Remove leading whitespace and all escaped line breaks with trailing spaces
+				decoded = text.substring(start).replaceAll("^\\s*", "").replaceAll("\\\\(\r?\n|\r)[ \t\f]*", "");
+				try {
+					decoded = PropertiesFileEscapes.unescape(decoded);
+				} catch (Exception e) {
+					// ignore
+				}
+			}
+			return decoded;
+		}
+
+		@Override
+		public KeyValuePair getParent() {
+			return (KeyValuePair) super.getParent();
+		}
+
+		/**
+		 * Same chars as <code>\s</code> in regular expressions
+		 */
+		private static boolean isWhitespace(char c) {
+			return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+		}
+
+	}
+
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.java.properties.scanner;
+
+import java.util.List;
+
+import org.springframework.ide.vscode.java.properties.antlr.parser.AntlrParser;
+import org.springframework.ide.vscode.java.properties.parser.ParseResults;
+import org.springframework.ide.vscode.java.properties.parser.Parser;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAst;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Single pass parser implementation scanning the characters of the text
+ * according to the JavaProperties.g4 grammar, see {@link LineScanner}.
+ * <p>
+ * Nodes are equal to the ones produced by {@link AntlrParser} with the same
+ * offsets and lengths. Text with syntax errors is handed over to the
+ * {@link AntlrParser} such that syntax error messages and the AST built by
+ * ANTLR error recovery are exactly the same.
+ *
+ * @author Alex Boyko
+ */
+public class ScannerParser implements Parser {
+
+	private final Parser fallback;
+
+	public ScannerParser() {
+		this(new AntlrParser());
+	}
+
+	/**
+	 * @param fallback parser for text with syntax errors
+	 */
+	public ScannerParser(Parser fallback) {
+		this.fallback = fallback;
+	}
+
+	@Override
+	public ParseResults parse(String text) {
+		List<PropertiesAst.Node> nodes = scan(text);
+		if (nodes == null) {
+			return fallback.parse(text);
+		}
+		return new ParseResults(new PropertiesAst(nodes), ImmutableList.of(), ImmutableList.of());
+	}
+
+	/**
+	 * Scans the text line by line.
+	 *
+	 * @return AST nodes or <code>null</code> if the text doesn't match the grammar
+	 */
+	private static List<PropertiesAst.Node> scan(String text) {
+		ImmutableList.Builder<PropertiesAst.Node> nodes = ImmutableList.builder();
+		LineScanner scanner = new LineScanner(text, 0);
+		while (scanner.hasNext()) {
+			PropertiesAst.Node node = scanner.next();
+			if (node == null) {
+				return null;
+			}
+			nodes.add(node);
+		}
+		return nodes.build();
+	}
+
+}
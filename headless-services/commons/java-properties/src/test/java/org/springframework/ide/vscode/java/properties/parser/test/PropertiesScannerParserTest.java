@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.java.properties.parser.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.springframework.ide.vscode.java.properties.antlr.parser.AntlrParser;
+import org.springframework.ide.vscode.java.properties.parser.ParseResults;
+import org.springframework.ide.vscode.java.properties.parser.Problem;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAst;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Comment;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.EmptyLine;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.KeyValuePair;
+import org.springframework.ide.vscode.java.properties.scanner.ScannerParser;
+
+/**
+ * Differential tests comparing results of {@link ScannerParser} with {@link AntlrParser}
+ *
+ * @author Alex Boyko
+ *
+ */
+public class PropertiesScannerParserTest {
+
+	private static final String[] CORPUS = {
+			"",
+			"\n",
+			"\r\n",
+			"\r",
+			"  \n\t\f\r\n",
+			"key=value",
+			"key=value\n",
+			"key=value\r\n",
+			"key=value\r",
+			"key = value",
+			"  key : value  \n",
+			"key value",
+			"key\tvalue",
+			"key=",
+			"key=\n",
+			"key:",
+			"key ",
+			"key:=value",
+			"key = : value",
+			"key=a=b:c!d#e",
+			"k\\:e\\=y=value",
+			"\\:key=value",
+			"key=value\\\n  continued\\\r\n\tmore\\\rend",
+			"key=value\\\n",
+			"key=value\\\r\n",
+			"key=\\u0041\\t\\n\\\\",
+			"key=\\uZZZZ",
+			"k\\u0041ey=value",
+			"\u00e9l\u00e8ve=\u00e9t\u00e9",
+			"# comment",
+			"# comment\n",
+			"  ! comment \r\n",
+			"#",
+			"#\n#\r\n!\r",
+			"# comment\nkey=value\n\nother.key: other value\n  # indented comment\nlast=",
+			"spring.datasource.url=jdbc:h2:mem:testdb\nspring.datasource.username=sa\nserver.port=8080\r\nlogging.level.root=INFO",
+			// Syntax errors
+			"key",
+			"key\n",
+			"key\nother=value",
+			"=value",
+			":value",
+			"   ",
+			"key=value\n  ",
+			"ke#y=value",
+			"ke!y=value",
+			"k\\ey=value",
+			"key=value\\",
+			"key=value\n\\",
+	};
+
+	private static final char[] ALPHABET = {
+			'a', 'b', '.', ' ', '\t', '\f', ':', '=', '\\', '#', '!', '\n', '\r', 'u', '0', '\u00e9'
+	};
+
+	private final AntlrParser antlrParser = new AntlrParser();
+
+	@Test
+	public void sameResultsForCorpus() throws Exception {
+		ScannerParser scannerParser = new ScannerParser();
+		for (String text : CORPUS) {
+			assertSameResults(text, antlrParser.parse(text), scannerParser.parse(text));
+		}
+	}
+
+	@Test
+	public void sameResultsForRandomText() throws Exception {
+		AtomicInteger fallbacks = new AtomicInteger();
+		ScannerParser scannerParser = new ScannerParser(text -> {
+			fallbacks.incrementAndGet();
+			return antlrParser.parse(text);
+		});
+		Random random = new Random(42);
+		int count = 20000;
+		for (int i = 0; i < count; i++) {
+			String text = randomText(random, random.nextInt(40));
+			assertSameResults(text, antlrParser.parse(text), scannerParser.parse(text));
+		}
+		// Both text with and without syntax errors got generated
+		assertTrue(fallbacks.get() > 0);
+		assertTrue(fallbacks.get() < count);
+	}
+
+	@Test
+	public void noFallbackWithoutSyntaxErrors() throws Exception {
+		ScannerParser scannerParser = new ScannerParser(text -> {
+			throw new AssertionError("Unexpected fallback for: " + text);
+		});
+		String text = largePropertiesFile(100);
+		ParseResults results = scannerParser.parse(text);
+		assertTrue(results.syntaxErrors.isEmpty());
+		assertTrue(results.problems.isEmpty());
+		assertEquals(700, results.ast.getAllNodes().size());
+		assertSameResults(text, antlrParser.parse(text), results);
+	}
+
+	private static String largePropertiesFile(int groups) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < groups; i++) {
+			sb.append("# Settings of group ").append(i).append('\n');
+			sb.append("group").append(i).append(".server.port=").append(8000 + i).append('\n');
+			sb.append("group").append(i).append(".datasource.url = jdbc:h2:mem:db").append(i).append('\n');
+			sb.append("group").append(i).append(".description: Some long \\\n    description of the group\\u0021\n");
+			sb.append("group").append(i).append(".path=C:\\\\temp\\\\").append(i).append('\n');
+			sb.append("group").append(i).append(".enabled true\n");
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+
+	private static String randomText(Random random, int length) {
+		StringBuilder sb = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			sb.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+		}
+		return sb.toString();
+	}
+
+	private static void assertSameResults(String text, ParseResults expected, ParseResults actual) {
+		String msg = "Text: '" + text + "'";
+		assertSameProblems(msg, expected.syntaxErrors, actual.syntaxErrors);
+		assertSameProblems(msg, expected.problems, actual.problems);
+		List<PropertiesAst.Node> expectedNodes = expected.ast.getAllNodes();
+		List<PropertiesAst.Node> actualNodes = actual.ast.getAllNodes();
+		assertEquals(msg, expectedNodes.size(), actualNodes.size());
+		for (int i = 0; i < expectedNodes.size(); i++) {
+			assertSameNode(msg, expectedNodes.get(i), actualNodes.get(i));
+		}
+	}
+
+	private static void assertSameProblems(String msg, List<Problem> expected, List<Problem> actual) {
+		assertEquals(msg, describe(expected), describe(actual));
+	}
+
+	private static List<String> describe(List<Problem> problems) {
+		List<String> descriptions = new ArrayList<>(problems.size());
+		for (Problem problem : problems) {
+			descriptions.add(problem.getCode() + " " + problem.getOffset() + ":" + problem.getLength() + " " + problem.getMessage());
+		}
+		return descriptions;
+	}
+
+	private static void assertSameNode(String msg, PropertiesAst.Node expected, PropertiesAst.Node actual) {
+		if (expected == null) {
+			assertNull(msg, actual);
+			return;
+		}
+		assertNotNull(msg, actual);
+		assertEquals(msg, expected instanceof EmptyLine, actual instanceof EmptyLine);
+		assertEquals(msg, expected instanceof Comment, actual instanceof Comment);
+		assertEquals(msg, expected instanceof KeyValuePair, actual instanceof KeyValuePair);
+		assertEquals(msg, expected.getOffset(), actual.getOffset());
+		assertEquals(msg, expected.getLength(), actual.getLength());
+		assertEquals(msg, expected.getParent() == null, actual.getParent() == null);
+		if (expected instanceof KeyValuePair) {
+			KeyValuePair expectedPair = (KeyValuePair) expected;
+			KeyValuePair actualPair = (KeyValuePair) actual;
+			assertSameNode(msg, expectedPair.getKey(), actualPair.getKey());
+			assertSameNode(msg, expectedPair.getValue(), actualPair.getValue());
+			if (expectedPair.getKey() != null) {
+				assertEquals(msg, expectedPair.getKey().decode(), actualPair.getKey().decode());
+				assertTrue(msg, actualPair.getKey().getParent() == actualPair);
+			}
+			if (expectedPair.getValue() != null) {
+				assertEquals(msg, expectedPair.getValue().decode(), actualPair.getValue().decode());
+				assertTrue(msg, actualPair.getValue().getParent() == actualPair);
+			}
+			assertEquals(msg, expectedPair.getChildren().size(), actualPair.getChildren().size());
+		} else {
+			assertNull(msg, actual.getChildren());
+		}
+	}
+
+}
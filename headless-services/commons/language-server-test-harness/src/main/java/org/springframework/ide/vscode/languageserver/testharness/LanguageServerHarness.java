@@ -359,6 +359,11 @@ public class LanguageServerHarness {
 					return CompletableFuture.completedFuture(null);
 				}
 
+				@Override
+				public CompletableFuture<List<TypeData>> javaTypes(List<JavaDataParams> params) {
+					return CompletableFuture.completedFuture(params.stream().map(p -> (TypeData) null).collect(Collectors.toList()));
+				}
+
 				@Override
 				public CompletableFuture<String> javadocHoverLink(JavaDataParams params) {
 					return CompletableFuture.completedFuture(null);
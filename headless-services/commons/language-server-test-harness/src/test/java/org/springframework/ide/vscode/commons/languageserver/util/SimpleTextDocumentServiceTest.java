@@ -0,0 +1,288 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.commons.languageserver.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.lsp4j.CodeLensParams;
+import org.eclipse.lsp4j.CompletionList;
+import org.eclipse.lsp4j.CompletionParams;
+import org.eclipse.lsp4j.DidChangeTextDocumentParams;
+import org.eclipse.lsp4j.DidOpenTextDocumentParams;
+import org.eclipse.lsp4j.HoverParams;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.TextDocumentItem;
+import org.eclipse.lsp4j.VersionedTextDocumentIdentifier;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.vscode.commons.languageserver.config.LanguageServerProperties;
+import org.springframework.ide.vscode.commons.util.text.TextDocument;
+
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Tests for documents of {@link SimpleTextDocumentService} being read from many threads and for
+ * canceling requests
+ *
+ * @author Alex Boyko
+ */
+public class SimpleTextDocumentServiceTest {
+
+	private static final int DOCUMENTS = 200;
+	private static final int READERS = 8;
+
+	private SimpleLanguageServer server;
+	private SimpleTextDocumentService documents;
+	private ExecutorService readers;
+
+	@Before
+	public void setup() {
+		server = new SimpleLanguageServer("test", null, new LanguageServerProperties());
+		documents = server.getTextDocumentService();
+		readers = Executors.newFixedThreadPool(READERS);
+	}
+
+	@After
+	public void tearDown() {
+		readers.shutdownNow();
+	}
+
+	@Test
+	public void readsDontWaitForHandlerRegistration() throws Exception {
+		open("file:///a.yml", "a: 1");
+		synchronized (documents) {
+			// Reads no longer share the monitor guarding the handlers
+			CompletableFuture<TextDocument> read = CompletableFuture.supplyAsync(() -> {
+				documents.getAll();
+				return documents.get("file:///a.yml");
+			}, readers);
+			assertEquals("a: 1", read.get(5, TimeUnit.SECONDS).get());
+		}
+	}
+
+	@Test
+	public void readersWhileDocumentsOpenAndChange() throws Exception {
+		AtomicBoolean done = new AtomicBoolean();
+		AtomicInteger progress = new AtomicInteger();
+		List<Future<Integer>> reads = new ArrayList<>();
+		for (int r = 0; r < READERS; r++) {
+			reads.add(readers.submit(() -> {
+				int count = 0;
+				while (!done.get()) {
+					Collection<TextDocument> all = documents.getAll();
+					for (TextDocument doc : all) {
+						// Snapshots are consistent: text always matches the version
+						TextDocument snapshot = documents.getDocumentSnapshot(new TextDocumentIdentifier(doc.getUri()));
+						assertEquals(text(snapshot.getVersion()), snapshot.get());
+						assertNotNull(documents.get(doc.getUri()));
+						progress.incrementAndGet();
+						count++;
+					}
+				}
+				return count;
+			}));
+		}
+
+		for (int i = 0; i < DOCUMENTS; i++) {
+			open(uri(i), text(1));
+		}
+		for (int version = 2; version <= 10; version++) {
+			for (int i = 0; i < DOCUMENTS; i++) {
+				TextDocumentContentChangeEvent change = new TextDocumentContentChangeEvent(text(version));
+				documents.didChange(new DidChangeTextDocumentParams(new VersionedTextDocumentIdentifier(uri(i), version), ImmutableList.of(change)));
+			}
+			if (version == 5) {
+				synchronized (documents) {
+					// Handlers register under the monitor of the service, readers keep going meanwhile
+					documents.onHover((cancelToken, params) -> null);
+					int before = progress.get();
+					long deadline = System.currentTimeMillis() + 5000;
+					while (progress.get() < before + DOCUMENTS) {
+						assertTrue("Reads blocked while handlers register", System.currentTimeMillis() < deadline);
+						Thread.sleep(1);
+					}
+				}
+			}
+		}
+		server.getAsync().waitForAll();
+		done.set(true);
+		for (Future<Integer> read : reads) {
+			read.get(30, TimeUnit.SECONDS);
+		}
+
+		Collection<TextDocument> all = documents.getAll();
+		assertEquals(DOCUMENTS, all.size());
+		for (int i = 0; i < DOCUMENTS; i++) {
+			TextDocument doc = documents.get(uri(i));
+			assertEquals(10, doc.getVersion());
+			assertEquals(text(10), doc.get());
+		}
+		assertNull(documents.get("file:///unknown.yml"));
+		try {
+			all.clear();
+			fail("Expected immutable collection");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void canceledWhileWaitingToBeHandled() throws Exception {
+		open("file:///a.yml", "a: 1");
+		AtomicInteger handled = new AtomicInteger();
+		documents.onHover((cancelToken, params) -> {
+			handled.incrementAndGet();
+			return SimpleTextDocumentService.NO_HOVER;
+		});
+		documents.onCodeLens((cancelToken, params) -> {
+			handled.incrementAndGet();
+			return SimpleTextDocumentService.NO_CODELENS;
+		});
+
+		// Requests are queued behind other work
+		CountDownLatch busy = new CountDownLatch(1);
+		server.getAsync().execute(() -> busy.await());
+		CompletableFuture<?> hover = documents.hover(new HoverParams(new TextDocumentIdentifier("file:///a.yml"), new Position(0, 0)));
+		CompletableFuture<?> codeLens = documents.codeLens(new CodeLensParams(new TextDocumentIdentifier("file:///a.yml")));
+		hover.cancel(true);
+		codeLens.cancel(true);
+		busy.countDown();
+		server.getAsync().waitForAll();
+
+		assertEquals(0, handled.get());
+		CanceledRequests canceled = documents.getCanceledRequests();
+		assertEquals(1, canceled.getCanceled("textDocument/hover"));
+		assertEquals(1, canceled.getCanceled("textDocument/codeLens"));
+		assertEquals(0, canceled.getCanceled("textDocument/completion"));
+	}
+
+	@Test
+	public void handlersStopWhenCanceled() throws Exception {
+		open("file:///a.yml", "a: 1");
+		CountDownLatch hoverStarted = new CountDownLatch(1);
+		CompletableFuture<Boolean> hoverStopped = new CompletableFuture<>();
+		documents.onHover((cancelToken, params) -> {
+			hoverStarted.countDown();
+			try {
+				while (true) {
+					cancelToken.checkCanceled();
+					Thread.yield();
+				}
+			} finally {
+				hoverStopped.complete(cancelToken.isCanceled());
+			}
+		});
+		CountDownLatch completionStarted = new CountDownLatch(1);
+		CompletableFuture<Boolean> completionStopped = new CompletableFuture<>();
+		documents.onCompletion((cancelToken, params) -> Mono.<CompletionList>fromCallable(() -> {
+			completionStarted.countDown();
+			try {
+				while (true) {
+					cancelToken.checkCanceled();
+					Thread.yield();
+				}
+			} finally {
+				completionStopped.complete(cancelToken.isCanceled());
+			}
+		}).subscribeOn(Schedulers.elastic()));
+
+		CompletableFuture<?> hover = documents.hover(new HoverParams(new TextDocumentIdentifier("file:///a.yml"), new Position(0, 0)));
+		assertTrue(hoverStarted.await(5, TimeUnit.SECONDS));
+		assertFalse(hoverStopped.isDone());
+		hover.cancel(true);
+		assertTrue(hoverStopped.get(5, TimeUnit.SECONDS));
+
+		CompletionParams completionParams = new CompletionParams(new TextDocumentIdentifier("file:///a.yml"), new Position(0, 0));
+		CompletableFuture<?> completion = documents.completion(completionParams);
+		assertTrue(completionStarted.await(5, TimeUnit.SECONDS));
+		completion.cancel(true);
+		assertTrue(completionStopped.get(5, TimeUnit.SECONDS));
+		try {
+			completion.get();
+			fail("Expected cancellation");
+		} catch (CancellationException e) {
+			// expected
+		}
+
+		CanceledRequests canceled = documents.getCanceledRequests();
+		assertEquals(1, canceled.getCanceled("textDocument/hover"));
+		assertEquals(1, canceled.getAborted("textDocument/hover"));
+		assertEquals(1, canceled.getCanceled("textDocument/completion"));
+		assertEquals(1, canceled.getAborted("textDocument/completion"));
+	}
+
+	@Test
+	public void hoverTimeoutsCountedSeparately() throws Exception {
+		LanguageServerProperties props = new LanguageServerProperties();
+		props.setHoverTimeout(100);
+		server = new SimpleLanguageServer("test", null, props);
+		documents = server.getTextDocumentService();
+		open("file:///a.yml", "a: 1");
+		CompletableFuture<Boolean> hoverStopped = new CompletableFuture<>();
+		documents.onHover((cancelToken, params) -> {
+			try {
+				while (true) {
+					cancelToken.checkCanceled();
+					Thread.yield();
+				}
+			} finally {
+				hoverStopped.complete(cancelToken.isCanceled());
+			}
+		});
+
+		CompletableFuture<?> hover = documents.hover(new HoverParams(new TextDocumentIdentifier("file:///a.yml"), new Position(0, 0)));
+		assertNull(hover.get(5, TimeUnit.SECONDS));
+		assertTrue(hoverStopped.get(5, TimeUnit.SECONDS));
+
+		CanceledRequests canceled = documents.getCanceledRequests();
+		assertEquals(1, canceled.getTimedOut("textDocument/hover"));
+		assertEquals(0, canceled.getCanceled("textDocument/hover"));
+		assertEquals(1, canceled.getAborted("textDocument/hover"));
+	}
+
+	private void open(String uri, String text) {
+		documents.didOpen(new DidOpenTextDocumentParams(new TextDocumentItem(uri, "yaml", 1, text)));
+		server.getAsync().waitForAll();
+	}
+
+	private static String uri(int i) {
+		return "file:///doc-" + i + ".yml";
+	}
+
+	private static String text(int version) {
+		return "version: " + version + "\n";
+	}
+
+}
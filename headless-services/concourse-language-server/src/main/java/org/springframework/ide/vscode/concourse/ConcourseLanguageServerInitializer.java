@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016 Pivotal, Inc.
+ * Copyright (c) 2016, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -141,13 +141,13 @@ public class ConcourseLanguageServerInitializer {
 //			}
 //		});
 
-		documents.onCompletion(params -> {
+		documents.onCompletion((cancelToken, params) -> {
 			TextDocument doc = documents.get(params);
 			if (doc!=null) {
 				if (LanguageId.CONCOURSE_PIPELINE.equals(doc.getLanguageId())) {
-					return forPipelines.completionEngine.getCompletions(params);
+					return forPipelines.completionEngine.getCompletions(cancelToken, params);
 				} else if (LanguageId.CONCOURSE_TASK.equals(doc.getLanguageId())) {
-					return forTasks.completionEngine.getCompletions(params);
+					return forTasks.completionEngine.getCompletions(cancelToken, params);
 				}
 			}
 			return Mono.just(new CompletionList(false, ImmutableList.of()));
@@ -156,16 +156,16 @@ public class ConcourseLanguageServerInitializer {
 			server.completionResolver.resolveNow(item);
 			return item;
 		});
-		documents.onHover(params -> {
+		documents.onHover((cancelToken, params) -> {
 			log.debug("Concourse hover handler starting");
 			try {
 				TextDocument doc = documents.get(params);
 				if (doc!=null) {
 					LanguageId languageId = doc.getLanguageId();
 					if (LanguageId.CONCOURSE_PIPELINE.equals(doc.getLanguageId())) {
-						return forPipelines.hoverEngine.handle(params);
+						return forPipelines.hoverEngine.handle(cancelToken, params);
 					} else if (LanguageId.CONCOURSE_TASK.equals(doc.getLanguageId())) {
-						return forTasks.hoverEngine.handle(params);
+						return forTasks.hoverEngine.handle(cancelToken, params);
 					} else {
 						log.debug("No hovers because language-id = {}", languageId);
 					}
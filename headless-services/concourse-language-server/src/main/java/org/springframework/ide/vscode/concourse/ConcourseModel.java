@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2018 Pivotal, Inc.
+ * Copyright (c) 2016, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,7 +16,9 @@ import static org.springframework.ide.vscode.commons.yaml.path.YamlPathSegment.v
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
@@ -58,6 +60,12 @@ import org.yaml.snakeyaml.nodes.MappingNode;
 import org.yaml.snakeyaml.nodes.Node;
 
 import com.google.common.base.Supplier;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultiset;
 import com.google.common.collect.ImmutableMultiset.Builder;
 import com.google.common.collect.Multiset;
@@ -106,17 +114,18 @@ public class ConcourseModel {
 		path = path.dropLast();
 		if (YamlPathSegment.valueAt("passed").equals(path.getLastSegment())) {
 			String jobName = NodeUtil.asScalar(node);
-			JobModel job = getJob(dc.getDocument(), jobName);
-			if (job!=null) {
-				//Only check if the job exists. Otherwise the extra checks will show 'redundant' errors (e.g.
-				//  complaining that 'some-job' doesn't ineract with a resource (because the resource doesn't exist).
-				YamlFileAST root = asts.getSafeAst(dc.getDocument());
-				if (root!=null) {
+			YamlFileAST root = asts.getSafeAst(dc.getDocument());
+			if (root!=null) {
+				PipelineIndex index = getIndex(root);
+				JobModel job = index.getJob(jobName);
+				if (job!=null) {
+					//Only check if the job exists. Otherwise the extra checks will show 'redundant' errors (e.g.
+					//  complaining that 'some-job' doesn't ineract with a resource (because the resource doesn't exist).
 					Node stepNode = path.dropLast().traverseToNode(root);
 					if (stepNode!=null) {
 						StepModel step = newStep(stepNode);
 						String resourceName = step.getResourceName();
-						if (resourceName!=null && getResource(dc.getDocument(), resourceName)!=null) {
+						if (resourceName!=null && index.getResource(resourceName)!=null) {
 							Set<String> interactions = job.getInteractedResources();
 							if (interactions!=null && !interactions.contains(resourceName)) {
 								problems.accept(YamlSchemaProblems.schemaProblem("Job '"+jobName+"' does not interact with resource '"+resourceName+"'", node));
@@ -134,32 +143,19 @@ public class ConcourseModel {
 	 * Verification of constraint: if at least one job is assigned to a group, then all jobs must be assigned to a group.
 	 */
 	public final void jobAssignmentIsComplete(DynamicSchemaContext dc, Node parent, Node node, YType type, IProblemCollector problems) {
-		Multiset<String> assignedJobs = getStringsFromAst(dc.getDocument(), JOBS_ASSIGNED_TO_GROUPS);
-		if (assignedJobs!=null && !assignedJobs.isEmpty()) {
-			getJobNameNodes(dc).forEach(jobDefName -> {
+		PipelineIndex index = getFromAst(dc.getDocument(), this::getIndex);
+		if (index!=null && !index.jobsAssignedToGroups.isEmpty()) {
+			for (Node jobDefName : index.jobNameNodes) {
 				String name = NodeUtil.asScalar(jobDefName);
 				if (StringUtil.hasText(name)) { //'not assigned to a group' errors for empty names are a bit silly, so avoid that
-					if (!assignedJobs.contains(name)) {
+					if (!index.jobsAssignedToGroups.contains(name)) {
 						problems.accept(YamlSchemaProblems.schemaProblem("'"+name+"' belongs to no group", jobDefName));
 					}
 				}
-			});
+			}
 		}
 	}
 
-	/**
-	 * Get the job with given name. If there is no such job, or if there is more than one, this will return null.
-	 */
-	private JobModel getJob(IDocument doc, String jobName) {
-		return Streams.getSingle(
-			 getFromAst(doc, ast ->
-				JOBS_PATH.traverseAmbiguously(ast)
-				.filter(node -> jobName.equals(NodeUtil.getScalarProperty(node, "name")))
-				.map(JobModel::new)
-			)
-		);
-	}
-
 	public StepModel newStep(Node _node) {
 		MappingNode node = (MappingNode) _node;
 		Set<String> keys = NodeUtil.getScalarKeys(node);
@@ -190,16 +186,90 @@ public class ConcourseModel {
 
 		private Node node;
 
+		/**
+		 * Computed the first time, the job of a {@link PipelineIndex} is asked about its resources
+		 */
+		private volatile Set<String> interactedResources;
+
 		JobModel(Node node) {
 			this.node = node;
 		}
 
 		public Set<String> getInteractedResources() {
-			return JobModel_GET_PUT_STEP_PATH
-					.traverseAmbiguously(node)
-					.map(node -> newStep(node))
-					.flatMap(step -> Streams.fromNullable(step.getResourceName()))
-					.collect(Collectors.toSet());
+			Set<String> resources = interactedResources;
+			if (resources==null) {
+				resources = JobModel_GET_PUT_STEP_PATH
+						.traverseAmbiguously(node)
+						.map(node -> newStep(node))
+						.flatMap(step -> Streams.fromNullable(step.getResourceName()))
+						.collect(Collectors.toSet());
+				interactedResources = resources;
+			}
+			return resources;
+		}
+
+	}
+
+	/**
+	 * Definitions of a pipeline looked up by the constraints and the content assist collected
+	 * walking the AST once. Indexes are kept for as long as their AST is around, i.e. once per
+	 * version of a document.
+	 */
+	private class PipelineIndex {
+
+		final ImmutableListMultimap<String, JobModel> jobsByName;
+		final ImmutableMap<String, ResourceModel> resourcesByName;
+		final ImmutableList<Node> jobNameNodes;
+		final ImmutableMultiset<String> jobNames;
+		final ImmutableMultiset<String> resourceNames;
+		final ImmutableMultiset<String> resourceTypeNames;
+		final ImmutableMultiset<String> jobsAssignedToGroups;
+
+		PipelineIndex(YamlFileAST ast) {
+			ImmutableListMultimap.Builder<String, JobModel> jobs = ImmutableListMultimap.builder();
+			JOBS_PATH.traverseAmbiguously(ast).forEach(job -> {
+				String name = NodeUtil.getScalarProperty(job, "name");
+				if (name!=null) {
+					jobs.put(name, new JobModel(job));
+				}
+			});
+			this.jobsByName = jobs.build();
+
+			Map<String, ResourceModel> resources = new LinkedHashMap<>();
+			RESOURCES_PATH.traverseAmbiguously(new ASTRootCursor(ast))
+			.map((cursor) -> ((NodeCursor)cursor).getNode())
+			.forEach(resource -> {
+				String name = NodeUtil.getScalarProperty(resource, "name");
+				if (name!=null) {
+					resources.putIfAbsent(name, new ResourceModel(resource));
+				}
+			});
+			this.resourcesByName = ImmutableMap.copyOf(resources);
+
+			this.jobNameNodes = JOB_NAMES_PATH.traverseAmbiguously(ast).collect(CollectorUtil.toImmutableList());
+			this.jobNames = scalars(jobNameNodes.stream());
+			this.resourceNames = scalars(RESOURCE_NAMES_PATH.traverseAmbiguously(ast));
+			this.resourceTypeNames = scalars(RESOURCE_TYPE_NAMES_PATH.traverseAmbiguously(ast));
+			this.jobsAssignedToGroups = scalars(JOBS_ASSIGNED_TO_GROUPS.traverseAmbiguously(ast));
+		}
+
+		/**
+		 * Get the job with given name. If there is no such job, or if there is more than one, this will return null.
+		 */
+		JobModel getJob(String jobName) {
+			List<JobModel> jobs = jobsByName.get(jobName);
+			return jobs.size()==1 ? jobs.get(0) : null;
+		}
+
+		ResourceModel getResource(String resourceName) {
+			return resourcesByName.get(resourceName);
+		}
+
+		private ImmutableMultiset<String> scalars(Stream<Node> nodes) {
+			return nodes
+					.map(NodeUtil::asScalar)
+					.filter((string) -> string!=null)
+					.collect(CollectorUtil.toMultiset());
 		}
 
 	}
@@ -290,6 +360,11 @@ public class ConcourseModel {
 
 	private final YamlAstCache asts = new YamlAstCache();
 
+	/**
+	 * Weak keys are compared by identity: the ASTs cached by {@link #asts} share their index
+	 */
+	private final LoadingCache<YamlFileAST, PipelineIndex> indexes = CacheBuilder.newBuilder().weakKeys().build(CacheLoader.from(PipelineIndex::new));
+
 	private ResourceTypeRegistry resourceTypes;
 
 	private final Supplier<SnippetBuilder> snippetBuilderFactory;
@@ -311,7 +386,7 @@ public class ConcourseModel {
 	 * can not be parsed).
 	 */
 	public Multiset<String> getResourceNames(DynamicSchemaContext dc) {
-		return getStringsFromAst(dc.getDocument(), RESOURCE_NAMES_PATH);
+		return getFromAst(dc.getDocument(), ast -> getIndex(ast).resourceNames);
 	}
 
 	/**
@@ -333,17 +408,7 @@ public class ConcourseModel {
 	}
 
 	public ResourceModel getResource(IDocument doc, String resourceName) {
-		return getFromAst(doc, (ast) -> {
-			Node resource = RESOURCES_PATH.traverseAmbiguously(new ASTRootCursor(ast))
-			.map((cursor) -> ((NodeCursor)cursor).getNode())
-			.filter((resourceNode) -> resourceName.equals(NodeUtil.getScalarProperty(resourceNode, "name")))
-			.findFirst().orElse(null);
-			if (resource!=null) {
-				return new ResourceModel(resource);
-			}
-			return null;
-		});
-
+		return getFromAst(doc, (ast) -> getIndex(ast).getResource(resourceName));
 	}
 
 	/**
@@ -356,22 +421,11 @@ public class ConcourseModel {
 	 * can not be parsed).
 	 */
 	public Multiset<String> getJobNames(DynamicSchemaContext dc) {
-		return getStringsFromAst(dc.getDocument(), JOB_NAMES_PATH);
+		return getFromAst(dc.getDocument(), ast -> getIndex(ast).jobNames);
 	}
 
 	public Stream<Node> getJobNameNodes(DynamicSchemaContext dc) {
-		return getFromAst(dc.getDocument(), ast -> JOB_NAMES_PATH.traverseAmbiguously(ast));
-	}
-
-
-	private Multiset<String> getStringsFromAst(IDocument doc, YamlPath path) {
-		return getFromAst(doc, (ast) -> {
-			return path
-				.traverseAmbiguously(ast)
-				.map(NodeUtil::asScalar)
-				.filter((string) -> string!=null)
-				.collect(CollectorUtil.toMultiset());
-		});
+		return getFromAst(dc.getDocument(), ast -> getIndex(ast).jobNameNodes.stream());
 	}
 
 	public Multiset<String> getResourceTypeNames(DynamicSchemaContext dc, boolean includeBuiltin) {
@@ -384,7 +438,7 @@ public class ConcourseModel {
 
 	public Collection<YValueHint> getResourceTypeNameHints(DynamicSchemaContext dc, boolean includeBuiltin) {
 		IDocument doc = dc.getDocument();
-		Multiset<String> userDefined = getStringsFromAst(doc, RESOURCE_TYPE_NAMES_PATH);
+		Multiset<String> userDefined = getFromAst(doc, ast -> getIndex(ast).resourceTypeNames);
 		if (userDefined!=null) {
 			Builder<YValueHint> builder = ImmutableMultiset.builder();
 			builder.addAll(YTypeFactory.hints(userDefined));
@@ -432,6 +486,10 @@ public class ConcourseModel {
 	}
 
 
+	private PipelineIndex getIndex(YamlFileAST ast) {
+		return indexes.getUnchecked(ast);
+	}
+
 	private <T> T getFromAst(IDocument doc, Function<YamlFileAST, T> astFunction) {
 		try {
 			if (doc!=null) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Pivotal, Inc.
+ * Copyright (c) 2017, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,6 +14,8 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import org.kohsuke.github.GHFileNotFoundException;
@@ -27,7 +29,7 @@ import org.springframework.ide.vscode.commons.util.Log;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedSet;
 
 import reactor.core.publisher.Flux;
 
@@ -53,6 +55,10 @@ public class DefaultGithubInfoProvider implements GithubInfoProvider {
 			}
 			return (T)result;
 		}
+
+		public boolean isError() {
+			return result instanceof Throwable;
+		}
 	}
 
 	private <T> Callable<Result<T>> loader(Callable<T> callable) {
@@ -67,9 +73,20 @@ public class DefaultGithubInfoProvider implements GithubInfoProvider {
 		}
 	}
 
+	/**
+	 * Time content assist waits for the first page of the repo catalog if nothing is known yet
+	 */
+	private static final long FIRST_PAGE_TIMEOUT = 2;
+
 	private GitHub github;
 	private IOException connectionError;
-	private Collection<String> owners;
+	private GithubRepoCatalog catalog;
+
+	private final ExecutorService prefetcher = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "Github repos prefetch");
+		t.setDaemon(true);
+		return t;
+	});
 
 	private Cache<String, Result<Collection<String>>> reposByOwner = CacheBuilder.newBuilder()
 			.expireAfterAccess(10, TimeUnit.MINUTES)
@@ -77,8 +94,10 @@ public class DefaultGithubInfoProvider implements GithubInfoProvider {
 
 	{
 		try {
-			checkConfiguration();
+			File configFile = checkConfiguration();
 			github = GitHub.connect();
+			catalog = GithubRepoCatalog.fromPropertyFile(configFile, GithubRepoCatalog.defaultStoreDirectory());
+			catalog.refresh();
 		} catch (IOException e) {
 			connectionError = e;
 		}
@@ -89,20 +108,14 @@ public class DefaultGithubInfoProvider implements GithubInfoProvider {
 		if (connectionError!=null) {
 			throw connectionError;
 		}
-		if (github!=null) {
-			if (owners==null) {
-				ImmutableSet.Builder<String> owners = ImmutableSet.builder();
-				for (GHRepository repo : github.getMyself().listRepositories()) {
-					owners.add(repo.getOwnerName());
-				}
-				this.owners = owners.build();
-			}
-			return owners;
+		if (catalog!=null) {
+			catalog.awaitFirstPage(FIRST_PAGE_TIMEOUT, TimeUnit.SECONDS);
+			return catalog.getOwners();
 		}
 		return ImmutableList.of();
 	}
 
-	private void checkConfiguration() throws IOException {
+	private File checkConfiguration() throws IOException {
 		File configFile = new File(System.getProperty("user.home"));
 		configFile = new File(configFile, ".github");
 		if (!configFile.isFile()) {
@@ -116,6 +129,7 @@ public class DefaultGithubInfoProvider implements GithubInfoProvider {
 						"this to take effect."
 			);
 		}
+		return configFile;
 	}
 
 	@Override
@@ -125,18 +139,23 @@ public class DefaultGithubInfoProvider implements GithubInfoProvider {
 		}
 		try {
 			if (github!=null) {
-				return reposByOwner.get(ownerName, loader(() -> {
-					GHPerson owner = getOwner(ownerName);
-					if (owner!=null) {
-						ImmutableList.Builder<String> builder = ImmutableList.builder();
-						for (GHRepository repo : owner.listRepositories()) {
-							builder.add(repo.getName());
-						}
-						return builder.build();
+				Collection<String> known = catalog==null ? null : catalog.getRepos(ownerName);
+				if (known!=null) {
+					// Owner is in the catalog, answer right away and complete it with the public repos of the owner
+					Result<Collection<String>> loaded = reposByOwner.getIfPresent(ownerName);
+					if (loaded==null) {
+						prefetcher.execute(() -> prefetchRepos(ownerName));
+						return known;
 					}
-					return null;
-				}))
-				.get();
+					if (loaded.isError()) {
+						// Don't hold on to a failure, the catalog still knows some repos of the owner
+						reposByOwner.invalidate(ownerName);
+						return known;
+					}
+					Collection<String> repos = loaded.get();
+					return repos==null ? known : ImmutableSortedSet.orderedBy(String.CASE_INSENSITIVE_ORDER).addAll(known).addAll(repos).build();
+				}
+				return getRepos(ownerName).get();
 			}
 		} catch (Exception e) {
 			if (!isMissingOwnerException(e)) {
@@ -146,6 +165,42 @@ public class DefaultGithubInfoProvider implements GithubInfoProvider {
 		return ImmutableList.of();
 	}
 
+	private Result<Collection<String>> getRepos(String ownerName) {
+		try {
+			return reposByOwner.get(ownerName, loader(() -> listRepos(ownerName)));
+		} catch (Exception e) {
+			return new Result<>(e);
+		}
+	}
+
+	/**
+	 * Fetches the public repos of an owner known to the catalog. Only successful results are cached,
+	 * on failure the next request falls back to the catalog and fetches again.
+	 */
+	private void prefetchRepos(String ownerName) {
+		if (reposByOwner.getIfPresent(ownerName)==null) {
+			try {
+				reposByOwner.put(ownerName, new Result<>(listRepos(ownerName)));
+			} catch (Exception e) {
+				if (!isMissingOwnerException(e)) {
+					Log.log(e);
+				}
+			}
+		}
+	}
+
+	private Collection<String> listRepos(String ownerName) throws IOException {
+		GHPerson owner = getOwner(ownerName);
+		if (owner!=null) {
+			ImmutableList.Builder<String> builder = ImmutableList.builder();
+			for (GHRepository repo : owner.listRepositories()) {
+				builder.add(repo.getName());
+			}
+			return builder.build();
+		}
+		return null;
+	}
+
 	private GHPerson getOwner(String ownerName) throws IOException {
 		try {
 			return github.getUser(ownerName);
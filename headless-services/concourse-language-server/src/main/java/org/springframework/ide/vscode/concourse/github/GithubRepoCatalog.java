@@ -0,0 +1,304 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.concourse.github;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ide.vscode.commons.util.SnapshotStore;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Catalog of the github repositories accessible to the user, i.e. of their own repositories and the
+ * repositories of their organizations. The catalog is fetched page by page in the background from
+ * the <code>/user/repos</code> endpoint of the github API and every page is published as soon as it
+ * arrives. The last complete catalog is kept on disk and served right away after a restart.
+ * <p>
+ * Readers never wait for github: they get the repositories known at the time they ask, indexed by
+ * owner.
+ *
+ * @author Alex Boyko
+ *
+ */
+public class GithubRepoCatalog {
+
+	private static final Logger log = LoggerFactory.getLogger(GithubRepoCatalog.class);
+
+	private static final Gson gson = new Gson();
+
+	public static final String DEFAULT_ENDPOINT = "https://api.github.com";
+
+	private static final int PAGE_SIZE = 100;
+	private static final int TIMEOUT = 10000;
+	private static final long REFRESH_INTERVAL = TimeUnit.MINUTES.toMillis(10);
+
+	private static final Pattern NEXT_LINK = Pattern.compile("<([^>]+)>;\\s*rel=\"next\"");
+
+	/**
+	 * Stored form of the catalog
+	 */
+	private static class Snapshot {
+		long timestamp;
+		List<String> repos;
+	}
+
+	/**
+	 * Repositories of the catalog, i.e. full names of the repositories indexed by owner.
+	 */
+	private static class Index {
+
+		static final Index EMPTY = new Index(ImmutableList.of(), 0);
+
+		final ImmutableList<String> fullNames;
+		final ImmutableSortedMap<String, ImmutableSortedSet<String>> reposByOwner;
+		final long timestamp;
+
+		Index(List<String> fullNames, long timestamp) {
+			this.fullNames = ImmutableList.copyOf(fullNames);
+			this.timestamp = timestamp;
+			Map<String, ImmutableSortedSet.Builder<String>> builders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+			for (String fullName : fullNames) {
+				int slash = fullName.indexOf('/');
+				if (slash > 0) {
+					builders.computeIfAbsent(fullName.substring(0, slash), o -> ImmutableSortedSet.orderedBy(String.CASE_INSENSITIVE_ORDER))
+						.add(fullName.substring(slash + 1));
+				}
+			}
+			ImmutableSortedMap.Builder<String, ImmutableSortedSet<String>> index = ImmutableSortedMap.orderedBy(String.CASE_INSENSITIVE_ORDER);
+			builders.forEach((owner, repos) -> index.put(owner, repos.build()));
+			this.reposByOwner = index.build();
+		}
+	}
+
+	private final String endpoint;
+	private final String authorization;
+	private final SnapshotStore store;
+	private final String storeFileName;
+	private final ExecutorService executor;
+
+	private volatile Index index = Index.EMPTY;
+	private volatile Throwable error;
+	private CompletableFuture<Void> refresh;
+	private final CompletableFuture<Void> firstPage = new CompletableFuture<>();
+
+	/**
+	 * @param endpoint url of the github API
+	 * @param login github login of the account the catalog is for or <code>null</code>
+	 * @param authorization value of the authorization header for requests to github or <code>null</code>
+	 * @param storeDirectory directory to keep the catalog in or <code>null</code> to not keep it on disk
+	 */
+	public GithubRepoCatalog(String endpoint, String login, String authorization, File storeDirectory) {
+		this.endpoint = endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint;
+		this.authorization = authorization;
+		this.store = storeDirectory == null ? null : new SnapshotStore(storeDirectory, "github repo catalog");
+		// Accounts are told apart by login only, nothing derived from credentials ends up on disk
+		this.storeFileName = SnapshotStore.fileName(this.endpoint + "\n" + (login == null ? "" : login));
+		this.executor = Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "Github repo catalog");
+			t.setDaemon(true);
+			return t;
+		});
+		Index stored = load();
+		if (stored != null) {
+			index = stored;
+			firstPage.complete(null);
+		}
+	}
+
+	/**
+	 * Creates a catalog for the github account configured in a properties file in the format read by
+	 * {@link org.kohsuke.github.GitHubBuilder}, i.e. with <code>login</code> and either <code>password</code>
+	 * or <code>oauth</code> token and an optional <code>endpoint</code>.
+	 */
+	public static GithubRepoCatalog fromPropertyFile(File propertyFile, File storeDirectory) throws IOException {
+		Properties props = new Properties();
+		try (InputStream in = new FileInputStream(propertyFile)) {
+			props.load(in);
+		}
+		String endpoint = props.getProperty("endpoint", DEFAULT_ENDPOINT);
+		String login = props.getProperty("login");
+		String oauth = props.getProperty("oauth");
+		String password = props.getProperty("password");
+		String authorization = null;
+		if (oauth != null) {
+			authorization = "token " + oauth;
+		} else if (login != null && password != null) {
+			authorization = "Basic " + Base64.getEncoder().encodeToString((login + ":" + password).getBytes(StandardCharsets.UTF_8));
+		}
+		return new GithubRepoCatalog(endpoint, login, authorization, storeDirectory);
+	}
+
+	public static File defaultStoreDirectory() {
+		return SnapshotStore.userDirectory(".githubRepoCache");
+	}
+
+	/**
+	 * Fetches the catalog from github in the background unless a fetch is in progress already.
+	 *
+	 * @return completes once the whole catalog has been fetched
+	 */
+	public synchronized CompletableFuture<Void> refresh() {
+		if (refresh == null || refresh.isDone()) {
+			refresh = CompletableFuture.runAsync(this::fetch, executor);
+		}
+		return refresh;
+	}
+
+	/**
+	 * @return owners of the repositories known at this time, refreshes the catalog in the background if it
+	 *         is older than 10 minutes.
+	 * @throws Exception the failure of fetching the catalog if there is nothing to serve
+	 */
+	public Collection<String> getOwners() throws Exception {
+		return current().reposByOwner.keySet();
+	}
+
+	/**
+	 * @return names of the known repositories of the given owner or <code>null</code> if the owner isn't in the catalog
+	 */
+	public Collection<String> getRepos(String owner) throws Exception {
+		return current().reposByOwner.get(owner);
+	}
+
+	/**
+	 * Waits at most the given time for the first page of the catalog unless there is one already
+	 */
+	public void awaitFirstPage(long timeout, TimeUnit unit) {
+		try {
+			firstPage.get(timeout, unit);
+		} catch (Exception e) {
+			// Served what is there
+		}
+	}
+
+	private Index current() throws Exception {
+		Index current = index;
+		if (System.currentTimeMillis() - current.timestamp > REFRESH_INTERVAL) {
+			refresh();
+		}
+		Throwable e = error;
+		if (current == Index.EMPTY && e != null) {
+			throw e instanceof Exception ? (Exception) e : new IOException(e);
+		}
+		return current;
+	}
+
+	private void fetch() {
+		List<String> fullNames = new ArrayList<>();
+		String url = endpoint + "/user/repos?per_page=" + PAGE_SIZE;
+		boolean replacing = index == Index.EMPTY;
+		try {
+			while (url != null) {
+				HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+				connection.setConnectTimeout(TIMEOUT);
+				connection.setReadTimeout(TIMEOUT);
+				connection.setRequestProperty("Accept", "application/vnd.github.v3+json");
+				if (authorization != null) {
+					connection.setRequestProperty("Authorization", authorization);
+				}
+				int status = connection.getResponseCode();
+				if (status != HttpURLConnection.HTTP_OK) {
+					connection.disconnect();
+					throw new IOException("Fetching github repositories failed: " + status + " " + connection.getResponseMessage());
+				}
+				try (Reader reader = new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8)) {
+					JsonArray repos = gson.fromJson(reader, JsonArray.class);
+					for (JsonElement repo : repos) {
+						JsonElement fullName = repo.isJsonObject() ? ((JsonObject) repo).get("full_name") : null;
+						if (fullName != null && fullName.isJsonPrimitive()) {
+							fullNames.add(fullName.getAsString());
+						}
+					}
+				}
+				url = nextPage(connection.getHeaderField("Link"));
+				if (replacing) {
+					// Nothing known yet, publish pages as they arrive
+					index = new Index(fullNames, System.currentTimeMillis());
+					firstPage.complete(null);
+				}
+			}
+			index = new Index(fullNames, System.currentTimeMillis());
+			error = null;
+			save(index);
+		} catch (Throwable e) {
+			log.debug("Failed to fetch github repositories", e);
+			error = e;
+			Index current = index;
+			if (current != Index.EMPTY) {
+				// Keep serving what is known and try again later
+				index = new Index(current.fullNames, System.currentTimeMillis());
+			}
+		} finally {
+			firstPage.complete(null);
+		}
+	}
+
+	private static String nextPage(String link) {
+		if (link != null) {
+			Matcher matcher = NEXT_LINK.matcher(link);
+			if (matcher.find()) {
+				return matcher.group(1);
+			}
+		}
+		return null;
+	}
+
+	private Index load() {
+		if (store == null) {
+			return null;
+		}
+		Snapshot snapshot = store.read(storeFileName, Snapshot.class);
+		if (snapshot != null && snapshot.repos != null) {
+			return new Index(snapshot.repos, snapshot.timestamp);
+		}
+		return null;
+	}
+
+	private void save(Index index) {
+		if (store == null) {
+			return;
+		}
+		Snapshot snapshot = new Snapshot();
+		snapshot.timestamp = index.timestamp;
+		snapshot.repos = index.fullNames;
+		store.write(storeFileName, snapshot, Snapshot.class);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2019 Pivotal, Inc.
+ * Copyright (c) 2016, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -5354,6 +5354,40 @@ public class ConcourseEditorTest {
 		);
 	}
 
+	@Test public void reconcilePassedJobsAfterEdit() throws Exception {
+		String pipeline =
+				"resources:\n" +
+				"- name: res-1\n" +
+				"  type: git\n" +
+				"  source:\n" +
+				"    uri: https://example.com/repo-1.git\n" +
+				"    branch: master\n" +
+				"- name: res-2\n" +
+				"  type: git\n" +
+				"  source:\n" +
+				"    uri: https://example.com/repo-2.git\n" +
+				"    branch: master\n" +
+				"jobs:\n" +
+				"- name: job-1\n" +
+				"  plan:\n" +
+				"  - put: res-1\n" +
+				"- name: job-2\n" +
+				"  plan:\n" +
+				"  - get: res-1\n" +
+				"    passed: [job-1]\n" +
+				"  - put: res-2\n" +
+				"- name: job-3\n" +
+				"  plan:\n" +
+				"  - get: res-2\n" +
+				"    passed: [job-2]\n";
+		Editor editor = harness.newEditor(pipeline);
+		editor.assertProblems(/*NONE*/);
+
+		// A job declared further down in the 'passed' list not interacting with the resource is detected
+		editor.setText(pipeline.replace("passed: [job-1]", "passed: [job-3]"));
+		editor.assertProblems("job-3|Job 'job-3' does not interact with resource 'res-1'");
+	}
+
 	@Test public void githubCompletionsUriTypes() throws Exception {
 		Editor editor = harness.newEditor(
 				"resources:\n" +
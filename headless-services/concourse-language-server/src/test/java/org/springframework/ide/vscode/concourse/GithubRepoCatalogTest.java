@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.concourse;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.ide.vscode.concourse.github.GithubRepoCatalog;
+
+import com.google.common.collect.ImmutableList;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests for {@link GithubRepoCatalog} against a local stand-in for the github API
+ *
+ * @author Alex Boyko
+ */
+public class GithubRepoCatalogTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private HttpServer server;
+	private String endpoint;
+
+	/**
+	 * Pages after the first one wait for a permit
+	 */
+	private final Semaphore morePages = new Semaphore(0);
+	private final List<String> authorizations = new ArrayList<>();
+	private volatile int status = 200;
+
+	@Before
+	public void setup() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/user/repos", this::handle);
+		server.start();
+		endpoint = "http://localhost:" + server.getAddress().getPort();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		morePages.release(100);
+		server.stop(0);
+	}
+
+	@Test
+	public void pagesPublishedAsTheyArrive() throws Exception {
+		GithubRepoCatalog catalog = new GithubRepoCatalog(endpoint, "kdvolder", "token secret", null);
+		CompletableFuture<Void> refresh = catalog.refresh();
+		catalog.awaitFirstPage(5, TimeUnit.SECONDS);
+
+		assertEquals(ImmutableList.of("kdvolder", "spring-projects"), ImmutableList.copyOf(catalog.getOwners()));
+		assertEquals(ImmutableList.of("sts4"), ImmutableList.copyOf(catalog.getRepos("spring-projects")));
+		assertFalse(refresh.isDone());
+
+		morePages.release();
+		refresh.get(5, TimeUnit.SECONDS);
+		assertEquals(ImmutableList.of("kdvolder", "spring-guides", "spring-projects"), ImmutableList.copyOf(catalog.getOwners()));
+		assertEquals(ImmutableList.of("spring-boot", "sts4"), ImmutableList.copyOf(catalog.getRepos("Spring-Projects")));
+		assertNull(catalog.getRepos("unknown"));
+		synchronized (authorizations) {
+			assertEquals(ImmutableList.of("token secret", "token secret"), authorizations);
+		}
+	}
+
+	@Test
+	public void catalogServedFromDiskAfterRestart() throws Exception {
+		File store = folder.newFolder();
+		GithubRepoCatalog catalog = new GithubRepoCatalog(endpoint, "kdvolder", "token secret", store);
+		morePages.release();
+		catalog.refresh().get(5, TimeUnit.SECONDS);
+
+		File[] files = store.listFiles();
+		assertEquals(1, files.length);
+		assertFalse(new String(Files.readAllBytes(files[0].toPath()), StandardCharsets.UTF_8).contains("secret"));
+
+		// Stored catalog is there before github answers
+		server.stop(0);
+		GithubRepoCatalog restarted = new GithubRepoCatalog(endpoint, "kdvolder", "token secret", store);
+		assertEquals(ImmutableList.of("kdvolder", "spring-guides", "spring-projects"), ImmutableList.copyOf(restarted.getOwners()));
+
+		// ... and still there if github can't be reached
+		restarted.refresh().get(15, TimeUnit.SECONDS);
+		assertEquals(ImmutableList.of("spring-boot", "sts4"), ImmutableList.copyOf(restarted.getRepos("spring-projects")));
+
+		// Same account with other credentials uses the same catalog
+		assertEquals(3, new GithubRepoCatalog(endpoint, "kdvolder", "token renewed", store).getOwners().size());
+
+		// Other accounts have their own catalogs
+		assertTrue(new GithubRepoCatalog(endpoint, "other", "token other", store).getOwners().isEmpty());
+	}
+
+	@Test
+	public void failureReportedIfNothingKnown() throws Exception {
+		status = 401;
+		GithubRepoCatalog catalog = new GithubRepoCatalog(endpoint, null, null, null);
+		catalog.refresh().get(5, TimeUnit.SECONDS);
+		try {
+			catalog.getOwners();
+			fail("Expected failure");
+		} catch (IOException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("401"));
+		}
+	}
+
+	@Test
+	public void propertyFile() throws Exception {
+		File props = folder.newFile();
+		Files.write(props.toPath(), ("login=kdvolder\npassword=secret\nendpoint=" + endpoint + "\n").getBytes(StandardCharsets.UTF_8));
+		GithubRepoCatalog catalog = GithubRepoCatalog.fromPropertyFile(props, null);
+		morePages.release();
+		catalog.refresh().get(5, TimeUnit.SECONDS);
+		assertEquals(3, catalog.getOwners().size());
+		synchronized (authorizations) {
+			assertEquals("Basic a2R2b2xkZXI6c2VjcmV0", authorizations.get(0));
+		}
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		synchronized (authorizations) {
+			authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+		}
+		String query = exchange.getRequestURI().getQuery();
+		String body;
+		if (status != 200) {
+			body = "{\"message\": \"Bad credentials\"}";
+		} else if (query.contains("page=2")) {
+			try {
+				morePages.tryAcquire(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			body = "[" + repo("spring-projects/spring-boot") + "," + repo("spring-guides/gs-rest-service") + "]";
+		} else {
+			assertTrue(query.contains("per_page=100"));
+			exchange.getResponseHeaders().add("Link",
+					"<" + endpoint + "/user/repos?per_page=100&page=2>; rel=\"next\", <" + endpoint + "/user/repos?per_page=100&page=2>; rel=\"last\"");
+			body = "[" + repo("kdvolder/dotfiles") + "," + repo("spring-projects/sts4") + "]";
+		}
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	private static String repo(String fullName) {
+		return "{\"name\": \"" + fullName.substring(fullName.indexOf('/') + 1) + "\", \"full_name\": \"" + fullName + "\"}";
+	}
+
+}
@@ -97,7 +97,7 @@ public class ReusableClasspathListenerHandler {
 			this.callbackJob = new CallbackJob();
 		}
 		
-		public void subscribe(String callbackCommandId, boolean isBatched) {
+		public void subscribe(String callbackCommandId, boolean isBatched, boolean isDelta) {
 			// keep out of synchronized block to avoid workspace locks
 			IProject[] sortedProjects = getSortedProjects();
 
@@ -109,7 +109,7 @@ public class ReusableClasspathListenerHandler {
 							sendNotification(jp, subscribers.keySet());
 						}
 					});
-					final SendClasspathNotificationsJob job = new SendClasspathNotificationsJob(logger, conn, callbackCommandId, isBatched);
+					final SendClasspathNotificationsJob job = new SendClasspathNotificationsJob(logger, conn, callbackCommandId, isBatched, isDelta);
 					subscribers.put(callbackCommandId, job);
 					job.addJobChangeListener(new JobChangeAdapter() {
 	
@@ -198,8 +198,12 @@ public class ReusableClasspathListenerHandler {
 	}
 
 	public Object addClasspathListener(String callbackCommandId, boolean isBatched) {
-		logger.log("ClasspathListenerHandler addClasspathListener " + callbackCommandId + "isBatched = "+isBatched);
-		subscriptions.subscribe(callbackCommandId, isBatched);
+		return addClasspathListener(callbackCommandId, isBatched, false);
+	}
+
+	public Object addClasspathListener(String callbackCommandId, boolean isBatched, boolean isDelta) {
+		logger.log("ClasspathListenerHandler addClasspathListener " + callbackCommandId + "isBatched = "+isBatched + " isDelta = "+isDelta);
+		subscriptions.subscribe(callbackCommandId, isBatched, isDelta);
 		logger.log("ClasspathListenerHandler addClasspathListener " + callbackCommandId + " => OK");
 		return "ok";
 	}
@@ -13,6 +13,9 @@ package org.springframework.tooling.jdt.ls.commons.classpath;
 import java.io.File;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,6 +23,7 @@ import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.stream.Collectors;
 
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -28,11 +32,31 @@ import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.JavaCore;
 import org.springframework.ide.vscode.commons.protocol.java.Classpath;
 import org.springframework.ide.vscode.commons.protocol.java.Classpath.CPE;
+import org.springframework.ide.vscode.commons.protocol.java.ClasspathDelta;
 import org.springframework.tooling.jdt.ls.commons.Logger;
 
 import com.google.common.collect.ImmutableList;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 
 public class SendClasspathNotificationsJob extends Job {
+
+	/**
+	 * Key in the callback command result for names of projects the receiver needs complete classpath for
+	 */
+	private static final String RESYNC = "resync";
+
+	private static final Gson gson = new Gson();
+
+	private static class SentClasspath {
+		final long sequence;
+		final Classpath classpath;
+		SentClasspath(long sequence, Classpath classpath) {
+			this.sequence = sequence;
+			this.classpath = classpath;
+		}
+	}
 	
 	private final ClientCommandExecutor conn;
 	private final Logger logger;
@@ -53,8 +77,18 @@ public class SendClasspathNotificationsJob extends Job {
 	 */
 	private Map<String, URI> projectLocations = new HashMap<>();
 	public final Queue<IJavaProject> queue = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Used only if caller has requested 'delta' events. Last classpath sent for each project along with
+	 * its sequence number. Changes to these are sent as {@link ClasspathDelta}s.
+	 */
+	private Map<String, SentClasspath> sentClasspaths;
 	
 	public SendClasspathNotificationsJob(Logger logger, ClientCommandExecutor conn, String callbackId, boolean isBatched) {
+		this(logger, conn, callbackId, isBatched, false);
+	}
+
+	public SendClasspathNotificationsJob(Logger logger, ClientCommandExecutor conn, String callbackId, boolean isBatched, boolean isDelta) {
 		super("Send Classpath Notifications");
 		this.logger = logger;
 		this.conn = conn;
@@ -62,6 +96,9 @@ public class SendClasspathNotificationsJob extends Job {
 		if (isBatched) {
 			buffer = new ArrayList<>();
 		}
+		if (isDelta) {
+			sentClasspaths = new HashMap<>();
+		}
 	}
 
 	
@@ -155,15 +192,17 @@ public class SendClasspathNotificationsJob extends Job {
 	}
 
 	protected void bufferMessage(URI projectLoc, boolean deleted, String projectName, Classpath classpath) {
+		List<Object> event = createEvent(projectLoc, deleted, projectName, classpath);
 		if (buffer!=null) {
 			logger.log("buffering callback "+callbackCommandId+" "+projectName+" "+deleted+" "+ classpath.getEntries().size());
-			buffer.add(ImmutableList.of(projectLoc.toString(), projectName, deleted, classpath));
+			buffer.add(event);
 		} else {
 			try {
 				logger.log("executing callback "+callbackCommandId+" "+projectName+" "+deleted+" "+ classpath.getEntries().size());
-				Object r = conn.executeClientCommand(callbackCommandId, projectLoc.toString(), projectName, deleted, classpath);
+				Object r = conn.executeClientCommand(callbackCommandId, event.toArray(new Object[event.size()]));
 				notificationsSentForProjects = ImmutableList.of(projectName);
 				logger.log("executing callback "+callbackCommandId+" SUCCESS ["+r+"]");
+				requestResync(r);
 			} catch (Exception e) {
 				logger.log("executing callback "+callbackCommandId+" FAILED");
 				logger.log(e);
@@ -179,6 +218,7 @@ public class SendClasspathNotificationsJob extends Job {
 				notificationsSentForProjects = ImmutableList.copyOf(buffer.stream().filter(l -> l instanceof List)
 						.map(l -> (List<?>) l).map(l -> (String) l.get(1)).collect(Collectors.toList()));
 				logger.log("executing callback "+callbackCommandId+" SUCCESS ["+r+"]");
+				requestResync(r);
 			} catch (Exception e) {
 				logger.log("executing callback "+callbackCommandId+" FAILED");
 				logger.log(e);
@@ -187,4 +227,68 @@ public class SendClasspathNotificationsJob extends Job {
 			}
 		}
 	}
+
+	/**
+	 * Event sent to the callback command. For 'delta' events classpath of a project that has been sent before
+	 * is replaced by a sequence number and a {@link ClasspathDelta} to the previously sent classpath.
+	 */
+	private List<Object> createEvent(URI projectLoc, boolean deleted, String projectName, Classpath classpath) {
+		if (sentClasspaths == null) {
+			return ImmutableList.<Object>of(projectLoc.toString(), projectName, deleted, classpath);
+		}
+		SentClasspath previous = sentClasspaths.get(projectName);
+		long sequence = previous == null ? 1 : previous.sequence + 1;
+		ClasspathDelta delta = null;
+		if (deleted) {
+			sentClasspaths.remove(projectName);
+		} else {
+			if (previous != null) {
+				delta = ClasspathDelta.compute(previous.classpath, classpath);
+				if (delta != null && delta.size() > classpath.getEntries().size() / 2) {
+					// Complete classpath is about as cheap to send and process
+					delta = null;
+				}
+			}
+			sentClasspaths.put(projectName, new SentClasspath(sequence, classpath));
+		}
+		return delta == null
+				? Arrays.<Object>asList(projectLoc.toString(), projectName, deleted, classpath, sequence)
+				: Arrays.<Object>asList(projectLoc.toString(), projectName, deleted, null, sequence, delta);
+	}
+
+	/**
+	 * The receiver lists projects it couldn't apply a delta for in the command result. Complete classpath is sent
+	 * for these projects.
+	 */
+	private void requestResync(Object result) {
+		if (sentClasspaths == null) {
+			return;
+		}
+		Collection<String> projectNames = getResyncProjects(result);
+		if (!projectNames.isEmpty()) {
+			logger.log("Sending complete classpath for projects "+projectNames);
+			for (String projectName : projectNames) {
+				sentClasspaths.remove(projectName);
+				queue.add(JavaCore.create(ResourcesPlugin.getWorkspace().getRoot().getProject(projectName)));
+			}
+			schedule();
+		}
+	}
+
+	private static Collection<String> getResyncProjects(Object result) {
+		try {
+			JsonElement json = result instanceof JsonElement ? (JsonElement) result : gson.toJsonTree(result);
+			if (json != null && json.isJsonObject()) {
+				JsonObject obj = json.getAsJsonObject();
+				if (obj.has(RESYNC) && obj.get(RESYNC).isJsonArray()) {
+					List<String> projectNames = new ArrayList<>();
+					obj.get(RESYNC).getAsJsonArray().forEach(e -> projectNames.add(e.getAsString()));
+					return projectNames;
+				}
+			}
+		} catch (Exception e) {
+			// Not a resync request
+		}
+		return Collections.emptyList();
+	}
 }
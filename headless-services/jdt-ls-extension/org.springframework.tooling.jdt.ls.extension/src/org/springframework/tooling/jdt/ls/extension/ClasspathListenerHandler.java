@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018 Pivotal, Inc.
+ * Copyright (c) 2018, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -50,9 +50,13 @@ public class ClasspathListenerHandler implements IDelegateCommandHandler {
 		case "sts.java.addClasspathListener":
 			boolean isBatched = false;
 			if (arguments.size()>=2) {
-				isBatched = (Boolean)arguments.get(1);
+				isBatched = Boolean.TRUE.equals(arguments.get(1));
 			}
-			return addClasspathListener((String) arguments.get(0), isBatched);
+			boolean isDelta = false;
+			if (arguments.size()>=3) {
+				isDelta = Boolean.TRUE.equals(arguments.get(2));
+			}
+			return addClasspathListener((String) arguments.get(0), isBatched, isDelta);
 		case "sts.java.removeClasspathListener":
 			return removeClasspathListener((String) arguments.get(0));
 		default:
@@ -65,9 +69,9 @@ public class ClasspathListenerHandler implements IDelegateCommandHandler {
 		return handlerImpl.removeClasspathListener(callbackCommandId);
 	}
 
-	private Object addClasspathListener(String callbackCommandId, boolean isBatched) {
+	private Object addClasspathListener(String callbackCommandId, boolean isBatched, boolean isDelta) {
 		logger.log("ClasspathListenerHandler addClasspathListener " + callbackCommandId);
-		handlerImpl.addClasspathListener(callbackCommandId, isBatched);
+		handlerImpl.addClasspathListener(callbackCommandId, isBatched, isDelta);
 		logger.log("ClasspathListenerHandler addClasspathListener " + callbackCommandId + " => OK");
 		return "ok";
 	}
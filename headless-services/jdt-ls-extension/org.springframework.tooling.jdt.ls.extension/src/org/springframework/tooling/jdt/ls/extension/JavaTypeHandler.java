@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2019 Pivotal, Inc.
+ * Copyright (c) 2018, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,12 +10,14 @@
  *******************************************************************************/
 package org.springframework.tooling.jdt.ls.extension;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.ls.core.internal.IDelegateCommandHandler;
 import org.springframework.ide.vscode.commons.protocol.java.JavaDataParams;
+import org.springframework.ide.vscode.commons.protocol.java.TypeData;
 
 @SuppressWarnings("restriction")
 public class JavaTypeHandler implements IDelegateCommandHandler {
@@ -23,12 +25,27 @@ public class JavaTypeHandler implements IDelegateCommandHandler {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Object executeCommand(String commandId, List<Object> arguments, IProgressMonitor monitor) throws Exception {
-		Map<String, Object> obj = (Map<String, Object>) arguments.get(0);
+		switch (commandId) {
+		case "sts.java.types":
+			List<Map<String, Object>> batch = (List<Map<String, Object>>) arguments.get(0);
+			List<TypeData> types = new ArrayList<>(batch.size());
+			for (Map<String, Object> obj : batch) {
+				if (monitor != null && monitor.isCanceled()) {
+					break;
+				}
+				types.add(typeData(obj));
+			}
+			return types;
+		default:
+			return typeData((Map<String, Object>) arguments.get(0));
+		}
+	}
+	
+	private TypeData typeData(Map<String, Object> obj) {
 		String uri = (String) obj.get("projectUri");
 		String bindingKey = (String) obj.get("bindingKey");
 		Boolean lookInOtherProjects = (Boolean) obj.get("lookInOtherProjects");
 		return JavaHelpers.DATA.get().typeData(uri, bindingKey, JavaDataParams.isLookInOtherProjects(uri, lookInOtherProjects));
 	}
 
-
 }
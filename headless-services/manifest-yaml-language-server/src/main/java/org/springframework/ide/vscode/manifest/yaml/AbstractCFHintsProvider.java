@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2018 Pivotal, Inc.
+ * Copyright (c) 2017, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,10 @@
  *******************************************************************************/
 package org.springframework.ide.vscode.manifest.yaml;
 
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -19,10 +23,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget.CFTarget;
 import org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget.CFTargetCache;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget.CFTargetSnapshotStore.Kind;
 import org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget.ConnectionException;
 import org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget.NoTargetsException;
 import org.springframework.ide.vscode.commons.util.Assert;
 import org.springframework.ide.vscode.commons.util.ExceptionUtil;
+import org.springframework.ide.vscode.commons.util.Renderable;
+import org.springframework.ide.vscode.commons.util.Renderables;
 import org.springframework.ide.vscode.commons.util.ValueParseException;
 import org.springframework.ide.vscode.commons.yaml.schema.YValueHint;
 
@@ -33,6 +40,9 @@ public abstract class AbstractCFHintsProvider implements Callable<Collection<YVa
 	public static final String EMPTY_VALUE = "";
 	public static final String PROBLEM_RESOLVING_FROM_TARGETS = "Unable to resolve hints from: ";
 
+	private static final DateTimeFormatter SNAPSHOT_TIME_FORMAT = DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM)
+			.withZone(ZoneId.systemDefault());
+
 	protected final CFTargetCache targetCache;
 	private Logger logger = LoggerFactory.getLogger(AbstractCFHintsProvider.class);
 
@@ -128,6 +138,24 @@ public abstract class AbstractCFHintsProvider implements Callable<Collection<YVa
 		}
 	}
 
+	/**
+	 * Documentation for hints of the given kind of information from the target. Marks information
+	 * that is still the last known one from a previous session while the target fetches it from CF.
+	 */
+	protected Renderable getTargetLabel(CFTarget cfTarget, Kind kind) {
+		Renderable targetLabel = Renderables.text(cfTarget.getLabel());
+		Instant snapshotTime = cfTarget.getSnapshotTimestamp(kind);
+		if (snapshotTime == null) {
+			return targetLabel;
+		}
+		return Renderables.concat(
+				targetLabel,
+				Renderables.lineBreak(),
+				Renderables.italic(Renderables.text("Last known on " + SNAPSHOT_TIME_FORMAT.format(snapshotTime)
+						+ ", refreshing from Cloud Foundry"))
+		);
+	}
+
 	abstract Collection<YValueHint> getHints(CFTarget target) throws Exception;
 
 }
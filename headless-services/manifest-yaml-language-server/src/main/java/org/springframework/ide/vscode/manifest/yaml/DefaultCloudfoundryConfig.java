@@ -1,9 +1,11 @@
 package org.springframework.ide.vscode.manifest.yaml;
 
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.ide.vscode.commons.cloudfoundry.client.CloudFoundryClientFactory;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget.CFTargetSnapshotStore;
 import org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget.CfCliParamsProvider;
 import org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget.ClientParamsProvider;
 import org.springframework.ide.vscode.commons.cloudfoundry.client.v2.DefaultCloudFoundryClientFactoryV2;
@@ -19,4 +21,15 @@ public class DefaultCloudfoundryConfig {
 	@Bean public ClientParamsProvider cloudfoundryClientParamsProvider() {
 		return CfCliParamsProvider.getInstance();
 	}
+
+	/**
+	 * Serves the last known CF target information right after a restart. Off by default, enable with
+	 * <code>languageserver.cf-target-snapshot=true</code>. The information, including service instance
+	 * names and dashboard URLs, is stored in plain text under <code>~/.sts4/.cfTargetCache</code> in the
+	 * user's home.
+	 */
+	@ConditionalOnProperty(name = "languageserver.cf-target-snapshot", havingValue = "true")
+	@Bean public CFTargetSnapshotStore cfTargetSnapshotStore() {
+		return new CFTargetSnapshotStore();
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Pivotal, Inc.
+ * Copyright (c) 2017, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -18,8 +18,8 @@ import java.util.stream.Collectors;
 import org.springframework.ide.vscode.commons.cloudfoundry.client.CFDomain;
 import org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget.CFTarget;
 import org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget.CFTargetCache;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget.CFTargetSnapshotStore.Kind;
 import org.springframework.ide.vscode.commons.util.Renderable;
-import org.springframework.ide.vscode.commons.util.Renderables;
 import org.springframework.ide.vscode.commons.yaml.schema.BasicYValueHint;
 import org.springframework.ide.vscode.commons.yaml.schema.YValueHint;
 
@@ -35,7 +35,7 @@ public class ManifestYamlCFDomainsProvider extends AbstractCFHintsProvider {
 		if (domains == null) {
 			return Collections.emptyList();
 		} else {
-			Renderable targetLabel = Renderables.text(cfTarget.getLabel());
+			Renderable targetLabel = getTargetLabel(cfTarget, Kind.DOMAINS);
 			return domains.stream()
 					.map(domain -> new BasicYValueHint(domain.getName(), getLabel(cfTarget, domain)).setDocumentation(targetLabel))
 					.collect(Collectors.toList());
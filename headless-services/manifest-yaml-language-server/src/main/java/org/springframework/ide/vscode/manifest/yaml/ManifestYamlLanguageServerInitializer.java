@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2018 Pivotal, Inc.
+ * Copyright (c) 2016, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -22,6 +22,7 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.ide.vscode.commons.cloudfoundry.client.ClientTimeouts;
 import org.springframework.ide.vscode.commons.cloudfoundry.client.CloudFoundryClientFactory;
 import org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget.CFTargetCache;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget.CFTargetSnapshotStore;
 import org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget.CfCliParamsProvider;
 import org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget.CfTargetsInfo;
 import org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget.CfTargetsInfoProvder;
@@ -70,10 +71,14 @@ public class ManifestYamlLanguageServerInitializer implements InitializingBean {
 	@Autowired private ApplicationContext appContext;
 	@Autowired private SimpleLanguageServer server;
 	@Autowired private ASTTypeCache astTypeCache;
+	@Autowired(required = false) private CFTargetSnapshotStore cfTargetSnapshotStore;
 
 	@Override
 	public void afterPropertiesSet() throws Exception {
-		this.cfTargetCache = new CFTargetCache(ImmutableList.of(this.defaultClientParamsProvider), cfClientFactory, new ClientTimeouts());
+		// Refresh CF information ahead such that completions and reconciling don't wait for CF,
+		// up to then serve the last known CF information from the previous session if the snapshot store is enabled
+		this.cfTargetCache = new CFTargetCache(ImmutableList.of(this.defaultClientParamsProvider), cfClientFactory, new ClientTimeouts(),
+				CFTargetCache.createRefreshExecutor(), cfTargetSnapshotStore);
 
 		SimpleTextDocumentService documents = server.getTextDocumentService();
 		SimpleWorkspaceService workspace = server.getWorkspaceService();
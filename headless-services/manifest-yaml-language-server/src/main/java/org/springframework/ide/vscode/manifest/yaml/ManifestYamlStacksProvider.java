@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Pivotal, Inc.
+ * Copyright (c) 2017, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -18,8 +18,8 @@ import java.util.stream.Collectors;
 import org.springframework.ide.vscode.commons.cloudfoundry.client.CFStack;
 import org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget.CFTarget;
 import org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget.CFTargetCache;
+import org.springframework.ide.vscode.commons.cloudfoundry.client.cftarget.CFTargetSnapshotStore.Kind;
 import org.springframework.ide.vscode.commons.util.Renderable;
-import org.springframework.ide.vscode.commons.util.Renderables;
 import org.springframework.ide.vscode.commons.yaml.schema.BasicYValueHint;
 import org.springframework.ide.vscode.commons.yaml.schema.YValueHint;
 
@@ -40,7 +40,7 @@ public class ManifestYamlStacksProvider extends AbstractCFHintsProvider {
 		if (stacks == null) {
 			return Collections.emptyList();
 		} else {
-			Renderable targetLabel = Renderables.text(cfTarget.getLabel());
+			Renderable targetLabel = getTargetLabel(cfTarget, Kind.STACKS);
 			return stacks.stream()
 					.map(s -> new BasicYValueHint(s.getName(), s.getName()).setDocumentation(targetLabel))
 					.collect(Collectors.toList());
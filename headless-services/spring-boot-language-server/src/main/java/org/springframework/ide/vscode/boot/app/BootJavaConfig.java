@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2019 Pivotal, Inc.
+ * Copyright (c) 2017, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -32,6 +32,7 @@ public class BootJavaConfig implements InitializingBean {
 	
 	public static final boolean LIVE_INFORMATION_AUTOMATIC_TRACKING_ENABLED_DEFAULT = true;
 	public static final int LIVE_INFORMATION_AUTOMATIC_TRACKING_DELAY_DEFAULT = 5000;
+	public static final boolean LIVE_INFORMATION_AUTOMATIC_TRACKING_WATCH_PROCESSES_DEFAULT = true;
 	
 	public static final int LIVE_INFORMATION_FETCH_DATA_RETRY_MAX_NO_DEFAULT = 10;
 	public static final int LIVE_INFORMATION_FETCH_DATA_RETRY_DELAY_IN_SECONDS_DEFAULT = 3;
@@ -58,6 +59,11 @@ public class BootJavaConfig implements InitializingBean {
 		return delay != null ? delay.intValue() : LIVE_INFORMATION_AUTOMATIC_TRACKING_DELAY_DEFAULT;
 	}
 
+	public boolean isLiveInformationAutomaticTrackingWatchProcessesEnabled() {
+		Boolean enabled = settings.getBoolean("boot-java", "live-information", "automatic-tracking", "watch-processes");
+		return enabled != null ? enabled.booleanValue() : LIVE_INFORMATION_AUTOMATIC_TRACKING_WATCH_PROCESSES_DEFAULT;
+	}
+
 	public int getLiveInformationFetchDataMaxRetryCount() {
 		Integer delay = settings.getInt("boot-java", "live-information", "fetch-data", "max-retries");
 		return delay != null ? delay.intValue() : LIVE_INFORMATION_FETCH_DATA_RETRY_MAX_NO_DEFAULT;
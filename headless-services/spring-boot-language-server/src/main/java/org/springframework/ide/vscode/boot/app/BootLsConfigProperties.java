@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019 Pivotal, Inc.
+ * Copyright (c) 2019, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -42,4 +42,18 @@ public class BootLsConfigProperties {
 	public void setSymbolCacheEnabled(boolean symbolCacheEnabled) {
 		this.symbolCacheEnabled = symbolCacheEnabled;
 	}
+
+	/**
+	 * Enables or disables disk-based cache of type data for types
+	 * from jars looked up via JDT LS. This is enabled by default.
+	 */
+	private boolean typeCacheEnabled = true;
+
+	public boolean isTypeCacheEnabled() {
+		return typeCacheEnabled;
+	}
+
+	public void setTypeCacheEnabled(boolean typeCacheEnabled) {
+		this.typeCacheEnabled = typeCacheEnabled;
+	}
 }
@@ -61,6 +61,7 @@ import org.springframework.ide.vscode.boot.java.snippets.JavaSnippetManager;
 import org.springframework.ide.vscode.boot.java.utils.CompilationUnitCache;
 import org.springframework.ide.vscode.boot.java.utils.SpringLiveChangeDetectionWatchdog;
 import org.springframework.ide.vscode.boot.java.utils.SymbolCache;
+import org.springframework.ide.vscode.boot.java.value.PropertyReferencesIndex;
 import org.springframework.ide.vscode.boot.java.value.ValueCompletionProcessor;
 import org.springframework.ide.vscode.boot.java.value.ValueHoverProvider;
 import org.springframework.ide.vscode.boot.java.value.ValuePropertyReferencesProvider;
@@ -203,6 +204,7 @@ public class BootJavaLanguageServerComponents implements LanguageServerComponent
 			
 			// live information automatic process tracking
 			liveProcessTracker.setDelay(config.getLiveInformationAutomaticTrackingDelay());
+			liveProcessTracker.setWatchProcessDirectory(config.isLiveInformationAutomaticTrackingWatchProcessesEnabled());
 			liveProcessTracker.setTrackingEnabled(config.isLiveInformationAutomaticTrackingEnabled());
 
 			// live information data fetch params
@@ -367,7 +369,8 @@ public class BootJavaLanguageServerComponents implements LanguageServerComponent
 	protected ReferencesHandler createReferenceHandler(SimpleLanguageServer server, JavaProjectFinder projectFinder) {
 		Map<String, ReferenceProvider> providers = new HashMap<>();
 		providers.put(org.springframework.ide.vscode.boot.java.value.Constants.SPRING_VALUE,
-				new ValuePropertyReferencesProvider(server));
+				new ValuePropertyReferencesProvider(new PropertyReferencesIndex(projectFinder, projectObserver,
+						server.getWorkspaceService().getFileObserver())));
 
 		return new BootJavaReferencesHandler(this, projectFinder, providers);
 	}
@@ -37,12 +37,12 @@ import org.springframework.ide.vscode.boot.java.beans.BeanUtils;
 import org.springframework.ide.vscode.boot.java.handlers.HoverProvider;
 import org.springframework.ide.vscode.boot.java.links.SourceLinks;
 import org.springframework.ide.vscode.boot.java.livehover.ComponentInjectionsHoverProvider;
+import org.springframework.ide.vscode.boot.java.livehover.LiveBeanSupertypesIndex;
 import org.springframework.ide.vscode.boot.java.livehover.LiveHoverUtils;
 import org.springframework.ide.vscode.boot.java.livehover.v2.LiveBean;
 import org.springframework.ide.vscode.boot.java.livehover.v2.SpringProcessLiveData;
 import org.springframework.ide.vscode.boot.java.utils.ASTUtils;
 import org.springframework.ide.vscode.commons.java.IJavaProject;
-import org.springframework.ide.vscode.commons.java.IType;
 import org.springframework.ide.vscode.commons.util.BadLocationException;
 import org.springframework.ide.vscode.commons.util.StringUtil;
 import org.springframework.ide.vscode.commons.util.text.TextDocument;
@@ -169,7 +169,7 @@ public class AutowiredHoverProvider implements HoverProvider {
 
 			if (!allDependencyBeans.isEmpty()) {
 
-				List<LiveBean> autowiredBeans = findAutowiredBeans(project, declarationNode,
+				List<LiveBean> autowiredBeans = findAutowiredBeans(project, liveData, declarationNode,
 						allDependencyBeans);
 				if (autowiredBeans.isEmpty()) {
 					// Show all relevant dependency beans
@@ -183,32 +183,36 @@ public class AutowiredHoverProvider implements HoverProvider {
 		return Collections.emptyList();
 	}
 
+	public static List<LiveBean> findAutowiredBeans(IJavaProject project, SpringProcessLiveData liveData, ASTNode declarationNode, Collection<LiveBean> beans) {
+		return findAutowiredBeans(LiveBeanSupertypesIndex.get(project, liveData), declarationNode, beans);
+	}
+
 	@SuppressWarnings("unchecked")
-	public static List<LiveBean> findAutowiredBeans(IJavaProject project, ASTNode declarationNode, Collection<LiveBean> beans) {
+	private static List<LiveBean> findAutowiredBeans(LiveBeanSupertypesIndex supertypes, ASTNode declarationNode, Collection<LiveBean> beans) {
 		if (declarationNode instanceof MethodDeclaration) {
 			MethodDeclaration methodDeclaration = (MethodDeclaration)declarationNode;
 			return ((List<Object>)methodDeclaration.parameters()).stream()
 					.filter(p -> p instanceof SingleVariableDeclaration)
 					.map(p -> (SingleVariableDeclaration)p)
-					.flatMap(singleVariableDeclaration -> findAutowiredBeans(project, singleVariableDeclaration, beans).stream())
+					.flatMap(singleVariableDeclaration -> findAutowiredBeans(supertypes, singleVariableDeclaration, beans).stream())
 					.collect(Collectors.toList());
 		} else if (declarationNode instanceof FieldDeclaration) {
 			FieldDeclaration fieldDeclaration = (FieldDeclaration)declarationNode;
 			ITypeBinding fieldType = fieldDeclaration.getType().resolveBinding();
 			if (fieldType != null) {
-				return matchBeans(project, beans, fieldType, fieldDeclaration.modifiers());
+				return matchBeans(supertypes, beans, fieldType, fieldDeclaration.modifiers());
 			}
 		} else if (declarationNode instanceof SingleVariableDeclaration) {
 			SingleVariableDeclaration singleVariableDeclaration = (SingleVariableDeclaration)declarationNode;
 			ITypeBinding varType = singleVariableDeclaration.getType().resolveBinding();
 			if (varType != null) {
-				return matchBeans(project, beans, varType, singleVariableDeclaration.modifiers());
+				return matchBeans(supertypes, beans, varType, singleVariableDeclaration.modifiers());
 			}
 		}
 		return Collections.emptyList();
 	}
 
-	private static List<LiveBean> matchBeans(IJavaProject project, Collection<LiveBean> beans, ITypeBinding typeBinding, List<Object> modifiers) {
+	private static List<LiveBean> matchBeans(LiveBeanSupertypesIndex supertypes, Collection<LiveBean> beans, ITypeBinding typeBinding, List<Object> modifiers) {
 		Optional<String> beanId = ASTUtils.beanId(modifiers);
 		Collection<LiveBean> searchScope = beanId.isPresent() ?
 				beans.stream()
@@ -217,7 +221,7 @@ public class AutowiredHoverProvider implements HoverProvider {
 					.map(bean -> (Collection<LiveBean>) ImmutableList.of(bean))
 					.orElse(ImmutableList.of())
 				: beans;
-		return matchBeansByTypeOrCollection(project, searchScope, typeBinding);
+		return matchBeansByTypeOrCollection(supertypes, searchScope, typeBinding);
 	}
 
 	private static boolean isInstanceOfCollection(ITypeBinding typeBinding) {
@@ -237,44 +241,32 @@ public class AutowiredHoverProvider implements HoverProvider {
 		}
 	}
 
-	private static List<LiveBean> matchBeansByTypeOrCollection(IJavaProject project, Collection<LiveBean> beans, ITypeBinding type) {
+	private static List<LiveBean> matchBeansByTypeOrCollection(LiveBeanSupertypesIndex supertypes, Collection<LiveBean> beans, ITypeBinding type) {
 		if (isInstanceOfCollection(type)) {
 			// Raw collections shouldn't match any beans
-			return type.getTypeArguments().length == 1 ? matchBeansByType(project, beans, type.getTypeArguments()[0].getQualifiedName(), false) : ImmutableList.of();
+			return type.getTypeArguments().length == 1 ? matchBeansByType(supertypes, beans, type.getTypeArguments()[0].getQualifiedName(), false) : ImmutableList.of();
 		} else if (type.isArray() && type.getDimensions() == 1) {
-			return matchBeansByType(project, beans, type.getElementType().getErasure().getBinaryName(), false);
+			return matchBeansByType(supertypes, beans, type.getElementType().getErasure().getBinaryName(), false);
 		} else {
-			return matchBeansByType(project, beans, type.getErasure().getBinaryName(), true);
+			return matchBeansByType(supertypes, beans, type.getErasure().getBinaryName(), true);
 		}
 	}
 
-	private static List<LiveBean> matchBeansByType(IJavaProject project, Collection<LiveBean> beans, String fqName, boolean allowOneMatchOnly) {
+	private static List<LiveBean> matchBeansByType(LiveBeanSupertypesIndex supertypes, Collection<LiveBean> beans, String fqName, boolean allowOneMatchOnly) {
 		if (fqName != null) {
 			if (allowOneMatchOnly) {
-					List<LiveBean> matches = beans.stream().filter(b -> AutowiredHoverProvider.isCompatibleBeanType(project, b, fqName))
+					List<LiveBean> matches = beans.stream().filter(b -> supertypes.isCompatibleBeanType(b, fqName))
 							.limit(2).collect(Collectors.toList());
 					if (!matches.isEmpty()) {
 						return matches.size() == 1 ? matches : ImmutableList.of(LiveHoverUtils.CANT_MATCH_PROPER_BEAN);
 					}
 			} else {
-				return beans.stream().filter(b -> AutowiredHoverProvider.isCompatibleBeanType(project, b, fqName)).collect(Collectors.toList());
+				return beans.stream().filter(b -> supertypes.isCompatibleBeanType(b, fqName)).collect(Collectors.toList());
 			}
 		}
 		return ImmutableList.of();
 	}
 
-	private static boolean isCompatibleBeanType(IJavaProject jp, LiveBean bean, String bindingQualifiedName) {
-		String rawLiveBeanFqName = bean.getType(true);
-		int idx = rawLiveBeanFqName.indexOf('<');
-		// Trim the generic parameters part if it's present
-		String liveBeanTypeFQName = idx < 0 ? rawLiveBeanFqName : rawLiveBeanFqName.substring(0, idx);
-		if (liveBeanTypeFQName != null) {
-			return jp.getIndex().allSuperTypesOf(liveBeanTypeFQName, true, false).map(IType::getFullyQualifiedName)
-					.filter(fqn -> bindingQualifiedName.equals(fqn)).blockFirst() != null;
-		}
-		return false;
-	}
-
 	private LiveBean getDefinedBeanForTypeDeclaration(TypeDeclaration declaringType) {
 		if (declaringType != null) {
 			for (Annotation annotation : ASTUtils.getAnnotations(declaringType)) {
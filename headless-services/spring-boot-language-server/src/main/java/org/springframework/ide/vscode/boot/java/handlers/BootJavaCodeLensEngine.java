@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2018 Pivotal, Inc.
+ * Copyright (c) 2017, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,10 +13,15 @@ package org.springframework.ide.vscode.boot.java.handlers;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import org.eclipse.lsp4j.CodeLens;
 import org.eclipse.lsp4j.CodeLensParams;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.ide.vscode.boot.java.BootJavaLanguageServerComponents;
 import org.springframework.ide.vscode.commons.languageserver.util.CodeLensHandler;
 import org.springframework.ide.vscode.commons.languageserver.util.SimpleTextDocumentService;
@@ -27,16 +32,36 @@ import org.springframework.ide.vscode.commons.util.text.TextDocument;
  */
 public class BootJavaCodeLensEngine implements CodeLensHandler {
 
+	private static final Logger log = LoggerFactory.getLogger(BootJavaCodeLensEngine.class);
+
 	private final BootJavaLanguageServerComponents server;
+
+	/**
+	 * Providers walking the AST themselves
+	 */
 	private final Collection<CodeLensProvider> codelensProviders;
 
+	/**
+	 * Walks the AST once for all {@link NodeCodeLensProvider}s
+	 */
+	private final CodeLensDispatcher dispatcher;
+
 	public BootJavaCodeLensEngine(BootJavaLanguageServerComponents server, Collection<CodeLensProvider> codelensProviders) {
 		this.server = server;
-		this.codelensProviders = codelensProviders;
+		this.codelensProviders = new ArrayList<>();
+		List<NodeCodeLensProvider> nodeProviders = new ArrayList<>();
+		for (CodeLensProvider provider : codelensProviders) {
+			if (provider instanceof NodeCodeLensProvider) {
+				nodeProviders.add((NodeCodeLensProvider) provider);
+			} else {
+				this.codelensProviders.add(provider);
+			}
+		}
+		this.dispatcher = new CodeLensDispatcher(nodeProviders);
 	}
 
 	@Override
-	public List<? extends CodeLens> handle(CodeLensParams params) {
+	public List<? extends CodeLens> handle(CancelChecker cancelToken, CodeLensParams params) {
 		SimpleTextDocumentService documents = server.getTextDocumentService();
 		String docURI = params.getTextDocument().getUri();
 
@@ -45,12 +70,16 @@ public class BootJavaCodeLensEngine implements CodeLensHandler {
 			// Spring Boot LS get events from boot properties files as well, so filter them out
 			if (server.getInterestingLanguages().contains(doc.getLanguageId())) {
 				try {
-					List<? extends CodeLens> codeLensesResult = provideCodeLenses(doc);
+					List<? extends CodeLens> codeLensesResult = provideCodeLenses(cancelToken, doc);
 					if (codeLensesResult != null) {
 						return codeLensesResult;
 					}
 				}
+				catch (CancellationException e) {
+					throw e;
+				}
 				catch (Exception e) {
+					log.error("", e);
 				}
 			}
 		}
@@ -58,22 +87,39 @@ public class BootJavaCodeLensEngine implements CodeLensHandler {
 		return SimpleTextDocumentService.NO_CODELENS;
 	}
 
-	private List<? extends CodeLens> provideCodeLenses(TextDocument document) {
-		return server.getCompilationUnitCache().withCompilationUnit(document, cu -> {
+	private List<? extends CodeLens> provideCodeLenses(CancelChecker cancelToken, TextDocument document) {
+		long start = System.nanoTime();
+		List<CodeLens> result = new ArrayList<>();
 
+		cancelToken.checkCanceled();
+		Supplier<List<CodeLens>> dispatched = server.getCompilationUnitCache().withCompilationUnit(document, cu -> {
+			// Exceptions don't get out of here, providers are skipped once the request is canceled
 			if (cu != null) {
-				List<CodeLens> result = new ArrayList<>();
 				for (CodeLensProvider codeLensProvider : codelensProviders) {
+					if (cancelToken.isCanceled()) {
+						return null;
+					}
 					codeLensProvider.provideCodeLenses(document, cu, result);
 				}
-
-				if (result.size() > 0) {
-					return result;
-				}
+				return dispatcher.provideCodeLenses(cancelToken, document, cu);
 			}
-
 			return null;
 		});
+		long walked = System.nanoTime();
+		cancelToken.checkCanceled();
+
+		// Code lenses of node providers are computed without holding on to the AST
+		if (dispatched != null) {
+			result.addAll(dispatched.get());
+		}
+
+		if (log.isDebugEnabled()) {
+			long end = System.nanoTime();
+			log.debug("code lenses for '{}': {} in {}ms (AST {}ms)", document.getUri(), result.size(),
+					(end - start) / 1000000, (walked - start) / 1000000);
+		}
+
+		return result.isEmpty() ? null : result;
 	}
 
 	public CompletableFuture<CodeLens> resolveCodeLens(CodeLens unresolved) {
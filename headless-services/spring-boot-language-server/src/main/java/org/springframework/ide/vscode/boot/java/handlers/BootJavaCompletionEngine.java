@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2018 Pivotal, Inc.
+ * Copyright (c) 2017, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -19,10 +19,12 @@ import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.Annotation;
 import org.eclipse.jdt.core.dom.ITypeBinding;
 import org.eclipse.jdt.core.dom.NodeFinder;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 import org.springframework.ide.vscode.boot.java.BootJavaLanguageServerComponents;
 import org.springframework.ide.vscode.boot.java.snippets.JavaSnippetManager;
 import org.springframework.ide.vscode.commons.languageserver.completion.ICompletionEngine;
 import org.springframework.ide.vscode.commons.languageserver.completion.ICompletionProposal;
+import org.springframework.ide.vscode.commons.languageserver.util.RequestCancelChecker;
 import org.springframework.ide.vscode.commons.util.text.IDocument;
 import org.springframework.ide.vscode.commons.util.text.TextDocument;
 
@@ -43,21 +45,32 @@ public class BootJavaCompletionEngine implements ICompletionEngine {
 
 	@Override
 	public Collection<ICompletionProposal> getCompletions(TextDocument document, int offset) throws Exception {
-		return server.getCompilationUnitCache().withCompilationUnit(document, cu -> {
-			if (cu != null) {
+		return getCompletions(RequestCancelChecker.NONE, document, offset);
+	}
+
+	@Override
+	public Collection<ICompletionProposal> getCompletions(CancelChecker cancelToken, TextDocument document, int offset) throws Exception {
+		cancelToken.checkCanceled();
+		Collection<ICompletionProposal> result = server.getCompilationUnitCache().withCompilationUnit(document, cu -> {
+			// Exceptions don't get out of here, providers are skipped once the request is canceled
+			if (cu != null && !cancelToken.isCanceled()) {
 				ASTNode node = NodeFinder.perform(cu, offset, 0);
 
 				if (node != null) {
 					Collection<ICompletionProposal> completions = new ArrayList<ICompletionProposal>();
 					collectCompletionsForAnnotations(node, offset, document, completions);
-					collectCompletions(node, offset, document, completions);
-					snippets.getCompletions(document, offset, node, cu, completions);
+					collectCompletions(cancelToken, node, offset, document, completions);
+					if (!cancelToken.isCanceled()) {
+						snippets.getCompletions(document, offset, node, cu, completions);
+					}
 					return completions;
 				}
 			}
 
-			return Collections.emptyList();
+			return Collections.<ICompletionProposal>emptyList();
 		});
+		cancelToken.checkCanceled();
+		return result;
 	}
 
 	private void collectCompletionsForAnnotations(ASTNode node, int offset, IDocument doc, Collection<ICompletionProposal> completions) {
@@ -83,9 +96,12 @@ public class BootJavaCompletionEngine implements ICompletionEngine {
 		}
 	}
 
-	private void collectCompletions(ASTNode node, int offset, TextDocument document, Collection<ICompletionProposal> completions) {
+	private void collectCompletions(CancelChecker cancelToken, ASTNode node, int offset, TextDocument document, Collection<ICompletionProposal> completions) {
 		if (node != null) {
 			for (CompletionProvider completionProvider : this.completionProviders.values()) {
+				if (cancelToken.isCanceled()) {
+					return;
+				}
 				completionProvider.provideCompletions(node, offset, document, completions);
 			}
 		}
@@ -11,26 +11,24 @@
 package org.springframework.ide.vscode.boot.java.handlers;
 
 import java.net.URI;
-import java.util.Collection;
-import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.jdt.core.dom.ASTNode;
-import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.Annotation;
 import org.eclipse.jdt.core.dom.ITypeBinding;
-import org.eclipse.jdt.core.dom.MarkerAnnotation;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.NodeFinder;
-import org.eclipse.jdt.core.dom.NormalAnnotation;
 import org.eclipse.jdt.core.dom.SimpleName;
-import org.eclipse.jdt.core.dom.SingleMemberAnnotation;
 import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.lsp4j.CodeLens;
 import org.eclipse.lsp4j.Hover;
 import org.eclipse.lsp4j.HoverParams;
 import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,6 +40,7 @@ import org.springframework.ide.vscode.boot.java.utils.ASTUtils;
 import org.springframework.ide.vscode.commons.java.IJavaProject;
 import org.springframework.ide.vscode.commons.java.SpringProjectUtil;
 import org.springframework.ide.vscode.commons.languageserver.java.JavaProjectFinder;
+import org.springframework.ide.vscode.commons.languageserver.java.ProjectObserver;
 import org.springframework.ide.vscode.commons.languageserver.util.HoverHandler;
 import org.springframework.ide.vscode.commons.languageserver.util.SimpleTextDocumentService;
 import org.springframework.ide.vscode.commons.util.text.DocumentRegion;
@@ -62,16 +61,31 @@ public class BootJavaHoverProvider implements HoverHandler {
 	private final AnnotationHierarchyAwareLookup<HoverProvider> hoverProviders;
 	private final SpringProcessLiveDataProvider liveDataProvider;
 
+	/**
+	 * Live hover anchors per document URI, valid for the document version they have been collected for
+	 */
+	private final Map<String, LiveHoverAnchors> liveHoverAnchors = new ConcurrentHashMap<>();
+
 	public BootJavaHoverProvider(BootJavaLanguageServerComponents server, JavaProjectFinder projectFinder,
 			AnnotationHierarchyAwareLookup<HoverProvider> specificProviders, SpringProcessLiveDataProvider liveDataProvider) {
 		this.server = server;
 		this.projectFinder = projectFinder;
 		this.hoverProviders = specificProviders;
 		this.liveDataProvider = liveDataProvider;
+
+		SimpleTextDocumentService documents = server.getTextDocumentService();
+		documents.onDidChangeContent(params -> liveHoverAnchors.remove(params.getDocument().getUri()));
+		documents.onDidClose(doc -> liveHoverAnchors.remove(doc.getUri()));
+
+		ProjectObserver projectObserver = server.getProjectObserver();
+		if (projectObserver != null) {
+			// Annotation types may resolve differently with a changed classpath
+			projectObserver.addListener(ProjectObserver.onAny(project -> liveHoverAnchors.clear()));
+		}
 	}
 	
 	@Override
-	public Hover handle(HoverParams params) {
+	public Hover handle(CancelChecker cancelToken, HoverParams params) {
 		SimpleTextDocumentService documents = server.getTextDocumentService();
 		if (documents.get(params) != null) {
 			TextDocument doc = documents.get(params).copy();
@@ -79,11 +93,14 @@ public class BootJavaHoverProvider implements HoverHandler {
 			if (server.getInterestingLanguages().contains(doc.getLanguageId())) {
 				try {
 					int offset = doc.toOffset(params.getPosition());
-					Hover hoverResult = provideHover(doc, offset);
+					Hover hoverResult = provideHover(cancelToken, doc, offset);
 					if (hoverResult != null) {
 						return hoverResult;
 					}
 				}
+				catch (CancellationException e) {
+					throw e;
+				}
 				catch (Exception e) {
 				}
 			}
@@ -98,129 +115,54 @@ public class BootJavaHoverProvider implements HoverHandler {
 		if (processLiveData.length == 0) return new CodeLens[0];
 		if (project == null) return new CodeLens[0];
 
-		return server.getCompilationUnitCache().withCompilationUnit(project, URI.create(document.getUri()), cu -> {
-			Collection<CodeLens> result = new LinkedHashSet<>();
-			try {
-				if (cu != null) {
-					cu.accept(new ASTVisitor() {
-
-						@Override
-						public boolean visit(TypeDeclaration node) {
-							try {
-								extractLiveHintsForType(node, document, project, processLiveData, result);
-							}
-							catch (Exception e) {
-								logger.error("error extracting live hint information for docURI '" + document.getUri() + "' - on node: " + node.toString(), e);
-							}
-							return super.visit(node);
-						}
-
-						@Override
-						public boolean visit(SingleMemberAnnotation node) {
-							try {
-								extractLiveHintsForAnnotation(node, document, project, processLiveData, result);
-							} catch (Exception e) {
-								logger.error("error extracting live hint information for docURI '" + document.getUri() + "' - on node: " + node.toString(), e);
-							}
-
-							return super.visit(node);
-						}
-
-						@Override
-						public boolean visit(NormalAnnotation node) {
-							try {
-								extractLiveHintsForAnnotation(node, document, project, processLiveData, result);
-							} catch (Exception e) {
-								logger.error("error extracting live hint information for docURI '" + document.getUri() + "' - on node: " + node.toString(), e);
-							}
-
-							return super.visit(node);
-						}
-
-						@Override
-						public boolean visit(MarkerAnnotation node) {
-							try {
-								extractLiveHintsForAnnotation(node, document, project, processLiveData, result);
-							} catch (Exception e) {
-								logger.error("error extracting live hint information for docURI '" + document.getUri() + "' - on node: " + node.toString(), e);
-							}
-
-							return super.visit(node);
-						}
-
-						@Override
-						public boolean visit(MethodDeclaration node) {
-							try {
-								extractLiveHintsForMethod(node, document, project, processLiveData, result);
-							} catch (Exception e) {
-								logger.error("error extracting live hint information for docURI '" + document.getUri() + "' - on node: " + node.toString(), e);
-							}
-
-							return super.visit(node);
-						}
+		String uri = document.getUri();
+		int version = document.getVersion();
 
+		LiveHoverAnchors cachedAnchors = liveHoverAnchors.get(uri);
+		if (cachedAnchors != null && cachedAnchors.getVersion() == version && cachedAnchors.isEmpty()) {
+			return new CodeLens[0];
+		}
 
-					});
+		return server.getCompilationUnitCache().withCompilationUnit(project, URI.create(uri), cu -> {
+			try {
+				if (cu != null) {
+					LiveHoverAnchors anchors = cachedAnchors;
+					if (anchors == null || anchors.getVersion() != version) {
+						anchors = LiveHoverAnchors.create(cu, version, hoverProviders);
+						liveHoverAnchors.put(uri, anchors);
+					}
+					return anchors.evaluate(cu, document, project, processLiveData);
 				}
 			} catch (Exception e) {
-				logger.error("error extracting live hint information for docURI '" + document.getUri(), e);
+				logger.error("error extracting live hint information for docURI '" + uri, e);
 			}
-			return result.toArray(new CodeLens[result.size()]);
+			return new CodeLens[0];
 		});
 	}
 
-	protected void extractLiveHintsForMethod(MethodDeclaration methodDeclaration, TextDocument doc, IJavaProject project,
-			SpringProcessLiveData[] processLiveData, Collection<CodeLens> result) {
-		Collection<HoverProvider> providers = this.hoverProviders.getAll();
-		for (HoverProvider provider : providers) {
-			Collection<CodeLens> hints = provider.getLiveHintCodeLenses(project, methodDeclaration, doc, processLiveData);
-			if (hints!=null) {
-				result.addAll(hints);
-			}
-		}
-	}
-
-	protected void extractLiveHintsForType(TypeDeclaration typeDeclaration, TextDocument doc, IJavaProject project,
-			SpringProcessLiveData[] processLiveData, Collection<CodeLens> result) {
-		Collection<HoverProvider> providers = this.hoverProviders.getAll();
-		for (HoverProvider provider : providers) {
-			Collection<CodeLens> hints = provider.getLiveHintCodeLenses(project, typeDeclaration, doc, processLiveData);
-			if (hints!=null) {
-				result.addAll(hints);
-			}
-		}
-	}
-
-	protected void extractLiveHintsForAnnotation(Annotation annotation, TextDocument doc, IJavaProject project,
-			SpringProcessLiveData[] processLiveData, Collection<CodeLens> result) {
-		ITypeBinding type = annotation.resolveTypeBinding();
-		if (type != null) {
-			for (HoverProvider provider : this.hoverProviders.get(type)) {
-				Collection<CodeLens> hints = provider.getLiveHintCodeLenses(project, annotation, doc, processLiveData);
-				if (hints!=null) {
-					result.addAll(hints);
-				}
-			}
-		}
-	}
-
-	private Hover provideHover(TextDocument document, int offset) throws Exception {
+	private Hover provideHover(CancelChecker cancelToken, TextDocument document, int offset) throws Exception {
 		final SpringProcessLiveData[] processLiveData = this.liveDataProvider.getLatestLiveData();
 
 		IJavaProject project = getProject(document).orElse(null);
 		if (project != null) {
-			return server.getCompilationUnitCache().withCompilationUnit(project, URI.create(document.getUri()), cu -> {
-				ASTNode node = NodeFinder.perform(cu, offset, 0);
-				if (node != null) {
-					return provideHover(node, offset, document, project, processLiveData);
+			cancelToken.checkCanceled();
+			Hover hover = server.getCompilationUnitCache().withCompilationUnit(project, URI.create(document.getUri()), cu -> {
+				// Exceptions don't get out of here, providers are skipped once the request is canceled
+				if (cu != null && !cancelToken.isCanceled()) {
+					ASTNode node = NodeFinder.perform(cu, offset, 0);
+					if (node != null) {
+						return provideHover(cancelToken, node, offset, document, project, processLiveData);
+					}
 				}
 				return null;
 			});
+			cancelToken.checkCanceled();
+			return hover;
 		}
 		return null;
 	}
 
-	private Hover provideHover(ASTNode node, int offset, TextDocument doc, IJavaProject project, SpringProcessLiveData[] processLiveData) {
+	private Hover provideHover(CancelChecker cancelToken, ASTNode node, int offset, TextDocument doc, IJavaProject project, SpringProcessLiveData[] processLiveData) {
 
 		// look for spring annotations first
 		ASTNode annotationNode = node;
@@ -228,27 +170,30 @@ public class BootJavaHoverProvider implements HoverHandler {
 			annotationNode = annotationNode.getParent();
 		}
 		if (annotationNode != null) {
-			return provideHoverForAnnotation(node, (Annotation) annotationNode, offset, doc, project, processLiveData);
+			return provideHoverForAnnotation(cancelToken, node, (Annotation) annotationNode, offset, doc, project, processLiveData);
 		}
 
 		// then do additional AST node coverage
 		if (node instanceof SimpleName) {
 			ASTNode parent = node.getParent();
 			if (parent instanceof TypeDeclaration) {
-				return provideHoverForTypeDeclaration(node, (TypeDeclaration) parent, offset, doc, project, processLiveData);
+				return provideHoverForTypeDeclaration(cancelToken, node, (TypeDeclaration) parent, offset, doc, project, processLiveData);
 			} else if (parent instanceof MethodDeclaration) {
-				return provideHoverForMethodDeclaration((MethodDeclaration) parent, offset, doc, project, processLiveData);
+				return provideHoverForMethodDeclaration(cancelToken, (MethodDeclaration) parent, offset, doc, project, processLiveData);
 			} else if (parent instanceof SingleVariableDeclaration && parent.getParent() instanceof MethodDeclaration) {
-				return provideHoverForMethodParameter((SingleVariableDeclaration) parent, offset, doc, project, processLiveData);
+				return provideHoverForMethodParameter(cancelToken, (SingleVariableDeclaration) parent, offset, doc, project, processLiveData);
 			}
 		}
 		return null;
 	}
 
-	private Hover provideHoverForMethodParameter(SingleVariableDeclaration parameter, int offset, TextDocument doc,
+	private Hover provideHoverForMethodParameter(CancelChecker cancelToken, SingleVariableDeclaration parameter, int offset, TextDocument doc,
 			IJavaProject project, SpringProcessLiveData[] processLiveData) {
 		if (processLiveData.length > 0) {
 			for (HoverProvider provider : this.hoverProviders.getAll()) {
+				if (cancelToken.isCanceled()) {
+					return null;
+				}
 				Hover hover = provider.provideMethodParameterHover(parameter, offset, doc, project, processLiveData);
 				if (hover != null) {
 					return hover;
@@ -258,10 +203,13 @@ public class BootJavaHoverProvider implements HoverHandler {
 		return null;
 	}
 
-	private Hover provideHoverForMethodDeclaration(MethodDeclaration methodDeclaration, int offset, TextDocument doc,
+	private Hover provideHoverForMethodDeclaration(CancelChecker cancelToken, MethodDeclaration methodDeclaration, int offset, TextDocument doc,
 			IJavaProject project, SpringProcessLiveData[] processLiveData) {
 		if (processLiveData.length > 0) {
 			for (HoverProvider provider : this.hoverProviders.getAll()) {
+				if (cancelToken.isCanceled()) {
+					return null;
+				}
 				Hover hover = provider.provideHover(methodDeclaration, offset, doc, project, processLiveData);
 				if (hover != null) {
 					//TODO: compose multiple hovers somehow instead of just returning the first one?
@@ -272,7 +220,7 @@ public class BootJavaHoverProvider implements HoverHandler {
 		return null;
 	}
 
-	private Hover provideHoverForAnnotation(ASTNode exactNode, Annotation annotation, int offset, TextDocument doc, IJavaProject project,
+	private Hover provideHoverForAnnotation(CancelChecker cancelToken, ASTNode exactNode, Annotation annotation, int offset, TextDocument doc, IJavaProject project,
 			SpringProcessLiveData[] processLiveData) {
 		ITypeBinding type = annotation.resolveTypeBinding();
 		if (type != null) {
@@ -281,6 +229,9 @@ public class BootJavaHoverProvider implements HoverHandler {
 			if (processLiveData.length > 0) {
 
 				for (HoverProvider provider : this.hoverProviders.get(type)) {
+					if (cancelToken.isCanceled()) {
+						return null;
+					}
 					Hover hover = provider.provideHover(exactNode, annotation, type, offset, doc, project, processLiveData);
 					if (hover != null) {
 						logger.debug("Hover found: "+hover);
@@ -302,12 +253,15 @@ public class BootJavaHoverProvider implements HoverHandler {
 		return null;
 	}
 
-	private Hover provideHoverForTypeDeclaration(ASTNode exactNode, TypeDeclaration typeDeclaration, int offset, TextDocument doc,
+	private Hover provideHoverForTypeDeclaration(CancelChecker cancelToken, ASTNode exactNode, TypeDeclaration typeDeclaration, int offset, TextDocument doc,
 			IJavaProject project, SpringProcessLiveData[] processLiveData) {
 		if (processLiveData.length > 0) {
 			ITypeBinding type = typeDeclaration.resolveBinding();
 
 			for (HoverProvider provider : this.hoverProviders.getAll()) {
+				if (cancelToken.isCanceled()) {
+					return null;
+				}
 				Hover hover = provider.provideHover(exactNode, typeDeclaration, type, offset, doc, project, processLiveData);
 				if (hover!=null) {
 					//TODO: compose multiple hovers somehow instead of just returning the first one?
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.handlers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.lsp4j.CodeLens;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ide.vscode.commons.languageserver.util.RequestCancelChecker;
+import org.springframework.ide.vscode.commons.util.text.TextDocument;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Walks the AST of a document once for all {@link NodeCodeLensProvider}s handing each node over to the
+ * collectors of the providers interested in the type of the node.
+ * <p>
+ * After the walk each provider computes the code lenses of the document once, on the requesting thread.
+ *
+ * @author Alex Boyko
+ */
+public class CodeLensDispatcher {
+
+	private static final Logger log = LoggerFactory.getLogger(CodeLensDispatcher.class);
+
+	private final Collection<NodeCodeLensProvider> providers;
+
+	/**
+	 * Providers by concrete node class, computed the first time a node of the class is visited
+	 */
+	private final Map<Class<?>, List<NodeCodeLensProvider>> providersByNodeClass = new ConcurrentHashMap<>();
+
+	/**
+	 * @param providers providers looked up by the type of the node
+	 */
+	public CodeLensDispatcher(Collection<NodeCodeLensProvider> providers) {
+		this.providers = providers;
+	}
+
+	/**
+	 * Walks the AST handing nodes over to the providers. Needs to be called while the AST is locked.
+	 *
+	 * @return code lenses of all providers, computed when requested. Doesn't access the AST
+	 *         and should be called after the AST has been released.
+	 */
+	public Supplier<List<CodeLens>> provideCodeLenses(TextDocument document, CompilationUnit cu) {
+		return provideCodeLenses(RequestCancelChecker.NONE, document, cu);
+	}
+
+	/**
+	 * Like {@link #provideCodeLenses(TextDocument, CompilationUnit)} for a request that may be canceled.
+	 * The walk stops once the request is canceled, the supplier then fails with a
+	 * {@link java.util.concurrent.CancellationException} instead of computing the code lenses.
+	 */
+	public Supplier<List<CodeLens>> provideCodeLenses(CancelChecker cancelToken, TextDocument document, CompilationUnit cu) {
+		Map<NodeCodeLensProvider, NodeCodeLensProvider.Collector> collectors = new LinkedHashMap<>();
+
+		cu.accept(new ASTVisitor() {
+			@Override
+			public boolean preVisit2(ASTNode node) {
+				if (cancelToken.isCanceled()) {
+					return false;
+				}
+				for (NodeCodeLensProvider provider : getProviders(node)) {
+					try {
+						collectors.computeIfAbsent(provider, p -> p.createCollector(document)).visit(node);
+					}
+					catch (Exception e) {
+						log.error("", e);
+					}
+				}
+				return true;
+			}
+		});
+
+		return () -> {
+			List<CodeLens> result = new ArrayList<>();
+			for (NodeCodeLensProvider.Collector collector : collectors.values()) {
+				cancelToken.checkCanceled();
+				try {
+					Collection<CodeLens> codeLenses = collector.computeCodeLenses();
+					if (codeLenses != null) {
+						result.addAll(codeLenses);
+					}
+				}
+				catch (Exception e) {
+					log.error("", e);
+				}
+			}
+			return result;
+		};
+	}
+
+	private List<NodeCodeLensProvider> getProviders(ASTNode node) {
+		return providersByNodeClass.computeIfAbsent(node.getClass(), this::findProviders);
+	}
+
+	private List<NodeCodeLensProvider> findProviders(Class<?> nodeClass) {
+		ImmutableList.Builder<NodeCodeLensProvider> interested = ImmutableList.builder();
+		for (NodeCodeLensProvider provider : providers) {
+			for (Class<? extends ASTNode> nodeType : provider.getNodeTypes()) {
+				if (nodeType.isAssignableFrom(nodeClass)) {
+					interested.add(provider);
+					break;
+				}
+			}
+		}
+		return interested.build();
+	}
+
+}
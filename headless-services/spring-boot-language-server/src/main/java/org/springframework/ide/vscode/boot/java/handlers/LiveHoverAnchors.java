@@ -0,0 +1,263 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.handlers;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.Annotation;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.MarkerAnnotation;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.NormalAnnotation;
+import org.eclipse.jdt.core.dom.SingleMemberAnnotation;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.lsp4j.CodeLens;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ide.vscode.boot.java.annotations.AnnotationHierarchyAwareLookup;
+import org.springframework.ide.vscode.boot.java.livehover.v2.SpringProcessLiveData;
+import org.springframework.ide.vscode.commons.java.IJavaProject;
+import org.springframework.ide.vscode.commons.util.text.TextDocument;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Places of a Java document live hover code lenses can be shown for: type and method declarations if
+ * there are hover providers with live hints for them and annotations together with the hover providers
+ * for the resolved annotation type.
+ * <p>
+ * Anchors are collected walking the AST of a document version once. Anchors keep offsets rather than
+ * AST nodes, such that they can be kept around between live data changes. Evaluating anchors against
+ * new live data resolves the nodes of all anchors by their start offset in a single walk of the current
+ * AST and asks just the providers of the anchor for code lenses. Documents without anchors don't need
+ * an AST at all.
+ *
+ * @author Alex Boyko
+ */
+public class LiveHoverAnchors {
+
+	private static final Logger logger = LoggerFactory.getLogger(LiveHoverAnchors.class);
+
+	private enum Kind {
+		TYPE,
+		METHOD,
+		ANNOTATION
+	}
+
+	private static class Anchor {
+
+		final Kind kind;
+		final int start;
+		final int length;
+		final Collection<HoverProvider> providers;
+
+		Anchor(Kind kind, ASTNode node, Collection<HoverProvider> providers) {
+			this.kind = kind;
+			this.start = node.getStartPosition();
+			this.length = node.getLength();
+			this.providers = providers;
+		}
+
+	}
+
+	private final int version;
+	private final List<Anchor> anchors;
+
+	/**
+	 * Anchors by kind and start offset. A type or method declaration starts at the same offset as its
+	 * first annotation, but there is only one anchor of each kind per offset.
+	 */
+	private final Map<Kind, Map<Integer, Anchor>> anchorsByStart = new EnumMap<>(Kind.class);
+
+	private LiveHoverAnchors(int version, List<Anchor> anchors) {
+		this.version = version;
+		this.anchors = anchors;
+		for (Anchor anchor : anchors) {
+			anchorsByStart.computeIfAbsent(anchor.kind, kind -> new HashMap<>()).put(anchor.start, anchor);
+		}
+	}
+
+	/**
+	 * Collects anchors walking the AST of the document version
+	 */
+	public static LiveHoverAnchors create(CompilationUnit cu, int version, AnnotationHierarchyAwareLookup<HoverProvider> hoverProviders) {
+		ImmutableList.Builder<Anchor> anchors = ImmutableList.builder();
+		Collection<HoverProvider> typeProviders = providersWithLiveHints(hoverProviders, TypeDeclaration.class);
+		Collection<HoverProvider> methodProviders = providersWithLiveHints(hoverProviders, MethodDeclaration.class);
+
+		cu.accept(new ASTVisitor() {
+
+			@Override
+			public boolean visit(TypeDeclaration node) {
+				if (!typeProviders.isEmpty()) {
+					anchors.add(new Anchor(Kind.TYPE, node, typeProviders));
+				}
+				return super.visit(node);
+			}
+
+			@Override
+			public boolean visit(MethodDeclaration node) {
+				if (!methodProviders.isEmpty()) {
+					anchors.add(new Anchor(Kind.METHOD, node, methodProviders));
+				}
+				return super.visit(node);
+			}
+
+			@Override
+			public boolean visit(SingleMemberAnnotation node) {
+				addAnnotation(node);
+				return super.visit(node);
+			}
+
+			@Override
+			public boolean visit(NormalAnnotation node) {
+				addAnnotation(node);
+				return super.visit(node);
+			}
+
+			@Override
+			public boolean visit(MarkerAnnotation node) {
+				addAnnotation(node);
+				return super.visit(node);
+			}
+
+			private void addAnnotation(Annotation node) {
+				ITypeBinding type = node.resolveTypeBinding();
+				if (type != null) {
+					Collection<HoverProvider> providers = hoverProviders.get(type);
+					if (!providers.isEmpty()) {
+						anchors.add(new Anchor(Kind.ANNOTATION, node, providers));
+					}
+				}
+			}
+
+		});
+
+		return new LiveHoverAnchors(version, anchors.build());
+	}
+
+	/**
+	 * @return providers implementing live hint code lenses for the given kind of declaration
+	 */
+	private static Collection<HoverProvider> providersWithLiveHints(AnnotationHierarchyAwareLookup<HoverProvider> hoverProviders, Class<? extends ASTNode> declarationType) {
+		ImmutableList.Builder<HoverProvider> providers = ImmutableList.builder();
+		for (HoverProvider provider : hoverProviders.getAll()) {
+			try {
+				Method method = provider.getClass().getMethod("getLiveHintCodeLenses", IJavaProject.class, declarationType, TextDocument.class, SpringProcessLiveData[].class);
+				if (method.getDeclaringClass() != HoverProvider.class) {
+					providers.add(provider);
+				}
+			} catch (NoSuchMethodException e) {
+				// Can't happen, the interface declares the method
+			}
+		}
+		return providers.build();
+	}
+
+	/**
+	 * @return version of the document the anchors have been collected for
+	 */
+	public int getVersion() {
+		return version;
+	}
+
+	public boolean isEmpty() {
+		return anchors.isEmpty();
+	}
+
+	/**
+	 * Computes the code lenses for the anchors from the given live data.
+	 *
+	 * @param cu AST of the document version the anchors have been collected for
+	 */
+	public CodeLens[] evaluate(CompilationUnit cu, TextDocument doc, IJavaProject project, SpringProcessLiveData[] processLiveData) {
+		if (anchors.isEmpty()) {
+			return new CodeLens[0];
+		}
+		Collection<CodeLens> result = new LinkedHashSet<>();
+
+		cu.accept(new ASTVisitor() {
+
+			@Override
+			public boolean visit(TypeDeclaration node) {
+				evaluate(Kind.TYPE, node);
+				return super.visit(node);
+			}
+
+			@Override
+			public boolean visit(MethodDeclaration node) {
+				evaluate(Kind.METHOD, node);
+				return super.visit(node);
+			}
+
+			@Override
+			public boolean visit(SingleMemberAnnotation node) {
+				evaluate(Kind.ANNOTATION, node);
+				return super.visit(node);
+			}
+
+			@Override
+			public boolean visit(NormalAnnotation node) {
+				evaluate(Kind.ANNOTATION, node);
+				return super.visit(node);
+			}
+
+			@Override
+			public boolean visit(MarkerAnnotation node) {
+				evaluate(Kind.ANNOTATION, node);
+				return super.visit(node);
+			}
+
+			private void evaluate(Kind kind, ASTNode node) {
+				Map<Integer, Anchor> byStart = anchorsByStart.get(kind);
+				Anchor anchor = byStart == null ? null : byStart.get(node.getStartPosition());
+				if (anchor != null && anchor.length == node.getLength()) {
+					try {
+						for (HoverProvider provider : anchor.providers) {
+							Collection<CodeLens> hints = getLiveHintCodeLenses(provider, kind, node, doc, project, processLiveData);
+							if (hints != null) {
+								result.addAll(hints);
+							}
+						}
+					}
+					catch (Exception e) {
+						logger.error("error extracting live hint information for docURI '" + doc.getUri() + "' - on node: " + node.toString(), e);
+					}
+				}
+			}
+
+		});
+
+		return result.toArray(new CodeLens[result.size()]);
+	}
+
+	private static Collection<CodeLens> getLiveHintCodeLenses(HoverProvider provider, Kind kind, ASTNode node, TextDocument doc,
+			IJavaProject project, SpringProcessLiveData[] processLiveData) {
+		switch (kind) {
+		case TYPE:
+			return provider.getLiveHintCodeLenses(project, (TypeDeclaration) node, doc, processLiveData);
+		case METHOD:
+			return provider.getLiveHintCodeLenses(project, (MethodDeclaration) node, doc, processLiveData);
+		default:
+			return provider.getLiveHintCodeLenses(project, (Annotation) node, doc, processLiveData);
+		}
+	}
+
+}
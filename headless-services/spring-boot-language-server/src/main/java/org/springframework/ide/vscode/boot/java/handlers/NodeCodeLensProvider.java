@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.handlers;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.lsp4j.CodeLens;
+import org.springframework.ide.vscode.commons.util.text.TextDocument;
+
+/**
+ * Code lens provider interested in particular nodes of the AST rather than walking the AST itself.
+ * Nodes are handed over to the provider by the {@link CodeLensDispatcher} walking the AST once for all
+ * providers.
+ * <p>
+ * For each document the provider creates a {@link Collector} that reads what it needs from the nodes
+ * while the AST is locked. The code lenses are computed once per document after the walk, the computation
+ * must not access the AST anymore.
+ *
+ * @author Alex Boyko
+ */
+public interface NodeCodeLensProvider extends CodeLensProvider {
+
+	/**
+	 * Collects the nodes of a single document and computes the code lenses for them
+	 */
+	interface Collector {
+
+		/**
+		 * Called for each node of one of the node types of the provider while the AST is locked
+		 */
+		void visit(ASTNode node);
+
+		/**
+		 * Called once after the AST has been walked, must not access the AST
+		 */
+		Collection<CodeLens> computeCodeLenses();
+
+	}
+
+	/**
+	 * @return types of the nodes the provider is interested in, subtypes of the node types included
+	 */
+	default Collection<Class<? extends ASTNode>> getNodeTypes() {
+		return Collections.emptyList();
+	}
+
+	/**
+	 * @return collector of the nodes of the document
+	 */
+	Collector createCollector(TextDocument document);
+
+	@Override
+	default void provideCodeLenses(TextDocument document, CompilationUnit cu, List<CodeLens> resultAccumulator) {
+		resultAccumulator.addAll(new CodeLensDispatcher(Collections.singletonList(this)).provideCodeLenses(document, cu).get());
+	}
+
+}
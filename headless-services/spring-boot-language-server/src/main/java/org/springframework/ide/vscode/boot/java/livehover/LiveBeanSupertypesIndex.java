@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.livehover;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ide.vscode.boot.java.livehover.v2.LiveBean;
+import org.springframework.ide.vscode.boot.java.livehover.v2.SpringProcessLiveData;
+import org.springframework.ide.vscode.commons.java.IJavaProject;
+import org.springframework.ide.vscode.commons.java.IType;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Supertypes of live bean types looked up in the classpath index of a project. Each bean type is looked
+ * up only once for a given project and live data of a process, subsequent type compatibility checks for
+ * beans of that type are answered from memory.
+ * <p>
+ * Indexes are kept per live data instance, hence are dropped once the live data gets refreshed.
+ *
+ * @author Alex Boyko
+ *
+ */
+public class LiveBeanSupertypesIndex {
+
+	private static final Logger log = LoggerFactory.getLogger(LiveBeanSupertypesIndex.class);
+
+	private static final Cache<SpringProcessLiveData, Cache<IJavaProject, LiveBeanSupertypesIndex>> indexes = CacheBuilder.newBuilder()
+			.weakKeys()
+			.build();
+
+	public static LiveBeanSupertypesIndex get(IJavaProject project, SpringProcessLiveData liveData) {
+		try {
+			return indexes.get(liveData, () -> CacheBuilder.newBuilder().weakKeys().<IJavaProject, LiveBeanSupertypesIndex>build())
+					.get(project, () -> new LiveBeanSupertypesIndex(project));
+		} catch (ExecutionException e) {
+			log.error("", e);
+			return new LiveBeanSupertypesIndex(project);
+		}
+	}
+
+	private final IJavaProject project;
+	private final Cache<String, Set<String>> supertypes;
+
+	public LiveBeanSupertypesIndex(IJavaProject project) {
+		this.project = project;
+		this.supertypes = CacheBuilder.newBuilder().build();
+	}
+
+	/**
+	 * @return <code>true</code> if the type of the bean is the given type or a subtype of it
+	 */
+	public boolean isCompatibleBeanType(LiveBean bean, String fqName) {
+		String beanType = getBeanTypeName(bean);
+		return beanType != null && getSupertypes(beanType).contains(fqName);
+	}
+
+	/**
+	 * @return fully qualified names of the type and all its supertypes
+	 */
+	public Set<String> getSupertypes(String fqName) {
+		try {
+			return supertypes.get(fqName, () -> {
+				List<String> types = project.getIndex().allSuperTypesOf(fqName, true, false)
+						.map(IType::getFullyQualifiedName)
+						.collectList()
+						.block();
+				return types == null ? ImmutableSet.of() : ImmutableSet.copyOf(types);
+			});
+		} catch (ExecutionException e) {
+			log.error("", e);
+			return ImmutableSet.of();
+		}
+	}
+
+	public long size() {
+		return supertypes.size();
+	}
+
+	private static String getBeanTypeName(LiveBean bean) {
+		String rawLiveBeanFqName = bean.getType(true);
+		if (rawLiveBeanFqName == null) {
+			return null;
+		}
+		int idx = rawLiveBeanFqName.indexOf('<');
+		// Trim the generic parameters part if it's present
+		return idx < 0 ? rawLiveBeanFqName : rawLiveBeanFqName.substring(0, idx);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2019 Pivotal, Inc.
+ * Copyright (c) 2017, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -205,7 +205,7 @@ public class LiveHoverUtils {
 		method.parameters().forEach(p -> {
 			if (p instanceof SingleVariableDeclaration) {
 				SingleVariableDeclaration parameter = (SingleVariableDeclaration) p;
-				List<LiveBean> parameterMatchingBean = AutowiredHoverProvider.findAutowiredBeans(project, parameter, wiredBeans);
+				List<LiveBean> parameterMatchingBean = AutowiredHoverProvider.findAutowiredBeans(project, liveData, parameter, wiredBeans);
 				if (parameterMatchingBean.size() == 0) {
 					log.warn("No Live Bean matching parameter `" + parameter.getName().getIdentifier() + " for method " + method);
 				} else {
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.livehover.v2;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches the hsperfdata directory of the current user for JVMs coming and going.
+ * Every local JVM that can be attached to creates a file named after its PID in
+ * that directory, so changes to it are a cheap indicator that the result of
+ * <code>VirtualMachine.list()</code> might have changed.
+ *
+ * @author Martin Lippert
+ */
+public class HsPerfDataWatcher {
+
+	private static final Logger log = LoggerFactory.getLogger(HsPerfDataWatcher.class);
+
+	/**
+	 * time to wait after a change event before reporting it, new JVMs create their hsperfdata
+	 * file very early and are not ready to be attached to right away, additional events for
+	 * other JVMs that arrive in the meantime are reported together
+	 */
+	private static final long SETTLE_DELAY = 500;
+
+	private final Path directory;
+	private final WatchService watchService;
+
+	private volatile boolean valid;
+
+	private HsPerfDataWatcher(Path directory, WatchService watchService) {
+		this.directory = directory;
+		this.watchService = watchService;
+		this.valid = true;
+	}
+
+	/**
+	 * @return the watcher for the hsperfdata directory of the current user, or null if that directory
+	 * does not exist or cannot be watched (in which case clients should fall back to polling)
+	 */
+	public static HsPerfDataWatcher create() {
+		return create(getHsPerfDataDirectory());
+	}
+
+	public static HsPerfDataWatcher create(Path directory) {
+		if (directory == null || !Files.isDirectory(directory)) {
+			return null;
+		}
+
+		try {
+			WatchService watchService = FileSystems.getDefault().newWatchService();
+			directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE);
+			return new HsPerfDataWatcher(directory, watchService);
+		}
+		catch (IOException | UnsupportedOperationException e) {
+			log.info("cannot watch hsperfdata directory " + directory + ", falling back to polling", e);
+			return null;
+		}
+	}
+
+	public static Path getHsPerfDataDirectory() {
+		String tmpDir = System.getProperty("java.io.tmpdir");
+		String userName = System.getProperty("user.name");
+		if (tmpDir == null || userName == null) {
+			return null;
+		}
+		return Paths.get(tmpDir, "hsperfdata_" + userName);
+	}
+
+	public Path getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Blocks until a JVM got started or terminated or the timeout elapsed.
+	 *
+	 * @return true if the directory changed, false if the timeout elapsed without a change
+	 */
+	public boolean awaitChange(long timeout, TimeUnit unit) throws InterruptedException {
+		WatchKey key = watchService.poll(timeout, unit);
+		if (key == null) {
+			return false;
+		}
+
+		boolean changed = drain(key);
+
+		Thread.sleep(SETTLE_DELAY);
+		while ((key = watchService.poll()) != null) {
+			changed |= drain(key);
+		}
+
+		return changed;
+	}
+
+	private boolean drain(WatchKey key) {
+		// overflow events are counted as well, events got lost in that case and something most likely changed
+		boolean changed = !key.pollEvents().isEmpty();
+		if (!key.reset()) {
+			log.info("hsperfdata directory " + directory + " no longer accessible, stop watching it");
+			valid = false;
+		}
+		return changed;
+	}
+
+	/**
+	 * @return false if the watched directory went away, clients should fall back to polling in that case
+	 */
+	public boolean isValid() {
+		return valid;
+	}
+
+	public void close() {
+		try {
+			watchService.close();
+		}
+		catch (IOException e) {
+			log.error("error closing hsperfdata watcher", e);
+		}
+	}
+
+}
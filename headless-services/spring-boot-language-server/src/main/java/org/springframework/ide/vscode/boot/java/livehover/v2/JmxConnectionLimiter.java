@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.livehover.v2;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+/**
+ * Limits the JMX work of the live process connectors. The number of connection attempts and live
+ * data refreshes that run at the same time is limited across all processes, retries of failed
+ * attempts are spread out.
+ * <p>
+ * Connections are not shared: each connector holds one connection to its process, and nothing
+ * else talks to the process over JMX.
+ *
+ * @author Martin Lippert
+ */
+public class JmxConnectionLimiter {
+
+	public static final int MAX_CONCURRENT_OPERATIONS_DEFAULT = 4;
+
+	private static final String JMX_CLIENT_CONNECTION_CHECK_PERIOD_PROPERTY_KEY = "jmx.remote.x.client.connection.check.period";
+	private static final long JMX_HEARTBEAT_INTERVAL = 1000;
+
+	private static final long MAX_RETRY_DELAY = 30000;
+	private static final int MAX_RETRY_DELAY_EXPONENT = 10;
+
+	private final Semaphore permits;
+	private final Metrics metrics;
+	private final Random random;
+
+	public JmxConnectionLimiter() {
+		this(MAX_CONCURRENT_OPERATIONS_DEFAULT);
+	}
+
+	public JmxConnectionLimiter(int maxConcurrentOperations) {
+		this.permits = new Semaphore(maxConcurrentOperations, true);
+		this.metrics = new Metrics();
+		this.random = new Random();
+	}
+
+	/**
+	 * Opens a new connection to the given JMX URL as soon as the limit of concurrently running operations allows it.
+	 */
+	public JMXConnector connect(String jmxURL) throws Exception {
+		return withPermit(() -> openConnection(jmxURL));
+	}
+
+	/**
+	 * Runs the given operation as soon as the global limit of concurrently running operations allows it.
+	 */
+	public <T> T withPermit(Callable<T> operation) throws Exception {
+		permits.acquire();
+		try {
+			return operation.call();
+		}
+		finally {
+			permits.release();
+		}
+	}
+
+	/**
+	 * Computes the delay before the next retry using exponential backoff with jitter, so that
+	 * retries for many processes that failed at the same time do not happen at the same time again.
+	 *
+	 * @return the delay in milliseconds
+	 */
+	public long getRetryDelay(long baseDelay, int retryNo) {
+		long delay = Math.min(MAX_RETRY_DELAY, baseDelay << Math.min(Math.max(retryNo - 1, 0), MAX_RETRY_DELAY_EXPONENT));
+		delay = Math.max(delay, baseDelay);
+		return delay / 2 + (long) (random.nextDouble() * (delay / 2));
+	}
+
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	private JMXConnector openConnection(String jmxURL) throws Exception {
+		long start = System.nanoTime();
+		try {
+			Map<String, Object> environment = new HashMap<>();
+			environment.put(JMX_CLIENT_CONNECTION_CHECK_PERIOD_PROPERTY_KEY, Long.valueOf(JMX_HEARTBEAT_INTERVAL));
+			JMXConnector connector = JMXConnectorFactory.connect(new JMXServiceURL(jmxURL), environment);
+
+			metrics.connected(System.nanoTime() - start);
+			return connector;
+		}
+		catch (Exception e) {
+			metrics.failed();
+			throw e;
+		}
+	}
+
+	/**
+	 * Connection statistics
+	 */
+	public static class Metrics {
+
+		private final AtomicLong connects = new AtomicLong();
+		private final AtomicLong failures = new AtomicLong();
+		private final AtomicLong totalConnectLatency = new AtomicLong();
+		private final AtomicLong maxConnectLatency = new AtomicLong();
+
+		void connected(long latencyNanos) {
+			connects.incrementAndGet();
+			totalConnectLatency.addAndGet(latencyNanos);
+			maxConnectLatency.accumulateAndGet(latencyNanos, Math::max);
+		}
+
+		void failed() {
+			failures.incrementAndGet();
+		}
+
+		public long getConnectCount() {
+			return connects.get();
+		}
+
+		public long getFailureCount() {
+			return failures.get();
+		}
+
+		public long getAverageConnectLatency(TimeUnit unit) {
+			long count = connects.get();
+			return count == 0 ? 0 : unit.convert(totalConnectLatency.get() / count, TimeUnit.NANOSECONDS);
+		}
+
+		public long getMaxConnectLatency(TimeUnit unit) {
+			return unit.convert(maxConnectLatency.get(), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public String toString() {
+			return "JMX connections [connects=" + getConnectCount() + ", failures=" + getFailureCount()
+					+ ", avgLatencyMs=" + getAverageConnectLatency(TimeUnit.MILLISECONDS)
+					+ ", maxLatencyMs=" + getMaxConnectLatency(TimeUnit.MILLISECONDS) + "]";
+		}
+	}
+
+}
@@ -42,18 +42,36 @@ public class SpringProcessConnectorLocal {
 	
 	private static final String LOCAL_CONNECTOR_ADDRESS = "com.sun.management.jmxremote.localConnectorAddress";
 	
+	/**
+	 * number of attempts to attach to a process before it is ignored, a JVM might not accept attach requests
+	 * right after it started but some never do (other user, attach mechanism disabled)
+	 */
+	public static final int MAX_ATTACH_ATTEMPTS = 5;
+	
 
 	private final Map<String, Boolean> projects;
 	private final Set<SpringProcessDescriptor> processes;
 	
+	/**
+	 * process IDs of local JVMs that will never be auto-connected (ignored processes, processes
+	 * without project information and processes that could not be attached to within
+	 * MAX_ATTACH_ATTEMPTS), kept to avoid attaching to them again when projects change.
+	 * Processes that could not be attached to yet keep the status UNKNOWN and are looked at again
+	 * with the next update instead.
+	 */
+	private final Set<String> ignoredProcessIDs;
+	
 	private final SpringProcessConnectorService processConnectorService;
 	
 	private boolean projectsChanged;
+	private volatile boolean processesChanged;
 	
 	public SpringProcessConnectorLocal(SpringProcessConnectorService processConnector, ProjectObserver projectObserver) {
 		this.projects = new ConcurrentHashMap<>();
 		this.processes = Collections.synchronizedSet(new HashSet<>());
+		this.ignoredProcessIDs = ConcurrentHashMap.newKeySet();
 		this.projectsChanged = false;
+		this.processesChanged = false;
 		
 		this.processConnectorService = processConnector;
 
@@ -94,15 +112,23 @@ public class SpringProcessConnectorLocal {
 	
 	public SpringProcessDescriptor[] getProcesses(boolean update, SpringProcessStatus... status) {
 		if (update) {
-			SpringProcessDescriptor[] newProcesses = updateProcesses();
+			updateProcesses();
 			if (this.projectsChanged) {
 				this.projectsChanged = false;
 
 				SpringProcessDescriptor[] allProcesses = this.processes.toArray(new SpringProcessDescriptor[this.processes.size()]);
-				updateStatus(allProcesses);
+				updateStatus(Arrays.stream(allProcesses)
+						.filter(process -> !ignoredProcessIDs.contains(process.getProcessID()))
+						.toArray(SpringProcessDescriptor[]::new));
+				processesChanged = true;
 			}
 			else {
-				updateStatus(newProcesses);
+				// new processes and processes that could not be attached to before
+				SpringProcessDescriptor[] allProcesses = this.processes.toArray(new SpringProcessDescriptor[this.processes.size()]);
+				updateStatus(Arrays.stream(allProcesses)
+						.filter(process -> process.getStatus() == SpringProcessStatus.UNKNOWN)
+						.filter(process -> !ignoredProcessIDs.contains(process.getProcessID()))
+						.toArray(SpringProcessDescriptor[]::new));
 			}
 		}
 		
@@ -116,10 +142,11 @@ public class SpringProcessConnectorLocal {
 	}
 
 	public SpringProcessDescriptor[] updateProcesses() {
-		List<VirtualMachineDescriptor> currentVms = VirtualMachine.list();
+		List<VirtualMachineDescriptor> currentVms = listVirtualMachines();
 		Set<String> currentVMKeys = new HashSet<>();
 		
 		List<SpringProcessDescriptor> newProcesses = new ArrayList<>();
+		boolean removedProcesses = false;
 
 		for (VirtualMachineDescriptor vm : currentVms) {
 			
@@ -148,13 +175,21 @@ public class SpringProcessConnectorLocal {
 			String processKey = processDescriptor.getProcessKey();
 			if (!currentVMKeys.contains(processKey)) {
 				i.remove();
+				ignoredProcessIDs.remove(processDescriptor.getProcessID());
 				processConnectorService.disconnectProcess(processKey);
+				removedProcesses = true;
 			}
 		}
 		
+		this.processesChanged = removedProcesses || !newProcesses.isEmpty();
+		
 		return (SpringProcessDescriptor[]) newProcesses.toArray(new SpringProcessDescriptor[newProcesses.size()]);
 	}
 	
+	protected List<VirtualMachineDescriptor> listVirtualMachines() {
+		return VirtualMachine.list();
+	}
+	
 	private void updateStatus(SpringProcessDescriptor[] processes) {
 		if (processes != null && processes.length > 0) {
 			List<CompletableFuture<Void>> futures = new ArrayList<>();
@@ -170,9 +205,30 @@ public class SpringProcessConnectorLocal {
 			catch (Exception e) {
 				log.info("timeout or problem occured while updating the status of the new processes");
 			}
+			
+			for (SpringProcessDescriptor process : processes) {
+				if (isIgnoredForever(process)) {
+					ignoredProcessIDs.add(process.getProcessID());
+				}
+			}
 		}
 	}
 	
+	private boolean isIgnoredForever(SpringProcessDescriptor process) {
+		SpringProcessStatus status = process.getStatus();
+		return status == SpringProcessStatus.IGNORE
+				|| (status == SpringProcessStatus.REGULAR && process.getProjectName() == null)
+				|| (status == SpringProcessStatus.UNKNOWN && process.getStatusUpdates() >= MAX_ATTACH_ATTEMPTS);
+	}
+	
+	/**
+	 * @return true if the last update of the processes found new or terminated processes
+	 * or re-evaluated the process status because projects changed
+	 */
+	public boolean hasProcessesChanged() {
+		return processesChanged;
+	}
+	
 	public void connectProcess(SpringProcessDescriptor descriptor) {
 		VirtualMachine vm = null;
 		VirtualMachineDescriptor vmDescriptor = descriptor.getVm();
@@ -201,7 +257,8 @@ public class SpringProcessConnectorLocal {
 				String urlScheme = "http";
 				
 				SpringProcessConnectorOverJMX connector = new SpringProcessConnectorOverJMX(
-						descriptor.getProcessKey(), jmxAddress, urlScheme, processID, processName, descriptor.getProjectName(), null, null);
+						descriptor.getProcessKey(), jmxAddress, urlScheme, processID, processName, descriptor.getProjectName(), null, null,
+						processConnectorService.getConnectionLimiter());
 
 				this.processConnectorService.connectProcess(descriptor.getProcessKey(), connector);
 			}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019 Pivotal, Inc.
+ * Copyright (c) 2019, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,16 +10,13 @@
  *******************************************************************************/
 package org.springframework.ide.vscode.boot.java.livehover.v2;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.management.Notification;
 import javax.management.NotificationListener;
 import javax.management.remote.JMXConnectionNotification;
 import javax.management.remote.JMXConnector;
-import javax.management.remote.JMXConnectorFactory;
 import javax.management.remote.JMXServiceURL;
 
 import org.slf4j.Logger;
@@ -32,14 +29,12 @@ public class SpringProcessConnectorOverJMX implements SpringProcessConnector {
 
 	private static final Logger log = LoggerFactory.getLogger(SpringProcessConnectorOverJMX.class);
 
-	private static final String JMX_CLIENT_CONNECTION_CHECK_PERIOD_PROPERTY_KEY = "jmx.remote.x.client.connection.check.period";
-	private static final long JMX_HEARTBEAT_INTERVAL = 1000;
-
 	private final String processKey;
 	private final String jmxURL;
 	private final String urlScheme;
 	private final String port;
 	private final String projectName;
+	private final JmxConnectionLimiter connectionLimiter;
 	
 	// not final, might be updated with data from JMX process, if not initially set
 	private String processID;
@@ -54,9 +49,11 @@ public class SpringProcessConnectorOverJMX implements SpringProcessConnector {
 	private final NotificationListener notificationListener;
 
 	public SpringProcessConnectorOverJMX(String processKey, String jmxURL,
-			String urlScheme, String processID, String processName, String projectName, String host, String port) {
+			String urlScheme, String processID, String processName, String projectName, String host, String port,
+			JmxConnectionLimiter connectionLimiter) {
 
 		this.processKey = processKey;
+		this.connectionLimiter = connectionLimiter;
 
 		this.jmxURL = jmxURL;
 		this.urlScheme = urlScheme;
@@ -78,7 +75,10 @@ public class SpringProcessConnectorOverJMX implements SpringProcessConnector {
 				
 				if (JMXConnectionNotification.CLOSED.equals(notificationType)) {
 					try {
-						jmxConnection.removeConnectionNotificationListener(notificationListener);
+						JMXConnector closedConnection = jmxConnection;
+						if (closedConnection != null) {
+							closedConnection.removeConnectionNotificationListener(notificationListener);
+						}
 						jmxConnection = null;
 					}
 					catch (Exception e) {
@@ -99,10 +99,7 @@ public class SpringProcessConnectorOverJMX implements SpringProcessConnector {
 	public void connect() throws Exception {
 		jmxServiceURL = new JMXServiceURL(jmxURL);
 		
-		Map<String, Object> environment = new HashMap<>();
-		environment.put(JMX_CLIENT_CONNECTION_CHECK_PERIOD_PROPERTY_KEY, new Long(JMX_HEARTBEAT_INTERVAL));
-		jmxConnection = JMXConnectorFactory.connect(jmxServiceURL, environment);
-		
+		jmxConnection = connectionLimiter.connect(jmxURL);
 		jmxConnection.addConnectionNotificationListener(notificationListener, null, null);
 	}
 
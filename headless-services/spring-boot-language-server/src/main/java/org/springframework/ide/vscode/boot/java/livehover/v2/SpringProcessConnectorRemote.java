@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019 Pivotal, Inc.
+ * Copyright (c) 2019, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -227,7 +227,8 @@ public class SpringProcessConnectorRemote {
 		String urlScheme = remoteProcess.getUrlScheme();
 //		boolean keepChecking = _appData.isKeepChecking();
 		
-		SpringProcessConnectorOverJMX connector = new SpringProcessConnectorOverJMX(processKey, jmxURL, urlScheme, processID, processName, null, host, port);
+		SpringProcessConnectorOverJMX connector = new SpringProcessConnectorOverJMX(processKey, jmxURL, urlScheme, processID, processName, null, host, port,
+				processConnectorService.getConnectionLimiter());
 		processConnectorService.connectProcess(processKey, connector);
 	}
 	
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.springframework.ide.vscode.boot.java.livehover.v2;
 
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -34,8 +35,10 @@ public class SpringProcessConnectorService {
 	private final SpringProcessLiveDataProvider liveDataProvider;
 
 	private final ScheduledThreadPoolExecutor scheduler;
+	private final JmxConnectionLimiter connectionLimiter;
 	private final ConcurrentMap<String, SpringProcessConnector> connectors;
 	private final ConcurrentMap<String, Boolean> connectedSuccess;
+	private final Set<String> refreshesScheduled;
 
 	private final SpringProcessConnectionChangeListener connectorListener;
 
@@ -50,8 +53,10 @@ public class SpringProcessConnectorService {
 	public SpringProcessConnectorService(SimpleLanguageServer server, SpringProcessLiveDataProvider liveDataProvider) {
 		this.liveDataProvider = liveDataProvider;
 		this.scheduler = new ScheduledThreadPoolExecutor(10);
+		this.connectionLimiter = new JmxConnectionLimiter();
 		this.connectors = new ConcurrentHashMap<>();
 		this.connectedSuccess = new ConcurrentHashMap<>();
+		this.refreshesScheduled = ConcurrentHashMap.newKeySet();
 		
 		this.progressService = server.getProgressService();
 		if (this.progressService == null) {
@@ -79,6 +84,10 @@ public class SpringProcessConnectorService {
 		this.retryDelayInSeconds = retryDelayInSeconds;
 	}
 	
+	public JmxConnectionLimiter getConnectionLimiter() {
+		return connectionLimiter;
+	}
+	
 	public void connectProcess(String processKey, SpringProcessConnector connector) {
 		log.info("connect to process: " + processKey);
 
@@ -103,6 +112,11 @@ public class SpringProcessConnectorService {
 		
 		SpringProcessConnector connector = this.connectors.get(processKey);
 		if (connector != null) {
+			if (!refreshesScheduled.add(processKey)) {
+				log.info("refresh already scheduled for process: " + processKey);
+				return;
+			}
+
 			final ProgressTask progressTask = getProgressTask(
 					"spring-process-connector-service-refresh-data-" + processKey);
 			
@@ -119,6 +133,8 @@ public class SpringProcessConnectorService {
 		this.connectedSuccess.put(processKey, false);
 		
 		if (connector != null) {
+			log.debug("jmx connections: {}", connectionLimiter.getMetrics());
+
 			final ProgressTask progressTask = getProgressTask(
 					"spring-process-connector-service-disconnect-" + processKey);
 			
@@ -159,7 +175,7 @@ public class SpringProcessConnectorService {
 				log.info("problem occured during process connect", e);
 
 				if (retryNo < maxRetryCount) {
-					scheduleConnect(progressTask, processKey, connector, retryDelayInSeconds, TimeUnit.SECONDS, retryNo + 1);
+					scheduleConnect(progressTask, processKey, connector, getRetryDelay(retryNo + 1), TimeUnit.MILLISECONDS, retryNo + 1);
 				} else {
 					progressTask.progressDone();
 					
@@ -186,7 +202,7 @@ public class SpringProcessConnectorService {
 				log.info("problem occured during process disconnect", e);
 
 				if (retryNo < maxRetryCount) {
-					scheduleDisconnect(progressTask, processKey, connector, retryDelayInSeconds, TimeUnit.SECONDS, retryNo + 1);
+					scheduleDisconnect(progressTask, processKey, connector, getRetryDelay(retryNo + 1), TimeUnit.MILLISECONDS, retryNo + 1);
 				} else {
 					progressTask.progressDone();
 					
@@ -206,9 +222,12 @@ public class SpringProcessConnectorService {
 		
 		this.scheduler.schedule(() -> {
 			
+			// further refresh requests need to fetch data again from here on
+			refreshesScheduled.remove(processKey);
+
 			try {
 				progressTask.progressEvent(progressMessage);
-				SpringProcessLiveData newLiveData = connector.refresh();
+				SpringProcessLiveData newLiveData = connectionLimiter.withPermit(connector::refresh);
 
 				if (newLiveData != null) {
 					if (!this.liveDataProvider.add(processKey, newLiveData)) {
@@ -224,7 +243,7 @@ public class SpringProcessConnectorService {
 				log.info("problem occured during process live data refresh", e);
 				
 				if (retryNo < maxRetryCount) {
-					scheduleRefresh(progressTask, processKey, connector, retryDelayInSeconds, TimeUnit.SECONDS,
+					scheduleRefresh(progressTask, processKey, connector, getRetryDelay(retryNo + 1), TimeUnit.MILLISECONDS,
 							retryNo + 1);
 				}
 				else {
@@ -240,6 +259,10 @@ public class SpringProcessConnectorService {
 		}, delay, unit);
 	}
 	
+	private long getRetryDelay(int retryNo) {
+		return connectionLimiter.getRetryDelay(TimeUnit.SECONDS.toMillis(retryDelayInSeconds), retryNo);
+	}
+
 	private ProgressTask getProgressTask(String prefixId) {
 		return this.progressService.createProgressTask(prefixId + progressIdKey++);
 	}
@@ -57,6 +57,7 @@ public class SpringProcessDescriptor {
 	
 	private SpringProcessStatus status;
 	private String projectName;
+	private volatile int statusUpdates;
 	
 	public SpringProcessDescriptor(String processKey, String processID, String processName, VirtualMachineDescriptor vm) {
 		this.processKey = processKey;
@@ -87,6 +88,13 @@ public class SpringProcessDescriptor {
 		return this.status;
 	}
 
+	/**
+	 * @return number of times the status of this process has been updated, that is, how often attaching to it has been tried
+	 */
+	public int getStatusUpdates() {
+		return statusUpdates;
+	}
+
 	@Override
 	public int hashCode() {
 		return processKey.hashCode();
@@ -110,6 +118,7 @@ public class SpringProcessDescriptor {
 	}
 
 	public CompletableFuture<Void> updateStatus(Predicate<String> projectIsKnown, Predicate<String> projectHasActuators) {
+		statusUpdates++;
 		return CompletableFuture.supplyAsync(() -> {
 			this.status = checkStatus(projectIsKnown, projectHasActuators);
 			return null;
@@ -119,7 +128,15 @@ public class SpringProcessDescriptor {
 	private SpringProcessStatus checkStatus(Predicate<String> projectIsKnown, Predicate<String> projectHasActuators) {
 		VirtualMachine vm = null;
 		try {
-			vm = VirtualMachine.attach(this.getVm());
+			try {
+				vm = VirtualMachine.attach(this.getVm());
+			}
+			catch (Exception e) {
+				// a JVM that just started might not accept attach requests yet, look at it again later
+				log.debug("cannot attach to vm: " + this.getVm().id(), e);
+				return SpringProcessStatus.UNKNOWN;
+			}
+
 			if (shouldIgnore(this.getVm(), vm)) {
 				return SpringProcessStatus.IGNORE;
 			}
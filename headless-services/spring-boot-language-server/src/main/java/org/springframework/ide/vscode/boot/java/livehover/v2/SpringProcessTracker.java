@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019 Pivotal, Inc.
+ * Copyright (c) 2019, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,10 +10,12 @@
  *******************************************************************************/
 package org.springframework.ide.vscode.boot.java.livehover.v2;
 
+import java.nio.file.ClosedWatchServiceException;
 import java.time.Duration;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -28,14 +30,22 @@ public class SpringProcessTracker {
 
 	private static final long DELAY_MINIMUM = 1000;
 	
+	/**
+	 * the polling delay gets doubled each time nothing changed, up to this factor of the configured delay
+	 */
+	private static final long DELAY_MAXIMUM_BACKOFF_FACTOR = 8;
+	
 	private static final Logger log = LoggerFactory.getLogger(SpringProcessTracker.class);
 
 	private final SpringProcessConnectorLocal localProcessConnector;
 	private final boolean isConnectorAvailable;
 
 	private boolean automaticTrackingEnabled;
+	private boolean watchProcessDirectory;
 	private Duration POLLING_INTERVAL;
 	private ScheduledThreadPoolExecutor timer;
+	private HsPerfDataWatcher watcher;
+	private volatile long currentDelay;
 	
 	private Set<String> processesAlreadySeen;
 
@@ -43,6 +53,7 @@ public class SpringProcessTracker {
 		this.localProcessConnector = localProcessConnector;
 		this.POLLING_INTERVAL = pollingInterval != null ? pollingInterval : Duration.ofMillis(BootJavaConfig.LIVE_INFORMATION_AUTOMATIC_TRACKING_DELAY_DEFAULT);
 		this.automaticTrackingEnabled = false;
+		this.watchProcessDirectory = BootJavaConfig.LIVE_INFORMATION_AUTOMATIC_TRACKING_WATCH_PROCESSES_DEFAULT;
 		this.processesAlreadySeen = new HashSet<>();
 		
 		this.isConnectorAvailable = SpringProcessConnectorLocal.isAvailable();
@@ -73,6 +84,21 @@ public class SpringProcessTracker {
 		}
 	}
 
+	/**
+	 * enables or disables the event-driven discovery of local processes, watching the hsperfdata directory
+	 * instead of only polling the list of local virtual machines
+	 */
+	public synchronized void setWatchProcessDirectory(boolean watchProcessDirectory) {
+		if (this.watchProcessDirectory != watchProcessDirectory) {
+			this.watchProcessDirectory = watchProcessDirectory;
+
+			if (automaticTrackingEnabled) {
+				stop();
+				start();
+			}
+		}
+	}
+
 	public synchronized void start() {
 		if (!isConnectorAvailable) {
 			log.error("virtual machine connector library not available, no automatic local process tracking possible");
@@ -82,7 +108,17 @@ public class SpringProcessTracker {
 		if (automaticTrackingEnabled && timer == null) {
 			log.info("Starting SpringProcessTracker");
 			this.timer = new ScheduledThreadPoolExecutor(1);
-			this.timer.scheduleWithFixedDelay(() -> this.update(), 0, POLLING_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+			this.timer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+			this.watcher = watchProcessDirectory ? HsPerfDataWatcher.create() : null;
+			this.currentDelay = POLLING_INTERVAL.toMillis();
+
+			if (watcher != null) {
+				log.info("watching " + watcher.getDirectory() + " for local processes");
+			}
+
+			ScheduledThreadPoolExecutor executor = this.timer;
+			HsPerfDataWatcher processWatcher = this.watcher;
+			executor.execute(() -> trackingCycle(executor, processWatcher));
 		}
 	}
 
@@ -92,9 +128,53 @@ public class SpringProcessTracker {
 			timer.shutdown();
 			timer = null;
 		}
+		if (watcher != null) {
+			watcher.close();
+			watcher = null;
+		}
+	}
+
+	private void trackingCycle(ScheduledThreadPoolExecutor executor, HsPerfDataWatcher processWatcher) {
+		boolean changed = update();
+
+		currentDelay = nextDelay(currentDelay, POLLING_INTERVAL.toMillis(), changed);
+
+		try {
+			if (processWatcher != null && processWatcher.isValid()) {
+				executor.execute(() -> awaitChangeAndTrack(executor, processWatcher));
+			}
+			else {
+				executor.schedule(() -> trackingCycle(executor, processWatcher), currentDelay, TimeUnit.MILLISECONDS);
+			}
+		}
+		catch (RejectedExecutionException e) {
+			// tracker got stopped in the meantime
+		}
 	}
 
-	private void update() {
+	/**
+	 * @return the delay before looking at the local processes again, back to the polling interval
+	 * if the processes changed, otherwise twice the current delay up to the maximum backoff
+	 */
+	public static long nextDelay(long currentDelay, long interval, boolean changed) {
+		return changed ? interval : Math.min(currentDelay * 2, interval * DELAY_MAXIMUM_BACKOFF_FACTOR);
+	}
+
+	private void awaitChangeAndTrack(ScheduledThreadPoolExecutor executor, HsPerfDataWatcher processWatcher) {
+		try {
+			// still look at the list of processes from time to time, not every JVM shows up in the watched directory
+			processWatcher.awaitChange(currentDelay, TimeUnit.MILLISECONDS);
+			trackingCycle(executor, processWatcher);
+		}
+		catch (InterruptedException | ClosedWatchServiceException e) {
+			// tracker got stopped in the meantime
+		}
+	}
+
+	/**
+	 * @return true if the list of local processes changed
+	 */
+	private boolean update() {
 		try {
 			SpringProcessDescriptor[] autoConnectProcesses = this.localProcessConnector.getProcesses(true, SpringProcessStatus.AUTO_CONNECT);
 			
@@ -119,9 +199,12 @@ public class SpringProcessTracker {
 					iter.remove();
 				}
 			}
+			
+			return this.localProcessConnector.hasProcessesChanged();
 		}
 		catch (Throwable e) {
 			log.error("error searching for local processes", e);
+			return false;
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2019 Pivotal, Inc.
+ * Copyright (c) 2018, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,24 +10,33 @@
  *******************************************************************************/
 package org.springframework.ide.vscode.boot.java.requestmapping;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
-import org.eclipse.jdt.core.dom.ASTVisitor;
-import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.IMethodBinding;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.lsp4j.CodeLens;
 import org.eclipse.lsp4j.Command;
 import org.springframework.ide.vscode.boot.app.SpringSymbolIndex;
-import org.springframework.ide.vscode.boot.java.handlers.CodeLensProvider;
+import org.springframework.ide.vscode.boot.java.handlers.NodeCodeLensProvider;
 import org.springframework.ide.vscode.boot.java.handlers.SymbolAddOnInformation;
 import org.springframework.ide.vscode.commons.util.BadLocationException;
 import org.springframework.ide.vscode.commons.util.text.TextDocument;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ListMultimap;
+
 /**
  * @author Martin Lippert
  */
-public class WebfluxHandlerCodeLensProvider implements CodeLensProvider {
+public class WebfluxHandlerCodeLensProvider implements NodeCodeLensProvider {
+
+	private static final Collection<Class<? extends ASTNode>> NODE_TYPES = ImmutableList.of(MethodDeclaration.class);
 
 	private final SpringSymbolIndex springIndexer;
 
@@ -36,64 +45,127 @@ public class WebfluxHandlerCodeLensProvider implements CodeLensProvider {
 	}
 
 	@Override
-	public void provideCodeLenses(TextDocument document, CompilationUnit cu, List<CodeLens> resultAccumulator) {
-		cu.accept(new ASTVisitor() {
+	public Collection<Class<? extends ASTNode>> getNodeTypes() {
+		return NODE_TYPES;
+	}
+
+	@Override
+	public Collector createCollector(TextDocument document) {
+		return new Collector() {
+
+			private final List<HandlerMethod> methods = new ArrayList<>();
+
+			@Override
+			public void visit(ASTNode node) {
+				HandlerMethod method = HandlerMethod.of((MethodDeclaration) node);
+				if (method != null) {
+					methods.add(method);
+				}
+			}
+
 			@Override
-			public boolean visit(MethodDeclaration node) {
-				provideCodeLens(node, document, resultAccumulator);
-				return super.visit(node);
+			public Collection<CodeLens> computeCodeLenses() {
+				return methods.isEmpty() ? null : provideCodeLenses(document, methods);
 			}
-		});
+		};
 	}
 
-	protected void provideCodeLens(MethodDeclaration node, TextDocument document, List<CodeLens> resultAccumulator) {
-		IMethodBinding methodBinding = node.resolveBinding();
-
-		if (methodBinding != null && methodBinding.getDeclaringClass() != null && methodBinding.getMethodDeclaration() != null
-				&& methodBinding.getDeclaringClass().getBinaryName() != null && methodBinding.getMethodDeclaration().toString() != null) {
+	/**
+	 * Looks up the handler information of all methods of the document with a single pass over the index
+	 */
+	protected Collection<CodeLens> provideCodeLenses(TextDocument document, List<HandlerMethod> methods) {
+		Set<String> handlerClasses = new HashSet<>();
+		for (HandlerMethod method : methods) {
+			handlerClasses.add(method.handlerClass);
+		}
 
-			final String handlerClass = methodBinding.getDeclaringClass().getBinaryName().trim();
-			final String handlerMethod = methodBinding.getMethodDeclaration().toString().trim();
+		List<SymbolAddOnInformation> handlerInfos = this.springIndexer.getAllAdditionalInformation((addon) -> {
+			if (addon instanceof WebfluxHandlerInformation) {
+				WebfluxHandlerInformation handlerInfo = (WebfluxHandlerInformation) addon;
+				return handlerInfo.getHandlerClass() != null && handlerClasses.contains(handlerInfo.getHandlerClass())
+						&& handlerInfo.getHandlerMethod() != null;
+			}
+			return false;
+		});
 
-			List<SymbolAddOnInformation> handlerInfos = this.springIndexer.getAllAdditionalInformation((addon) -> {
-				if (addon instanceof WebfluxHandlerInformation) {
-					WebfluxHandlerInformation handlerInfo = (WebfluxHandlerInformation) addon;
-					return handlerInfo.getHandlerClass() != null && handlerInfo.getHandlerClass().equals(handlerClass)
-							&& handlerInfo.getHandlerMethod() != null && handlerInfo.getHandlerMethod().equals(handlerMethod);
-				}
-				return false;
-			});
+		if (handlerInfos == null || handlerInfos.isEmpty()) {
+			return null;
+		}
 
-			if (handlerInfos != null && handlerInfos.size() > 0) {
-				for (Object object : handlerInfos) {
-					try {
-						WebfluxHandlerInformation handlerInfo = (WebfluxHandlerInformation) object;
+		ImmutableListMultimap.Builder<String, WebfluxHandlerInformation> builder = ImmutableListMultimap.builder();
+		for (SymbolAddOnInformation addon : handlerInfos) {
+			WebfluxHandlerInformation handlerInfo = (WebfluxHandlerInformation) addon;
+			builder.put(handlerKey(handlerInfo.getHandlerClass(), handlerInfo.getHandlerMethod()), handlerInfo);
+		}
+		ListMultimap<String, WebfluxHandlerInformation> handlerInfosByMethod = builder.build();
 
-						CodeLens codeLens = new CodeLens();
-						codeLens.setRange(document.toRange(node.getName().getStartPosition(), node.getName().getLength()));
+		List<CodeLens> resultAccumulator = new ArrayList<>();
+		for (HandlerMethod method : methods) {
+			for (WebfluxHandlerInformation handlerInfo : handlerInfosByMethod.get(handlerKey(method.handlerClass, method.handlerMethod))) {
+				try {
+					CodeLens codeLens = new CodeLens();
+					codeLens.setRange(document.toRange(method.nameStart, method.nameLength));
 
-						String httpMethod = WebfluxUtils.getStringRep(handlerInfo.getHttpMethods(), string -> string);
-						String codeLensCommand = httpMethod != null ? httpMethod + " " : "";
+					String httpMethod = WebfluxUtils.getStringRep(handlerInfo.getHttpMethods(), string -> string);
+					String codeLensCommand = httpMethod != null ? httpMethod + " " : "";
 
-						codeLensCommand += handlerInfo.getPath();
+					codeLensCommand += handlerInfo.getPath();
 
-						String acceptType = WebfluxUtils.getStringRep(handlerInfo.getAcceptTypes(), WebfluxUtils::getMediaType);
-						codeLensCommand += acceptType != null ? " - Accept: " + acceptType : "";
+					String acceptType = WebfluxUtils.getStringRep(handlerInfo.getAcceptTypes(), WebfluxUtils::getMediaType);
+					codeLensCommand += acceptType != null ? " - Accept: " + acceptType : "";
 
-						String contentType = WebfluxUtils.getStringRep(handlerInfo.getContentTypes(), WebfluxUtils::getMediaType);
-						codeLensCommand += contentType != null ? " - Content-Type: " + contentType : "";
-						
-						Command cmd = new Command();
-						cmd.setTitle(codeLensCommand);
-						codeLens.setCommand(cmd);
+					String contentType = WebfluxUtils.getStringRep(handlerInfo.getContentTypes(), WebfluxUtils::getMediaType);
+					codeLensCommand += contentType != null ? " - Content-Type: " + contentType : "";
+					
+					Command cmd = new Command();
+					cmd.setTitle(codeLensCommand);
+					codeLens.setCommand(cmd);
 
-						resultAccumulator.add(codeLens);
-					} catch (BadLocationException e) {
-						e.printStackTrace();
-					}
+					resultAccumulator.add(codeLens);
+				} catch (BadLocationException e) {
+					e.printStackTrace();
 				}
 			}
 		}
+
+		return resultAccumulator;
+	}
+
+	private static String handlerKey(String handlerClass, String handlerMethod) {
+		return handlerClass + "#" + handlerMethod;
+	}
+
+	/**
+	 * Method of the document that might be a webflux handler, read from the AST while it is locked
+	 */
+	protected static class HandlerMethod {
+
+		final String handlerClass;
+		final String handlerMethod;
+		final int nameStart;
+		final int nameLength;
+
+		private HandlerMethod(String handlerClass, String handlerMethod, int nameStart, int nameLength) {
+			this.handlerClass = handlerClass;
+			this.handlerMethod = handlerMethod;
+			this.nameStart = nameStart;
+			this.nameLength = nameLength;
+		}
+
+		static HandlerMethod of(MethodDeclaration methodDeclaration) {
+			IMethodBinding methodBinding = methodDeclaration.resolveBinding();
+
+			if (methodBinding != null && methodBinding.getDeclaringClass() != null && methodBinding.getMethodDeclaration() != null
+					&& methodBinding.getDeclaringClass().getBinaryName() != null && methodBinding.getMethodDeclaration().toString() != null) {
+
+				return new HandlerMethod(methodBinding.getDeclaringClass().getBinaryName().trim(),
+						methodBinding.getMethodDeclaration().toString().trim(),
+						methodDeclaration.getName().getStartPosition(),
+						methodDeclaration.getName().getLength());
+			}
+			return null;
+		}
+
 	}
 
 }
@@ -20,23 +20,19 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
-import org.eclipse.lemminx.dom.DOMDocument;
-import org.eclipse.lemminx.dom.DOMNode;
-import org.eclipse.lemminx.dom.DOMParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.ide.vscode.boot.java.utils.SpringIndexerXMLScanner.Element;
 import org.springframework.ide.vscode.commons.java.IClasspath;
 import org.springframework.ide.vscode.commons.java.IClasspathUtil;
 import org.springframework.ide.vscode.commons.java.IJavaProject;
 import org.springframework.ide.vscode.commons.languageserver.java.JavaProjectFinder;
 import org.springframework.ide.vscode.commons.util.UriUtil;
-import org.springframework.ide.vscode.commons.util.text.TextDocument;
 
 /**
  * @author Martin Lippert
@@ -106,11 +102,17 @@ public class SpringIndexerXML implements SpringIndexer {
 
 		CachedSymbol[] symbols = this.cache.retrieveSymbols(cacheKey, files);
 		if (symbols == null) {
-			List<CachedSymbol> generatedSymbols = new ArrayList<CachedSymbol>();
+			Map<String, List<CachedSymbol>> unchangedFiles = this.cache.retrieveUnchanged(cacheKey, files);
 
-			for (String file : files) {
-				scanFile(project, file, generatedSymbols);
-			}
+			log.info("scan xml files reuses cached data of unchanged files: " + project.getElementName() + " - no. of unchanged files: " + unchangedFiles.size());
+
+			List<CachedSymbol> generatedSymbols = Arrays.stream(files)
+					.parallel()
+					.flatMap(file -> {
+						List<CachedSymbol> cachedSymbols = unchangedFiles.get(file);
+						return cachedSymbols != null ? cachedSymbols.stream() : scanFile(project, file).stream();
+					})
+					.collect(Collectors.toList());
 
 			this.cache.store(cacheKey, files, generatedSymbols, null);
 
@@ -159,23 +161,45 @@ public class SpringIndexerXML implements SpringIndexer {
 
 	@Override
 	public void updateFiles(IJavaProject project, DocumentDescriptor[] updatedDocs) throws Exception {
+		SymbolCacheKey cacheKey = getCacheKey(project);
 
-		List<CachedSymbol> generatedSymbols = new ArrayList<CachedSymbol>();
-		
-		for (DocumentDescriptor updatedDoc : updatedDocs) {
-			String docURI = updatedDoc.getDocURI();
-			
+		DocumentDescriptor[] docs = Arrays.stream(updatedDocs)
+				.filter(doc -> isCacheOutdated(cacheKey, doc.getDocURI(), doc.getLastModified()))
+				.toArray(DocumentDescriptor[]::new);
+
+		if (docs.length == 0) {
+			return;
+		}
+
+		String[] files = new String[docs.length];
+		long[] lastModified = new long[docs.length];
+
+		for (int i = 0; i < docs.length; i++) {
+			String docURI = docs[i].getDocURI();
 			this.symbolHandler.removeSymbols(project, docURI);
 
-			Path path = Paths.get(new URI(docURI));
-			String content = new String(Files.readAllBytes(path));
-			scanFile(project, content, docURI, updatedDoc.getLastModified(), generatedSymbols);
-	
-			SymbolCacheKey cacheKey = getCacheKey(project);
-			String file = new File(new URI(docURI)).getAbsolutePath();
-			this.cache.update(cacheKey, file, updatedDoc.getLastModified(), generatedSymbols, null);
+			files[i] = new File(new URI(docURI)).getAbsolutePath();
+			lastModified[i] = docs[i].getLastModified();
 		}
 
+		List<CachedSymbol> generatedSymbols = Arrays.stream(docs)
+				.parallel()
+				.flatMap(doc -> {
+					List<CachedSymbol> symbols = new ArrayList<>();
+					try {
+						Path path = Paths.get(new URI(doc.getDocURI()));
+						String content = new String(Files.readAllBytes(path));
+						scanFile(project, content, doc.getDocURI(), doc.getLastModified(), symbols);
+					}
+					catch (Exception e) {
+						log.error("error parsing XML file: ", e);
+					}
+					return symbols.stream();
+				})
+				.collect(Collectors.toList());
+
+		this.cache.update(cacheKey, files, lastModified, generatedSymbols, null);
+
 		for (CachedSymbol symbol : generatedSymbols) {
 			symbolHandler.addSymbol(project, symbol.getDocURI(), symbol.getEnhancedSymbol());
 		}
@@ -191,9 +215,15 @@ public class SpringIndexerXML implements SpringIndexer {
 		}
 	}
 
-	private void scanFile(IJavaProject project, String fileName, List<CachedSymbol> generatedSymbols) {
+	private boolean isCacheOutdated(SymbolCacheKey cacheKey, String docURI, long modifiedTimestamp) {
+		long cachedModificationTimestamp = this.cache.getModificationTimestamp(cacheKey, UriUtil.toFileString(docURI));
+		return modifiedTimestamp > cachedModificationTimestamp;
+	}
+
+	private List<CachedSymbol> scanFile(IJavaProject project, String fileName) {
 		log.debug("starting to parse XML file for Spring symbol indexing: {}", fileName);
 
+		List<CachedSymbol> generatedSymbols = new ArrayList<>();
 		try {
 			File file = new File(fileName);
 			long lastModified = file.lastModified();
@@ -201,47 +231,31 @@ public class SpringIndexerXML implements SpringIndexer {
 			String docURI = UriUtil.toUri(file).toString();
 			String fileContent = FileUtils.readFileToString(file);
 
-	        scanFile(project, fileContent, docURI, lastModified, generatedSymbols);
+			scanFile(project, fileContent, docURI, lastModified, generatedSymbols);
 		}
 		catch (Exception e) {
 			log.error("error parsing XML file: ", e);
 		}
+		return generatedSymbols;
 	}
 
+	/**
+	 * Streams through the elements of the XML content handing elements of known namespaces
+	 * over to their namespace handler, no DOM is built for the content.
+	 */
 	private void scanFile(IJavaProject project, String fileContent, String docURI, long lastModified, List<CachedSymbol> generatedSymbols) throws Exception {
-		DOMParser parser = DOMParser.getInstance();
-		DOMDocument document = parser.parse(fileContent, "", null);
-
-		AtomicReference<TextDocument> docRef = new AtomicReference<>();
-		scanNode(document, project, docURI, lastModified, docRef, fileContent, generatedSymbols);
-	}
-
-	private void scanNode(DOMNode node, IJavaProject project, String docURI, long lastModified, AtomicReference<TextDocument> docRef, String content, List<CachedSymbol> generatedSymbols) throws Exception {
-		String namespaceURI = node.getNamespaceURI();
-
-		if (namespaceURI != null && this.namespaceHandler.containsKey(namespaceURI)) {
-			SpringIndexerXMLNamespaceHandler namespaceHandler = this.namespaceHandler.get(namespaceURI);
-
-			TextDocument document = DocumentUtils.getTempTextDocument(docURI, docRef, content);
-			namespaceHandler.processNode(node, project, docURI, lastModified, document, generatedSymbols);
-		}
+		SpringIndexerXMLScanner scanner = new SpringIndexerXMLScanner(fileContent);
 
+		for (Element element = scanner.next(); element != null; element = scanner.next()) {
+			String namespaceURI = element.getNamespaceURI();
 
-//		if ("http://www.springframework.org/schema/beans".equals(namespaceURI)) {
-//			List<DOMAttr> attributeNodes = node.getAttributeNodes();
-//			if (attributeNodes != null) {
-//				for (DOMAttr attribute : attributeNodes) {
-//					System.out.println(attribute.getName() + " - " + attribute.getValue());
-//				}
-//			}
-//		}
-
-		List<DOMNode> children = node.getChildren();
-		for (DOMNode child : children) {
-			scanNode(child, project, docURI, lastModified, docRef, content, generatedSymbols);
+			if (namespaceURI != null) {
+				SpringIndexerXMLNamespaceHandler namespaceHandler = this.namespaceHandler.get(namespaceURI);
+				if (namespaceHandler != null) {
+					namespaceHandler.processElement(element, project, docURI, lastModified, generatedSymbols);
+				}
+			}
 		}
-
-
 	}
 
 	private String[] getFiles(IJavaProject project) throws Exception {
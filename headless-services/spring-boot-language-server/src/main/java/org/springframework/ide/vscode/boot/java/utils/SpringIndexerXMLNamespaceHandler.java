@@ -12,15 +12,18 @@ package org.springframework.ide.vscode.boot.java.utils;
 
 import java.util.List;
 
-import org.eclipse.lemminx.dom.DOMNode;
+import org.springframework.ide.vscode.boot.java.utils.SpringIndexerXMLScanner.Element;
 import org.springframework.ide.vscode.commons.java.IJavaProject;
-import org.springframework.ide.vscode.commons.util.text.TextDocument;
 
 /**
  * @author Martin Lippert
  */
 public interface SpringIndexerXMLNamespaceHandler {
 
-	void processNode(DOMNode node, IJavaProject project, String docURI, long lastModifiued, TextDocument document, List<CachedSymbol> generatedSymbols) throws Exception;
+	/**
+	 * Processes an element of the handled namespace. Elements are passed in document order
+	 * while the XML file is scanned, handlers may be called for different files concurrently.
+	 */
+	void processElement(Element element, IJavaProject project, String docURI, long lastModified, List<CachedSymbol> generatedSymbols) throws Exception;
 
 }
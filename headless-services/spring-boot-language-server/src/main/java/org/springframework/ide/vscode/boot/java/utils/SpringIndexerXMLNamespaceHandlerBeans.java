@@ -12,10 +12,7 @@ package org.springframework.ide.vscode.boot.java.utils;
 
 import java.util.List;
 
-import org.eclipse.lemminx.dom.DOMAttr;
-import org.eclipse.lemminx.dom.DOMNode;
 import org.eclipse.lsp4j.Location;
-import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.SymbolInformation;
 import org.eclipse.lsp4j.SymbolKind;
@@ -23,8 +20,9 @@ import org.springframework.ide.vscode.boot.java.beans.BeanUtils;
 import org.springframework.ide.vscode.boot.java.beans.BeansSymbolAddOnInformation;
 import org.springframework.ide.vscode.boot.java.handlers.EnhancedSymbolInformation;
 import org.springframework.ide.vscode.boot.java.handlers.SymbolAddOnInformation;
+import org.springframework.ide.vscode.boot.java.utils.SpringIndexerXMLScanner.Attribute;
+import org.springframework.ide.vscode.boot.java.utils.SpringIndexerXMLScanner.Element;
 import org.springframework.ide.vscode.commons.java.IJavaProject;
-import org.springframework.ide.vscode.commons.util.text.TextDocument;
 import org.springframework.lang.NonNull;
 
 /**
@@ -33,22 +31,22 @@ import org.springframework.lang.NonNull;
 public class SpringIndexerXMLNamespaceHandlerBeans implements SpringIndexerXMLNamespaceHandler {
 
 	@Override
-	public void processNode(DOMNode node, IJavaProject project, String docURI, long lastModified, TextDocument document, List<CachedSymbol> generatedSymbols) throws Exception {
-		String localName = node.getLocalName();
+	public void processElement(Element element, IJavaProject project, String docURI, long lastModified, List<CachedSymbol> generatedSymbols) throws Exception {
+		String localName = element.getLocalName();
 		if (localName != null && "bean".equals(localName)) {
-			createBeanSymbol(node, project, docURI, lastModified, document, generatedSymbols);
+			createBeanSymbol(element, project, docURI, lastModified, generatedSymbols);
 		}
 	}
 
-	private void createBeanSymbol(DOMNode node, IJavaProject project, String docURI, long lastModified, TextDocument document, List<CachedSymbol> generatedSymbols) throws Exception {
+	private void createBeanSymbol(Element element, IJavaProject project, String docURI, long lastModified, List<CachedSymbol> generatedSymbols) throws Exception {
 		String beanID = null;
 		int symbolStart = 0;
 		int symbolEnd = 0;
 
 		String beanClass = null;
 
-		List<DOMAttr> attributes = node.getAttributeNodes();
-		for (DOMAttr attribute : attributes) {
+		List<Attribute> attributes = element.getAttributes();
+		for (Attribute attribute : attributes) {
 
 			String name = attribute.getName();
 			if (name != null && name.equals("id")) {
@@ -57,7 +55,7 @@ public class SpringIndexerXMLNamespaceHandlerBeans implements SpringIndexerXMLNa
 				symbolStart = attribute.getStart();
 				symbolEnd = attribute.getEnd();
 			}
-			else if (name != null && name.equals("class")) {
+			else if (name != null && name.equals("class") && attribute.getValue() != null) {
 				String value = attribute.getValue();
 				beanClass = value.substring(value.lastIndexOf(".") + 1);
 
@@ -69,15 +67,9 @@ public class SpringIndexerXMLNamespaceHandlerBeans implements SpringIndexerXMLNa
 		}
 
 		if (beanClass != null) {
-			int lineStart = document.getLineOfOffset(symbolStart);
-			int lineEnd = document.getLineOfOffset(symbolEnd);
-
-			int startInLine = symbolStart - document.getLineOffset(lineStart);
-			int endInLine = symbolEnd - document.getLineOffset(lineEnd);
-
 			Range range = new Range();
-			range.setStart(new Position(lineStart, startInLine));
-			range.setEnd(new Position(lineEnd, endInLine));
+			range.setStart(element.toPosition(symbolStart));
+			range.setEnd(element.toPosition(symbolEnd));
 
 			Location location = new Location();
 			location.setUri(docURI);
@@ -0,0 +1,390 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.lsp4j.Position;
+
+/**
+ * Streaming scanner of XML text reporting start tags of elements one after another without
+ * building a DOM. Elements come with their resolved namespace and the offsets of their attributes,
+ * lines are only computed for offsets converted into positions.
+ * <p>
+ * Like the XML editor support the scanner is lenient: malformed markup doesn't stop it, the text
+ * is scanned up to its end.
+ *
+ * @author Alex Boyko
+ */
+public class SpringIndexerXMLScanner {
+
+	private static final String XMLNS = "xmlns";
+	private static final String XML_PREFIX = "xml";
+	private static final String XML_NAMESPACE = "http://www.w3.org/XML/1998/namespace";
+
+	public static class Attribute {
+
+		private final String name;
+		private final String value;
+		private final int start;
+		private final int end;
+
+		Attribute(String name, String value, int start, int end) {
+			this.name = name;
+			this.value = value;
+			this.start = start;
+			this.end = end;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return value without the quotes or <code>null</code> if the attribute has no value
+		 */
+		public String getValue() {
+			return value;
+		}
+
+		/**
+		 * @return offset of the attribute name
+		 */
+		public int getStart() {
+			return start;
+		}
+
+		/**
+		 * @return offset after the value including the closing quote or after the name if there is no value
+		 */
+		public int getEnd() {
+			return end;
+		}
+
+	}
+
+	public static class Element {
+
+		private final SpringIndexerXMLScanner scanner;
+		private final String namespaceURI;
+		private final String localName;
+		private final List<Attribute> attributes;
+		private final int start;
+
+		Element(SpringIndexerXMLScanner scanner, String namespaceURI, String localName, List<Attribute> attributes, int start) {
+			this.scanner = scanner;
+			this.namespaceURI = namespaceURI;
+			this.localName = localName;
+			this.attributes = attributes;
+			this.start = start;
+		}
+
+		public String getNamespaceURI() {
+			return namespaceURI;
+		}
+
+		public String getLocalName() {
+			return localName;
+		}
+
+		public List<Attribute> getAttributes() {
+			return attributes;
+		}
+
+		/**
+		 * @return offset of the '&lt;' of the start tag
+		 */
+		public int getStart() {
+			return start;
+		}
+
+		/**
+		 * Converts an offset of the scanned text into a line and character position
+		 */
+		public Position toPosition(int offset) {
+			return scanner.toPosition(offset);
+		}
+
+	}
+
+	/**
+	 * Namespaces declared on an element that hasn't been closed yet
+	 */
+	private static class Scope {
+
+		final String qualifiedName;
+		final Map<String, String> namespaces;
+
+		Scope(String qualifiedName, Map<String, String> namespaces) {
+			this.qualifiedName = qualifiedName;
+			this.namespaces = namespaces;
+		}
+
+	}
+
+	private final String text;
+	private final int length;
+	private int offset;
+
+	private final List<Scope> scopes = new ArrayList<>();
+
+	private int[] lineStarts = new int[64];
+	private int lineCount = 1;
+	private int linesScannedTo;
+
+	public SpringIndexerXMLScanner(String text) {
+		this.text = text;
+		this.length = text.length();
+	}
+
+	/**
+	 * Scans up to the next start tag.
+	 *
+	 * @return the element of the start tag or <code>null</code> at the end of the text
+	 */
+	public Element next() {
+		while (offset < length) {
+			int tagStart = text.indexOf('<', offset);
+			if (tagStart < 0) {
+				offset = length;
+				break;
+			}
+			offset = tagStart + 1;
+			if (text.startsWith("!--", offset)) {
+				offset = skipPast("-->", offset + 3);
+			} else if (text.startsWith("![CDATA[", offset)) {
+				offset = skipPast("]]>", offset + 8);
+			} else if (text.startsWith("!", offset)) {
+				skipDeclaration();
+			} else if (text.startsWith("?", offset)) {
+				offset = skipPast("?>", offset + 1);
+			} else if (text.startsWith("/", offset)) {
+				offset++;
+				String name = scanName();
+				closeScope(name);
+				offset = skipPast(">", offset);
+			} else if (offset < length && isNameStart(text.charAt(offset))) {
+				return scanStartTag(tagStart);
+			}
+		}
+		return null;
+	}
+
+	private Element scanStartTag(int tagStart) {
+		String qualifiedName = scanName();
+		List<Attribute> attributes = new ArrayList<>();
+		boolean empty = false;
+		while (offset < length) {
+			skipWhitespace();
+			if (offset >= length) {
+				break;
+			}
+			char c = text.charAt(offset);
+			if (c == '>') {
+				offset++;
+				break;
+			} else if (c == '/') {
+				offset++;
+				if (offset < length && text.charAt(offset) == '>') {
+					offset++;
+					empty = true;
+					break;
+				}
+			} else if (c == '<') {
+				// Unclosed start tag, the next tag starts here
+				break;
+			} else {
+				Attribute attribute = scanAttribute();
+				if (attribute == null) {
+					offset++;
+				} else {
+					attributes.add(attribute);
+				}
+			}
+		}
+
+		Map<String, String> namespaces = null;
+		for (Attribute attribute : attributes) {
+			String name = attribute.getName();
+			if (name.equals(XMLNS) || name.startsWith(XMLNS + ":")) {
+				if (namespaces == null) {
+					namespaces = new HashMap<>();
+				}
+				namespaces.put(name.length() > XMLNS.length() ? name.substring(XMLNS.length() + 1) : "", attribute.getValue());
+			}
+		}
+		Scope scope = new Scope(qualifiedName, namespaces);
+		scopes.add(scope);
+
+		int colon = qualifiedName.indexOf(':');
+		String prefix = colon < 0 ? "" : qualifiedName.substring(0, colon);
+		String localName = colon < 0 ? qualifiedName : qualifiedName.substring(colon + 1);
+		Element element = new Element(this, resolveNamespace(prefix), localName, attributes, tagStart);
+
+		if (empty) {
+			scopes.remove(scopes.size() - 1);
+		}
+		return element;
+	}
+
+	private Attribute scanAttribute() {
+		int start = offset;
+		while (offset < length) {
+			char c = text.charAt(offset);
+			if (Character.isWhitespace(c) || c == '=' || c == '>' || c == '/' || c == '<') {
+				break;
+			}
+			offset++;
+		}
+		if (offset == start) {
+			return null;
+		}
+		String name = text.substring(start, offset);
+		int nameEnd = offset;
+
+		skipWhitespace();
+		if (offset >= length || text.charAt(offset) != '=') {
+			offset = nameEnd;
+			return new Attribute(name, null, start, nameEnd);
+		}
+		offset++;
+		skipWhitespace();
+		if (offset >= length) {
+			return new Attribute(name, null, start, nameEnd);
+		}
+
+		char quote = text.charAt(offset);
+		if (quote == '"' || quote == '\'') {
+			int valueStart = offset + 1;
+			int valueEnd = text.indexOf(quote, valueStart);
+			if (valueEnd < 0) {
+				offset = length;
+				return new Attribute(name, text.substring(valueStart), start, length);
+			}
+			offset = valueEnd + 1;
+			return new Attribute(name, text.substring(valueStart, valueEnd), start, offset);
+		}
+
+		int valueStart = offset;
+		while (offset < length) {
+			char c = text.charAt(offset);
+			if (Character.isWhitespace(c) || c == '>' || c == '<' || text.startsWith("/>", offset)) {
+				break;
+			}
+			offset++;
+		}
+		if (offset == valueStart) {
+			return new Attribute(name, null, start, nameEnd);
+		}
+		return new Attribute(name, text.substring(valueStart, offset), start, offset);
+	}
+
+	private String resolveNamespace(String prefix) {
+		for (int i = scopes.size() - 1; i >= 0; i--) {
+			Map<String, String> namespaces = scopes.get(i).namespaces;
+			if (namespaces != null && namespaces.containsKey(prefix)) {
+				return namespaces.get(prefix);
+			}
+		}
+		return XML_PREFIX.equals(prefix) ? XML_NAMESPACE : null;
+	}
+
+	/**
+	 * Closes the innermost open element with the given name and all elements nested in it
+	 * that haven't been closed. End tags without matching open element are ignored.
+	 */
+	private void closeScope(String qualifiedName) {
+		for (int i = scopes.size() - 1; i >= 0; i--) {
+			if (scopes.get(i).qualifiedName.equals(qualifiedName)) {
+				scopes.subList(i, scopes.size()).clear();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Skips DOCTYPE and other declarations including an internal subset in brackets
+	 */
+	private void skipDeclaration() {
+		int depth = 0;
+		char quote = 0;
+		while (offset < length) {
+			char c = text.charAt(offset++);
+			if (quote != 0) {
+				if (c == quote) {
+					quote = 0;
+				}
+			} else if (c == '"' || c == '\'') {
+				quote = c;
+			} else if (c == '[') {
+				depth++;
+			} else if (c == ']') {
+				depth--;
+			} else if (c == '>' && depth <= 0) {
+				return;
+			}
+		}
+	}
+
+	private String scanName() {
+		int start = offset;
+		while (offset < length) {
+			char c = text.charAt(offset);
+			if (Character.isWhitespace(c) || c == '>' || c == '/' || c == '<') {
+				break;
+			}
+			offset++;
+		}
+		return text.substring(start, offset);
+	}
+
+	private void skipWhitespace() {
+		while (offset < length && Character.isWhitespace(text.charAt(offset))) {
+			offset++;
+		}
+	}
+
+	private int skipPast(String terminator, int from) {
+		int index = text.indexOf(terminator, from);
+		return index < 0 ? length : index + terminator.length();
+	}
+
+	private static boolean isNameStart(char c) {
+		return Character.isLetter(c) || c == '_' || c == ':';
+	}
+
+	/**
+	 * Converts an offset into a position, line starts are collected up to the offset the first time
+	 * an offset past the lines collected so far is converted.
+	 */
+	private Position toPosition(int position) {
+		int end = Math.min(position, length);
+		while (linesScannedTo < end) {
+			char c = text.charAt(linesScannedTo++);
+			if (c == '\n' || (c == '\r' && (linesScannedTo >= length || text.charAt(linesScannedTo) != '\n'))) {
+				if (lineCount == lineStarts.length) {
+					lineStarts = Arrays.copyOf(lineStarts, lineCount * 2);
+				}
+				lineStarts[lineCount++] = linesScannedTo;
+			}
+		}
+		int line = Arrays.binarySearch(lineStarts, 0, lineCount, position);
+		if (line < 0) {
+			line = -line - 2;
+		}
+		return new Position(line, position - lineStarts[line]);
+	}
+
+}
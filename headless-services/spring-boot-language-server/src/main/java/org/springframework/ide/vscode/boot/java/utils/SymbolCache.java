@@ -11,10 +11,12 @@
 package org.springframework.ide.vscode.boot.java.utils;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.lang3.tuple.Pair;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Multimap;
 
 /**
@@ -36,6 +38,16 @@ public interface SymbolCache {
 		return r!=null ? r.getLeft() : null;
 	}
 	
+	/**
+	 * Cached symbols of the given files that haven't been modified since they got cached, even if
+	 * other files have been modified, added or removed in the meantime.
+	 *
+	 * @return cached symbols per unchanged file, files without an entry need to be scanned again
+	 */
+	default Map<String, List<CachedSymbol>> retrieveUnchanged(SymbolCacheKey cacheKey, String[] files) {
+		return ImmutableMap.of();
+	}
+
 	long getModificationTimestamp(SymbolCacheKey cacheKey, String docURI);
 
 }
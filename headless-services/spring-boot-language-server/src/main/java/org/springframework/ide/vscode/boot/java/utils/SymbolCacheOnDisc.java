@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019 2020 Pivotal, Inc.
+ * Copyright (c) 2019, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,6 +16,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
@@ -59,6 +60,12 @@ public class SymbolCacheOnDisc implements SymbolCache {
 	private final File cacheDirectory;
 	private final Map<SymbolCacheKey, CacheStore> stores;
 
+	/**
+	 * Stores read by {@link #retrieve(SymbolCacheKey, String[])} that didn't match the current files,
+	 * kept for a subsequent {@link #retrieveUnchanged(SymbolCacheKey, String[])} until the store is written
+	 */
+	private final Map<SymbolCacheKey, CacheStore> outdatedStores;
+
 	private static final Logger log = LoggerFactory.getLogger(SymbolCacheOnDisc.class);
 
 	public SymbolCacheOnDisc() {
@@ -68,6 +75,7 @@ public class SymbolCacheOnDisc implements SymbolCache {
 	public SymbolCacheOnDisc(File cacheDirectory) {
 		this.cacheDirectory = cacheDirectory;
 		this.stores = new ConcurrentHashMap<>();
+		this.outdatedStores = new ConcurrentHashMap<>();
 
 		if (!this.cacheDirectory.exists()) {
 			this.cacheDirectory.mkdirs();
@@ -134,6 +142,9 @@ public class SymbolCacheOnDisc implements SymbolCache {
 							MultimapBuilder.hashKeys().hashSetValues().build(dependencies)
 					);
 				}
+				else {
+					this.outdatedStores.put(cacheKey, store);
+				}
 			}
 			catch (Exception e) {
 				log.error("error reading cached symbols", e);
@@ -142,6 +153,43 @@ public class SymbolCacheOnDisc implements SymbolCache {
 		return null;
 	}
 
+	@Override
+	public Map<String, List<CachedSymbol>> retrieveUnchanged(SymbolCacheKey cacheKey, String[] files) {
+		Map<String, List<CachedSymbol>> result = new HashMap<>();
+		CacheStore outdatedStore = this.outdatedStores.remove(cacheKey);
+		File cacheStore = new File(cacheDirectory, cacheKey.toString() + ".json");
+		if (outdatedStore != null || cacheStore.exists()) {
+			try {
+				CacheStore store = outdatedStore != null ? outdatedStore : readStore(cacheStore);
+				SortedMap<String, Long> storedTimestamps = store.getTimestampedFiles();
+
+				Map<String, List<CachedSymbol>> symbolsPerDocURI = new HashMap<>();
+				for (String file : files) {
+					Long storedTimestamp = storedTimestamps.get(file);
+					File realFile = new File(file);
+					if (storedTimestamp != null && realFile.exists()
+							&& storedTimestamp.longValue() == Files.getLastModifiedTime(realFile.toPath()).toMillis()) {
+						List<CachedSymbol> symbols = new ArrayList<>();
+						result.put(file, symbols);
+						symbolsPerDocURI.put(UriUtil.toUri(realFile).toString(), symbols);
+					}
+				}
+
+				for (CachedSymbol symbol : store.getSymbols()) {
+					List<CachedSymbol> symbols = symbolsPerDocURI.get(symbol.getDocURI());
+					if (symbols != null) {
+						symbols.add(symbol);
+					}
+				}
+			}
+			catch (Exception e) {
+				log.error("error reading cached symbols", e);
+				result.clear();
+			}
+		}
+		return result;
+	}
+
 	@Override
 	public void removeFile(SymbolCacheKey cacheKey, String file) {
 		CacheStore cacheStore = this.stores.get(cacheKey);
@@ -167,6 +215,7 @@ public class SymbolCacheOnDisc implements SymbolCache {
 			cacheStore.delete();
 			this.stores.remove(cacheKey);
 		}
+		this.outdatedStores.remove(cacheKey);
 	}
 
 	@Override
@@ -259,6 +308,7 @@ public class SymbolCacheOnDisc implements SymbolCache {
 			SortedMap<String, Long> timestampedFiles, Map<String, Collection<String>> dependencies) {
 		CacheStore store = new CacheStore(timestampedFiles, generatedSymbols, dependencies);
 		this.stores.put(cacheKey, store);
+		this.outdatedStores.remove(cacheKey);
 
 		try (FileWriter writer = new FileWriter(new File(cacheDirectory, cacheKey.toString() + ".json")))
 		{
@@ -297,6 +347,12 @@ public class SymbolCacheOnDisc implements SymbolCache {
 		}
 	}
 
+	private CacheStore readStore(File cacheStore) throws IOException {
+		try (JsonReader reader = new JsonReader(new FileReader(cacheStore))) {
+			return createGson().fromJson(reader, CacheStore.class);
+		}
+	}
+
 	private Gson createGson() {
 		return new GsonBuilder().registerTypeAdapter(SymbolAddOnInformation.class, new SymbolAddOnInformationAdapter()).create();
 	}
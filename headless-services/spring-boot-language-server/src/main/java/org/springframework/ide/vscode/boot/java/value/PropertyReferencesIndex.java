@@ -0,0 +1,325 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.value;
+
+import static org.springframework.ide.vscode.commons.yaml.ast.NodeUtil.asScalar;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ide.vscode.boot.properties.BootPropertiesLanguageServerComponents;
+import org.springframework.ide.vscode.commons.java.IClasspathUtil;
+import org.springframework.ide.vscode.commons.java.IJavaProject;
+import org.springframework.ide.vscode.commons.languageserver.java.JavaProjectFinder;
+import org.springframework.ide.vscode.commons.languageserver.java.ProjectObserver;
+import org.springframework.ide.vscode.commons.util.FileObserver;
+import org.springframework.ide.vscode.commons.util.text.TextDocument;
+import org.springframework.ide.vscode.commons.yaml.ast.YamlFileAST;
+import org.springframework.ide.vscode.commons.yaml.ast.YamlParser;
+import org.springframework.ide.vscode.java.properties.parser.ParseResults;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.KeyValuePair;
+import org.springframework.ide.vscode.java.properties.scanner.ScannerParser;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Index of property keys defined in Spring Boot application properties and yaml files of the
+ * workspace projects. Files are looked for at the root and in the <code>config</code> folder of
+ * project source folders, which is where Spring Boot picks them up from the classpath. The
+ * index is kept up-to-date from project and file change events, so that finding places defining
+ * a property is a lookup.
+ *
+ * @author Martin Lippert
+ */
+public class PropertyReferencesIndex {
+
+	private static final Logger log = LoggerFactory.getLogger(PropertyReferencesIndex.class);
+
+	private static final List<String> GLOB_PATTERNS = ImmutableList.of(
+			"**/*application*" + BootPropertiesLanguageServerComponents.PROPERTIES,
+			"**/*application*" + BootPropertiesLanguageServerComponents.YML[0],
+			"**/*application*" + BootPropertiesLanguageServerComponents.YML[1]
+	);
+
+	private static final String CONFIG_FOLDER = "config";
+
+	/**
+	 * Property key ranges per file URI
+	 */
+	private final Map<String, ImmutableListMultimap<String, Range>> keysPerFile = new ConcurrentHashMap<>();
+
+	/**
+	 * Folders with properties files per project URI
+	 */
+	private final Map<String, Set<File>> foldersPerProject = new ConcurrentHashMap<>();
+
+	private final JavaProjectFinder projectFinder;
+	private boolean projectsIndexed;
+
+	public PropertyReferencesIndex() {
+		this(null, null, null);
+	}
+
+	public PropertyReferencesIndex(JavaProjectFinder projectFinder, ProjectObserver projectObserver, FileObserver fileObserver) {
+		this.projectFinder = projectFinder;
+		if (projectObserver != null) {
+			projectObserver.addListener(new ProjectObserver.Listener() {
+				@Override
+				public void created(IJavaProject project) {
+					indexProject(project);
+				}
+
+				@Override
+				public void changed(IJavaProject project) {
+					indexProject(project);
+				}
+
+				@Override
+				public void deleted(IJavaProject project) {
+					removeProject(project);
+				}
+			});
+		}
+		if (fileObserver != null) {
+			fileObserver.onFilesCreated(GLOB_PATTERNS, this::updateFiles);
+			fileObserver.onFilesChanged(GLOB_PATTERNS, this::updateFiles);
+			fileObserver.onFilesDeleted(GLOB_PATTERNS, this::removeFiles);
+		}
+	}
+
+	/**
+	 * Locations of the given property key in properties files of the workspace
+	 */
+	public List<Location> findReferences(String propertyKey) {
+		initialize();
+		List<Location> locations = new ArrayList<>();
+		keysPerFile.forEach((uri, keys) -> {
+			for (Range range : keys.get(propertyKey)) {
+				locations.add(new Location(uri, range));
+			}
+		});
+		return locations;
+	}
+
+	/**
+	 * Indexes properties files at the root and in the <code>config</code> sub-folder of the given folder
+	 * and keeps them up-to-date like files of projects.
+	 */
+	public void indexFolder(File folder) {
+		Set<File> folders = ImmutableSet.of(folder, new File(folder, CONFIG_FOLDER));
+		foldersPerProject.put(uri(folder), folders);
+		keysPerFile.putAll(readFolders(folders));
+	}
+
+	private synchronized void initialize() {
+		if (!projectsIndexed) {
+			projectsIndexed = true;
+			if (projectFinder != null) {
+				for (IJavaProject project : projectFinder.all()) {
+					if (!foldersPerProject.containsKey(project.getLocationUri().toString())) {
+						indexProject(project);
+					}
+				}
+			}
+		}
+	}
+
+	private void indexProject(IJavaProject project) {
+		Set<File> folders = IClasspathUtil.getSourceFolders(project.getClasspath())
+				.flatMap(folder -> Stream.of(folder, new File(folder, CONFIG_FOLDER)))
+				.collect(Collectors.toSet());
+		// Read the files first, lookups keep seeing the old keys of the project until they are replaced
+		Map<String, ImmutableListMultimap<String, Range>> keys = readFolders(folders);
+		Set<File> oldFolders = foldersPerProject.put(project.getLocationUri().toString(), folders);
+		if (oldFolders != null) {
+			removeFolders(oldFolders, keys.keySet());
+		}
+		keysPerFile.putAll(keys);
+	}
+
+	private void removeProject(IJavaProject project) {
+		Set<File> folders = foldersPerProject.remove(project.getLocationUri().toString());
+		if (folders != null) {
+			removeFolders(folders, ImmutableSet.of());
+		}
+	}
+
+	private Map<String, ImmutableListMultimap<String, Range>> readFolders(Collection<File> folders) {
+		Map<String, ImmutableListMultimap<String, Range>> keys = new HashMap<>();
+		for (File folder : folders) {
+			File[] files = folder.listFiles(file -> file.isFile() && isPropertiesFile(file.getName()));
+			if (files != null) {
+				for (File file : files) {
+					ImmutableListMultimap<String, Range> fileKeys = readFile(file);
+					if (fileKeys != null) {
+						keys.put(uri(file), fileKeys);
+					}
+				}
+			}
+		}
+		return keys;
+	}
+
+	/**
+	 * Removes the files of the given folders from the index except for the files with the given URIs
+	 */
+	private void removeFolders(Collection<File> folders, Set<String> keep) {
+		for (File folder : folders) {
+			String folderUri = uri(folder);
+			if (!folderUri.endsWith("/")) {
+				folderUri += "/";
+			}
+			String prefix = folderUri;
+			keysPerFile.keySet().removeIf(uri -> uri.startsWith(prefix) && uri.indexOf('/', prefix.length()) < 0 && !keep.contains(uri));
+		}
+	}
+
+	private void updateFiles(String[] uris) {
+		for (String uri : uris) {
+			try {
+				File file = new File(new URI(uri));
+				if (isPropertiesFile(file.getName()) && isInIndexedFolder(file)) {
+					indexFile(file);
+				}
+			} catch (Exception e) {
+				log.error("", e);
+			}
+		}
+	}
+
+	private void removeFiles(String[] uris) {
+		for (String uri : uris) {
+			try {
+				keysPerFile.remove(uri(new File(new URI(uri))));
+			} catch (Exception e) {
+				log.error("", e);
+			}
+		}
+	}
+
+	private boolean isInIndexedFolder(File file) {
+		File parent = file.getParentFile();
+		for (Set<File> folders : foldersPerProject.values()) {
+			if (folders.contains(parent)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void indexFile(File file) {
+		String uri = uri(file);
+		ImmutableListMultimap<String, Range> keys = readFile(file);
+		if (keys != null) {
+			keysPerFile.put(uri, keys);
+		} else {
+			keysPerFile.remove(uri);
+		}
+	}
+
+	/**
+	 * @return property key ranges of the file or <code>null</code> if it cannot be read
+	 */
+	private ImmutableListMultimap<String, Range> readFile(File file) {
+		try {
+			String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+			TextDocument doc = new TextDocument(uri(file), null);
+			doc.setText(content);
+			return file.getName().endsWith(BootPropertiesLanguageServerComponents.PROPERTIES)
+					? indexProperties(doc)
+					: indexYaml(doc);
+		} catch (Exception e) {
+			log.error("Failed to index properties file " + file, e);
+			return null;
+		}
+	}
+
+	private ImmutableListMultimap<String, Range> indexProperties(TextDocument doc) throws Exception {
+		ImmutableListMultimap.Builder<String, Range> keys = ImmutableListMultimap.builder();
+		ParseResults parseResults = new ScannerParser().parse(doc.get());
+		if (parseResults != null && parseResults.ast != null) {
+			for (KeyValuePair pair : parseResults.ast.getNodes(KeyValuePair.class)) {
+				if (pair.getKey() != null) {
+					keys.put(pair.getKey().decode(), doc.toRange(pair.getKey().getOffset(), pair.getKey().getLength()));
+				}
+			}
+		}
+		return keys.build();
+	}
+
+	private ImmutableListMultimap<String, Range> indexYaml(TextDocument doc) throws Exception {
+		ImmutableListMultimap.Builder<String, Range> keys = ImmutableListMultimap.builder();
+		YamlFileAST ast = new YamlParser().getAST(doc);
+		List<Node> nodes = ast.getNodes();
+		if (nodes != null) {
+			for (Node node : nodes) {
+				indexYamlKeys(node, "", keys);
+			}
+		}
+		return keys.build();
+	}
+
+	private void indexYamlKeys(Node node, String prefix, ImmutableListMultimap.Builder<String, Range> keys) {
+		if (node.getNodeId().equals(NodeId.mapping)) {
+			for (NodeTuple entry : ((MappingNode)node).getValue()) {
+				Node keyNode = entry.getKeyNode();
+				String key = asScalar(keyNode);
+				if (key != null) {
+					String combinedKey = prefix.length() > 0 ? prefix + "." + key : key;
+					Position start = new Position(keyNode.getStartMark().getLine(), keyNode.getStartMark().getColumn());
+					Position end = new Position(keyNode.getEndMark().getLine(), keyNode.getEndMark().getColumn());
+					keys.put(combinedKey, new Range(start, end));
+					indexYamlKeys(entry.getValueNode(), combinedKey, keys);
+				}
+			}
+		}
+	}
+
+	private static boolean isPropertiesFile(String fileName) {
+		if (fileName.endsWith(BootPropertiesLanguageServerComponents.PROPERTIES)) {
+			return fileName.contains("application");
+		} else {
+			for (String yml : BootPropertiesLanguageServerComponents.YML) {
+				if (fileName.endsWith(yml)) {
+					return fileName.contains("application");
+				}
+			}
+		}
+		return false;
+	}
+
+	private static String uri(File file) {
+		return file.toPath().toUri().toString();
+	}
+
+}
@@ -28,12 +28,14 @@ import java.util.Optional;
 import org.eclipse.lsp4j.TextDocumentIdentifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.ide.vscode.commons.java.AbstractJavaProject;
 import org.springframework.ide.vscode.commons.java.ClasspathData;
 import org.springframework.ide.vscode.commons.java.IJavaProject;
 import org.springframework.ide.vscode.commons.java.IJavadocProvider;
 import org.springframework.ide.vscode.commons.java.JavaProject;
 import org.springframework.ide.vscode.commons.java.JdtLsJavaProject;
 import org.springframework.ide.vscode.commons.javadoc.JdtLsJavadocProvider;
+import org.springframework.ide.vscode.commons.jdtls.BinaryTypeDataCache;
 import org.springframework.ide.vscode.commons.languageserver.java.ls.ClasspathListener;
 import org.springframework.ide.vscode.commons.languageserver.util.SimpleLanguageServer;
 import org.springframework.ide.vscode.commons.protocol.java.Classpath.CPE;
@@ -52,6 +54,7 @@ public class JdtLsProjectCache implements InitializableJavaProjectsService {
 	private static final Object JDT_SCHEME = "jdt";
 
 	private final boolean IS_JANDEX_INDEX;
+	private final BinaryTypeDataCache typeDataCache;
 
 	private SimpleLanguageServer server;
 	private Map<String, IJavaProject> table = new HashMap<String, IJavaProject>();
@@ -59,8 +62,16 @@ public class JdtLsProjectCache implements InitializableJavaProjectsService {
 	private List<Listener> listeners = new ArrayList<>();
 
 	public JdtLsProjectCache(SimpleLanguageServer server, boolean isJandexIndex) {
+		this(server, isJandexIndex, null);
+	}
+
+	/**
+	 * @param typeDataCache disk cache for type data of jar types shared by all projects or <code>null</code>
+	 */
+	public JdtLsProjectCache(SimpleLanguageServer server, boolean isJandexIndex, BinaryTypeDataCache typeDataCache) {
 		this.server = server;
 		this.IS_JANDEX_INDEX = isJandexIndex;
+		this.typeDataCache = typeDataCache;
 		this.server
 			.onInitialized(initialize())
 			.doOnSuccess((disposable) -> {
@@ -248,6 +259,13 @@ public class JdtLsProjectCache implements InitializableJavaProjectsService {
 								} else {
 									log.warn("Deleted project not removed because uri {} not found in {}", uri, table.keySet());
 								}
+							} else if (event.delta != null && table.get(uri) instanceof AbstractJavaProject) {
+								// Apply the delta to the existing project such that only data of the changed entries is indexed again.
+								// An empty delta still means jars of the classpath have been rebuilt in place.
+								log.debug("classpath delta {} for {}", event.delta, uri);
+								AbstractJavaProject project = (AbstractJavaProject) table.get(uri);
+								project.updateClasspath(new ClasspathData(event.name, event.classpath.getEntries()), event.delta);
+								notifyChanged(project);
 							} else {
 								log.debug("deleted = false");
 								URI projectUri = new URI(uri);
@@ -255,7 +273,7 @@ public class JdtLsProjectCache implements InitializableJavaProjectsService {
 								IJavaProject newProject = IS_JANDEX_INDEX
 										? new JavaProject(getFileObserver(), projectUri, classpath,
 												JdtLsProjectCache.this)
-										: new JdtLsJavaProject(server.getClient(), projectUri, classpath, JdtLsProjectCache.this);
+										: new JdtLsJavaProject(server.getClient(), projectUri, classpath, JdtLsProjectCache.this, typeDataCache);
 								IJavaProject oldProject = table.put(uri, newProject);
 								if (oldProject != null) {
 									notifyChanged(newProject);
@@ -106,6 +106,10 @@ public class BootPropertiesLanguageServerComponents implements LanguageServerCom
 					clientCapabilities);
 			this.propertiesReconciler = new SpringPropertiesReconcileEngine(indexProvider,
 					typeUtilProvider, new AppPropertiesQuickFixes(server.getQuickfixRegistry(), commonQuickfixes), sourceLinks);
+			if (projectObserver != null) {
+				SpringPropertiesReconcileEngine reconciler = this.propertiesReconciler;
+				projectObserver.addListener(ProjectObserver.onAny(project -> reconciler.invalidateReconciledDocuments()));
+			}
 			this.ymlReconciler = new ApplicationYamlReconcileEngine(parser, indexProvider, typeUtilProvider,
 					new AppYamlQuickfixes(server.getQuickfixRegistry(), server.getTextDocumentService(),
 							yamlStructureProvider, commonQuickfixes), sourceLinks);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2019 Pivotal, Inc.
+ * Copyright (c) 2016, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -53,12 +53,12 @@ import org.springframework.ide.vscode.commons.util.Streams;
 import org.springframework.ide.vscode.commons.util.StringUtil;
 import org.springframework.ide.vscode.commons.util.text.DocumentRegion;
 import org.springframework.ide.vscode.commons.util.text.IDocument;
-import org.springframework.ide.vscode.java.properties.antlr.parser.AntlrParser;
 import org.springframework.ide.vscode.java.properties.parser.ParseResults;
 import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.EmptyLine;
 import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Key;
 import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Node;
 import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Value;
+import org.springframework.ide.vscode.java.properties.scanner.ScannerParser;
 
 import com.google.common.collect.ImmutableList;
 
@@ -118,7 +118,7 @@ public class PropertiesCompletionProposalsCalculator {
 	private IDocument doc;
 	private int offset;
 	private boolean preferLowerCaseEnums;
-	private AntlrParser parser;
+	private ScannerParser parser;
 
 	public PropertiesCompletionProposalsCalculator(FuzzyMap<PropertyInfo> index, TypeUtil typeUtil, PropertyCompletionFactory completionFactory, IDocument doc, int offset, boolean preferLowerCaseEnums) {
 		this.index = index;
@@ -127,7 +127,7 @@ public class PropertiesCompletionProposalsCalculator {
 		this.doc = doc;
 		this.offset = offset;
 		this.preferLowerCaseEnums = preferLowerCaseEnums;
-		this.parser = new AntlrParser();
+		this.parser = new ScannerParser();
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018 Pivotal, Inc.
+ * Copyright (c) 2018, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,9 +17,9 @@ import org.springframework.ide.vscode.commons.util.BadLocationException;
 import org.springframework.ide.vscode.commons.util.FuzzyMap;
 import org.springframework.ide.vscode.commons.util.text.DocumentRegion;
 import org.springframework.ide.vscode.commons.util.text.IDocument;
-import org.springframework.ide.vscode.java.properties.antlr.parser.AntlrParser;
 import org.springframework.ide.vscode.java.properties.parser.ParseResults;
 import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Node;
+import org.springframework.ide.vscode.java.properties.scanner.ScannerParser;
 
 public class PropertyFinder {
 
@@ -27,14 +27,14 @@ public class PropertyFinder {
 	final TypeUtil typeUtil;
 	final IDocument doc;
 	final int offset;
-	final AntlrParser parser;
+	final ScannerParser parser;
 
 	public PropertyFinder(FuzzyMap<PropertyInfo> index, TypeUtil typeUtil, IDocument doc, int offset) {
 		this.index = index;
 		this.typeUtil = typeUtil;
 		this.doc = doc;
 		this.offset = offset;
-		this.parser = new AntlrParser();
+		this.parser = new ScannerParser();
 	}
 
 	public Node findNode() {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016-2017 Pivotal, Inc.
+ * Copyright (c) 2016, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -61,9 +61,13 @@ public class DuplicateNameChecker {
 	}
 
 	private void reportDuplicate(DocumentRegion nameRegion) throws Exception {
+		problems.accept(duplicateProblem(nameRegion));
+	}
+
+	static SpringPropertyProblem duplicateProblem(DocumentRegion nameRegion) throws Exception {
 		String decodedKey = PropertiesFileEscapes.unescape(nameRegion.toString());
-		problems.accept(problem(PROP_DUPLICATE_KEY,
-				"Duplicate property '"+decodedKey+"'", nameRegion));
+		return problem(PROP_DUPLICATE_KEY,
+				"Duplicate property '"+decodedKey+"'", nameRegion);
 	}
 
 }
@@ -0,0 +1,300 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.properties.reconcile;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.ide.vscode.boot.metadata.PropertyInfo;
+import org.springframework.ide.vscode.commons.languageserver.reconcile.IProblemCollector;
+import org.springframework.ide.vscode.commons.languageserver.reconcile.ReconcileProblem;
+import org.springframework.ide.vscode.commons.languageserver.reconcile.ReconcileProblemImpl;
+import org.springframework.ide.vscode.commons.util.FuzzyMap;
+import org.springframework.ide.vscode.commons.util.text.DocumentRegion;
+import org.springframework.ide.vscode.commons.util.text.IDocument;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAst;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.KeyValuePair;
+import org.springframework.ide.vscode.java.properties.parser.PropertiesFileEscapes;
+import org.springframework.ide.vscode.java.properties.scanner.LineScanner;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
+
+/**
+ * Reconcile state of a properties document kept between reconciles of the document. Consists of
+ * the logical lines of the text with problems found for each line and the property keys for
+ * finding duplicates.
+ * <p>
+ * When the text changes only logical lines touched by the change are parsed again. Lines before
+ * and after the change keep their problems, which are moved along with the line if the line has
+ * moved. Only the new lines need to be validated.
+ *
+ * @author Alex Boyko
+ *
+ */
+class ReconciledPropertiesDocument {
+
+	static class Line {
+
+		/**
+		 * AST node of the line with offsets as of parsing the line
+		 */
+		final PropertiesAst.Node node;
+
+		private int offset;
+		private final int length;
+
+		/**
+		 * Decoded property key or <code>null</code>
+		 */
+		private final String key;
+		private final int keyOffset;
+		private final int keyLength;
+
+		private List<ReconcileProblem> problems = ImmutableList.of();
+		private int problemsOffset;
+		private int problemsLine;
+
+		Line(String text, PropertiesAst.Node node, int offset, int length) {
+			this.node = node;
+			this.offset = offset;
+			this.length = length;
+			if (node instanceof KeyValuePair) {
+				PropertiesAst.Key keyNode = ((KeyValuePair) node).getKey();
+				this.keyOffset = keyNode.getOffset() - offset;
+				this.keyLength = keyNode.getLength();
+				this.key = decode(text.substring(keyNode.getOffset(), keyNode.getOffset() + keyNode.getLength()));
+			} else {
+				this.keyOffset = 0;
+				this.keyLength = 0;
+				this.key = null;
+			}
+		}
+
+		int getOffset() {
+			return offset;
+		}
+
+		/**
+		 * Sets problems found for the line at its current offset
+		 *
+		 * @param problems problems found for the line
+		 * @param lineNumber number of the first document line of the logical line
+		 */
+		void setProblems(List<ReconcileProblem> problems, int lineNumber) {
+			this.problems = problems;
+			this.problemsOffset = offset;
+			this.problemsLine = lineNumber;
+		}
+
+		private List<ReconcileProblem> getProblems(IDocument doc) throws Exception {
+			if (problems.isEmpty()) {
+				return problems;
+			}
+			// An edit of the same length may still add or remove line breaks before the line
+			int lineNumber = doc.getLineOfOffset(offset);
+			if (problemsOffset != offset || problemsLine != lineNumber) {
+				int offsetDelta = offset - problemsOffset;
+				int lineDelta = lineNumber - problemsLine;
+				List<ReconcileProblem> moved = new ArrayList<>(problems.size());
+				for (ReconcileProblem problem : problems) {
+					if (problem instanceof SpringPropertyProblem) {
+						moved.add(((SpringPropertyProblem) problem).move(offsetDelta, lineDelta));
+					} else {
+						ReconcileProblemImpl movedProblem = new ReconcileProblemImpl(problem.getType(), problem.getMessage(), problem.getOffset() + offsetDelta, problem.getLength());
+						problem.getQuickfixes().forEach(movedProblem::addQuickfix);
+						moved.add(movedProblem);
+					}
+				}
+				setProblems(moved, lineNumber);
+			}
+			return problems;
+		}
+
+		private static String decode(String key) {
+			try {
+				String name = PropertiesFileEscapes.unescape(key);
+				return name.isEmpty() ? null : name;
+			} catch (Exception e) {
+				return null;
+			}
+		}
+
+	}
+
+	final FuzzyMap<PropertyInfo> index;
+	private String text;
+	private final List<Line> lines = new ArrayList<>();
+	private final ListMultimap<String, Line> linesPerKey = ArrayListMultimap.create();
+	private final Set<String> duplicateKeys = new HashSet<>();
+
+	private ReconciledPropertiesDocument(FuzzyMap<PropertyInfo> index, String text) {
+		this.index = index;
+		this.text = text;
+	}
+
+	/**
+	 * Parses all lines of the text.
+	 *
+	 * @return reconcile state with all lines to be validated or <code>null</code> if the text has syntax errors
+	 */
+	static ReconciledPropertiesDocument create(FuzzyMap<PropertyInfo> index, String text) {
+		ReconciledPropertiesDocument reconciled = new ReconciledPropertiesDocument(index, text);
+		List<Line> lines = reconciled.parseLines(text, 0, text.length(), 0);
+		if (lines == null) {
+			return null;
+		}
+		reconciled.addLines(0, lines);
+		return reconciled;
+	}
+
+	List<Line> getLines() {
+		return Collections.unmodifiableList(lines);
+	}
+
+	/**
+	 * Updates the lines for the new text parsing only the logical lines touched by the change.
+	 *
+	 * @return new lines to be validated or <code>null</code> if the changed lines have syntax errors
+	 *         in which case the state is not modified
+	 */
+	List<Line> update(String newText) {
+		String oldText = text;
+		int oldLength = oldText.length();
+		int newLength = newText.length();
+		int prefix = 0;
+		int maxPrefix = Math.min(oldLength, newLength);
+		while (prefix < maxPrefix && oldText.charAt(prefix) == newText.charAt(prefix)) {
+			prefix++;
+		}
+		if (prefix == oldLength && prefix == newLength) {
+			return ImmutableList.of();
+		}
+		int suffix = 0;
+		int maxSuffix = maxPrefix - prefix;
+		while (suffix < maxSuffix && oldText.charAt(oldLength - suffix - 1) == newText.charAt(newLength - suffix - 1)) {
+			suffix++;
+		}
+		int delta = newLength - oldLength;
+
+		// Start with the line containing the char before the change, the change may join its line break with the next one
+		int first = lineIndexAt(Math.max(prefix - 1, 0));
+		int start = first < lines.size() ? lines.get(first).offset : 0;
+		List<Line> newLines = parseLines(newText, start, newLength - suffix, delta);
+		if (newLines == null) {
+			return null;
+		}
+		int end = newLines.isEmpty() ? start : newLines.get(newLines.size() - 1).offset + newLines.get(newLines.size() - 1).length;
+		// The first of the current lines following the parsed lines
+		int last = lineIndexAt(end - delta);
+
+		for (Line line : lines.subList(last, lines.size())) {
+			line.offset += delta;
+		}
+		List<Line> oldLines = lines.subList(first, last);
+		for (Line line : oldLines) {
+			if (line.key != null) {
+				linesPerKey.remove(line.key, line);
+				if (linesPerKey.get(line.key).size() < 2) {
+					duplicateKeys.remove(line.key);
+				}
+			}
+		}
+		oldLines.clear();
+		addLines(first, newLines);
+		text = newText;
+		return newLines;
+	}
+
+	/**
+	 * Parses lines of the new text starting at the given offset at least up to the change end
+	 * offset. Lines after the change end are parsed until a line starts at the same place as one
+	 * of the current lines, from there on the current lines are still valid.
+	 *
+	 * @param delta difference in length of the new and the current text
+	 * @return parsed lines or <code>null</code> if there are syntax errors
+	 */
+	private List<Line> parseLines(String newText, int start, int changeEnd, int delta) {
+		List<Line> newLines = new ArrayList<>();
+		LineScanner scanner = new LineScanner(newText, start);
+		while (scanner.hasNext()) {
+			int lineStart = scanner.getOffset();
+			if (lineStart >= changeEnd && isLineStart(lineStart - delta)) {
+				break;
+			}
+			PropertiesAst.Node node = scanner.next();
+			if (node == null) {
+				return null;
+			}
+			newLines.add(new Line(newText, node, lineStart, scanner.getOffset() - lineStart));
+		}
+		return newLines;
+	}
+
+	/**
+	 * Reports problems of all lines and duplicate keys
+	 */
+	void report(IDocument doc, IProblemCollector problemCollector) throws Exception {
+		for (Line line : lines) {
+			for (ReconcileProblem problem : line.getProblems(doc)) {
+				problemCollector.accept(problem);
+			}
+		}
+		for (String key : duplicateKeys) {
+			for (Line line : linesPerKey.get(key)) {
+				int keyStart = line.offset + line.keyOffset;
+				problemCollector.accept(DuplicateNameChecker.duplicateProblem(new DocumentRegion(doc, keyStart, keyStart + line.keyLength)));
+			}
+		}
+	}
+
+	private void addLines(int index, List<Line> newLines) {
+		lines.addAll(index, newLines);
+		for (Line line : newLines) {
+			if (line.key != null) {
+				linesPerKey.put(line.key, line);
+				if (linesPerKey.get(line.key).size() > 1) {
+					duplicateKeys.add(line.key);
+				}
+			}
+		}
+	}
+
+	private boolean isLineStart(int offset) {
+		int index = lineIndexAt(offset);
+		return index < lines.size() && lines.get(index).offset == offset;
+	}
+
+	/**
+	 * @return index of the line containing the offset or the number of lines if the offset is past the last line
+	 */
+	private int lineIndexAt(int offset) {
+		int low = 0;
+		int high = lines.size() - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			Line line = lines.get(mid);
+			if (offset < line.offset) {
+				high = mid - 1;
+			} else if (offset >= line.offset + line.length) {
+				low = mid + 1;
+			} else {
+				return mid;
+			}
+		}
+		return low;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2019 Pivotal, Inc.
+ * Copyright (c) 2014, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,6 +16,8 @@ import static org.springframework.ide.vscode.boot.properties.reconcile.Applicati
 import static org.springframework.ide.vscode.boot.properties.reconcile.SpringPropertyProblem.problem;
 import static org.springframework.ide.vscode.commons.util.StringUtil.commonPrefix;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Pattern;
 
 import org.eclipse.lsp4j.TextDocumentIdentifier;
@@ -37,6 +39,7 @@ import org.springframework.ide.vscode.commons.languageserver.quickfix.Quickfix.Q
 import org.springframework.ide.vscode.commons.languageserver.quickfix.QuickfixType;
 import org.springframework.ide.vscode.commons.languageserver.reconcile.IProblemCollector;
 import org.springframework.ide.vscode.commons.languageserver.reconcile.IReconcileEngine;
+import org.springframework.ide.vscode.commons.languageserver.reconcile.ReconcileProblem;
 import org.springframework.ide.vscode.commons.util.BadLocationException;
 import org.springframework.ide.vscode.commons.util.ExceptionUtil;
 import org.springframework.ide.vscode.commons.util.FuzzyMap;
@@ -44,12 +47,15 @@ import org.springframework.ide.vscode.commons.util.ValueParseException;
 import org.springframework.ide.vscode.commons.util.ValueParser;
 import org.springframework.ide.vscode.commons.util.text.DocumentRegion;
 import org.springframework.ide.vscode.commons.util.text.IDocument;
-import org.springframework.ide.vscode.java.properties.antlr.parser.AntlrParser;
 import org.springframework.ide.vscode.java.properties.parser.ParseResults;
 import org.springframework.ide.vscode.java.properties.parser.Parser;
 import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.KeyValuePair;
 import org.springframework.ide.vscode.java.properties.parser.PropertiesAst.Node;
 import org.springframework.ide.vscode.java.properties.parser.PropertiesFileEscapes;
+import org.springframework.ide.vscode.java.properties.scanner.ScannerParser;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 /**
  * Implements reconciling algorithm for {@link SpringPropertiesReconcileStrategy}.
@@ -75,17 +81,46 @@ public class SpringPropertiesReconcileEngine implements IReconcileEngine {
 			"(\\s|\\\\\\s)*"
 	);
 
+	private static final int MAX_RECONCILED_DOCUMENTS = 20;
+
 	private SpringPropertyIndexProvider fIndexProvider;
 	private TypeUtilProvider typeUtilProvider;
-	private Parser parser = new AntlrParser();
+	private Parser parser = new ScannerParser();
 	private AppPropertiesQuickFixes quickFixes;
 	private SourceLinks sourceLinks;
 
+	/**
+	 * Whether only lines changed since the previous reconcile of a document are validated
+	 */
+	private final boolean incremental;
+
+	/**
+	 * Reconcile state of recently reconciled documents per document URI. Problems kept for unchanged
+	 * lines depend on the types of the Java project, see {@link #invalidateReconciledDocuments()}.
+	 */
+	private final Cache<String, ReconciledPropertiesDocument> reconciledDocuments = CacheBuilder.newBuilder()
+			.maximumSize(MAX_RECONCILED_DOCUMENTS)
+			.build();
+
 	public SpringPropertiesReconcileEngine(SpringPropertyIndexProvider provider, TypeUtilProvider typeUtilProvider, AppPropertiesQuickFixes quickFixes, SourceLinks sourceLinks) {
+		this(provider, typeUtilProvider, quickFixes, sourceLinks, true);
+	}
+
+	public SpringPropertiesReconcileEngine(SpringPropertyIndexProvider provider, TypeUtilProvider typeUtilProvider, AppPropertiesQuickFixes quickFixes, SourceLinks sourceLinks, boolean incremental) {
 		this.fIndexProvider = provider;
 		this.typeUtilProvider = typeUtilProvider;
 		this.quickFixes = quickFixes;
 		this.sourceLinks = sourceLinks;
+		this.incremental = incremental;
+	}
+
+	/**
+	 * Forgets the problems kept for unchanged lines, so that the next reconcile of each document
+	 * validates all lines again. Needs to be called when Java projects change, values of enum,
+	 * class and bean reference types are checked against the types of the project.
+	 */
+	public void invalidateReconciledDocuments() {
+		reconciledDocuments.invalidateAll();
 	}
 
 	@Override
@@ -93,6 +128,11 @@ public class SpringPropertiesReconcileEngine implements IReconcileEngine {
 		FuzzyMap<PropertyInfo> index = fIndexProvider.getIndex(doc).getProperties();
 		problemCollector.beginCollecting();
 		try {
+			if (incremental && index!=null && !index.isEmpty() && reconcileIncrementally(doc, index, problemCollector)) {
+				return;
+			}
+			reconciledDocuments.invalidate(doc.getUri());
+
 			ParseResults results = parser.parse(doc.get());
 			DuplicateNameChecker duplicateNameChecker = new DuplicateNameChecker(problemCollector);
 
@@ -110,29 +150,8 @@ public class SpringPropertiesReconcileEngine implements IReconcileEngine {
 
 			results.ast.getNodes(KeyValuePair.class).forEach(pair -> {
 				try {
-					DocumentRegion propertyNameRegion = createRegion(doc, pair.getKey());
-					String keyName = PropertiesFileEscapes.unescape(propertyNameRegion.toString());
-					duplicateNameChecker.check(propertyNameRegion);
-					PropertyInfo validProperty = SpringPropertyIndex.findLongestValidProperty(index, keyName);
-					if (validProperty!=null) {
-						//TODO: Remove last remnants of 'IRegion trimmedRegion' here and replace
-						// it all with just passing around 'fullName' DocumentRegion. This may require changes
-						// in PropertyNavigator (probably these changes are also for the better making it simpler as well)
-						if (validProperty.isDeprecated()) {
-							problemCollector.accept(problemDeprecated(propertyNameRegion, validProperty, quickFixes.DEPRECATED_PROPERTY));
-						}
-						int offset = validProperty.getId().length() + propertyNameRegion.getStart();
-						PropertyNavigator navigator = new PropertyNavigator(doc, problemCollector, typeUtilProvider.getTypeUtil(sourceLinks, doc), propertyNameRegion);
-						Type valueType = navigator.navigate(offset, TypeParser.parse(validProperty.getType()));
-						if (valueType!=null) {
-							reconcileType(doc, valueType, pair.getValue(), problemCollector);
-						}
-					} else { //validProperty==null
-						//The name is invalid, with no 'prefix' of the name being a valid property name.
-						PropertyInfo similarEntry = index.findLongestCommonPrefixEntry(propertyNameRegion.toString());
-						CharSequence validPrefix = commonPrefix(similarEntry.getId(), keyName);
-						problemCollector.accept(problemUnkownProperty(propertyNameRegion, similarEntry, validPrefix, quickFixes.MISSING_PROPERTY));
-					} //end: validProperty==null
+					duplicateNameChecker.check(createRegion(doc, pair.getKey()));
+					reconcile(doc, index, pair, problemCollector);
 				} catch (Exception e) {
 					log.error("", e);
 				}
@@ -144,6 +163,85 @@ public class SpringPropertiesReconcileEngine implements IReconcileEngine {
 		}
 	}
 
+	/**
+	 * Validates only the logical lines changed since the previous reconcile of the document
+	 * and reports problems of all lines.
+	 *
+	 * @return <code>false</code> if the document has syntax errors and needs to be reconciled
+	 *         from the AST built by the parser
+	 */
+	private boolean reconcileIncrementally(IDocument doc, FuzzyMap<PropertyInfo> index, IProblemCollector problemCollector) throws Exception {
+		String text = doc.get();
+		ReconciledPropertiesDocument reconciled = reconciledDocuments.getIfPresent(doc.getUri());
+		List<ReconciledPropertiesDocument.Line> changedLines = null;
+		if (reconciled != null && reconciled.index == index) {
+			synchronized (reconciled) {
+				changedLines = reconciled.update(text);
+			}
+		}
+		if (changedLines == null) {
+			reconciled = ReconciledPropertiesDocument.create(index, text);
+			if (reconciled == null) {
+				return false;
+			}
+			changedLines = reconciled.getLines();
+			reconciledDocuments.put(doc.getUri(), reconciled);
+		}
+		synchronized (reconciled) {
+			for (ReconciledPropertiesDocument.Line line : changedLines) {
+				if (line.node instanceof KeyValuePair) {
+					List<ReconcileProblem> problems = new ArrayList<>();
+					try {
+						reconcile(doc, index, (KeyValuePair) line.node, new IProblemCollector() {
+							@Override
+							public void beginCollecting() {
+							}
+
+							@Override
+							public void endCollecting() {
+							}
+
+							@Override
+							public void accept(ReconcileProblem problem) {
+								problems.add(problem);
+							}
+						});
+					} catch (Exception e) {
+						log.error("", e);
+					}
+					line.setProblems(problems, doc.getLineOfOffset(line.getOffset()));
+				}
+			}
+			reconciled.report(doc, problemCollector);
+		}
+		return true;
+	}
+
+	private void reconcile(IDocument doc, FuzzyMap<PropertyInfo> index, KeyValuePair pair, IProblemCollector problemCollector) throws Exception {
+		DocumentRegion propertyNameRegion = createRegion(doc, pair.getKey());
+		String keyName = PropertiesFileEscapes.unescape(propertyNameRegion.toString());
+		PropertyInfo validProperty = SpringPropertyIndex.findLongestValidProperty(index, keyName);
+		if (validProperty!=null) {
+			//TODO: Remove last remnants of 'IRegion trimmedRegion' here and replace
+			// it all with just passing around 'fullName' DocumentRegion. This may require changes
+			// in PropertyNavigator (probably these changes are also for the better making it simpler as well)
+			if (validProperty.isDeprecated()) {
+				problemCollector.accept(problemDeprecated(propertyNameRegion, validProperty, quickFixes.DEPRECATED_PROPERTY));
+			}
+			int offset = validProperty.getId().length() + propertyNameRegion.getStart();
+			PropertyNavigator navigator = new PropertyNavigator(doc, problemCollector, typeUtilProvider.getTypeUtil(sourceLinks, doc), propertyNameRegion);
+			Type valueType = navigator.navigate(offset, TypeParser.parse(validProperty.getType()));
+			if (valueType!=null) {
+				reconcileType(doc, valueType, pair.getValue(), problemCollector);
+			}
+		} else { //validProperty==null
+			//The name is invalid, with no 'prefix' of the name being a valid property name.
+			PropertyInfo similarEntry = index.findLongestCommonPrefixEntry(propertyNameRegion.toString());
+			CharSequence validPrefix = commonPrefix(similarEntry.getId(), keyName);
+			problemCollector.accept(problemUnkownProperty(propertyNameRegion, similarEntry, validPrefix, quickFixes.MISSING_PROPERTY));
+		} //end: validProperty==null
+	}
+
 	protected SpringPropertyProblem problemDeprecated(DocumentRegion region, PropertyInfo property, QuickfixType fixType) {
 		SpringPropertyProblem p = problem(PROP_DEPRECATED,
 				TypeUtil.deprecatedPropertyMessage(
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2019 Pivotal, Inc.
+ * Copyright (c) 2016, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,7 +11,11 @@
 
 package org.springframework.ide.vscode.boot.properties.reconcile;
 
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
 import org.springframework.ide.vscode.boot.metadata.PropertyInfo;
+import org.springframework.ide.vscode.boot.properties.quickfix.DeprecatedPropertyData;
+import org.springframework.ide.vscode.commons.languageserver.quickfix.Quickfix.QuickfixData;
 import org.springframework.ide.vscode.commons.languageserver.reconcile.ProblemType;
 import org.springframework.ide.vscode.commons.languageserver.reconcile.ReconcileProblemImpl;
 import org.springframework.ide.vscode.commons.util.text.DocumentRegion;
@@ -46,4 +50,30 @@ public class SpringPropertyProblem extends ReconcileProblemImpl {
 		propertyName = name;
 	}
 
+	/**
+	 * Creates a copy of the problem for the text it has been reported for moved to
+	 * a different place in the document.
+	 *
+	 * @param offsetDelta number of characters the text moved by
+	 * @param lineDelta number of lines the text moved by
+	 */
+	public SpringPropertyProblem move(int offsetDelta, int lineDelta) {
+		SpringPropertyProblem p = new SpringPropertyProblem(getType(), getMessage(), getOffset() + offsetDelta, getLength());
+		p.property = property;
+		p.propertyName = propertyName;
+		for (QuickfixData<?> fix : getQuickfixes()) {
+			if (fix.params instanceof DeprecatedPropertyData) {
+				DeprecatedPropertyData data = (DeprecatedPropertyData) fix.params;
+				Range range = data.getRange();
+				Range movedRange = new Range(
+						new Position(range.getStart().getLine() + lineDelta, range.getStart().getCharacter()),
+						new Position(range.getEnd().getLine() + lineDelta, range.getEnd().getCharacter()));
+				p.addQuickfix(new QuickfixData<>(fix.type, new DeprecatedPropertyData(data.getUri(), movedRange, data.getReplacement()), fix.title));
+			} else {
+				p.addQuickfix(fix);
+			}
+		}
+		return p;
+	}
+
 }
@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.handlers.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.lsp4j.CodeLens;
+import org.eclipse.lsp4j.Command;
+import org.junit.Test;
+import org.springframework.ide.vscode.boot.java.handlers.CodeLensDispatcher;
+import org.springframework.ide.vscode.boot.java.handlers.NodeCodeLensProvider;
+import org.springframework.ide.vscode.commons.util.text.LanguageId;
+import org.springframework.ide.vscode.commons.util.text.TextDocument;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for dispatching nodes of a single AST walk to code lens providers
+ *
+ * @author Alex Boyko
+ */
+public class CodeLensDispatcherTest {
+
+	private static final String URI = "file:///demo/src/main/java/demo/Sample.java";
+
+	private static final String SOURCE =
+			"package demo;\n" +
+			"\n" +
+			"public class Sample {\n" +
+			"\n" +
+			"	public void first() {\n" +
+			"	}\n" +
+			"\n" +
+			"	@Deprecated\n" +
+			"	public void second() {\n" +
+			"	}\n" +
+			"}\n";
+
+	@Test
+	public void nodesDispatchedByType() throws Exception {
+		RecordingProvider methods = new RecordingProvider("methods", MethodDeclaration.class);
+		RecordingProvider types = new RecordingProvider("types", TypeDeclaration.class);
+		RecordingProvider none = new RecordingProvider("none");
+
+		CodeLensDispatcher dispatcher = new CodeLensDispatcher(Arrays.asList(methods, types, none));
+		TextDocument doc = new TextDocument(URI, LanguageId.JAVA, 1, SOURCE);
+
+		Supplier<List<CodeLens>> codeLenses = dispatcher.provideCodeLenses(doc, parse(SOURCE));
+
+		// Providers only told about the nodes, nothing computed until the code lenses are requested
+		assertEquals(Arrays.asList("first", "second"), methods.nodes);
+		assertEquals(Arrays.asList("Sample"), types.nodes);
+		assertEquals(1, methods.collectors);
+		assertEquals(0, none.collectors);
+		assertTrue(methods.computed.isEmpty());
+
+		assertEquals(Arrays.asList("types Sample", "methods first", "methods second"), titles(codeLenses.get()));
+		// Code lenses are computed once per document, not once per node
+		assertEquals(1, methods.computed.size());
+	}
+
+	@Test
+	public void failingProviderSkipped() throws Exception {
+		RecordingProvider methods = new RecordingProvider("methods", MethodDeclaration.class);
+		RecordingProvider failing = new RecordingProvider("failing", TypeDeclaration.class) {
+			@Override
+			protected void compute(List<String> titles) {
+				throw new IllegalStateException("Failure computing " + titles);
+			}
+		};
+		RecordingProvider types = new RecordingProvider("types", TypeDeclaration.class);
+
+		CodeLensDispatcher dispatcher = new CodeLensDispatcher(Arrays.asList(methods, failing, types));
+		TextDocument doc = new TextDocument(URI, LanguageId.JAVA, 1, SOURCE);
+
+		List<CodeLens> codeLenses = dispatcher.provideCodeLenses(doc, parse(SOURCE)).get();
+
+		assertEquals(Arrays.asList("types Sample", "methods first", "methods second"), titles(codeLenses));
+		// Code lenses are computed on the requesting thread
+		assertEquals(Collections.singletonList(Thread.currentThread().getName()), methods.threads);
+		assertEquals(Collections.singletonList(Thread.currentThread().getName()), types.threads);
+	}
+
+	private static List<String> titles(List<CodeLens> codeLenses) {
+		return codeLenses.stream().map(lens -> lens.getCommand().getTitle()).collect(Collectors.toList());
+	}
+
+	private static CompilationUnit parse(String source) {
+		ASTParser parser = ASTParser.newParser(AST.JLS11);
+		Map<String, String> options = JavaCore.getOptions();
+		JavaCore.setComplianceOptions(JavaCore.VERSION_11, options);
+		parser.setCompilerOptions(options);
+		parser.setKind(ASTParser.K_COMPILATION_UNIT);
+		parser.setResolveBindings(true);
+		parser.setEnvironment(new String[0], new String[0], null, true);
+		parser.setUnitName("/Sample.java");
+		parser.setSource(source.toCharArray());
+		return (CompilationUnit) parser.createAST(null);
+	}
+
+	private static class RecordingProvider implements NodeCodeLensProvider {
+
+		private final String name;
+		private final Collection<Class<? extends ASTNode>> nodeTypes;
+
+		volatile int collectors;
+		final List<String> nodes = Collections.synchronizedList(new ArrayList<>());
+		final List<List<String>> computed = Collections.synchronizedList(new ArrayList<>());
+		final List<String> threads = Collections.synchronizedList(new ArrayList<>());
+
+		@SafeVarargs
+		RecordingProvider(String name, Class<? extends ASTNode>... nodeTypes) {
+			this.name = name;
+			this.nodeTypes = ImmutableList.copyOf(nodeTypes);
+		}
+
+		@Override
+		public Collection<Class<? extends ASTNode>> getNodeTypes() {
+			return nodeTypes;
+		}
+
+		@Override
+		public Collector createCollector(TextDocument document) {
+			collectors++;
+			List<String> titles = new ArrayList<>();
+			return new Collector() {
+				@Override
+				public void visit(ASTNode node) {
+					String description = node instanceof MethodDeclaration ? ((MethodDeclaration) node).getName().getIdentifier()
+							: node instanceof TypeDeclaration ? ((TypeDeclaration) node).getName().getIdentifier()
+							: node.toString();
+					nodes.add(description);
+					titles.add(name + " " + description);
+				}
+
+				@Override
+				public Collection<CodeLens> computeCodeLenses() {
+					compute(titles);
+					List<CodeLens> lenses = new ArrayList<>();
+					for (String title : titles) {
+						CodeLens lens = new CodeLens();
+						lens.setCommand(new Command(title, "sts.test"));
+						lenses.add(lens);
+					}
+					return lenses;
+				}
+			};
+		}
+
+		protected void compute(List<String> titles) {
+			computed.add(titles);
+			threads.add(Thread.currentThread().getName());
+		}
+
+	}
+
+}
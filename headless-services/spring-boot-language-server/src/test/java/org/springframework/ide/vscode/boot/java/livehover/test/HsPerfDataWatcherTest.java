@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.livehover.test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.vscode.boot.java.livehover.v2.HsPerfDataWatcher;
+
+public class HsPerfDataWatcherTest {
+
+	private Path directory;
+	private HsPerfDataWatcher watcher;
+
+	@Before
+	public void setup() throws Exception {
+		directory = Files.createTempDirectory("hsperfdata_test");
+		watcher = HsPerfDataWatcher.create(directory);
+		assertNotNull(watcher);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		watcher.close();
+		Files.walk(directory).sorted((p1, p2) -> p2.compareTo(p1)).forEach(p -> p.toFile().delete());
+	}
+
+	@Test
+	public void noWatcherForMissingDirectory() throws Exception {
+		assertNull(HsPerfDataWatcher.create(directory.resolve("does-not-exist")));
+	}
+
+	@Test
+	public void timeoutWithoutChanges() throws Exception {
+		assertFalse(watcher.awaitChange(200, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void processCreatedAndTerminated() throws Exception {
+		Path perfData = directory.resolve("12345");
+
+		CompletableFuture.runAsync(() -> {
+			try {
+				Thread.sleep(100);
+				Files.createFile(perfData);
+			}
+			catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		});
+		assertTrue(watcher.awaitChange(30, TimeUnit.SECONDS));
+
+		Files.delete(perfData);
+		assertTrue(watcher.awaitChange(30, TimeUnit.SECONDS));
+
+		assertFalse(watcher.awaitChange(200, TimeUnit.MILLISECONDS));
+		assertTrue(watcher.isValid());
+	}
+
+}
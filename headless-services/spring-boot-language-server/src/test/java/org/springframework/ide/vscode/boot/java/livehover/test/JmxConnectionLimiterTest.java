@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.livehover.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorServer;
+import javax.management.remote.JMXConnectorServerFactory;
+import javax.management.remote.JMXServiceURL;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.vscode.boot.java.livehover.v2.JmxConnectionLimiter;
+
+public class JmxConnectionLimiterTest {
+
+	private JMXConnectorServer server;
+	private String jmxURL;
+
+	@Before
+	public void setup() throws Exception {
+		server = JMXConnectorServerFactory.newJMXConnectorServer(new JMXServiceURL("service:jmx:rmi://localhost"), null,
+				ManagementFactory.getPlatformMBeanServer());
+		server.start();
+		jmxURL = server.getAddress().toString();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		server.stop();
+	}
+
+	@Test
+	public void connectsAreCounted() throws Exception {
+		JmxConnectionLimiter limiter = new JmxConnectionLimiter();
+
+		JMXConnector first = limiter.connect(jmxURL);
+		JMXConnector second = limiter.connect(jmxURL);
+
+		assertNotSame(first, second);
+		assertNotNull(first.getConnectionId());
+		assertEquals(2, limiter.getMetrics().getConnectCount());
+		assertEquals(0, limiter.getMetrics().getFailureCount());
+
+		first.close();
+		second.close();
+	}
+
+	@Test
+	public void connectFailuresAreCounted() throws Exception {
+		JmxConnectionLimiter limiter = new JmxConnectionLimiter();
+		String url = jmxURL;
+		server.stop();
+
+		try {
+			limiter.connect(url);
+			fail("connecting to a stopped server should fail");
+		}
+		catch (Exception e) {
+			// expected
+		}
+
+		assertEquals(0, limiter.getMetrics().getConnectCount());
+		assertEquals(1, limiter.getMetrics().getFailureCount());
+	}
+
+	@Test
+	public void concurrentOperationsAreLimited() throws Exception {
+		JmxConnectionLimiter limiter = new JmxConnectionLimiter(2);
+
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+
+		List<CompletableFuture<Void>> operations = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			operations.add(CompletableFuture.runAsync(() -> {
+				try {
+					limiter.withPermit(() -> {
+						maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+						started.countDown();
+						Thread.sleep(50);
+						running.decrementAndGet();
+						return null;
+					});
+				}
+				catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			}));
+		}
+
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+		CompletableFuture.allOf(operations.toArray(new CompletableFuture[operations.size()])).get(30, TimeUnit.SECONDS);
+		assertTrue(maxRunning.get() <= 2);
+	}
+
+	@Test
+	public void retryDelaysBackOffWithJitter() throws Exception {
+		JmxConnectionLimiter limiter = new JmxConnectionLimiter();
+
+		for (int i = 0; i < 100; i++) {
+			long first = limiter.getRetryDelay(1000, 1);
+			assertTrue(first >= 500 && first <= 1000);
+
+			long third = limiter.getRetryDelay(1000, 3);
+			assertTrue(third >= 2000 && third <= 4000);
+
+			long late = limiter.getRetryDelay(1000, 50);
+			assertTrue(late >= 15000 && late <= 30000);
+		}
+	}
+
+}
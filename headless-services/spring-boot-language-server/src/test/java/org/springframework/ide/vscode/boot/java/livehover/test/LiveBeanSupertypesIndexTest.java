@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.livehover.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.vscode.boot.java.livehover.LiveBeanSupertypesIndex;
+import org.springframework.ide.vscode.boot.java.livehover.v2.LiveBean;
+import org.springframework.ide.vscode.boot.java.livehover.v2.LiveBeansModel;
+import org.springframework.ide.vscode.boot.java.livehover.v2.SpringProcessLiveData;
+import org.springframework.ide.vscode.commons.java.ClasspathIndex;
+import org.springframework.ide.vscode.commons.java.IJavaProject;
+import org.springframework.ide.vscode.commons.java.IType;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Tests for {@link LiveBeanSupertypesIndex} including matching injection points against a
+ * synthetic context of 5000 live beans.
+ *
+ * @author Alex Boyko
+ *
+ */
+public class LiveBeanSupertypesIndexTest {
+
+	private static final int BEAN_COUNT = 5000;
+	private static final int BEAN_TYPE_COUNT = 500;
+	private static final int INJECTION_POINT_COUNT = 200;
+
+	private final AtomicInteger lookups = new AtomicInteger();
+	private final Map<String, IType> types = new HashMap<>();
+	private IJavaProject project;
+
+	@Before
+	public void setup() throws Exception {
+		ClasspathIndex index = mock(ClasspathIndex.class);
+		when(index.allSuperTypesOf(anyString(), anyBoolean(), anyBoolean())).thenAnswer(invocation -> {
+			lookups.incrementAndGet();
+			String fqName = invocation.getArgument(0);
+			return Flux.fromIterable(supertypesOf(fqName)).map(this::type);
+		});
+		project = mock(IJavaProject.class);
+		when(project.getIndex()).thenReturn(index);
+	}
+
+	/**
+	 * Synthetic hierarchy: <code>com.example.Bean{n}</code> extends <code>com.example.Base{n % 10}</code>
+	 * and implements <code>com.example.Service{n % 50}</code>
+	 */
+	private static List<String> supertypesOf(String fqName) {
+		List<String> supertypes = new ArrayList<>();
+		supertypes.add(fqName);
+		if (fqName.startsWith("com.example.Bean")) {
+			int n = Integer.parseInt(fqName.substring("com.example.Bean".length()));
+			supertypes.add("com.example.Base" + (n % 10));
+			supertypes.add("com.example.Service" + (n % 50));
+		}
+		supertypes.add("java.lang.Object");
+		return supertypes;
+	}
+
+	private synchronized IType type(String fqName) {
+		return types.computeIfAbsent(fqName, name -> {
+			IType type = mock(IType.class);
+			when(type.getFullyQualifiedName()).thenReturn(name);
+			return type;
+		});
+	}
+
+	private static SpringProcessLiveData liveData(List<LiveBean> beans) {
+		LiveBeansModel.Builder model = LiveBeansModel.builder();
+		beans.forEach(model::add);
+		return new SpringProcessLiveData("test-app", "1", null, null, null, null, model.build(), new String[0],
+				null, null, null);
+	}
+
+	private static List<LiveBean> syntheticBeans() {
+		List<LiveBean> beans = new ArrayList<>();
+		for (int i = 0; i < BEAN_COUNT; i++) {
+			String type = "com.example.Bean" + (i % BEAN_TYPE_COUNT);
+			if (i % 3 == 0) {
+				type += "$$EnhancerBySpringCGLIB$$" + Integer.toHexString(i);
+			}
+			beans.add(LiveBean.builder().id("bean" + i).type(type).build());
+		}
+		return beans;
+	}
+
+	@Test
+	public void compatibleBeanTypes() throws Exception {
+		LiveBeanSupertypesIndex index = new LiveBeanSupertypesIndex(project);
+
+		LiveBean bean = LiveBean.builder().id("bean7").type("com.example.Bean7").build();
+		LiveBean proxy = LiveBean.builder().id("bean7Proxy").type("com.example.Bean7$$EnhancerBySpringCGLIB$$1a2b").build();
+		LiveBean generic = LiveBean.builder().id("bean7Generic").type("com.example.Bean7<java.lang.String>").build();
+
+		assertTrue(index.isCompatibleBeanType(bean, "com.example.Bean7"));
+		assertTrue(index.isCompatibleBeanType(bean, "com.example.Base7"));
+		assertTrue(index.isCompatibleBeanType(bean, "com.example.Service7"));
+		assertFalse(index.isCompatibleBeanType(bean, "com.example.Service8"));
+		assertTrue(index.isCompatibleBeanType(proxy, "com.example.Base7"));
+		assertTrue(index.isCompatibleBeanType(generic, "com.example.Service7"));
+		assertFalse(index.isCompatibleBeanType(LiveBean.builder().id("noType").build(), "java.lang.Object"));
+
+		assertEquals(1, lookups.get());
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	public void indexIsSharedPerLiveData() throws Exception {
+		SpringProcessLiveData liveData = liveData(syntheticBeans());
+
+		LiveBeanSupertypesIndex index = LiveBeanSupertypesIndex.get(project, liveData);
+		assertSame(index, LiveBeanSupertypesIndex.get(project, liveData));
+
+		// refreshed live data comes with a new index
+		assertNotSame(index, LiveBeanSupertypesIndex.get(project, liveData(syntheticBeans())));
+		// as well as other projects
+		IJavaProject otherProject = mock(IJavaProject.class);
+		assertNotSame(index, LiveBeanSupertypesIndex.get(otherProject, liveData));
+	}
+
+	@Test
+	public void eachBeanTypeLookedUpOnce() throws Exception {
+		List<LiveBean> beans = syntheticBeans();
+		SpringProcessLiveData liveData = liveData(beans);
+
+		List<String> injectionPointTypes = new ArrayList<>();
+		for (int i = 0; i < INJECTION_POINT_COUNT; i++) {
+			switch (i % 3) {
+			case 0:
+				injectionPointTypes.add("com.example.Bean" + (i % BEAN_TYPE_COUNT));
+				break;
+			case 1:
+				injectionPointTypes.add("com.example.Service" + (i % 50));
+				break;
+			default:
+				injectionPointTypes.add("com.example.Base" + (i % 10));
+			}
+		}
+
+		int matches = 0;
+		for (String injectionPointType : injectionPointTypes) {
+			LiveBeanSupertypesIndex index = LiveBeanSupertypesIndex.get(project, liveData);
+			List<LiveBean> matching = beans.stream()
+					.filter(b -> index.isCompatibleBeanType(b, injectionPointType))
+					.collect(Collectors.toList());
+			matches += matching.size();
+		}
+
+		// each distinct bean type is looked up once rather than once per bean and injection point
+		assertEquals(BEAN_TYPE_COUNT, lookups.get());
+		assertTrue(matches > 0);
+	}
+
+}
@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.livehover.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.Annotation;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.lsp4j.CodeLens;
+import org.eclipse.lsp4j.Command;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.vscode.boot.java.annotations.AnnotationHierarchyAwareLookup;
+import org.springframework.ide.vscode.boot.java.handlers.HoverProvider;
+import org.springframework.ide.vscode.boot.java.handlers.LiveHoverAnchors;
+import org.springframework.ide.vscode.boot.java.livehover.v2.SpringProcessLiveData;
+import org.springframework.ide.vscode.commons.java.IJavaProject;
+import org.springframework.ide.vscode.commons.util.text.LanguageId;
+import org.springframework.ide.vscode.commons.util.text.TextDocument;
+
+/**
+ * Tests for live hover anchors collected from an AST and evaluated for live data
+ *
+ * @author Alex Boyko
+ */
+public class LiveHoverAnchorsTest {
+
+	private static final String URI = "file:///demo/src/main/java/demo/Sample.java";
+
+	private static final String SOURCE =
+			"package demo;\n" +
+			"\n" +
+			"@interface Live {}\n" +
+			"\n" +
+			"@Live\n" +
+			"@interface MetaLive {}\n" +
+			"\n" +
+			"@interface Other {}\n" +
+			"\n" +
+			"@Live\n" +
+			"public class Sample {\n" +
+			"\n" +
+			"	@Other\n" +
+			"	private String field;\n" +
+			"\n" +
+			"	@MetaLive\n" +
+			"	public void method() {\n" +
+			"	}\n" +
+			"\n" +
+			"	static class Inner {\n" +
+			"	}\n" +
+			"}\n";
+
+	private final List<String> calls = new ArrayList<>();
+	private AnnotationHierarchyAwareLookup<HoverProvider> providers;
+
+	@Before
+	public void setup() {
+		providers = new AnnotationHierarchyAwareLookup<>();
+		providers.put("demo.Live", new RecordingProvider());
+	}
+
+	@Test
+	public void anchorsEvaluatedForNewLiveData() throws Exception {
+		TextDocument doc = new TextDocument(URI, LanguageId.JAVA, 3, SOURCE);
+		CompilationUnit cu = parse(SOURCE);
+
+		LiveHoverAnchors anchors = LiveHoverAnchors.create(cu, doc.getVersion(), providers);
+		assertEquals(3, anchors.getVersion());
+		assertFalse(anchors.isEmpty());
+
+		List<String> expected = Arrays.asList(
+				"annotation @Live 4:0",
+				"type Sample 9:0",
+				"annotation @Live 9:0",
+				"method method 15:1",
+				"annotation @MetaLive 15:1",
+				"type Inner 19:1");
+
+		SpringProcessLiveData[] liveData = new SpringProcessLiveData[0];
+		assertEquals(expected, lenses(anchors.evaluate(cu, doc, null, liveData)));
+		assertEquals(expected, calls);
+
+		// Re-evaluating for other live data with an AST parsed again for the same text
+		calls.clear();
+		assertEquals(expected, lenses(anchors.evaluate(parse(SOURCE), doc, null, liveData)));
+		assertEquals(expected, calls);
+	}
+
+	@Test
+	public void noAnchorsWithoutTypesAndAnnotationsOfInterest() throws Exception {
+		String source = "package demo;\n@interface Other {}\n@Other\nenum Values { A, B }\n";
+		TextDocument doc = new TextDocument(URI, LanguageId.JAVA, 1, source);
+		CompilationUnit cu = parse(source);
+
+		LiveHoverAnchors anchors = LiveHoverAnchors.create(cu, doc.getVersion(), providers);
+		assertTrue(anchors.isEmpty());
+		assertEquals(0, anchors.evaluate(cu, doc, null, new SpringProcessLiveData[0]).length);
+		assertTrue(calls.isEmpty());
+	}
+
+	@Test
+	public void noAnchorsForPlainClassWithoutDeclarationProviders() throws Exception {
+		AnnotationHierarchyAwareLookup<HoverProvider> annotationProviders = new AnnotationHierarchyAwareLookup<>();
+		annotationProviders.put("demo.Live", new HoverProvider() {
+			@Override
+			public Collection<CodeLens> getLiveHintCodeLenses(IJavaProject project, Annotation annotation, TextDocument doc, SpringProcessLiveData[] processLiveData) {
+				calls.add(annotation.toString());
+				return null;
+			}
+		});
+
+		String source = "package demo;\npublic class Plain {\n	public void method() {\n	}\n}\n";
+		TextDocument doc = new TextDocument(URI, LanguageId.JAVA, 1, source);
+		CompilationUnit cu = parse(source);
+
+		LiveHoverAnchors anchors = LiveHoverAnchors.create(cu, doc.getVersion(), annotationProviders);
+		assertTrue(anchors.isEmpty());
+		assertEquals(0, anchors.evaluate(cu, doc, null, new SpringProcessLiveData[0]).length);
+		assertTrue(calls.isEmpty());
+	}
+
+	private static List<String> lenses(CodeLens[] codeLenses) {
+		return Arrays.stream(codeLenses).map(lens -> lens.getCommand().getTitle()).collect(Collectors.toList());
+	}
+
+	private static CompilationUnit parse(String source) {
+		ASTParser parser = ASTParser.newParser(AST.JLS11);
+		Map<String, String> options = JavaCore.getOptions();
+		JavaCore.setComplianceOptions(JavaCore.VERSION_11, options);
+		parser.setCompilerOptions(options);
+		parser.setKind(ASTParser.K_COMPILATION_UNIT);
+		parser.setResolveBindings(true);
+		parser.setEnvironment(new String[0], new String[0], null, true);
+		parser.setUnitName("/Sample.java");
+		parser.setSource(source.toCharArray());
+		return (CompilationUnit) parser.createAST(null);
+	}
+
+	private class RecordingProvider implements HoverProvider {
+
+		@Override
+		public Collection<CodeLens> getLiveHintCodeLenses(IJavaProject project, Annotation annotation, TextDocument doc, SpringProcessLiveData[] processLiveData) {
+			return lens("annotation " + annotation.toString(), annotation);
+		}
+
+		@Override
+		public Collection<CodeLens> getLiveHintCodeLenses(IJavaProject project, TypeDeclaration typeDeclaration, TextDocument doc, SpringProcessLiveData[] processLiveData) {
+			return lens("type " + typeDeclaration.getName(), typeDeclaration);
+		}
+
+		@Override
+		public Collection<CodeLens> getLiveHintCodeLenses(IJavaProject project, MethodDeclaration methodDeclaration, TextDocument doc, SpringProcessLiveData[] processLiveData) {
+			if (methodDeclaration.isConstructor()) {
+				return null;
+			}
+			return lens("method " + methodDeclaration.getName(), methodDeclaration);
+		}
+
+		private Collection<CodeLens> lens(String description, ASTNode node) {
+			CompilationUnit cu = (CompilationUnit) node.getRoot();
+			int start = node.getStartPosition();
+			String title = description + " " + (cu.getLineNumber(start) - 1) + ":" + cu.getColumnNumber(start);
+			calls.add(title);
+			CodeLens lens = new CodeLens();
+			lens.setCommand(new Command(title, "sts.test"));
+			return Arrays.asList(lens);
+		}
+
+	}
+
+}
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.livehover.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.vscode.boot.java.livehover.v2.SpringProcessConnectorLocal;
+import org.springframework.ide.vscode.boot.java.livehover.v2.SpringProcessConnectorService;
+import org.springframework.ide.vscode.boot.java.livehover.v2.SpringProcessStatus;
+import org.springframework.ide.vscode.boot.java.livehover.v2.SpringProcessTracker;
+import org.springframework.ide.vscode.commons.languageserver.java.ProjectObserver;
+
+import com.sun.tools.attach.AttachNotSupportedException;
+import com.sun.tools.attach.VirtualMachineDescriptor;
+import com.sun.tools.attach.spi.AttachProvider;
+
+@SuppressWarnings("restriction")
+public class SpringProcessTrackerTest {
+
+	private static final int MAX_ATTACH_ATTEMPTS = SpringProcessConnectorLocal.MAX_ATTACH_ATTEMPTS;
+
+	private final List<VirtualMachineDescriptor> vms = new CopyOnWriteArrayList<>();
+	private final AtomicInteger attachAttempts = new AtomicInteger();
+	private SpringProcessConnectorLocal localConnector;
+
+	@Before
+	public void setup() throws Exception {
+		localConnector = new SpringProcessConnectorLocal(mock(SpringProcessConnectorService.class), mock(ProjectObserver.class)) {
+			@Override
+			protected List<VirtualMachineDescriptor> listVirtualMachines() {
+				return vms;
+			}
+		};
+	}
+
+	/**
+	 * a local JVM that does not accept attach requests
+	 */
+	private VirtualMachineDescriptor unattachableVM(String id) throws Exception {
+		AttachProvider provider = mock(AttachProvider.class);
+		when(provider.attachVirtualMachine(any(VirtualMachineDescriptor.class))).thenAnswer(invocation -> {
+			attachAttempts.incrementAndGet();
+			throw new AttachNotSupportedException("cannot attach to " + id);
+		});
+		return new VirtualMachineDescriptor(provider, id);
+	}
+
+	@Test
+	public void pollingDelayBacksOffWhileNothingChanges() throws Exception {
+		long delay = SpringProcessTracker.nextDelay(1000, 1000, false);
+		assertEquals(2000, delay);
+
+		delay = SpringProcessTracker.nextDelay(delay, 1000, false);
+		assertEquals(4000, delay);
+
+		delay = SpringProcessTracker.nextDelay(delay, 1000, false);
+		assertEquals(8000, delay);
+
+		// maximum backoff reached
+		delay = SpringProcessTracker.nextDelay(delay, 1000, false);
+		assertEquals(8000, delay);
+	}
+
+	@Test
+	public void pollingDelayResetWhenProcessesChange() throws Exception {
+		assertEquals(1000, SpringProcessTracker.nextDelay(8000, 1000, true));
+		assertEquals(1000, SpringProcessTracker.nextDelay(1000, 1000, true));
+	}
+
+	@Test
+	public void processIgnoredAfterMaxAttachAttempts() throws Exception {
+		vms.add(unattachableVM("4711"));
+
+		localConnector.getProcesses(true);
+		assertTrue(localConnector.hasProcessesChanged());
+		assertEquals(1, attachAttempts.get());
+
+		// processes that cannot be attached to yet are looked at again with every update
+		for (int i = 1; i < MAX_ATTACH_ATTEMPTS; i++) {
+			localConnector.getProcesses(true);
+			assertFalse(localConnector.hasProcessesChanged());
+		}
+		assertEquals(MAX_ATTACH_ATTEMPTS, attachAttempts.get());
+
+		// up to the maximum number of attempts
+		localConnector.getProcesses(true);
+		localConnector.getProcesses(true);
+		assertEquals(MAX_ATTACH_ATTEMPTS, attachAttempts.get());
+		assertEquals(1, localConnector.getProcesses(false, SpringProcessStatus.UNKNOWN).length);
+		assertEquals(0, localConnector.getProcesses(false, SpringProcessStatus.AUTO_CONNECT).length);
+	}
+
+	@Test
+	public void attachAttemptsStartOverForRestartedProcess() throws Exception {
+		vms.add(unattachableVM("4711"));
+		for (int i = 0; i < MAX_ATTACH_ATTEMPTS + 1; i++) {
+			localConnector.getProcesses(true);
+		}
+		assertEquals(MAX_ATTACH_ATTEMPTS, attachAttempts.get());
+
+		// process terminated
+		vms.clear();
+		localConnector.getProcesses(true);
+		assertTrue(localConnector.hasProcessesChanged());
+		assertEquals(0, localConnector.getProcesses(false).length);
+
+		// process with the same ID started again
+		vms.add(unattachableVM("4711"));
+		localConnector.getProcesses(true);
+		assertTrue(localConnector.hasProcessesChanged());
+		assertEquals(MAX_ATTACH_ATTEMPTS + 1, attachAttempts.get());
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2018 Pivotal, Inc.
+ * Copyright (c) 2017, 2020 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,20 +14,22 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 import java.net.URI;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import org.eclipse.lsp4j.Location;
-import org.eclipse.lsp4j.WorkspaceFolder;
 import org.junit.Test;
+import org.springframework.ide.vscode.boot.java.value.PropertyReferencesIndex;
 import org.springframework.ide.vscode.boot.java.value.ValuePropertyReferencesProvider;
+import org.springframework.ide.vscode.commons.util.FileObserver;
 import org.springframework.ide.vscode.project.harness.ProjectsHarness;
 
-import com.google.common.collect.ImmutableList;
-
 /**
  * @author Martin Lippert
  */
@@ -35,10 +37,8 @@ public class PropertyReferenceFinderTest {
 
 	@Test
 	public void testFindReferenceAtBeginningPropFile() throws Exception {
-		ValuePropertyReferencesProvider provider = new ValuePropertyReferencesProvider(null);
-
 		Path root = Paths.get(ProjectsHarness.class.getResource("/test-property-files/simple-case/").toURI());
-		List<? extends Location> locations = provider.findReferencesFromPropertyFiles(wsFolder(root), "test.property");
+		List<? extends Location> locations = provider(root).findReferencesFromPropertyFiles("test.property");
 
 		assertNotNull(locations);
 		assertEquals(1, locations.size());
@@ -52,22 +52,16 @@ public class PropertyReferenceFinderTest {
 		assertEquals(13, location.getRange().getEnd().getCharacter());
 	}
 
-	private Collection<WorkspaceFolder> wsFolder(Path directory) {
-		if (directory != null) {
-			WorkspaceFolder folder = new WorkspaceFolder();
-			folder.setName(directory.getFileName().toString());
-			folder.setUri(directory.toUri().toString());
-			return ImmutableList.of(folder);
-		}
-		return ImmutableList.of();
+	private ValuePropertyReferencesProvider provider(Path folder) {
+		PropertyReferencesIndex index = new PropertyReferencesIndex();
+		index.indexFolder(folder.toFile());
+		return new ValuePropertyReferencesProvider(index);
 	}
 
 	@Test
 	public void testFindReferenceAtBeginningYMLFile() throws Exception {
-		ValuePropertyReferencesProvider provider = new ValuePropertyReferencesProvider(null);
-
 		Path root = Paths.get(ProjectsHarness.class.getResource("/test-property-files/simple-yml/").toURI());
-		List<? extends Location> locations  = provider.findReferencesFromPropertyFiles(wsFolder(root), "test.property");
+		List<? extends Location> locations  = provider(root).findReferencesFromPropertyFiles("test.property");
 
 		assertNotNull(locations);
 		assertEquals(1, locations.size());
@@ -83,10 +77,8 @@ public class PropertyReferenceFinderTest {
 
 	@Test
 	public void testFindReferenceWithinTheDocument() throws Exception {
-		ValuePropertyReferencesProvider provider = new ValuePropertyReferencesProvider(null);
-
 		Path root = Paths.get(ProjectsHarness.class.getResource("/test-property-files/simple-case/").toURI());
-		List<? extends Location> locations = provider.findReferencesFromPropertyFiles(wsFolder(root), "server.port");
+		List<? extends Location> locations = provider(root).findReferencesFromPropertyFiles("server.port");
 
 		assertNotNull(locations);
 		assertEquals(1, locations.size());
@@ -102,10 +94,8 @@ public class PropertyReferenceFinderTest {
 
 	@Test
 	public void testFindReferenceWithinMultipleFiles() throws Exception {
-		ValuePropertyReferencesProvider provider = new ValuePropertyReferencesProvider(null);
-
 		Path root = Paths.get(ProjectsHarness.class.getResource("/test-property-files/multiple-files/").toURI());
-		List<? extends Location> locations = provider.findReferencesFromPropertyFiles(wsFolder(root), "appl1.prop");
+		List<? extends Location> locations = provider(root).findReferencesFromPropertyFiles("appl1.prop");
 
 		assertNotNull(locations);
 		assertEquals(3, locations.size());
@@ -144,10 +134,8 @@ public class PropertyReferenceFinderTest {
 
 	@Test
 	public void testFindReferenceWithinMultipleMixedFiles() throws Exception {
-		ValuePropertyReferencesProvider provider = new ValuePropertyReferencesProvider(null);
-
 		Path root = Paths.get(ProjectsHarness.class.getResource("/test-property-files/mixed-multiple-files/").toURI());
-		List<? extends Location> locations = provider.findReferencesFromPropertyFiles(wsFolder(root), "appl1.prop");
+		List<? extends Location> locations = provider(root).findReferencesFromPropertyFiles("appl1.prop");
 
 		assertNotNull(locations);
 		assertEquals(2, locations.size());
@@ -166,4 +154,56 @@ public class PropertyReferenceFinderTest {
 		assertEquals(3, location.getRange().getEnd().getLine());
 		assertEquals(6, location.getRange().getEnd().getCharacter());
 	}
+
+	@Test
+	public void testIndexUpdatedFromFileEvents() throws Exception {
+		Path root = Files.createTempDirectory("property-references");
+		Path propsFile = Files.write(root.resolve("application.properties"), "appl1.prop=1\n".getBytes());
+
+		Map<String, Consumer<String[]>> handlers = new HashMap<>();
+		FileObserver fileObserver = new FileObserver() {
+			@Override
+			public String onFilesCreated(List<String> globPattern, Consumer<String[]> handler) {
+				handlers.put("created", handler);
+				return "created";
+			}
+			@Override
+			public String onFilesChanged(List<String> globPattern, Consumer<String[]> handler) {
+				handlers.put("changed", handler);
+				return "changed";
+			}
+			@Override
+			public String onFilesDeleted(List<String> globPattern, Consumer<String[]> handler) {
+				handlers.put("deleted", handler);
+				return "deleted";
+			}
+			@Override
+			public boolean unsubscribe(String subscriptionId) {
+				return handlers.remove(subscriptionId) != null;
+			}
+		};
+		PropertyReferencesIndex index = new PropertyReferencesIndex(null, null, fileObserver);
+		index.indexFolder(root.toFile());
+		ValuePropertyReferencesProvider provider = new ValuePropertyReferencesProvider(index);
+		assertEquals(1, provider.findReferencesFromPropertyFiles("appl1.prop").size());
+
+		Files.write(propsFile, "appl2.prop=1\n".getBytes());
+		handlers.get("changed").accept(new String[] { propsFile.toUri().toString() });
+		assertEquals(0, provider.findReferencesFromPropertyFiles("appl1.prop").size());
+		assertEquals(1, provider.findReferencesFromPropertyFiles("appl2.prop").size());
+
+		Path configFolder = Files.createDirectories(root.resolve("config"));
+		Path yamlFile = Files.write(configFolder.resolve("application-dev.yml"), "appl2:\n  prop: 2\n".getBytes());
+		Path otherFile = Files.write(Files.createDirectories(root.resolve("other")).resolve("application.properties"), "appl2.prop=3\n".getBytes());
+		handlers.get("created").accept(new String[] { yamlFile.toUri().toString(), otherFile.toUri().toString() });
+		List<? extends Location> locations = provider.findReferencesFromPropertyFiles("appl2.prop");
+		assertEquals(2, locations.size());
+		assertNotNull(getLocation(locations, yamlFile.toUri()));
+
+		Files.delete(propsFile);
+		handlers.get("deleted").accept(new String[] { propsFile.toUri().toString() });
+		locations = provider.findReferencesFromPropertyFiles("appl2.prop");
+		assertEquals(1, locations.size());
+		assertEquals(yamlFile.toUri().toString(), locations.get(0).getUri());
+	}
 }
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.java.utils.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.lsp4j.Range;
+import org.junit.Test;
+import org.springframework.ide.vscode.boot.java.utils.CachedSymbol;
+import org.springframework.ide.vscode.boot.java.utils.SpringIndexerXMLNamespaceHandlerBeans;
+import org.springframework.ide.vscode.boot.java.utils.SpringIndexerXMLScanner;
+import org.springframework.ide.vscode.boot.java.utils.SpringIndexerXMLScanner.Attribute;
+import org.springframework.ide.vscode.boot.java.utils.SpringIndexerXMLScanner.Element;
+
+/**
+ * Tests for streaming elements of XML files for Spring symbol indexing
+ *
+ * @author Alex Boyko
+ */
+public class SpringIndexerXMLScannerTest {
+
+	private static final String BEANS_NAMESPACE = "http://www.springframework.org/schema/beans";
+
+	@Test
+	public void beanSymbolsOfConfigFile() throws Exception {
+		File file = new File("src/test/resources/test-projects/test-annotation-indexing-xml-project/config/simple-spring-config.xml");
+		String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+
+		assertEquals(
+				"@+ 'transactionManager' DataSourceTransactionManager 6:14-6:37\n" +
+				"@+ 'jdbcTemplate' JdbcTemplate 8:14-8:31\n" +
+				"@+ 'namedParameterJdbcTemplate' NamedParameterJdbcTemplate 12:14-12:45\n" +
+				"@+ 'persistenceExceptionTranslationPostProcessor' PersistenceExceptionTranslationPostProcessor 18:10-18:97",
+				beanSymbols(content));
+	}
+
+	@Test
+	public void beanSymbolsOfCRLFContent() throws Exception {
+		File file = new File("src/test/resources/test-projects/test-annotation-indexing-xml-project/src/main/resources/beans.xml");
+		String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).replace("\n", "\r\n");
+
+		assertEquals("@+ 'sb' SimpleBean 6:14-6:21", beanSymbols(content));
+	}
+
+	@Test
+	public void namespacesResolvedPerScope() throws Exception {
+		String content =
+				"<?xml version=\"1.0\"?>\n" +
+				"<b:beans xmlns:b=\"" + BEANS_NAMESPACE + "\" xmlns=\"urn:default\">\n" +
+				"  <b:bean id='prefixed' class=\"a.b.First\"/>\n" +
+				"  <bean id=\"other\" class=\"a.b.NotABean\"/>\n" +
+				"  <nested xmlns=\"" + BEANS_NAMESPACE + "\">\n" +
+				"    <bean class=\"a.b.Second\"></bean>\n" +
+				"  </nested>\n" +
+				"  <bean id=\"outside\" class=\"a.b.NotABean\"/>\n" +
+				"  <xml:bean/>\n" +
+				"</b:beans>\n";
+
+		List<Element> elements = elements(content);
+		assertEquals("beans bean bean nested bean bean bean", elements.stream().map(Element::getLocalName).collect(Collectors.joining(" ")));
+		assertEquals(BEANS_NAMESPACE, elements.get(0).getNamespaceURI());
+		assertEquals(BEANS_NAMESPACE, elements.get(1).getNamespaceURI());
+		assertEquals("urn:default", elements.get(2).getNamespaceURI());
+		assertEquals(BEANS_NAMESPACE, elements.get(3).getNamespaceURI());
+		assertEquals(BEANS_NAMESPACE, elements.get(4).getNamespaceURI());
+		assertEquals("urn:default", elements.get(5).getNamespaceURI());
+		assertEquals("http://www.w3.org/XML/1998/namespace", elements.get(6).getNamespaceURI());
+
+		assertEquals(
+				"@+ 'prefixed' First 2:10-2:23\n" +
+				"@+ 'second' Second 5:10-5:28",
+				beanSymbols(content));
+	}
+
+	@Test
+	public void markupOtherThanElementsSkipped() throws Exception {
+		String content =
+				"<?xml version=\"1.0\"?>\n" +
+				"<!DOCTYPE beans [\n" +
+				"  <!ENTITY bean \"<bean class='a.b.Entity'/>\">\n" +
+				"]>\n" +
+				"<beans xmlns=\"" + BEANS_NAMESPACE + "\">\n" +
+				"  <!-- <bean class=\"a.b.Comment\"/> -->\n" +
+				"  <description><![CDATA[ <bean class=\"a.b.CData\"/> ]]> 1 &lt; 2 </description>\n" +
+				"  <bean class=\"a.b.Real\" lazy-init=true/>\n" +
+				"</beans>\n";
+
+		assertEquals("@+ 'real' Real 7:8-7:24", beanSymbols(content));
+
+		Element bean = elements(content).get(2);
+		List<Attribute> attributes = bean.getAttributes();
+		assertEquals(2, attributes.size());
+		assertEquals("lazy-init", attributes.get(1).getName());
+		assertEquals("true", attributes.get(1).getValue());
+	}
+
+	@Test
+	public void malformedContentScannedToTheEnd() throws Exception {
+		String content =
+				"<beans xmlns=\"" + BEANS_NAMESPACE + "\">\n" +
+				"  <bean id=\"first\" class=\"a.b.First\"\n" +
+				"  <bean id=\"second\" class=\"a.b.Second\" abstract>\n" +
+				"  </misplaced>\n" +
+				"  <bean id=\"third\" class=\"a.b.Third";
+
+		assertEquals(
+				"@+ 'first' First 1:8-1:18\n" +
+				"@+ 'second' Second 2:8-2:19\n" +
+				"@+ 'third' Third 4:8-4:18",
+				beanSymbols(content));
+
+		Element second = elements(content).get(2);
+		Attribute noValue = second.getAttributes().get(2);
+		assertEquals("abstract", noValue.getName());
+		assertNull(noValue.getValue());
+		assertEquals(noValue.getStart() + "abstract".length(), noValue.getEnd());
+	}
+
+	private static List<Element> elements(String content) {
+		List<Element> elements = new ArrayList<>();
+		SpringIndexerXMLScanner scanner = new SpringIndexerXMLScanner(content);
+		for (Element element = scanner.next(); element != null; element = scanner.next()) {
+			elements.add(element);
+		}
+		return elements;
+	}
+
+	private static List<CachedSymbol> scanBeans(String content) throws Exception {
+		SpringIndexerXMLNamespaceHandlerBeans handler = new SpringIndexerXMLNamespaceHandlerBeans();
+		List<CachedSymbol> symbols = new ArrayList<>();
+		for (Element element : elements(content)) {
+			if (BEANS_NAMESPACE.equals(element.getNamespaceURI())) {
+				handler.processElement(element, null, "file:///beans.xml", 0, symbols);
+			}
+		}
+		return symbols;
+	}
+
+	private static String beanSymbols(String content) throws Exception {
+		return scanBeans(content).stream()
+				.map(symbol -> {
+					Range range = symbol.getEnhancedSymbol().getSymbol().getLocation().getRange();
+					return symbol.getEnhancedSymbol().getSymbol().getName() + " "
+							+ range.getStart().getLine() + ":" + range.getStart().getCharacter() + "-"
+							+ range.getEnd().getLine() + ":" + range.getEnd().getCharacter();
+				})
+				.collect(Collectors.joining("\n"));
+	}
+
+}
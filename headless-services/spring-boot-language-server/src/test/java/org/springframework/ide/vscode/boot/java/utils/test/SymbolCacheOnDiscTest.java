@@ -22,6 +22,7 @@ import java.nio.file.Paths;
 import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.io.FileUtils;
@@ -531,6 +532,55 @@ public class SymbolCacheOnDiscTest {
 		assertFalse(Files.exists(tempDir.resolve(Paths.get(key1.toString() + ".json"))));
 	}
 
+	@Test
+	public void testRetrieveUnchangedFiles() throws Exception {
+		Path file1 = Paths.get(tempDir.toAbsolutePath().toString(), "tempFile1");
+		Path file2 = Paths.get(tempDir.toAbsolutePath().toString(), "tempFile2");
+		Path file3 = Paths.get(tempDir.toAbsolutePath().toString(), "tempFile3");
+
+		Files.createFile(file1);
+		Files.createFile(file2);
+
+		FileTime timeFile1 = Files.getLastModifiedTime(file1);
+		FileTime timeFile2 = Files.getLastModifiedTime(file2);
+		String[] files = {file1.toAbsolutePath().toString(), file2.toAbsolutePath().toString()};
+
+		String doc1URI = UriUtil.toUri(file1.toFile()).toString();
+		String doc2URI = UriUtil.toUri(file2.toFile()).toString();
+
+		List<CachedSymbol> generatedSymbols = new ArrayList<>();
+
+		SymbolInformation symbol1 = new SymbolInformation("symbol1", SymbolKind.Field, new Location(doc1URI, new Range(new Position(3, 10), new Position(3, 20))));
+		SymbolInformation symbol2 = new SymbolInformation("symbol2", SymbolKind.Field, new Location(doc2URI, new Range(new Position(5, 10), new Position(5, 20))));
+
+		generatedSymbols.add(new CachedSymbol(doc1URI, timeFile1.toMillis(), new EnhancedSymbolInformation(symbol1, null)));
+		generatedSymbols.add(new CachedSymbol(doc2URI, timeFile2.toMillis(), new EnhancedSymbolInformation(symbol2, null)));
+
+		SymbolCacheKey key = new SymbolCacheKey("somekey", "1");
+		cache.store(key, files, generatedSymbols, null);
+
+		assertTrue(file2.toFile().setLastModified(timeFile2.toMillis() + 1000));
+		Files.createFile(file3);
+		String[] newFiles = {file1.toAbsolutePath().toString(), file2.toAbsolutePath().toString(), file3.toAbsolutePath().toString()};
+
+		assertNull(cache.retrieve(key, newFiles));
+
+		// the store just read by retrieve is reused rather than read from disc again
+		Path storeFile = tempDir.resolve(key.toString() + ".json");
+		byte[] storeContent = Files.readAllBytes(storeFile);
+		Files.delete(storeFile);
+		assertEquals(ImmutableSet.of(file1.toAbsolutePath().toString()), cache.retrieveUnchanged(key, newFiles).keySet());
+		Files.write(storeFile, storeContent);
+
+		Map<String, List<CachedSymbol>> unchanged = new SymbolCacheOnDisc(tempDir.toFile()).retrieveUnchanged(key, newFiles);
+		assertEquals(ImmutableSet.of(file1.toAbsolutePath().toString()), unchanged.keySet());
+		List<CachedSymbol> symbols = unchanged.get(file1.toAbsolutePath().toString());
+		assertEquals(1, symbols.size());
+		assertEquals("symbol1", symbols.get(0).getEnhancedSymbol().getSymbol().getName());
+
+		assertTrue(cache.retrieveUnchanged(new SymbolCacheKey("otherkey", "1"), newFiles).isEmpty());
+	}
+
 	@Test
 	public void testFileDeleted() throws Exception {
 		Path file1 = Paths.get(tempDir.toAbsolutePath().toString(), "tempFile1");
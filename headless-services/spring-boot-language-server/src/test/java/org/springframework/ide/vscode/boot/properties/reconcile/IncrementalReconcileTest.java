@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.vscode.boot.properties.reconcile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.vscode.boot.configurationmetadata.ConfigurationMetadataProperty;
+import org.springframework.ide.vscode.boot.configurationmetadata.Deprecation;
+import org.springframework.ide.vscode.boot.metadata.SpringPropertyIndex;
+import org.springframework.ide.vscode.boot.metadata.SpringPropertyIndexProvider;
+import org.springframework.ide.vscode.boot.metadata.ValueProviderRegistry;
+import org.springframework.ide.vscode.boot.metadata.types.TypeUtil;
+import org.springframework.ide.vscode.boot.metadata.types.TypeUtilProvider;
+import org.springframework.ide.vscode.boot.properties.quickfix.AppPropertiesQuickFixes;
+import org.springframework.ide.vscode.boot.properties.quickfix.DeprecatedPropertyData;
+import org.springframework.ide.vscode.commons.java.IJavaProject;
+import org.springframework.ide.vscode.commons.languageserver.quickfix.Quickfix.QuickfixData;
+import org.springframework.ide.vscode.commons.languageserver.reconcile.IProblemCollector;
+import org.springframework.ide.vscode.commons.languageserver.reconcile.ReconcileProblem;
+import org.springframework.ide.vscode.commons.util.text.IDocument;
+import org.springframework.ide.vscode.commons.util.text.LanguageId;
+import org.springframework.ide.vscode.commons.util.text.TextDocument;
+
+/**
+ * Tests for incremental reconciling of properties documents comparing problems with the
+ * ones found by reconciling the whole document.
+ *
+ * @author Alex Boyko
+ *
+ */
+public class IncrementalReconcileTest {
+
+	private static final String URI = "file:///demo/src/main/resources/application.properties";
+
+	private static final String TEXT =
+			"# Server settings\n" +
+			"server.port=8080\n" +
+			"server.address = localhost\n" +
+			"\n" +
+			"spring.application.name: demo\n" +
+			"unknown.property=foo\n" +
+			"server.port=bad\n" +
+			"old.property=value\n" +
+			"logging.file.name=app.log\\\n" +
+			"   .backup\n" +
+			"! other comment\r\n" +
+			"server.address=127.0.0.1\n";
+
+	private static final String[] SNIPPETS = {
+			"x", "8", "=", ":", " ", "\\", "\n", "\r\n", "#", "server.port=1\n", "old.property=new\n", "\\\n  ",
+			"spring.application.name=again\n", "unknown=", "\\u0041"
+	};
+
+	private SpringPropertyIndex index;
+	/**
+	 * Type util is looked up for the key and for the value of each validated known property
+	 */
+	private final AtomicInteger typeUtilLookups = new AtomicInteger();
+	private SpringPropertiesReconcileEngine incrementalEngine;
+	private SpringPropertiesReconcileEngine fullEngine;
+
+	@Before
+	public void setup() throws Exception {
+		index = new SpringPropertyIndex(new ValueProviderRegistry(), null);
+		index.add(property("server.port", "java.lang.Integer", null));
+		index.add(property("server.address", "java.lang.String", null));
+		index.add(property("spring.application.name", "java.lang.String", null));
+		index.add(property("logging.file.name", "java.lang.String", null));
+		index.add(property("old.property", "java.lang.String", "new.property"));
+		index.add(property("new.property", "java.lang.String", null));
+
+		SpringPropertyIndexProvider indexProvider = new SpringPropertyIndexProvider() {
+			@Override
+			public SpringPropertyIndex getIndex(IDocument doc) {
+				return index;
+			}
+
+			@Override
+			public void onChange(Runnable runnable) {
+			}
+		};
+		TypeUtilProvider countingTypeUtilProvider = (sourceLinks, doc) -> {
+			typeUtilLookups.incrementAndGet();
+			return new TypeUtil(sourceLinks, (IJavaProject) null);
+		};
+		TypeUtilProvider typeUtilProvider = (sourceLinks, doc) -> new TypeUtil(sourceLinks, (IJavaProject) null);
+		AppPropertiesQuickFixes quickFixes = mock(AppPropertiesQuickFixes.class);
+		incrementalEngine = new SpringPropertiesReconcileEngine(indexProvider, countingTypeUtilProvider, quickFixes, null, true);
+		fullEngine = new SpringPropertiesReconcileEngine(indexProvider, typeUtilProvider, quickFixes, null, false);
+	}
+
+	@Test
+	public void onlyChangedLinesValidated() throws Exception {
+		TextDocument doc = new TextDocument(URI, LanguageId.BOOT_PROPERTIES, 0, TEXT);
+		assertSameProblems(doc);
+		assertEquals(7, validatedProperties());
+
+		typeUtilLookups.set(0);
+		// Fix the value type of the second 'server.port'
+		int offset = TEXT.indexOf("bad");
+		doc.replace(offset, 3, "8081");
+		List<String> problems = assertSameProblems(doc);
+		assertEquals(1, validatedProperties());
+		assertTrue(problems.stream().noneMatch(p -> p.contains("PROP_VALUE_TYPE_MISMATCH")));
+
+		typeUtilLookups.set(0);
+		// Escape the line break joining the following empty line with the value
+		offset = doc.get().indexOf("server.address = localhost") + "server.address = localhost".length();
+		doc.replace(offset, 0, "\\");
+		assertSameProblems(doc);
+		assertEquals(1, validatedProperties());
+
+		typeUtilLookups.set(0);
+		// Removing the last line removes duplicate problems without validating any property
+		offset = doc.get().indexOf("server.address=127.0.0.1\n");
+		doc.replace(offset, "server.address=127.0.0.1\n".length(), "");
+		assertSameProblems(doc);
+		assertEquals(0, validatedProperties());
+	}
+
+	@Test
+	public void lineBreakOfSameLengthMovesProblems() throws Exception {
+		TextDocument doc = new TextDocument(URI, LanguageId.BOOT_PROPERTIES, 0, TEXT);
+		assertSameProblems(doc);
+
+		// Offsets of the following lines stay the same, their line numbers don't
+		int offset = TEXT.indexOf("foo\n") + 1;
+		doc.replace(offset, 2, "\n#");
+		List<String> problems = assertSameProblems(doc);
+		assertTrue(problems.stream().anyMatch(p -> p.contains("fix: Range [\n  start = Position [\n    line = 8")));
+	}
+
+	@Test
+	public void sameProblemsAsFullReconcile() throws Exception {
+		TextDocument doc = new TextDocument(URI, LanguageId.BOOT_PROPERTIES, 0, TEXT);
+		assertSameProblems(doc);
+		Random random = new Random(7);
+		for (int i = 0; i < 500; i++) {
+			String text = doc.get();
+			int offset = random.nextInt(text.length() + 1);
+			if (random.nextInt(3) == 0) {
+				doc.replace(offset, Math.min(random.nextInt(12), text.length() - offset), "");
+			} else {
+				doc.replace(offset, 0, SNIPPETS[random.nextInt(SNIPPETS.length)]);
+			}
+			assertSameProblems(doc);
+		}
+	}
+
+	@Test
+	public void indexChangeRevalidatesAllLines() throws Exception {
+		TextDocument doc = new TextDocument(URI, LanguageId.BOOT_PROPERTIES, 0, TEXT);
+		assertSameProblems(doc);
+
+		SpringPropertyIndex newIndex = new SpringPropertyIndex(new ValueProviderRegistry(), null);
+		newIndex.add(property("server.port", "java.lang.String", null));
+		index = newIndex;
+		typeUtilLookups.set(0);
+		List<String> problems = assertSameProblems(doc);
+		assertEquals(2, validatedProperties());
+		assertTrue(problems.stream().noneMatch(p -> p.contains("PROP_VALUE_TYPE_MISMATCH")));
+	}
+
+	@Test
+	public void projectChangeRevalidatesAllLines() throws Exception {
+		TextDocument doc = new TextDocument(URI, LanguageId.BOOT_PROPERTIES, 0, TEXT);
+		assertSameProblems(doc);
+
+		incrementalEngine.invalidateReconciledDocuments();
+		typeUtilLookups.set(0);
+		assertSameProblems(doc);
+		assertEquals(7, validatedProperties());
+	}
+
+	private int validatedProperties() {
+		return typeUtilLookups.get() / 2;
+	}
+
+	private List<String> assertSameProblems(TextDocument doc) throws Exception {
+		List<String> expected = reconcile(fullEngine, doc);
+		List<String> actual = reconcile(incrementalEngine, doc);
+		assertEquals("Text: '" + doc.get() + "'", expected, actual);
+		return actual;
+	}
+
+	private static List<String> reconcile(SpringPropertiesReconcileEngine engine, TextDocument doc) {
+		List<String> problems = new ArrayList<>();
+		engine.reconcile(doc, new IProblemCollector() {
+			@Override
+			public void beginCollecting() {
+				problems.clear();
+			}
+
+			@Override
+			public void endCollecting() {
+			}
+
+			@Override
+			public void accept(ReconcileProblem problem) {
+				StringBuilder description = new StringBuilder();
+				description.append(problem.getCode() + " " + problem.getOffset() + ":" + problem.getLength() + " " + problem.getMessage());
+				for (QuickfixData<?> fix : problem.getQuickfixes()) {
+					if (fix.params instanceof DeprecatedPropertyData) {
+						description.append(" fix: " + ((DeprecatedPropertyData) fix.params).getRange());
+					}
+				}
+				problems.add(description.toString());
+			}
+		});
+		Collections.sort(problems);
+		return problems;
+	}
+
+	private static ConfigurationMetadataProperty property(String id, String type, String replacement) {
+		ConfigurationMetadataProperty property = new ConfigurationMetadataProperty();
+		property.setId(id);
+		property.setType(type);
+		if (replacement != null) {
+			Deprecation deprecation = new Deprecation();
+			deprecation.setReplacement(replacement);
+			property.setDeprecation(deprecation);
+		}
+		return property;
+	}
+
+}
@@ -8,7 +8,8 @@ export function registerClasspathService(client : LanguageClient) : void {
 
     let addRequest = new RequestType<ClasspathListenerParams, ClasspathListenerResponse, void, void>("sts/addClasspathListener");
     client.onRequest(addRequest, async (params: ClasspathListenerParams) => {
-        return <ClasspathListenerResponse> await VSCode.commands.executeCommand("java.execute.workspaceCommand", "sts.java.addClasspathListener", params.callbackCommandId);
+        // VSCode keeps receiving one notification per project: 'batched' is always false
+        return <ClasspathListenerResponse> await VSCode.commands.executeCommand("java.execute.workspaceCommand", "sts.java.addClasspathListener", params.callbackCommandId, false, params.delta);
     });
 
     let removeRequest = new RequestType<ClasspathListenerParams, ClasspathListenerResponse, void, void>("sts/removeClasspathListener");
@@ -20,6 +21,7 @@ export function registerClasspathService(client : LanguageClient) : void {
 
 interface ClasspathListenerParams {
     callbackCommandId: string
+    delta?: boolean
 }
 
 interface ClasspathListenerResponse {
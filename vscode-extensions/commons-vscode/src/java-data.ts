@@ -8,6 +8,11 @@ export function registerJavaDataService(client : LanguageClient) : void {
         <any> await VSCode.commands.executeCommand("java.execute.workspaceCommand", "sts.java.type", params)
     );
 
+    const javaTypesRequest = new RequestType<JavaDataParams[], any, void, void>("sts/javaTypes");
+    client.onRequest(javaTypesRequest, async (params: JavaDataParams[]) =>
+        <any> await VSCode.commands.executeCommand("java.execute.workspaceCommand", "sts.java.types", params)
+    );
+
     const javadocHoverLinkRequest = new RequestType<JavaDataParams, any, void, void>("sts/javadocHoverLink");
     client.onRequest(javadocHoverLinkRequest, async (params: JavaDataParams) =>
         <any> await VSCode.commands.executeCommand("java.execute.workspaceCommand", "sts.java.javadocHoverLink", params)